@@ -30,13 +30,14 @@ import org.hibernate.search.annotations.IndexedEmbedded;
 import org.hibernate.search.annotations.TokenFilterDef;
 import org.hibernate.search.annotations.TokenizerDef;
 import org.openmrs.api.ConceptNameType;
+import org.openmrs.api.db.hibernate.search.DeferrableIndexingInterceptor;
 import org.openmrs.api.db.hibernate.search.bridge.LocaleFieldBridge;
 
 /**
  * ConceptName is the real world term used to express a Concept within the idiom of a particular
  * locale.
  */
-@Indexed
+@Indexed(interceptor = DeferrableIndexingInterceptor.class)
 @AnalyzerDef(name = "ConceptNameAnalyzer", tokenizer = @TokenizerDef(factory = StandardTokenizerFactory.class), filters = {
         @TokenFilterDef(factory = StandardFilterFactory.class), @TokenFilterDef(factory = LowerCaseFilterFactory.class) })
 @Analyzer(definition = "ConceptNameAnalyzer")
@@ -399,6 +399,7 @@ public class Location extends BaseCustomizableMetadata<LocationAttribute> implem
 	 * @param includeRetired specifies whether or not to include voided childLocations
 	 * @return Returns a Set&lt;Location&gt; of the descendant location.
 	 * @since 1.10
+	 * @see org.openmrs.api.LocationService#getDescendantLocations(Location, boolean)
 	 */
 	public Set<Location> getDescendantLocations(boolean includeRetired) {
 		Set<Location> result = new HashSet<>();
@@ -466,6 +467,7 @@ public class Location extends BaseCustomizableMetadata<LocationAttribute> implem
 	 * <strong>Should</strong> return true given location that is already somewhere in hierarchy
 	 * <strong>Should</strong> return false given location that is not in hierarchy
 	 * <strong>Should</strong> should find location in hierarchy
+	 * @see org.openmrs.api.LocationService#isInHierarchy(Location, Location)
 	 */
 	public static Boolean isInHierarchy(Location location, Location root) {
 		if (root == null) {
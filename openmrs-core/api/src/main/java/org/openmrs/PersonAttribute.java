@@ -24,6 +24,7 @@ import org.hibernate.search.annotations.Fields;
 import org.hibernate.search.annotations.Indexed;
 import org.hibernate.search.annotations.IndexedEmbedded;
 import org.openmrs.api.context.Context;
+import org.openmrs.api.db.hibernate.search.DeferrableIndexingInterceptor;
 import org.openmrs.api.db.hibernate.search.LuceneAnalyzers;
 import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.util.OpenmrsUtil;
@@ -41,7 +42,7 @@ import org.slf4j.LoggerFactory;
  * @see org.openmrs.PersonAttributeType
  * @see org.openmrs.Attributable
  */
-@Indexed
+@Indexed(interceptor = DeferrableIndexingInterceptor.class)
 public class PersonAttribute extends BaseChangeableOpenmrsData implements java.io.Serializable, Comparable<PersonAttribute> {
 	
 	public static final long serialVersionUID = 11231211232111L;
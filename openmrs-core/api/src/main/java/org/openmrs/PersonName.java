@@ -27,6 +27,7 @@ import org.hibernate.search.annotations.Fields;
 import org.hibernate.search.annotations.Indexed;
 import org.hibernate.search.annotations.IndexedEmbedded;
 import org.openmrs.api.APIException;
+import org.openmrs.api.db.hibernate.search.DeferrableIndexingInterceptor;
 import org.openmrs.api.db.hibernate.search.LuceneAnalyzers;
 import org.openmrs.layout.name.NameSupport;
 import org.openmrs.layout.name.NameTemplate;
@@ -39,7 +40,7 @@ import org.springframework.util.StringUtils;
 /**
  * A Person can have zero to n PersonName(s).
  */
-@Indexed
+@Indexed(interceptor = DeferrableIndexingInterceptor.class)
 public class PersonName extends BaseChangeableOpenmrsData implements java.io.Serializable, Cloneable, Comparable<PersonName> {
 	
 	public static final long serialVersionUID = 4353L;
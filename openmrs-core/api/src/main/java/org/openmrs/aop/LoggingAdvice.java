@@ -12,9 +12,11 @@ package org.openmrs.aop;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.lang3.StringUtils;
 import org.openmrs.User;
 import org.openmrs.annotation.Logging;
 import org.openmrs.api.context.Context;
@@ -26,7 +28,10 @@ import org.slf4j.LoggerFactory;
 /**
  * This class provides the log4j aop around advice for our service layer. This advice is placed on
  * all services and daos via the spring application context. See
- * /metadata/api/spring/applicationContext.xml
+ * /metadata/api/spring/applicationContext.xml<br>
+ * <br>
+ * It also records the duration and outcome of every call in {@link ServiceMethodMetrics}, calls
+ * slower than the configured threshold are captured with their arguments.
  */
 public class LoggingAdvice implements MethodInterceptor {
 	
@@ -42,6 +47,13 @@ public class LoggingAdvice implements MethodInterceptor {
 	 */
 	private final Logger log = LoggerFactory.getLogger(OpenmrsConstants.LOG_CLASS_DEFAULT);
 	
+	/**
+	 * The maximum length of the arguments captured with a slow call
+	 */
+	private static final int MAX_SLOW_CALL_ARGUMENTS_LENGTH = 1000;
+	
+	private final ServiceMethodMetrics metrics = ServiceMethodMetrics.getInstance();
+	
 	/**
 	 * This method prints out trace statements for getters and debug statements for everything else
 	 * ("setters"). If debugging is turned on, execution time for each method is printed as well.
@@ -63,6 +75,9 @@ public class LoggingAdvice implements MethodInterceptor {
 		
 		// used for the execution time calculations
 		long startTime = System.currentTimeMillis();
+		long startNanos = System.nanoTime();
+		// until the method returns, so that errors count as failures too
+		boolean failed = true;
 		
 		// check if this method has the logging annotation on it
 		Logging loggingAnnotation = null;
@@ -80,34 +95,8 @@ public class LoggingAdvice implements MethodInterceptor {
 			
 			// print the argument values unless we're ignoring all
 			if (loggingAnnotation == null || !loggingAnnotation.ignoreAllArgumentValues()) {
-				
-				int x;
-				Class<?>[] types = method.getParameterTypes();
-				Object[] values = invocation.getArguments();
-				
-				// change the annotation array of indexes to a list of indexes to ignore
-				List<Integer> argsToIgnore = new ArrayList<>();
-				if (loggingAnnotation != null && loggingAnnotation.ignoredArgumentIndexes().length > 0) {
-					for (int argIndexToIgnore : loggingAnnotation.ignoredArgumentIndexes()) {
-						argsToIgnore.add(argIndexToIgnore);
-					}
-				}
-				
-				// loop over and print out each argument value
 				output.append(". Arguments: ");
-				for (x = 0; x < types.length; x++) {
-					output.append(types[x].getSimpleName()).append("=");
-					
-					// if there is an annotation to skip this, print out a bogus string.
-					if (argsToIgnore.contains(x)) {
-						output.append("<Arg value ignored>");
-					} else {
-						output.append(values[x]);
-					}
-					
-					output.append(", ");
-				}
-				
+				appendArguments(output, method, invocation.getArguments(), loggingAnnotation);
 			}
 			
 			// print the string as either trace or debug
@@ -118,9 +107,12 @@ public class LoggingAdvice implements MethodInterceptor {
 			}
 		}
 		
+		Method outerMethod = metrics.enterMethod(method);
 		try {
 			// do the actual method we're wrapped around
-			return invocation.proceed();
+			Object result = invocation.proceed();
+			failed = false;
+			return result;
 		}
 		catch (Exception e) {
 			if (logGetter || logSetter) {
@@ -141,13 +133,26 @@ public class LoggingAdvice implements MethodInterceptor {
 			throw e;
 		}
 		finally {
+			long elapsedNanos = System.nanoTime() - startNanos;
+			metrics.exitMethod(outerMethod);
+			metrics.record(method, elapsedNanos, failed);
+			if (metrics.isSlowCall(elapsedNanos)) {
+				try {
+					captureSlowCall(invocation, startTime, elapsedNanos, failed);
+				}
+				catch (RuntimeException e) {
+					// e.g. an argument which cannot be printed outside of its session, never fail the call
+					log.debug("Unable to capture the slow call of {}", name, e);
+				}
+			}
+			
 			if (logGetter || logSetter) {
 				StringBuilder output = new StringBuilder();
 				output.append("Exiting method ").append(name);
 				
 				// only append execution time info if we're in debug mode
 				if (log.isDebugEnabled()) {
-					output.append(". execution time: ").append(System.currentTimeMillis() - startTime).append(" ms");
+					output.append(". execution time: ").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append(" ms");
 				}
 				
 				// print the string as either trace or debug
@@ -160,4 +165,56 @@ public class LoggingAdvice implements MethodInterceptor {
 		}
 		
 	}
+	
+	private void captureSlowCall(MethodInvocation invocation, long startTime, long elapsedNanos, boolean failed) {
+		Method method = invocation.getMethod();
+		Logging loggingAnnotation = method.getAnnotation(Logging.class);
+		String arguments;
+		if (loggingAnnotation != null && (loggingAnnotation.ignore() || loggingAnnotation.ignoreAllArgumentValues())) {
+			arguments = "<Arg values ignored>";
+		} else {
+			StringBuilder output = new StringBuilder();
+			appendArguments(output, method, invocation.getArguments(), loggingAnnotation);
+			arguments = StringUtils.abbreviate(output.toString(), MAX_SLOW_CALL_ARGUMENTS_LENGTH);
+		}
+		
+		String username = null;
+		if (Context.isSessionOpen()) {
+			User user = Context.getUserContext().getAuthenticatedUser();
+			if (user != null) {
+				username = user.getUsername() != null ? user.getUsername() : user.getSystemId();
+			}
+		}
+		metrics.addSlowCall(method, startTime, elapsedNanos, arguments, username, failed);
+	}
+	
+	/**
+	 * Appends the types and values of the arguments, the values of the arguments excluded by the
+	 * {@link Logging} annotation are replaced by a bogus string
+	 */
+	private void appendArguments(StringBuilder output, Method method, Object[] values, Logging loggingAnnotation) {
+		Class<?>[] types = method.getParameterTypes();
+		
+		// change the annotation array of indexes to a list of indexes to ignore
+		List<Integer> argsToIgnore = new ArrayList<>();
+		if (loggingAnnotation != null && loggingAnnotation.ignoredArgumentIndexes().length > 0) {
+			for (int argIndexToIgnore : loggingAnnotation.ignoredArgumentIndexes()) {
+				argsToIgnore.add(argIndexToIgnore);
+			}
+		}
+		
+		// loop over and print out each argument value
+		for (int x = 0; x < types.length; x++) {
+			output.append(types[x].getSimpleName()).append("=");
+			
+			// if there is an annotation to skip this, print out a bogus string.
+			if (argsToIgnore.contains(x)) {
+				output.append("<Arg value ignored>");
+			} else {
+				output.append(values[x]);
+			}
+			
+			output.append(", ");
+		}
+	}
 }
@@ -0,0 +1,363 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.aop;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.util.ConcurrentRingBuffer;
+import org.openmrs.util.LatencyHistogram;
+import org.openmrs.util.OpenmrsConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the call count, error count and latency histogram of every service method called through
+ * {@link LoggingAdvice}, and optionally the most recent calls slower than the threshold set with
+ * {@link OpenmrsConstants#GP_SLOW_SERVICE_CALL_THRESHOLD}. Recording a call does not lock, the
+ * statistics can be read with {@link org.openmrs.api.AdministrationService#getServiceMethodStatistics()}
+ * or through JMX under {@link #OBJECT_NAME}.
+ *
+ * @since 2.6.0
+ */
+public class ServiceMethodMetrics implements ServiceMethodMetricsMXBean, GlobalPropertyListener {
+
+	private static final Logger log = LoggerFactory.getLogger(ServiceMethodMetrics.class);
+
+	/**
+	 * The name of the MBean exposing the metrics
+	 */
+	public static final String OBJECT_NAME = "org.openmrs:type=ServiceMethodMetrics";
+
+	/**
+	 * The number of slow calls kept when the global property does not set it
+	 */
+	public static final int DEFAULT_SLOW_CALL_SAMPLE_SIZE = 100;
+
+	private static final Comparator<ServiceMethodStatistics> TOTAL_TIME_ORDER = Comparator
+	        .comparingDouble(ServiceMethodStatistics::getTotalTime).reversed();
+
+	private static final ServiceMethodMetrics instance = new ServiceMethodMetrics();
+
+	private final ConcurrentMap<Method, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+	private final ConcurrentRingBuffer<SlowServiceCall> slowCalls = new ConcurrentRingBuffer<>(
+	        DEFAULT_SLOW_CALL_SAMPLE_SIZE);
+
+	private volatile long slowCallThresholdNanos = -1;
+
+	private final ThreadLocal<Method> currentMethod = new ThreadLocal<>();
+
+	ServiceMethodMetrics() {
+	}
+
+	/**
+	 * @return the metrics of the service methods
+	 */
+	public static ServiceMethodMetrics getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Records a call of a service method
+	 *
+	 * @param method the called method
+	 * @param elapsedNanos the duration of the call in nanoseconds
+	 * @param failed whether the call threw an exception
+	 */
+	public void record(Method method, long elapsedNanos, boolean failed) {
+		MethodMetrics methodMetrics = metrics.get(method);
+		if (methodMetrics == null) {
+			methodMetrics = metrics.computeIfAbsent(method, MethodMetrics::new);
+		}
+		methodMetrics.histogram.record(elapsedNanos);
+		if (failed) {
+			methodMetrics.errors.increment();
+		}
+	}
+
+	/**
+	 * Marks the start of a service method call on the current thread
+	 *
+	 * @param method the called method
+	 * @return the method which was being called on the current thread, to pass to
+	 *         {@link #exitMethod(Method)} when the call ends
+	 */
+	public Method enterMethod(Method method) {
+		Method outer = currentMethod.get();
+		currentMethod.set(method);
+		return outer;
+	}
+
+	/**
+	 * Marks the end of a service method call on the current thread
+	 *
+	 * @param outer the method returned by {@link #enterMethod(Method)}
+	 */
+	public void exitMethod(Method outer) {
+		if (outer == null) {
+			currentMethod.remove();
+		} else {
+			currentMethod.set(outer);
+		}
+	}
+
+	/**
+	 * @return the innermost service method being called on the current thread, e.g.
+	 *         org.openmrs.api.PatientService.getPatient(Integer), null if none
+	 */
+	public String getCurrentMethodName() {
+		Method method = currentMethod.get();
+		return method == null ? null : method.getDeclaringClass().getName() + "." + getMethodName(method);
+	}
+
+	/**
+	 * @param elapsedNanos the duration of a call in nanoseconds
+	 * @return true if a call which took that long has to be captured with
+	 *         {@link #addSlowCall(Method, long, long, String, String, boolean)}
+	 */
+	public boolean isSlowCall(long elapsedNanos) {
+		long threshold = slowCallThresholdNanos;
+		return threshold >= 0 && elapsedNanos >= threshold && slowCalls.getCapacity() > 0;
+	}
+
+	/**
+	 * Captures a slow call, only the most recent slow calls are kept
+	 *
+	 * @param method the called method
+	 * @param startTime when the call started in milliseconds since the epoch
+	 * @param elapsedNanos the duration of the call in nanoseconds
+	 * @param arguments the argument values to show
+	 * @param username the user who made the call
+	 * @param failed whether the call threw an exception
+	 */
+	public void addSlowCall(Method method, long startTime, long elapsedNanos, String arguments, String username,
+	        boolean failed) {
+		slowCalls.add(new SlowServiceCall(method.getDeclaringClass().getName(), getMethodName(method), new Date(
+		        startTime), toMillis(elapsedNanos), arguments, username, Thread.currentThread().getName(), failed));
+	}
+
+	/**
+	 * @see ServiceMethodMetricsMXBean#getStatistics()
+	 */
+	@Override
+	public List<ServiceMethodStatistics> getStatistics() {
+		List<ServiceMethodStatistics> ret = new ArrayList<>(metrics.size());
+		for (MethodMetrics methodMetrics : metrics.values()) {
+			ret.add(new ServiceMethodStatistics(methodMetrics.serviceName, methodMetrics.methodName, methodMetrics.errors
+			        .sum(), methodMetrics.histogram));
+		}
+		ret.sort(TOTAL_TIME_ORDER);
+		return ret;
+	}
+
+	/**
+	 * @see ServiceMethodMetricsMXBean#getSlowCalls()
+	 */
+	@Override
+	public List<SlowServiceCall> getSlowCalls() {
+		List<SlowServiceCall> ret = slowCalls.snapshot();
+		Collections.reverse(ret);
+		return ret;
+	}
+
+	/**
+	 * @see ServiceMethodMetricsMXBean#getSlowCallThreshold()
+	 */
+	@Override
+	public long getSlowCallThreshold() {
+		long threshold = slowCallThresholdNanos;
+		return threshold < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(threshold);
+	}
+
+	/**
+	 * @param threshold the duration in milliseconds above which calls are captured, negative to not
+	 *            capture slow calls
+	 */
+	public void setSlowCallThreshold(long threshold) {
+		slowCallThresholdNanos = threshold < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(threshold);
+	}
+
+	/**
+	 * @return the maximum number of slow calls kept
+	 */
+	public int getSlowCallSampleSize() {
+		return slowCalls.getCapacity();
+	}
+
+	/**
+	 * @param sampleSize the maximum number of slow calls kept
+	 */
+	public void setSlowCallSampleSize(int sampleSize) {
+		slowCalls.resize(sampleSize);
+	}
+
+	/**
+	 * @see ServiceMethodMetricsMXBean#reset()
+	 */
+	@Override
+	public void reset() {
+		metrics.clear();
+		slowCalls.clear();
+	}
+
+	/**
+	 * Applies the values of the global properties configuring the slow calls
+	 *
+	 * @param threshold the value of {@link OpenmrsConstants#GP_SLOW_SERVICE_CALL_THRESHOLD}
+	 * @param sampleSize the value of {@link OpenmrsConstants#GP_SLOW_SERVICE_CALL_SAMPLE_SIZE}
+	 */
+	public void configure(String threshold, String sampleSize) {
+		applySlowCallThreshold(threshold);
+		applySlowCallSampleSize(sampleSize);
+	}
+
+	private void applySlowCallThreshold(String threshold) {
+		if (StringUtils.isBlank(threshold)) {
+			setSlowCallThreshold(-1);
+			return;
+		}
+		try {
+			setSlowCallThreshold(Long.parseLong(threshold.trim()));
+		}
+		catch (NumberFormatException e) {
+			log.warn("Invalid value for global property {}: {}", OpenmrsConstants.GP_SLOW_SERVICE_CALL_THRESHOLD, threshold);
+		}
+	}
+
+	private void applySlowCallSampleSize(String sampleSize) {
+		if (StringUtils.isBlank(sampleSize)) {
+			setSlowCallSampleSize(DEFAULT_SLOW_CALL_SAMPLE_SIZE);
+			return;
+		}
+		try {
+			setSlowCallSampleSize(Integer.parseInt(sampleSize.trim()));
+		}
+		catch (IllegalArgumentException e) {
+			log.warn("Invalid value for global property {}: {}", OpenmrsConstants.GP_SLOW_SERVICE_CALL_SAMPLE_SIZE,
+			    sampleSize);
+		}
+	}
+
+	/**
+	 * @see GlobalPropertyListener#supportsPropertyName(String)
+	 */
+	@Override
+	public boolean supportsPropertyName(String propertyName) {
+		return OpenmrsConstants.GP_SLOW_SERVICE_CALL_THRESHOLD.equals(propertyName)
+		        || OpenmrsConstants.GP_SLOW_SERVICE_CALL_SAMPLE_SIZE.equals(propertyName);
+	}
+
+	/**
+	 * @see GlobalPropertyListener#globalPropertyChanged(GlobalProperty)
+	 */
+	@Override
+	public void globalPropertyChanged(GlobalProperty newValue) {
+		if (OpenmrsConstants.GP_SLOW_SERVICE_CALL_THRESHOLD.equals(newValue.getProperty())) {
+			applySlowCallThreshold(newValue.getPropertyValue());
+		} else {
+			applySlowCallSampleSize(newValue.getPropertyValue());
+		}
+	}
+
+	/**
+	 * @see GlobalPropertyListener#globalPropertyDeleted(String)
+	 */
+	@Override
+	public void globalPropertyDeleted(String propertyName) {
+		if (OpenmrsConstants.GP_SLOW_SERVICE_CALL_THRESHOLD.equals(propertyName)) {
+			applySlowCallThreshold(null);
+		} else {
+			applySlowCallSampleSize(null);
+		}
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server, replacing the ones registered by a
+	 * previous application context
+	 */
+	public void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+		}
+		catch (JMException | RuntimeException e) {
+			log.warn("Unable to register the service method metrics with JMX", e);
+		}
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server
+	 */
+	public void unregisterMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		}
+		catch (JMException | RuntimeException e) {
+			log.warn("Unable to unregister the service method metrics from JMX", e);
+		}
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	static String getMethodName(Method method) {
+		StringBuilder ret = new StringBuilder(method.getName()).append('(');
+		Class<?>[] types = method.getParameterTypes();
+		for (int i = 0; i < types.length; i++) {
+			if (i > 0) {
+				ret.append(", ");
+			}
+			ret.append(types[i].getSimpleName());
+		}
+		return ret.append(')').toString();
+	}
+
+	private static class MethodMetrics {
+
+		private final String serviceName;
+
+		private final String methodName;
+
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		private final LongAdder errors = new LongAdder();
+
+		private MethodMetrics(Method method) {
+			this.serviceName = method.getDeclaringClass().getName();
+			this.methodName = getMethodName(method);
+		}
+	}
+}
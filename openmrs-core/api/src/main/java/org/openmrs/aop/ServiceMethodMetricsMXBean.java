@@ -0,0 +1,42 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.aop;
+
+import java.util.List;
+
+/**
+ * JMX view of the service method metrics, registered as {@link ServiceMethodMetrics#OBJECT_NAME}.
+ *
+ * @since 2.6.0
+ */
+public interface ServiceMethodMetricsMXBean {
+
+	/**
+	 * @return the statistics of every called service method, the ones with the highest total time
+	 *         first
+	 */
+	List<ServiceMethodStatistics> getStatistics();
+
+	/**
+	 * @return the most recent slow calls, the latest first
+	 */
+	List<SlowServiceCall> getSlowCalls();
+
+	/**
+	 * @return the duration in milliseconds above which calls are captured as slow calls, negative
+	 *         when slow calls are not captured
+	 */
+	long getSlowCallThreshold();
+
+	/**
+	 * Forgets all the statistics and slow calls
+	 */
+	void reset();
+}
@@ -0,0 +1,145 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.aop;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.util.LatencyHistogram;
+
+/**
+ * Snapshot of the call count, error count and latency distribution of a service method. Durations
+ * are in milliseconds, percentiles are estimated from a {@link LatencyHistogram}.
+ *
+ * @see ServiceMethodMetrics
+ * @since 2.6.0
+ */
+public class ServiceMethodStatistics {
+
+	private final String serviceName;
+
+	private final String methodName;
+
+	private final long callCount;
+
+	private final long errorCount;
+
+	private final double totalTime;
+
+	private final double maxTime;
+
+	private final double medianTime;
+
+	private final double percentile90Time;
+
+	private final double percentile99Time;
+
+	private final long[] latencyBucketCounts;
+
+	ServiceMethodStatistics(String serviceName, String methodName, long errorCount, LatencyHistogram histogram) {
+		this.serviceName = serviceName;
+		this.methodName = methodName;
+		this.errorCount = errorCount;
+		this.callCount = histogram.getCount();
+		this.totalTime = toMillis(histogram.getTotalNanos());
+		this.maxTime = toMillis(histogram.getMaxNanos());
+		this.medianTime = toMillis(histogram.getPercentileNanos(50));
+		this.percentile90Time = toMillis(histogram.getPercentileNanos(90));
+		this.percentile99Time = toMillis(histogram.getPercentileNanos(99));
+		this.latencyBucketCounts = histogram.getBucketCounts();
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * @return the fully qualified name of the service interface declaring the method
+	 */
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	/**
+	 * @return the name of the method followed by its parameter types, e.g. getPatient(Integer)
+	 */
+	public String getMethodName() {
+		return methodName;
+	}
+
+	/**
+	 * @return the number of calls, including the failed ones
+	 */
+	public long getCallCount() {
+		return callCount;
+	}
+
+	/**
+	 * @return the number of calls which threw an exception
+	 */
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * @return the total time spent in the method in milliseconds
+	 */
+	public double getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * @return the mean duration of a call in milliseconds
+	 */
+	public double getMeanTime() {
+		return callCount == 0 ? 0 : totalTime / callCount;
+	}
+
+	/**
+	 * @return the longest call in milliseconds
+	 */
+	public double getMaxTime() {
+		return maxTime;
+	}
+
+	/**
+	 * @return the estimated median duration in milliseconds
+	 */
+	public double getMedianTime() {
+		return medianTime;
+	}
+
+	/**
+	 * @return the estimated 90th percentile of the durations in milliseconds
+	 */
+	public double getPercentile90Time() {
+		return percentile90Time;
+	}
+
+	/**
+	 * @return the estimated 99th percentile of the durations in milliseconds
+	 */
+	public double getPercentile99Time() {
+		return percentile99Time;
+	}
+
+	/**
+	 * @return the number of calls in each bucket of the latency histogram
+	 * @see LatencyHistogram#getBucketUpperBoundNanos(int)
+	 */
+	public long[] getLatencyBucketCounts() {
+		return latencyBucketCounts.clone();
+	}
+
+	@Override
+	public String toString() {
+		return serviceName + "." + methodName + " calls=" + callCount + " errors=" + errorCount + " mean="
+		        + getMeanTime() + "ms p99=" + percentile99Time + "ms";
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.aop;
+
+import java.util.Date;
+
+/**
+ * A service method call which took longer than the slow call threshold, captured with its
+ * arguments.
+ *
+ * @see ServiceMethodMetrics
+ * @see org.openmrs.util.OpenmrsConstants#GP_SLOW_SERVICE_CALL_THRESHOLD
+ * @since 2.6.0
+ */
+public class SlowServiceCall {
+
+	private final String serviceName;
+
+	private final String methodName;
+
+	private final Date startTime;
+
+	private final double duration;
+
+	private final String arguments;
+
+	private final String username;
+
+	private final String threadName;
+
+	private final boolean failed;
+
+	SlowServiceCall(String serviceName, String methodName, Date startTime, double duration, String arguments,
+	    String username, String threadName, boolean failed) {
+		this.serviceName = serviceName;
+		this.methodName = methodName;
+		this.startTime = startTime;
+		this.duration = duration;
+		this.arguments = arguments;
+		this.username = username;
+		this.threadName = threadName;
+		this.failed = failed;
+	}
+
+	/**
+	 * @return the fully qualified name of the service interface declaring the method
+	 */
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	/**
+	 * @return the name of the method followed by its parameter types
+	 */
+	public String getMethodName() {
+		return methodName;
+	}
+
+	/**
+	 * @return when the call started
+	 */
+	public Date getStartTime() {
+		return (Date) startTime.clone();
+	}
+
+	/**
+	 * @return the duration of the call in milliseconds
+	 */
+	public double getDuration() {
+		return duration;
+	}
+
+	/**
+	 * @return the argument values, except the ones excluded with the
+	 *         {@link org.openmrs.annotation.Logging} annotation
+	 */
+	public String getArguments() {
+		return arguments;
+	}
+
+	/**
+	 * @return the user who made the call, null if nobody was authenticated
+	 */
+	public String getUsername() {
+		return username;
+	}
+
+	/**
+	 * @return the name of the thread which made the call
+	 */
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * @return true if the call threw an exception
+	 */
+	public boolean isFailed() {
+		return failed;
+	}
+
+	@Override
+	public String toString() {
+		return serviceName + "." + methodName + " took " + duration + "ms" + (failed ? " and failed" : "") + ", arguments: "
+		        + arguments;
+	}
+}
@@ -20,7 +20,11 @@ import org.openmrs.ImplementationId;
 import org.openmrs.OpenmrsObject;
 import org.openmrs.User;
 import org.openmrs.annotation.Authorized;
+import org.openmrs.aop.ServiceMethodStatistics;
+import org.openmrs.aop.SlowServiceCall;
 import org.openmrs.api.db.AdministrationDAO;
+import org.openmrs.api.db.DatabaseStatistics;
+import org.openmrs.api.db.SlowQuery;
 import org.openmrs.util.HttpClient;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.PrivilegeConstants;
@@ -77,6 +81,71 @@ public interface AdministrationService extends OpenmrsService {
 	@Authorized(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS)
 	public Map<String, Map<String, String>> getSystemInformation();
 	
+	/**
+	 * Gets the call count, error count and latency distribution of every service method called since
+	 * startup or since the statistics were reset
+	 * 
+	 * @return the statistics of the called service methods, the ones with the highest total time
+	 *         first
+	 * @since 2.6.0
+	 * <strong>Should</strong> return the statistics of the called service methods
+	 * <strong>Should</strong> count the calls which throw as errors
+	 */
+	@Authorized(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS)
+	public List<ServiceMethodStatistics> getServiceMethodStatistics();
+	
+	/**
+	 * Gets the most recent service method calls which took longer than
+	 * {@link OpenmrsConstants#GP_SLOW_SERVICE_CALL_THRESHOLD}, with their arguments
+	 * 
+	 * @return the slow calls, the latest first
+	 * @since 2.6.0
+	 * <strong>Should</strong> capture the calls slower than the threshold
+	 */
+	@Authorized(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS)
+	public List<SlowServiceCall> getSlowServiceCalls();
+	
+	/**
+	 * Forgets the service method statistics and the slow calls
+	 * 
+	 * @since 2.6.0
+	 */
+	@Authorized(PrivilegeConstants.MANAGE_GLOBAL_PROPERTIES)
+	public void resetServiceMethodStatistics();
+	
+	/**
+	 * Gets a snapshot of the Hibernate statistics: session and connection counts, connection
+	 * acquisition times, query execution times, entity and collection load and fetch counts, and
+	 * second level cache hits and misses per region. Compare two snapshots to see the activity in
+	 * between.
+	 * 
+	 * @return the database statistics since startup or since they were reset
+	 * @since 2.6.0
+	 * <strong>Should</strong> return the executed queries and loaded entities
+	 */
+	@Authorized(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS)
+	public DatabaseStatistics getDatabaseStatistics();
+	
+	/**
+	 * Gets the most recent database queries which took longer than
+	 * {@link OpenmrsConstants#GP_SLOW_QUERY_THRESHOLD}, with the service method which ran them
+	 * 
+	 * @return the slow queries, the latest first
+	 * @since 2.6.0
+	 * <strong>Should</strong> capture the queries slower than the threshold
+	 */
+	@Authorized(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS)
+	public List<SlowQuery> getSlowQueries();
+	
+	/**
+	 * Resets the database statistics and forgets the slow queries
+	 * 
+	 * @since 2.6.0
+	 * <strong>Should</strong> fail for users who can only view the statistics
+	 */
+	@Authorized(PrivilegeConstants.MANAGE_GLOBAL_PROPERTIES)
+	public void resetDatabaseStatistics();
+	
 	/**
 	 * Gets the global property that has the given <code>propertyName</code>.
 	 * <p>
@@ -0,0 +1,115 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of saving a list of objects in bulk. The items which could not be saved are reported
+ * with their position in the list that was passed in and the error, the other items are saved.
+ *
+ * @param <T> the type of the saved objects
+ * @see ObsService#importObs(List)
+ * @see PatientService#importPatients(List)
+ * @since 2.6.0
+ */
+public class BulkSaveResult<T> {
+
+	private final List<T> saved = new ArrayList<>();
+
+	private final List<Failure<T>> failures = new ArrayList<>();
+
+	/**
+	 * @param item an item that was saved
+	 */
+	public void addSaved(T item) {
+		saved.add(item);
+	}
+
+	/**
+	 * @param index the position of the item in the list that was passed in
+	 * @param item the item that could not be saved
+	 * @param error the reason why it could not be saved
+	 */
+	public void addFailure(int index, T item, Exception error) {
+		// items may fail validation first and saving later, keep the failures in the order of the items
+		int position = failures.size();
+		while (position > 0 && failures.get(position - 1).getIndex() > index) {
+			position--;
+		}
+		failures.add(position, new Failure<>(index, item, error));
+	}
+
+	/**
+	 * @return the saved items, in the order they were passed in
+	 */
+	public List<T> getSaved() {
+		return Collections.unmodifiableList(saved);
+	}
+
+	/**
+	 * @return the items which could not be saved, in the order they were passed in
+	 */
+	public List<Failure<T>> getFailures() {
+		return Collections.unmodifiableList(failures);
+	}
+
+	/**
+	 * @return true if at least one item could not be saved
+	 */
+	public boolean hasFailures() {
+		return !failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "BulkSaveResult[saved=" + saved.size() + ", failed=" + failures.size() + "]";
+	}
+
+	/**
+	 * An item that could not be saved
+	 */
+	public static class Failure<T> {
+
+		private final int index;
+
+		private final T item;
+
+		private final Exception error;
+
+		public Failure(int index, T item, Exception error) {
+			this.index = index;
+			this.item = item;
+			this.error = error;
+		}
+
+		/**
+		 * @return the position of the item in the list that was passed in
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		public T getItem() {
+			return item;
+		}
+
+		public Exception getError() {
+			return error;
+		}
+
+		@Override
+		public String toString() {
+			return "Failure[index=" + index + ", error=" + error.getMessage() + "]";
+		}
+	}
+}
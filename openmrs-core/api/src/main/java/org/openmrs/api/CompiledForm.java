@@ -0,0 +1,175 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.openmrs.Concept;
+import org.openmrs.Field;
+import org.openmrs.FieldAnswer;
+import org.openmrs.Form;
+import org.openmrs.FormField;
+import org.openmrs.util.FormUtil;
+
+/**
+ * An immutable view of the fields of a form, built once so that form entry and form imports which
+ * look up the fields of the same form over and over again do it in memory. It holds the structure
+ * of the form as returned by {@link FormUtil#getFormStructure(Form)}, the form fields of each
+ * concept in the order they were created and the answers of each field.
+ * <br>
+ * Only ids are kept, not the form fields themselves, so that a compiled form can be shared by all
+ * threads. The form fields are loaded in the session of the caller, e.g. with
+ * {@link FormService#getFormField(Integer)}.
+ *
+ * @see FormService#getCompiledForm(Form)
+ * @since 2.6.0
+ */
+public class CompiledForm implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Integer BASE = 0;
+
+	private final Integer formId;
+
+	private final Map<Integer, List<Integer>> formStructure;
+
+	private final Map<Integer, List<Integer>> formFieldIdsByConcept;
+
+	private final Map<Integer, Set<Integer>> answerConceptIdsByField;
+
+	/**
+	 * @param form the form to compile, its form fields, their fields and answers are loaded
+	 */
+	public CompiledForm(Form form) {
+		this.formId = form.getFormId();
+
+		Map<Integer, List<Integer>> structure = new TreeMap<>();
+		for (Map.Entry<Integer, TreeSet<FormField>> branch : FormUtil.getFormStructure(form).entrySet()) {
+			List<Integer> children = new ArrayList<>(branch.getValue().size());
+			for (FormField child : branch.getValue()) {
+				children.add(child.getFormFieldId());
+			}
+			structure.put(branch.getKey(), Collections.unmodifiableList(children));
+		}
+		this.formStructure = Collections.unmodifiableMap(structure);
+
+		List<FormField> formFields = new ArrayList<>(form.getFormFields());
+		formFields.sort(Comparator.comparing(FormField::getFormFieldId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+		Map<Integer, List<Integer>> byConcept = new HashMap<>();
+		Map<Integer, Set<Integer>> answers = new HashMap<>();
+		for (FormField formField : formFields) {
+			Field field = formField.getField();
+			if (field == null || formField.getFormFieldId() == null) {
+				continue;
+			}
+			Concept concept = field.getConcept();
+			if (concept != null && concept.getConceptId() != null) {
+				byConcept.computeIfAbsent(concept.getConceptId(), k -> new ArrayList<>()).add(formField.getFormFieldId());
+			}
+			if (field.getFieldId() != null && !answers.containsKey(field.getFieldId())) {
+				Set<Integer> answerConceptIds = new LinkedHashSet<>();
+				if (field.getAnswers() != null) {
+					for (FieldAnswer answer : field.getAnswers()) {
+						if (answer.getConcept() != null) {
+							answerConceptIds.add(answer.getConcept().getConceptId());
+						}
+					}
+				}
+				answers.put(field.getFieldId(), Collections.unmodifiableSet(answerConceptIds));
+			}
+		}
+		byConcept.replaceAll((conceptId, list) -> Collections.unmodifiableList(list));
+		this.formFieldIdsByConcept = byConcept;
+		this.answerConceptIdsByField = answers;
+	}
+
+	/**
+	 * @return the id of the compiled form
+	 */
+	public Integer getFormId() {
+		return formId;
+	}
+
+	/**
+	 * @return the ids of the form fields of the form, the top-level ones are under the key zero and
+	 *         the others under the id of their parent, sorted like {@link FormUtil#getFormStructure(Form)}
+	 */
+	public Map<Integer, List<Integer>> getFormStructure() {
+		return formStructure;
+	}
+
+	/**
+	 * @param parentFormFieldId the id of the parent form field, or null for the top-level form fields
+	 * @return the sorted ids of the children of the given form field, or an empty list if it has none
+	 */
+	public List<Integer> getChildFormFieldIds(Integer parentFormFieldId) {
+		List<Integer> children = formStructure.get(parentFormFieldId == null ? BASE : parentFormFieldId);
+		return children == null ? Collections.emptyList() : children;
+	}
+
+	/**
+	 * @param conceptId the id of the concept to look for
+	 * @return the ids of the form fields whose field has the given concept, in the order they were
+	 *         created
+	 */
+	public List<Integer> getFormFieldIds(Integer conceptId) {
+		if (conceptId == null) {
+			return Collections.emptyList();
+		}
+		return formFieldIdsByConcept.getOrDefault(conceptId, Collections.emptyList());
+	}
+
+	/**
+	 * Looks up the form field of a concept like {@link FormService#getFormField(Form, Concept,
+	 * Collection, boolean)} does
+	 *
+	 * @param conceptId the id of the concept to look for
+	 * @param ignoreFormFieldIds ids of form fields to skip, e.g. the ones which were already matched
+	 * @param force if true and all the form fields of the concept are ignored, null is returned
+	 *            instead of the first one
+	 * @return the id of the matching form field or null
+	 */
+	public Integer getFormFieldId(Integer conceptId, Collection<Integer> ignoreFormFieldIds, boolean force) {
+		List<Integer> formFieldIds = getFormFieldIds(conceptId);
+		if (formFieldIds.isEmpty()) {
+			return null;
+		}
+		for (Integer formFieldId : formFieldIds) {
+			if (ignoreFormFieldIds == null || !ignoreFormFieldIds.contains(formFieldId)) {
+				return formFieldId;
+			}
+		}
+		return force ? null : formFieldIds.get(0);
+	}
+
+	/**
+	 * @param fieldId the id of a field of the form
+	 * @return the ids of the answer concepts of the given field, or an empty set if there are none
+	 */
+	public Set<Integer> getAnswerConceptIds(Integer fieldId) {
+		if (fieldId == null) {
+			return Collections.emptySet();
+		}
+		return answerConceptIdsByField.getOrDefault(fieldId, Collections.emptySet());
+	}
+}
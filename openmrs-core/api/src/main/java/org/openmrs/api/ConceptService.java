@@ -633,6 +633,34 @@ public interface ConceptService extends OpenmrsService {
 	@Authorized(PrivilegeConstants.GET_CONCEPTS)
 	public List<ConceptSet> getSetsContainingConcept(Concept concept) throws APIException;
 	
+	/**
+	 * Gets the snapshot of the concept set graph used to answer concept set membership questions.
+	 * The snapshot is loaded with a single query on first use and is kept up to date when concepts
+	 * are saved or purged, so callers doing many membership tests should get it once and query it
+	 * directly.
+	 * 
+	 * @return the current concept set closure
+	 * @since 2.6.0
+	 * <strong>Should</strong> reflect set members changed by saveConcept
+	 */
+	@Authorized(PrivilegeConstants.GET_CONCEPTS)
+	public ConceptSetClosure getConceptSetClosure() throws APIException;
+	
+	/**
+	 * Checks whether a concept is a member of a concept set, directly or through one of its member
+	 * sets
+	 * 
+	 * @param concept the concept to look for
+	 * @param conceptSet the concept representing the concept set
+	 * @return true if the concept is one of the concepts returned by
+	 *         {@link #getConceptsByConceptSet(Concept)} for the set
+	 * @since 2.6.0
+	 * <strong>Should</strong> return true for members of nested sets
+	 * <strong>Should</strong> return false for concepts outside of the set
+	 */
+	@Authorized(PrivilegeConstants.GET_CONCEPTS)
+	public boolean isConceptInSet(Concept concept, Concept conceptSet) throws APIException;
+	
 	/**
 	 * Get a List of all concept proposals
 	 * 
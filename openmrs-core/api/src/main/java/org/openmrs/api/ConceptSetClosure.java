@@ -0,0 +1,444 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.openmrs.Concept;
+import org.openmrs.ConceptSet;
+import org.openmrs.util.OpenmrsUtil;
+
+/**
+ * Immutable in-memory snapshot of the concept set graph answering descendant, ancestor and
+ * membership questions without going to the database. Members of a set are expanded recursively
+ * only when they are flagged as sets themselves, just like
+ * {@link ConceptService#getConceptsByConceptSet(Concept)} does. The exploded members, descendants
+ * and ancestors of a concept are computed once per snapshot and then served from memory.<br>
+ * <br>
+ * Changes to concept sets create a new snapshot with an {@link Editor}, see {@link #edit()}. The
+ * maps of a snapshot are split into shards by concept id and a new snapshot copies only the shards
+ * holding the changed concepts and their members, once per editor, the others are shared with the
+ * previous snapshot. This keeps the cost of changes independent of the size of the concept
+ * dictionary, e.g. when a bulk import changes thousands of sets in one transaction.
+ *
+ * @see ConceptService#getConceptSetClosure()
+ * @since 2.6.0
+ */
+public class ConceptSetClosure {
+
+	private static final Comparator<ConceptSet> SORT_WEIGHT_ORDER = (a, b) -> {
+		int value = OpenmrsUtil.compareWithNullAsLowest(a.getSortWeight(), b.getSortWeight());
+		return value != 0 ? value : OpenmrsUtil.compareWithNullAsLowest(a.getConceptSetId(), b.getConceptSetId());
+	};
+
+	private final IdMap<List<Integer>> members;
+
+	private final IdMap<Set<Integer>> parents;
+
+	private final IdMap<Boolean> setIds;
+
+	private final ConcurrentMap<Integer, List<Integer>> explodedMembers = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Integer, Set<Integer>> descendants = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Integer, Set<Integer>> ancestors = new ConcurrentHashMap<>();
+
+	/**
+	 * @param members the ids of the direct members of each concept set in sort weight order
+	 * @param setIds the ids of the concepts flagged as sets
+	 */
+	public ConceptSetClosure(Map<Integer, List<Integer>> members, Set<Integer> setIds) {
+		Map<Integer, Set<Integer>> parentMap = new HashMap<>();
+		IdMap.Editor<List<Integer>> memberEditor = new IdMap<List<Integer>>().edit();
+		for (Map.Entry<Integer, List<Integer>> entry : members.entrySet()) {
+			if (!entry.getValue().isEmpty()) {
+				memberEditor.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+				for (Integer memberId : entry.getValue()) {
+					parentMap.computeIfAbsent(memberId, id -> new HashSet<>()).add(entry.getKey());
+				}
+			}
+		}
+		IdMap.Editor<Set<Integer>> parentEditor = new IdMap<Set<Integer>>().edit();
+		parentMap.forEach((memberId, parentIds) -> parentEditor.put(memberId, Collections.unmodifiableSet(parentIds)));
+		IdMap.Editor<Boolean> setEditor = new IdMap<Boolean>().edit();
+		for (Integer setId : setIds) {
+			setEditor.put(setId, Boolean.TRUE);
+		}
+		this.members = memberEditor.build();
+		this.parents = parentEditor.build();
+		this.setIds = setEditor.build();
+	}
+
+	private ConceptSetClosure(IdMap<List<Integer>> members, IdMap<Set<Integer>> parents, IdMap<Boolean> setIds) {
+		this.members = members;
+		this.parents = parents;
+		this.setIds = setIds;
+	}
+
+	/**
+	 * @param conceptId the concept id
+	 * @return true if the concept is flagged as a set
+	 */
+	public boolean isSet(Integer conceptId) {
+		return setIds.get(conceptId) != null;
+	}
+
+	/**
+	 * @param setId the id of the concept set
+	 * @return the ids of the direct members of the set in sort weight order
+	 */
+	public List<Integer> getMemberIds(Integer setId) {
+		List<Integer> ret = members.get(setId);
+		return ret == null ? Collections.emptyList() : ret;
+	}
+
+	/**
+	 * Gets the members of the set and of the member sets in the order returned by
+	 * {@link ConceptService#getConceptsByConceptSet(Concept)}, i.e. depth first with the members of
+	 * each set in sort weight order. A concept which is a member of several of the visited sets is
+	 * listed once for each of them.
+	 *
+	 * @param setId the id of the concept set
+	 * @return the ids of the members, direct or not
+	 */
+	public List<Integer> getExplodedMemberIds(Integer setId) {
+		List<Integer> exploded = explodedMembers.get(setId);
+		if (exploded == null) {
+			List<Integer> ret = new ArrayList<>();
+			explode(setId, ret, new HashSet<>());
+			exploded = Collections.unmodifiableList(ret);
+			explodedMembers.putIfAbsent(setId, exploded);
+		}
+		return exploded;
+	}
+
+	private void explode(Integer setId, List<Integer> ret, Set<Integer> alreadySeen) {
+		if (!alreadySeen.add(setId)) {
+			return;
+		}
+		for (Integer memberId : getMemberIds(setId)) {
+			ret.add(memberId);
+			if (isSet(memberId)) {
+				explode(memberId, ret, alreadySeen);
+			}
+		}
+	}
+
+	/**
+	 * @param setId the id of the concept set
+	 * @return the ids of the members of the set, direct or not
+	 */
+	public Set<Integer> getDescendantIds(Integer setId) {
+		Set<Integer> ret = descendants.get(setId);
+		if (ret == null) {
+			ret = Collections.unmodifiableSet(new LinkedHashSet<>(getExplodedMemberIds(setId)));
+			descendants.putIfAbsent(setId, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * @param conceptId the concept id
+	 * @return the ids of the sets containing the concept, directly or through member sets
+	 */
+	public Set<Integer> getAncestorIds(Integer conceptId) {
+		Set<Integer> ret = ancestors.get(conceptId);
+		if (ret == null) {
+			ret = new LinkedHashSet<>();
+			Deque<Integer> toVisit = new ArrayDeque<>();
+			toVisit.add(conceptId);
+			Set<Integer> visited = new HashSet<>();
+			while (!toVisit.isEmpty()) {
+				Integer current = toVisit.poll();
+				if (!visited.add(current)) {
+					continue;
+				}
+				// a set is only expanded by its parents when it is flagged as a set
+				if (!current.equals(conceptId) && !isSet(current)) {
+					continue;
+				}
+				for (Integer parentId : getParentIds(current)) {
+					ret.add(parentId);
+					toVisit.add(parentId);
+				}
+			}
+			ret = Collections.unmodifiableSet(ret);
+			ancestors.putIfAbsent(conceptId, ret);
+		}
+		return ret;
+	}
+
+	private Set<Integer> getParentIds(Integer conceptId) {
+		Set<Integer> ret = parents.get(conceptId);
+		return ret == null ? Collections.emptySet() : ret;
+	}
+
+	/**
+	 * @param conceptId the concept id
+	 * @param setId the id of the concept set
+	 * @return true if the concept is a member of the set, directly or through member sets
+	 */
+	public boolean isMember(Integer conceptId, Integer setId) {
+		return getDescendantIds(setId).contains(conceptId);
+	}
+
+	/**
+	 * @param concept the concept
+	 * @return true if the set flag or the members of the concept differ from this snapshot
+	 */
+	public boolean hasChanged(Concept concept) {
+		return isSet(concept.getConceptId()) != Boolean.TRUE.equals(concept.getSet())
+		        || !getMemberIds(concept.getConceptId()).equals(getMemberIds(concept));
+	}
+
+	/**
+	 * Creates a snapshot where the set flag and members of the given concept are replaced by the
+	 * current ones of the concept
+	 *
+	 * @param concept the saved concept
+	 * @return the new snapshot
+	 */
+	public ConceptSetClosure withConcept(Concept concept) {
+		return edit().putConcept(concept).build();
+	}
+
+	/**
+	 * Creates a snapshot without the given concept, neither as a set nor as a member
+	 *
+	 * @param conceptId the id of the purged concept
+	 * @return the new snapshot
+	 */
+	public ConceptSetClosure withoutConcept(Integer conceptId) {
+		return edit().removeConcept(conceptId).build();
+	}
+
+	/**
+	 * Starts a new snapshot made of this one and of the changes made on the returned editor. Each
+	 * shard touched by the changes is copied once, however many changes are made, so many changes
+	 * should be made on a single editor rather than with one snapshot per change.
+	 *
+	 * @return the editor of the new snapshot
+	 */
+	public Editor edit() {
+		return new Editor(this);
+	}
+
+	/**
+	 * Collects changes to a snapshot, it must not be used anymore once {@link #build()} is called
+	 */
+	public static final class Editor {
+
+		private final IdMap.Editor<List<Integer>> memberEditor;
+
+		private final IdMap.Editor<Set<Integer>> parentEditor;
+
+		private final IdMap.Editor<Boolean> setEditor;
+
+		private Editor(ConceptSetClosure closure) {
+			this.memberEditor = closure.members.edit();
+			this.parentEditor = closure.parents.edit();
+			this.setEditor = closure.setIds.edit();
+		}
+
+		/**
+		 * Replaces the set flag and members of the given concept by the current ones of the concept
+		 *
+		 * @param concept the saved concept
+		 * @return this editor
+		 */
+		public Editor putConcept(Concept concept) {
+			Integer conceptId = concept.getConceptId();
+			List<Integer> newMembers = getMemberIds(concept);
+
+			removeMembers(conceptId, memberEditor, parentEditor);
+			if (!newMembers.isEmpty()) {
+				memberEditor.put(conceptId, Collections.unmodifiableList(newMembers));
+				for (Integer memberId : newMembers) {
+					Set<Integer> memberParents = new HashSet<>(getOrEmpty(parentEditor, memberId));
+					memberParents.add(conceptId);
+					parentEditor.put(memberId, Collections.unmodifiableSet(memberParents));
+				}
+			}
+			if (concept.getConceptSets() != null) {
+				for (ConceptSet conceptSet : concept.getConceptSets()) {
+					setFlag(conceptSet.getConcept().getConceptId(), conceptSet.getConcept().getSet(), setEditor);
+				}
+			}
+			setFlag(conceptId, concept.getSet(), setEditor);
+			return this;
+		}
+
+		/**
+		 * Removes the given concept, neither as a set nor as a member
+		 *
+		 * @param conceptId the id of the purged concept
+		 * @return this editor
+		 */
+		public Editor removeConcept(Integer conceptId) {
+			removeMembers(conceptId, memberEditor, parentEditor);
+			for (Integer parentId : getOrEmpty(parentEditor, conceptId)) {
+				List<Integer> parentMembers = new ArrayList<>(getOrEmpty(memberEditor, parentId));
+				parentMembers.removeIf(id -> id.equals(conceptId));
+				if (parentMembers.isEmpty()) {
+					memberEditor.remove(parentId);
+				} else {
+					memberEditor.put(parentId, Collections.unmodifiableList(parentMembers));
+				}
+			}
+			parentEditor.remove(conceptId);
+			setEditor.remove(conceptId);
+			return this;
+		}
+
+		/**
+		 * @return the new snapshot
+		 */
+		public ConceptSetClosure build() {
+			return new ConceptSetClosure(memberEditor.build(), parentEditor.build(), setEditor.build());
+		}
+	}
+
+	private static void removeMembers(Integer conceptId, IdMap.Editor<List<Integer>> memberEditor,
+	        IdMap.Editor<Set<Integer>> parentEditor) {
+		List<Integer> oldMembers = memberEditor.remove(conceptId);
+		if (oldMembers != null) {
+			for (Integer memberId : oldMembers) {
+				Set<Integer> memberParents = new HashSet<>(getOrEmpty(parentEditor, memberId));
+				memberParents.remove(conceptId);
+				if (memberParents.isEmpty()) {
+					parentEditor.remove(memberId);
+				} else {
+					parentEditor.put(memberId, Collections.unmodifiableSet(memberParents));
+				}
+			}
+		}
+	}
+
+	private static void setFlag(Integer conceptId, Boolean set, IdMap.Editor<Boolean> setEditor) {
+		if (conceptId == null) {
+			return;
+		}
+		if (Boolean.TRUE.equals(set)) {
+			setEditor.put(conceptId, Boolean.TRUE);
+		} else {
+			setEditor.remove(conceptId);
+		}
+	}
+
+	private static <T> Collection<T> getOrEmpty(IdMap.Editor<? extends Collection<T>> editor, Integer conceptId) {
+		Collection<T> ret = editor.get(conceptId);
+		return ret == null ? Collections.emptyList() : ret;
+	}
+
+	private static List<Integer> getMemberIds(Concept concept) {
+		List<ConceptSet> conceptSets = new ArrayList<>();
+		if (concept.getConceptSets() != null) {
+			conceptSets.addAll(concept.getConceptSets());
+		}
+		conceptSets.sort(SORT_WEIGHT_ORDER);
+		List<Integer> ret = new ArrayList<>(conceptSets.size());
+		for (ConceptSet conceptSet : conceptSets) {
+			if (conceptSet.getConcept().getConceptId() != null) {
+				ret.add(conceptSet.getConcept().getConceptId());
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * An immutable map keyed by concept id, split into a fixed number of shards. Changes are made on
+	 * an {@link Editor}, which copies a shard the first time one of its entries changes and shares
+	 * the untouched shards with the map it was created from.
+	 */
+	private static final class IdMap<V> {
+
+		private static final int SHARD_COUNT = 256;
+
+		private final Map<Integer, V>[] shards;
+
+		@SuppressWarnings("unchecked")
+		IdMap() {
+			this.shards = new Map[SHARD_COUNT];
+			Arrays.fill(this.shards, Collections.emptyMap());
+		}
+
+		private IdMap(Map<Integer, V>[] shards) {
+			this.shards = shards;
+		}
+
+		V get(Integer conceptId) {
+			return conceptId == null ? null : shards[shardOf(conceptId)].get(conceptId);
+		}
+
+		Editor<V> edit() {
+			return new Editor<>(shards.clone());
+		}
+
+		private static int shardOf(Integer conceptId) {
+			return Math.floorMod(conceptId, SHARD_COUNT);
+		}
+
+		/**
+		 * Collects the changes to a map, it must not be used anymore once {@link #build()} is called
+		 */
+		static final class Editor<V> {
+
+			private final Map<Integer, V>[] shards;
+
+			private final boolean[] copied = new boolean[SHARD_COUNT];
+
+			private Editor(Map<Integer, V>[] shards) {
+				this.shards = shards;
+			}
+
+			V get(Integer conceptId) {
+				return shards[shardOf(conceptId)].get(conceptId);
+			}
+
+			void put(Integer conceptId, V value) {
+				getShardToChange(conceptId).put(conceptId, value);
+			}
+
+			V remove(Integer conceptId) {
+				if (!shards[shardOf(conceptId)].containsKey(conceptId)) {
+					return null;
+				}
+				return getShardToChange(conceptId).remove(conceptId);
+			}
+
+			IdMap<V> build() {
+				return new IdMap<>(shards);
+			}
+
+			private Map<Integer, V> getShardToChange(Integer conceptId) {
+				int shard = shardOf(conceptId);
+				if (!copied[shard]) {
+					shards[shard] = new HashMap<>(shards[shard]);
+					copied[shard] = true;
+				}
+				return shards[shard];
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api;
+
+import java.util.Date;
+
+import org.openmrs.ProgramWorkflowState;
+
+/**
+ * The current state of a patient in a workflow, as read by a projection query instead of loading
+ * the {@link org.openmrs.PatientProgram} and all its {@link org.openmrs.PatientState}s.
+ *
+ * @see ProgramWorkflowService#getCurrentStates(org.openmrs.Cohort, org.openmrs.ProgramWorkflow)
+ * @since 2.6.0
+ */
+public class CurrentPatientState {
+
+	private final Integer patientId;
+
+	private final Integer patientProgramId;
+
+	private final Integer patientStateId;
+
+	private final ProgramWorkflowState state;
+
+	private final Date startDate;
+
+	public CurrentPatientState(Integer patientId, Integer patientProgramId, Integer patientStateId,
+	    ProgramWorkflowState state, Date startDate) {
+		this.patientId = patientId;
+		this.patientProgramId = patientProgramId;
+		this.patientStateId = patientStateId;
+		this.state = state;
+		this.startDate = startDate;
+	}
+
+	/**
+	 * @return the id of the patient
+	 */
+	public Integer getPatientId() {
+		return patientId;
+	}
+
+	/**
+	 * @return the id of the patient program the state belongs to
+	 */
+	public Integer getPatientProgramId() {
+		return patientProgramId;
+	}
+
+	/**
+	 * @return the id of the patient state
+	 */
+	public Integer getPatientStateId() {
+		return patientStateId;
+	}
+
+	/**
+	 * @return the workflow state the patient is in
+	 */
+	public ProgramWorkflowState getState() {
+		return state;
+	}
+
+	/**
+	 * @return the date the patient entered the state, may be null
+	 */
+	public Date getStartDate() {
+		return startDate;
+	}
+
+	@Override
+	public String toString() {
+		return "CurrentPatientState(patientId=" + patientId + ", state=" + state + ", startDate=" + startDate + ")";
+	}
+}
@@ -34,16 +34,21 @@ public interface DatatypeService extends OpenmrsService {
 	Set<Class<? extends CustomDatatypeHandler<?, ?>>> getAllHandlerClasses();
 	
 	/**
+	 * The returned datatype is shared by all callers asking for the same class and configuration, so
+	 * it must not be reconfigured.
+	 * 
 	 * @param clazz
 	 * @param config
 	 * @return an instantiated {@link CustomDatatype}, with a configuration set
 	 * @throws CustomDatatypeException
+	 * <strong>Should</strong> return the same instance for the same class and configuration
 	 */
 	<T extends CustomDatatype<?>> T getDatatype(Class<T> clazz, String config) throws CustomDatatypeException;
 	
 	/**
-	 * Gets the default handler for a {@link CustomDatatype}, and sets its configuration
-	 *  
+	 * Gets the default handler for a {@link CustomDatatype}, and sets its configuration. The returned
+	 * handler is shared by all callers asking for the same datatype class and configuration, so it
+	 * must not be reconfigured.
 	 * 
 	 * @param datatype
 	 * @param handlerConfig
@@ -53,6 +58,20 @@ public interface DatatypeService extends OpenmrsService {
 	 */
 	CustomDatatypeHandler<?, ?> getHandler(CustomDatatype<?> datatype, String handlerConfig);
 	
+	/**
+	 * Gets a handler of the given class, and sets its configuration. The returned handler is shared by
+	 * all callers asking for the same class and configuration, so it must not be reconfigured.
+	 * 
+	 * @param clazz
+	 * @param handlerConfig
+	 * @return an instantiated {@link CustomDatatypeHandler}, with a configuration set if not null
+	 * @throws CustomDatatypeException
+	 * @since 2.6.0
+	 * <strong>Should</strong> return the same instance for the same class and configuration
+	 */
+	<T extends CustomDatatypeHandler<?, ?>> T getHandler(Class<T> clazz, String handlerConfig)
+	        throws CustomDatatypeException;
+	
 	/**
 	 * @param datatypeClass
 	 * @return all handlers suitable for the given {@link CustomDatatype} class
@@ -60,6 +79,15 @@ public interface DatatypeService extends OpenmrsService {
 	@SuppressWarnings("rawtypes")
 	List<Class<? extends CustomDatatypeHandler>> getHandlerClasses(Class<? extends CustomDatatype<?>> datatypeClass);
 	
+	/**
+	 * Forgets the configured datatypes and handlers returned so far, e.g. when a module is stopped so
+	 * that its classes can be unloaded
+	 * 
+	 * @since 2.6.0
+	 * <strong>Should</strong> return new instances afterwards
+	 */
+	void clearCachedDatatypes();
+	
 	/**
 	 * Gets a clob storage object by its id
 	 * 
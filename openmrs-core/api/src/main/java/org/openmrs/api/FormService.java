@@ -485,7 +485,8 @@ public interface FormService extends OpenmrsService {
 	
 	/**
 	 * Finds the FormField defined for this form/concept combination while discounting any form
-	 * field found in the <code>ignoreFormFields</code> collection This method was added when
+	 * field found in the <code>ignoreFormFields</code> collection. The form fields are looked up in
+	 * the {@link #getCompiledForm(Form) compiled form}. This method was added when
 	 * needing to relate observations to form fields during a display. The use case would be that
 	 * you know a Concept for a obs, which was defined on a form (via a formField). You can relate
 	 * the formFields to Concepts easily enough, but if a Form reuses a Concept in two separate
@@ -509,6 +510,22 @@ public interface FormService extends OpenmrsService {
 	public FormField getFormField(Form form, Concept concept, Collection<FormField> ignoreFormFields, boolean force)
 	        throws APIException;
 	
+	/**
+	 * Gets the ids of the structure, the form fields by concept and the field answers of the given
+	 * form. The compiled form is kept until a form, form field or field is saved or purged, so looking
+	 * up the fields of a form many times, e.g. for each obs of an encounter, does not query the
+	 * database for the form again. It holds ids only, the form fields are loaded by the caller.
+	 * 
+	 * @param form the form to compile
+	 * @return the compiled form or null if the form does not exist
+	 * @since 2.6.0
+	 * <strong>Should</strong> index form fields by concept
+	 * <strong>Should</strong> return the same compiled form until a form field is saved
+	 * <strong>Should</strong> return null for nonexistent forms
+	 */
+	@Authorized(PrivilegeConstants.GET_FORMS)
+	public CompiledForm getCompiledForm(Form form) throws APIException;
+	
 	/**
 	 * Creates or updates the given FormField
 	 * 
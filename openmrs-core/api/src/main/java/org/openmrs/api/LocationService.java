@@ -11,6 +11,7 @@ package org.openmrs.api;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.openmrs.Address;
 import org.openmrs.Location;
@@ -367,6 +368,47 @@ public interface LocationService extends OpenmrsService {
 	@Authorized( { PrivilegeConstants.GET_LOCATIONS })
 	public List<Location> getRootLocations(boolean includeRetired);
 	
+	/**
+	 * Gets the snapshot of the location hierarchy used to answer hierarchy questions without
+	 * loading the locations. The snapshot is loaded with a single query on first use and dropped
+	 * whenever a location is saved, retired or purged.
+	 * 
+	 * @return the current location tree
+	 * @since 2.6.0
+	 * <strong>Should</strong> be reloaded after a location is saved
+	 */
+	@Authorized( { PrivilegeConstants.GET_LOCATIONS })
+	public LocationTree getLocationTree();
+	
+	/**
+	 * Checks whether a location is the given root location or one of its descendants, this is the
+	 * cached equivalent of {@link Location#isInHierarchy(Location, Location)}
+	 * 
+	 * @param location the location to check
+	 * @param root the location at the top of the hierarchy
+	 * @return true if the location is in the hierarchy starting at the root
+	 * @since 2.6.0
+	 * <strong>Should</strong> return true for the root and its descendants
+	 * <strong>Should</strong> return false for locations outside of the hierarchy
+	 * <strong>Should</strong> return false given any null parameter
+	 */
+	@Authorized( { PrivilegeConstants.GET_LOCATIONS })
+	public boolean isInHierarchy(Location location, Location root);
+	
+	/**
+	 * Gets the descendants of a location, this is the cached equivalent of
+	 * {@link Location#getDescendantLocations(boolean)}
+	 * 
+	 * @param location the location to get the descendants of
+	 * @param includeRetired whether to include retired locations, the descendants of a retired
+	 *            location are left out with it
+	 * @return the descendant locations
+	 * @since 2.6.0
+	 * <strong>Should</strong> return the same locations as Location.getDescendantLocations
+	 */
+	@Authorized( { PrivilegeConstants.GET_LOCATIONS })
+	public Set<Location> getDescendantLocations(Location location, boolean includeRetired);
+	
 	/**
 	 * Given an Address object, returns all the possible values for the specified AddressField. This
 	 * method is not implemented in core, but is meant to overridden by implementing modules such as
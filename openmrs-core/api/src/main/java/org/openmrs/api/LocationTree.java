@@ -0,0 +1,176 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable in-memory snapshot of the location hierarchy. Locations are numbered in pre-order so
+ * that the descendants of a location are the locations numbered right after it, up to the end of
+ * its subtree. Checking whether a location is in the hierarchy of another one is then two integer
+ * comparisons and the descendants of a location are a range of the pre-order.
+ *
+ * @see LocationService#getLocationTree()
+ * @since 2.6.0
+ */
+public class LocationTree {
+
+	private static final Logger log = LoggerFactory.getLogger(LocationTree.class);
+
+	private final Map<Integer, Integer> positions;
+
+	private final int[] locationIds;
+
+	private final int[] subtreeEnds;
+
+	private final int[] parentPositions;
+
+	private final boolean[] retired;
+
+	/**
+	 * @param parentIds the id of the parent of each location by location id, null for root
+	 *            locations
+	 * @param retiredIds the ids of the retired locations
+	 */
+	public LocationTree(Map<Integer, Integer> parentIds, Set<Integer> retiredIds) {
+		Map<Integer, List<Integer>> children = new TreeMap<>();
+		List<Integer> roots = new ArrayList<>();
+		for (Map.Entry<Integer, Integer> entry : parentIds.entrySet()) {
+			if (entry.getValue() == null || !parentIds.containsKey(entry.getValue())) {
+				roots.add(entry.getKey());
+			} else {
+				children.computeIfAbsent(entry.getValue(), id -> new ArrayList<>()).add(entry.getKey());
+			}
+		}
+		Collections.sort(roots);
+
+		int size = parentIds.size();
+		positions = new HashMap<>(size * 2);
+		locationIds = new int[size];
+		subtreeEnds = new int[size];
+		parentPositions = new int[size];
+		retired = new boolean[size];
+
+		// iterative depth first walk, a negative entry marks the end of the subtree of a position
+		int next = 0;
+		Deque<Integer> stack = new ArrayDeque<>();
+		for (int i = roots.size() - 1; i >= 0; i--) {
+			stack.push(roots.get(i));
+		}
+		Deque<Integer> openPositions = new ArrayDeque<>();
+		while (!stack.isEmpty()) {
+			int entry = stack.pop();
+			if (entry < 0) {
+				int position = openPositions.pop();
+				subtreeEnds[position] = next;
+				continue;
+			}
+			int position = next++;
+			positions.put(entry, position);
+			locationIds[position] = entry;
+			parentPositions[position] = openPositions.isEmpty() ? -1 : openPositions.peek();
+			retired[position] = retiredIds.contains(entry);
+			openPositions.push(position);
+			stack.push(-1);
+			List<Integer> childIds = children.getOrDefault(entry, Collections.emptyList());
+			Collections.sort(childIds);
+			for (int i = childIds.size() - 1; i >= 0; i--) {
+				stack.push(childIds.get(i));
+			}
+		}
+
+		if (next < size) {
+			// locations whose parents form a loop cannot be reached from a root
+			log.warn("{} locations are not part of the location tree because their parents form a loop", size - next);
+		}
+	}
+
+	/**
+	 * @param locationId the location id
+	 * @return true if the location is part of this snapshot
+	 */
+	public boolean contains(Integer locationId) {
+		return positions.containsKey(locationId);
+	}
+
+	/**
+	 * Checks whether a location is the given root location or one of its descendants
+	 *
+	 * @param locationId the id of the location to check
+	 * @param rootId the id of the root of the hierarchy
+	 * @return true if the location is in the hierarchy starting at the root, false if it is not or
+	 *         if either location is not part of this snapshot
+	 */
+	public boolean isInHierarchy(Integer locationId, Integer rootId) {
+		Integer position = positions.get(locationId);
+		Integer rootPosition = positions.get(rootId);
+		if (position == null || rootPosition == null) {
+			return false;
+		}
+		return rootPosition <= position && position < subtreeEnds[rootPosition];
+	}
+
+	/**
+	 * @param locationId the location id
+	 * @param includeRetired whether to include retired locations, the descendants of a retired
+	 *            location are left out with it
+	 * @return the ids of the descendants of the location in pre-order
+	 */
+	public List<Integer> getDescendantIds(Integer locationId, boolean includeRetired) {
+		Integer position = positions.get(locationId);
+		if (position == null) {
+			return Collections.emptyList();
+		}
+		List<Integer> ret = new ArrayList<>(subtreeEnds[position] - position - 1);
+		int i = position + 1;
+		while (i < subtreeEnds[position]) {
+			if (!includeRetired && retired[i]) {
+				i = subtreeEnds[i];
+			} else {
+				ret.add(locationIds[i++]);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @param locationId the location id
+	 * @return the ids of the ancestors of the location starting with its parent
+	 */
+	public List<Integer> getAncestorIds(Integer locationId) {
+		Integer position = positions.get(locationId);
+		if (position == null) {
+			return Collections.emptyList();
+		}
+		List<Integer> ret = new ArrayList<>();
+		for (int i = parentPositions[position]; i >= 0; i = parentPositions[i]) {
+			ret.add(locationIds[i]);
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the number of locations in this snapshot
+	 */
+	public int size() {
+		return positions.size();
+	}
+}
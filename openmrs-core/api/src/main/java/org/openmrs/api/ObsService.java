@@ -126,7 +126,34 @@ public interface ObsService extends OpenmrsService {
 	 */
 	@Authorized( { PrivilegeConstants.ADD_OBS, PrivilegeConstants.EDIT_OBS })
 	public Obs saveObs(Obs obs, String changeMessage) throws APIException;
-	
+
+	/**
+	 * Saves a large number of new observations, e.g. when migrating historical data or receiving
+	 * them from devices. Unlike {@link #saveObs(Obs, String)}, all the obs are validated and their
+	 * required data set before any is saved, so that an invalid obs is reported in the returned
+	 * result instead of aborting the others. The valid obs are then saved in batches of
+	 * {@link org.openmrs.util.OpenmrsConstants#GP_OBS_IMPORT_BATCH_SIZE}: the complex data of the
+	 * batch is written by its handlers, the obs are inserted, and the session is flushed and the
+	 * saved obs evicted from it so that it does not grow with the number of obs. Each obs is still
+	 * inserted with a statement of its own since obs ids are generated by the database.
+	 * <p>
+	 * Only new obs can be imported, group members are saved with their obs group and must not be in
+	 * the list. Database errors are not reported per obs, they roll back the whole import.
+	 * </p>
+	 *
+	 * @param obsList the new obs to save
+	 * @return the saved obs and the ones which could not be saved with the reason
+	 * @throws APIException
+	 * <strong>Should</strong> save the new obs
+	 * <strong>Should</strong> save the group members of obs groups
+	 * <strong>Should</strong> report invalid obs and save the others
+	 * <strong>Should</strong> report obs which are already saved
+	 * <strong>Should</strong> evict only the saved obs from the session
+	 * @since 2.6.0
+	 */
+	@Authorized(PrivilegeConstants.ADD_OBS)
+	public BulkSaveResult<Obs> importObs(List<Obs> obsList) throws APIException;
+
 	/**
 	 * Equivalent to deleting an observation
 	 * 
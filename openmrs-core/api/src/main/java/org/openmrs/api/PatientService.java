@@ -69,6 +69,38 @@ public interface PatientService extends OpenmrsService {
 	@Authorized( { PrivilegeConstants.ADD_PATIENTS, PrivilegeConstants.EDIT_PATIENTS })
 	public Patient savePatient(Patient patient) throws APIException;
 	
+	/**
+	 * Registers a large number of new patients, e.g. during mass registration campaigns. Works like
+	 * {@link #savePatient(Patient)} for each patient, except that:
+	 * <ul>
+	 * <li>the uniqueness of all the identifiers is checked with a few set based queries, including
+	 * against the other patients in the list</li>
+	 * <li>identifier formats and check digits are checked with validators looked up once per
+	 * import</li>
+	 * <li>a patient which cannot be saved is reported in the returned result and the others are
+	 * still saved</li>
+	 * <li>the session is flushed every {@link org.openmrs.util.OpenmrsConstants#GP_PATIENT_IMPORT_BATCH_SIZE}
+	 * patients and these patients are evicted from it</li>
+	 * <li>the names, identifiers and attributes of the patients are added to the search index at
+	 * once when all the patients are saved</li>
+	 * </ul>
+	 * Database errors are not reported per patient, they roll back the whole import.
+	 * 
+	 * @param patients the new patients to save
+	 * @return the saved patients and the ones which could not be saved with the reason
+	 * @throws APIException
+	 * <strong>Should</strong> save the new patients
+	 * <strong>Should</strong> report patients with an identifier in use by an existing patient
+	 * <strong>Should</strong> report patients with an identifier in use by a previous patient in the list
+	 * <strong>Should</strong> report patients with an invalid check digit
+	 * <strong>Should</strong> report patients which are already saved
+	 * <strong>Should</strong> make the saved patients searchable
+	 * <strong>Should</strong> evict only the saved patients from the session
+	 * @since 2.6.0
+	 */
+	@Authorized( { PrivilegeConstants.ADD_PATIENTS })
+	public BulkSaveResult<Patient> importPatients(List<Patient> patients) throws APIException;
+	
 	/**
 	 * Get patient by internal identifier
 	 * 
@@ -13,6 +13,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import org.openmrs.Person;
 import org.openmrs.PersonAddress;
@@ -728,7 +729,8 @@ public interface PersonService extends OpenmrsService {
 	
 	/**
 	 * Get all relationships for a given type of relationship mapped from the personA to all of the
-	 * personB's
+	 * personB's. All the relationships and persons are loaded, use
+	 * {@link #getRelationshipGraph(RelationshipType, Date)} for types with many relationships.
 	 * 
 	 * @param relationshipType type of relationship for which to retrieve all relationships
 	 * @return all relationships for the given type of relationship
@@ -738,6 +740,39 @@ public interface PersonService extends OpenmrsService {
 	@Authorized( { PrivilegeConstants.GET_RELATIONSHIPS })
 	public Map<Person, List<Person>> getRelationshipMap(RelationshipType relationshipType) throws APIException;
 	
+	/**
+	 * Gets the graph of the relationships of a type by person id, without loading any relationship
+	 * or person
+	 * 
+	 * @param relationshipType the type of the relationships, null for all types
+	 * @param effectiveDate if not null, only the relationships effective on this date are included
+	 * @return the graph of the relationships
+	 * @throws APIException
+	 * @since 2.6.0
+	 * <strong>Should</strong> map the ids of the persons of the relationships of the given type
+	 * <strong>Should</strong> only include the relationships effective on the given date
+	 * <strong>Should</strong> find the persons within the given number of hops
+	 */
+	@Authorized( { PrivilegeConstants.GET_RELATIONSHIPS })
+	public RelationshipGraph getRelationshipGraph(RelationshipType relationshipType, Date effectiveDate)
+	        throws APIException;
+	
+	/**
+	 * Passes the ids of the personA and personB of each relationship of a type to the given
+	 * consumer as they are read from the database, without loading any relationship or person
+	 * 
+	 * @param relationshipType the type of the relationships, null for all types
+	 * @param effectiveDate if not null, only the relationships effective on this date are included
+	 * @param consumer called with the id of the personA and the id of the personB of each
+	 *            relationship
+	 * @throws APIException
+	 * @since 2.6.0
+	 * <strong>Should</strong> pass the person ids of each relationship of the given type
+	 */
+	@Authorized( { PrivilegeConstants.GET_RELATIONSHIPS })
+	public void streamRelationshipPersonIds(RelationshipType relationshipType, Date effectiveDate,
+	        BiConsumer<Integer, Integer> consumer) throws APIException;
+	
 	/**
 	 * Builds the serialized data from
 	 * {@link org.openmrs.person.PersonMergeLog#getPersonMergeLogData}, sets the mergedData String,
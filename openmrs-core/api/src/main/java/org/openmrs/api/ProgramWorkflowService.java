@@ -494,6 +494,49 @@ public interface ProgramWorkflowService extends OpenmrsService {
 	 */
 	@Authorized( { PrivilegeConstants.GET_PATIENT_PROGRAMS })
 	public List<PatientProgram> getPatientPrograms(Cohort cohort, Collection<Program> programs);
+	
+	/**
+	 * Gets the current state in a workflow of each patient of a cohort. The states are read by a
+	 * projection query per {@link org.openmrs.util.OpenmrsConstants#GP_PROGRAM_COHORT_BATCH_SIZE}
+	 * patients, without loading the patient programs, so it is much cheaper than calling
+	 * {@link PatientProgram#getCurrentState(ProgramWorkflow)} for each patient. Only non voided
+	 * patient programs are considered, if a patient has several current states in the workflow the
+	 * one which started last is returned.
+	 * 
+	 * @param cohort the patients, or null for all patients
+	 * @param workflow the workflow
+	 * @return the current states by patient id, patients without a current state are left out
+	 * @since 2.6.0
+	 * <strong>Should</strong> return the current state of each patient in the cohort
+	 * <strong>Should</strong> leave out patients without a current state in the workflow
+	 * <strong>Should</strong> not return states of voided patient programs
+	 * <strong>Should</strong> return the states of all patients if cohort is null
+	 */
+	@Authorized( { PrivilegeConstants.GET_PATIENT_PROGRAMS })
+	public Map<Integer, CurrentPatientState> getCurrentStates(Cohort cohort, ProgramWorkflow workflow)
+	        throws APIException;
+	
+	/**
+	 * Transitions the patients of a cohort to the states of the given trigger concept, the way
+	 * conversions are triggered for a single patient. Only the active patient programs of the
+	 * programs which have a state for the trigger concept are loaded, together with their states,
+	 * by one query per {@link org.openmrs.util.OpenmrsConstants#GP_PROGRAM_COHORT_BATCH_SIZE}
+	 * patients. The session is flushed after each batch and the patient programs loaded by the batch
+	 * are evicted from it, the ones which were loaded before calling this method stay in the session.
+	 * 
+	 * @param cohort the patients to transition
+	 * @param trigger the concept of the states to transition to
+	 * @param dateConverted the date of the transition
+	 * @return the number of patient programs which were transitioned
+	 * @since 2.6.0
+	 * <strong>Should</strong> transition the patients of the cohort to the state of the trigger
+	 * <strong>Should</strong> skip patient programs for which the transition is not legal
+	 * <strong>Should</strong> skip patients who are not in the cohort
+	 * <strong>Should</strong> return zero if no workflow has a state for the trigger
+	 * <strong>Should</strong> keep the patient programs loaded before in the session
+	 */
+	@Authorized( { PrivilegeConstants.EDIT_PATIENT_PROGRAMS })
+	public int triggerStateConversion(Cohort cohort, Concept trigger, Date dateConverted) throws APIException;
 		
 	/**
 	 * Returns a list of Programs that are using a particular concept.
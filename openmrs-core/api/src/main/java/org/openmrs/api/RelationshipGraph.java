@@ -0,0 +1,223 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Immutable graph of relationships between persons which only holds person ids. The persons are
+ * numbered in the order of their ids and the relationships of each person are stored as ranges
+ * of int arrays (compressed sparse rows), in both directions, so that hundreds of thousands of
+ * relationships take a few megabytes and no person or relationship has to be loaded to walk them.
+ *
+ * @see PersonService#getRelationshipGraph(org.openmrs.RelationshipType, java.util.Date)
+ * @since 2.6.0
+ */
+public class RelationshipGraph {
+
+	/**
+	 * The direction in which relationships are followed
+	 */
+	public enum Direction {
+		/** from personA to personB */
+		FORWARD,
+		/** from personB to personA */
+		BACKWARD,
+		/** both ways */
+		BOTH
+	}
+
+	private final int[] personIds;
+
+	private final int[] forwardOffsets;
+
+	private final int[] forwardTargets;
+
+	private final int[] backwardOffsets;
+
+	private final int[] backwardTargets;
+
+	private RelationshipGraph(int[] personAIds, int[] personBIds, int size) {
+		int[] ids = new int[size * 2];
+		System.arraycopy(personAIds, 0, ids, 0, size);
+		System.arraycopy(personBIds, 0, ids, size, size);
+		Arrays.sort(ids);
+		int distinct = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if (i == 0 || ids[i] != ids[i - 1]) {
+				ids[distinct++] = ids[i];
+			}
+		}
+		personIds = Arrays.copyOf(ids, distinct);
+
+		int[] sources = new int[size];
+		int[] targets = new int[size];
+		for (int i = 0; i < size; i++) {
+			sources[i] = Arrays.binarySearch(personIds, personAIds[i]);
+			targets[i] = Arrays.binarySearch(personIds, personBIds[i]);
+		}
+		forwardOffsets = new int[distinct + 1];
+		forwardTargets = new int[size];
+		fill(sources, targets, forwardOffsets, forwardTargets);
+		backwardOffsets = new int[distinct + 1];
+		backwardTargets = new int[size];
+		fill(targets, sources, backwardOffsets, backwardTargets);
+	}
+
+	private static void fill(int[] sources, int[] targets, int[] offsets, int[] rows) {
+		for (int source : sources) {
+			offsets[source + 1]++;
+		}
+		for (int i = 1; i < offsets.length; i++) {
+			offsets[i] += offsets[i - 1];
+		}
+		int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+		for (int i = 0; i < sources.length; i++) {
+			rows[next[sources[i]]++] = targets[i];
+		}
+		for (int i = 0; i < offsets.length - 1; i++) {
+			Arrays.sort(rows, offsets[i], offsets[i + 1]);
+		}
+	}
+
+	/**
+	 * @return the number of persons with at least one relationship in the graph
+	 */
+	public int getPersonCount() {
+		return personIds.length;
+	}
+
+	/**
+	 * @return the number of relationships in the graph
+	 */
+	public int getRelationshipCount() {
+		return forwardTargets.length;
+	}
+
+	/**
+	 * @return the ids of the persons with at least one relationship in the graph, sorted
+	 */
+	public int[] getPersonIds() {
+		return personIds.clone();
+	}
+
+	/**
+	 * @param personId the id of a person
+	 * @return true if the person has at least one relationship in the graph
+	 */
+	public boolean contains(int personId) {
+		return Arrays.binarySearch(personIds, personId) >= 0;
+	}
+
+	/**
+	 * @param personAId the id of the personA of the relationships
+	 * @return the ids of the personB of the relationships of the given personA, sorted
+	 */
+	public int[] getPersonBIds(int personAId) {
+		return getNeighborIds(personAId, 1, Direction.FORWARD);
+	}
+
+	/**
+	 * @param personBId the id of the personB of the relationships
+	 * @return the ids of the personA of the relationships of the given personB, sorted
+	 */
+	public int[] getPersonAIds(int personBId) {
+		return getNeighborIds(personBId, 1, Direction.BACKWARD);
+	}
+
+	/**
+	 * Gets the persons which can be reached from a person by following at most the given number of
+	 * relationships
+	 *
+	 * @param personId the id of the person to start from
+	 * @param hops the maximum number of relationships to follow
+	 * @param direction the direction in which the relationships are followed
+	 * @return the ids of the reached persons, sorted, without the given person
+	 */
+	public int[] getNeighborIds(int personId, int hops, Direction direction) {
+		int start = Arrays.binarySearch(personIds, personId);
+		if (start < 0 || hops < 1) {
+			return new int[0];
+		}
+		BitSet visited = new BitSet(personIds.length);
+		visited.set(start);
+		// breadth first walk, the positions of each hop are appended after the ones of the previous hop
+		int[] queue = new int[16];
+		queue[0] = start;
+		int head = 0;
+		int tail = 1;
+		for (int hop = 0; hop < hops && head < tail; hop++) {
+			int hopEnd = tail;
+			while (head < hopEnd) {
+				int position = queue[head++];
+				for (int k = 0; k < 2; k++) {
+					int[] offsets = k == 0 ? forwardOffsets : backwardOffsets;
+					int[] targets = k == 0 ? forwardTargets : backwardTargets;
+					if ((k == 0 && direction == Direction.BACKWARD) || (k == 1 && direction == Direction.FORWARD)) {
+						continue;
+					}
+					for (int j = offsets[position]; j < offsets[position + 1]; j++) {
+						if (!visited.get(targets[j])) {
+							visited.set(targets[j]);
+							if (tail == queue.length) {
+								queue = Arrays.copyOf(queue, tail * 2);
+							}
+							queue[tail++] = targets[j];
+						}
+					}
+				}
+			}
+		}
+
+		visited.clear(start);
+		int[] ids = new int[visited.cardinality()];
+		int i = 0;
+		for (int position = visited.nextSetBit(0); position >= 0; position = visited.nextSetBit(position + 1)) {
+			ids[i++] = personIds[position];
+		}
+		return ids;
+	}
+
+	/**
+	 * Collects the pairs of person ids of the relationships to build a graph of them
+	 */
+	public static class Builder {
+
+		private int[] personAIds = new int[1024];
+
+		private int[] personBIds = new int[1024];
+
+		private int size;
+
+		/**
+		 * @param personAId the id of the personA of a relationship
+		 * @param personBId the id of the personB of the relationship
+		 * @return this builder
+		 */
+		public Builder add(int personAId, int personBId) {
+			if (size == personAIds.length) {
+				personAIds = Arrays.copyOf(personAIds, size * 2);
+				personBIds = Arrays.copyOf(personBIds, size * 2);
+			}
+			personAIds[size] = personAId;
+			personBIds[size] = personBId;
+			size++;
+			return this;
+		}
+
+		/**
+		 * @return the graph of the relationships which were added
+		 */
+		public RelationshipGraph build() {
+			return new RelationshipGraph(personAIds, personBIds, size);
+		}
+	}
+}
@@ -42,6 +42,19 @@ public interface SerializationService extends OpenmrsService {
 	 */
 	public OpenmrsSerializer getSerializer(Class<? extends OpenmrsSerializer> serializationClass);
 	
+	/**
+	 * Returns the serializer configured for objects of the passed type, or of one of its supertypes,
+	 * in the {@link org.openmrs.util.OpenmrsConstants#GP_SERIALIZER_BY_TYPE} global property.
+	 * 
+	 * @param type - the type of the objects to serialize
+	 * @return {@link OpenmrsSerializer} configured for the passed type, or null if there is none
+	 * @since 2.6.0
+	 * <strong>Should</strong> return the serializer configured for the given type
+	 * <strong>Should</strong> return the serializer configured for a supertype of the given type
+	 * <strong>Should</strong> return null if no serializer is configured for the given type
+	 */
+	public OpenmrsSerializer getSerializerForType(Class<?> type);
+	
 	/**
 	 * Serialize the passed object into an identifying string that can be retrieved later using the
 	 * passed {@link OpenmrsSerializer} class
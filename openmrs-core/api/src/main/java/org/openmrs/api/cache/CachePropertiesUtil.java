@@ -15,10 +15,11 @@ import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
 
 import org.apache.commons.beanutils.BeanUtils;
 import org.springframework.core.io.Resource;
@@ -32,21 +33,50 @@ public class CachePropertiesUtil {
     private CachePropertiesUtil() {
     }
 
+    /**
+     * The file in which modules configure the caches of the api cache manager
+     */
+    public static final String API_CACHE_CONFIG = "apiCacheConfig.properties";
+
+    /**
+     * The file in which the Hibernate second level cache regions set in ehcache.xml can be resized,
+     * e.g. org.openmrs.ConceptName.maxElementsInMemory=100000
+     *
+     * @since 2.6.0
+     */
+    public static final String HIBERNATE_CACHE_CONFIG = "hibernateCacheConfig.properties";
+
     /**
      * This method looks for all apiCacheConfig.properties file located in cacheConfig folder in classpath
      * @return list of CacheConfiguration objects
      */
     public static List<CacheConfiguration> getCacheConfigurations(){
+        return getCacheConfigurations(API_CACHE_CONFIG, Collections.emptyMap());
+    }
+
+    /**
+     * Looks for all the files with the given name in the classpath and creates the cache configurations
+     * they define. Cache names may contain dots, the property name is what follows the last dot.
+     *
+     * @param fileName the name of the properties files
+     * @param baseConfigurations the configurations the properties are applied to, by cache name
+     * @return list of CacheConfiguration objects
+     * @since 2.6.0
+     */
+    public static List<CacheConfiguration> getCacheConfigurations(String fileName,
+            Map<String, CacheConfiguration> baseConfigurations) {
         List<CacheConfiguration> openmrsCacheConfigurationList = new ArrayList<>();
-        Resource[] resourceFromClassPath = getResourceFromClassPath();
+        Resource[] resourceFromClassPath = getResourceFromClassPath(fileName);
         Arrays.stream(resourceFromClassPath)
-                .forEach(r -> addCacheConfigsFormResourceToList(r, openmrsCacheConfigurationList));
+                .forEach(r -> addCacheConfigsFormResourceToList(r, baseConfigurations, openmrsCacheConfigurationList));
 
         return openmrsCacheConfigurationList;
     }
 
-    private static CacheConfiguration createCacheConfiguration(OpenmrsCacheConfiguration openmrsCacheConfiguration) {
-        CacheConfiguration cacheConfiguration = new CacheConfiguration();
+    private static CacheConfiguration createCacheConfiguration(OpenmrsCacheConfiguration openmrsCacheConfiguration,
+            CacheConfiguration baseConfiguration) {
+        CacheConfiguration cacheConfiguration = baseConfiguration == null ? new CacheConfiguration()
+                : baseConfiguration.clone();
         openmrsCacheConfiguration.getAllKeys()
                 .forEach(key -> {
                     try {
@@ -58,32 +88,24 @@ public class CachePropertiesUtil {
         return cacheConfiguration;
     }
 
-    private static void addCacheConfigsFormResourceToList(Resource resource, List<CacheConfiguration> openmrsCacheConfigurationList) {
+    private static void addCacheConfigsFormResourceToList(Resource resource,
+            Map<String, CacheConfiguration> baseConfigurations, List<CacheConfiguration> openmrsCacheConfigurationList) {
         Properties cacheProperties = getPropertiesFromResource(resource);
-        getAllCacheNames(cacheProperties.keySet())
-                .forEach(cacheName -> {
-                    OpenmrsCacheConfiguration openmrsCacheConfiguration = new OpenmrsCacheConfiguration();
-                    openmrsCacheConfiguration.addProperty("name", cacheName);
-                    cacheProperties.keySet()
-                            .stream()
-                            .filter(key -> key.toString().startsWith(cacheName))
-                            .forEach(key -> {
-                                String s = key.toString();
-                                openmrsCacheConfiguration.addProperty(
-                                        s.replace(cacheName+".", ""),
-                                        cacheProperties.getProperty(key.toString()));
+        Map<String, OpenmrsCacheConfiguration> configurationsByName = new LinkedHashMap<>();
+        cacheProperties.stringPropertyNames()
+                .forEach(key -> {
+                    String cacheName = key.substring(0, key.lastIndexOf('.'));
+                    OpenmrsCacheConfiguration openmrsCacheConfiguration = configurationsByName.computeIfAbsent(cacheName,
+                            name -> {
+                                OpenmrsCacheConfiguration configuration = new OpenmrsCacheConfiguration();
+                                configuration.addProperty("name", name);
+                                return configuration;
                             });
-                    openmrsCacheConfigurationList.add(createCacheConfiguration(openmrsCacheConfiguration));
+                    openmrsCacheConfiguration.addProperty(key.substring(key.lastIndexOf('.') + 1),
+                            cacheProperties.getProperty(key));
                 });
-    }
-
-    private static Set<String> getAllCacheNames(Set<Object> keys) {
-        Set<String> cacheNames = new HashSet<>();
-        keys.forEach(cacheName -> {
-            String s = cacheName.toString();
-            cacheNames.add(s.substring(0, s.indexOf(".")));
-        });
-        return cacheNames;
+        configurationsByName.forEach((cacheName, openmrsCacheConfiguration) -> openmrsCacheConfigurationList.add(
+                createCacheConfiguration(openmrsCacheConfiguration, baseConfigurations.get(cacheName))));
     }
 
     private static Properties getPropertiesFromResource(Resource resource) {
@@ -96,10 +118,10 @@ public class CachePropertiesUtil {
         }
     }
 
-    private static Resource[] getResourceFromClassPath() {
+    private static Resource[] getResourceFromClassPath(String fileName) {
         ResourcePatternResolver patternResolver = new PathMatchingResourcePatternResolver();
         try {
-            return patternResolver.getResources("classpath*:apiCacheConfig.properties");
+            return patternResolver.getResources("classpath*:" + fileName);
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
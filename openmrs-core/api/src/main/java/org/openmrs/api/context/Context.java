@@ -11,6 +11,7 @@ package org.openmrs.api.context;
 
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -32,6 +33,7 @@ import org.openmrs.PersonName;
 import org.openmrs.Privilege;
 import org.openmrs.Role;
 import org.openmrs.User;
+import org.openmrs.aop.ServiceMethodMetrics;
 import org.openmrs.api.APIException;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.CohortService;
@@ -54,6 +56,11 @@ import org.openmrs.api.SerializationService;
 import org.openmrs.api.UserService;
 import org.openmrs.api.VisitService;
 import org.openmrs.api.db.ContextDAO;
+import org.openmrs.api.db.SearchIndexProgress;
+import org.openmrs.api.db.SearchIndexQueueStatistics;
+import org.openmrs.api.db.SearchIndexReport;
+import org.openmrs.api.db.SearchIndexUpdateOptions;
+import org.openmrs.api.db.SlowQueryLog;
 import org.openmrs.hl7.HL7Service;
 import org.openmrs.logic.LogicService;
 import org.openmrs.messagesource.MessageSourceService;
@@ -1140,6 +1147,12 @@ public class Context {
 		AdministrationService as = Context.getAdministrationService();
 		Boolean disableValidation = Boolean.valueOf(as.getGlobalProperty(OpenmrsConstants.GP_DISABLE_VALIDATION, "false"));
 		ValidateUtil.setDisableValidation(disableValidation);
+		
+		ServiceMethodMetrics.getInstance().configure(
+			as.getGlobalProperty(OpenmrsConstants.GP_SLOW_SERVICE_CALL_THRESHOLD),
+			as.getGlobalProperty(OpenmrsConstants.GP_SLOW_SERVICE_CALL_SAMPLE_SIZE));
+		SlowQueryLog.getInstance().configure(as.getGlobalProperty(OpenmrsConstants.GP_SLOW_QUERY_THRESHOLD),
+			as.getGlobalProperty(OpenmrsConstants.GP_SLOW_QUERY_SAMPLE_SIZE));
 
 		PersonName.setFormat(Context.getAdministrationService().getGlobalProperty(
 				OpenmrsConstants.GLOBAL_PROPERTY_LAYOUT_NAME_FORMAT));
@@ -1374,6 +1387,94 @@ public class Context {
 		getContextDAO().updateSearchIndexForObject(object);
 	}
 
+	/**
+	 * Rebuilds the search index using the given loader threads, batch and fetch sizes. It is a
+	 * blocking operation. If the options do not list any types, all indexed types are rebuilt and
+	 * the search index watermark is moved to the start of the rebuild.
+	 *
+	 * @see #updateSearchIndex()
+	 * @see #getSearchIndexProgress()
+	 * @param options the settings of the rebuild
+	 * @since 2.6.0
+	 */
+	public static void updateSearchIndex(SearchIndexUpdateOptions options) {
+		getContextDAO().updateSearchIndex(options);
+	}
+
+	/**
+	 * Re-indexes only the entities which were created, changed or voided since the last search index
+	 * update, by default person names, patient identifiers and concept names. The whole index is
+	 * rebuilt if there is no watermark of a previous update.
+	 *
+	 * @see OpenmrsConstants#GP_SEARCH_INDEX_WATERMARK
+	 * @param options the types and batch sizes to use
+	 * @since 2.6.0
+	 */
+	public static void updateSearchIndexIncrementally(SearchIndexUpdateOptions options) {
+		getContextDAO().updateSearchIndexIncrementally(options);
+	}
+
+	/**
+	 * Re-indexes the entities of the given types which were created, changed or voided at or after
+	 * the given date, without moving the search index watermark.
+	 *
+	 * @param since the date to re-index from
+	 * @param options the types and batch sizes to use
+	 * @return the number of re-indexed entities
+	 * @since 2.6.0
+	 */
+	public static long updateSearchIndexSince(Date since, SearchIndexUpdateOptions options) {
+		return getContextDAO().updateSearchIndexSince(since, options);
+	}
+
+	/**
+	 * Gets the progress of the running or last finished search index update, one entry per type.
+	 *
+	 * @return the progress per indexed type
+	 * @since 2.6.0
+	 */
+	public static List<SearchIndexProgress> getSearchIndexProgress() {
+		return getContextDAO().getSearchIndexProgress();
+	}
+
+	/**
+	 * Reports the size of the search index per type and field, and the mean time taken by patient
+	 * name searches for the given sample queries, to compare the index layouts which can be selected
+	 * with {@link OpenmrsConstants#SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY}.
+	 *
+	 * @param sampleQueries the names to search for, may be empty
+	 * @return the report
+	 * @since 2.6.0
+	 */
+	public static SearchIndexReport getSearchIndexReport(List<String> sampleQueries) {
+		return getContextDAO().getSearchIndexReport(sampleQueries);
+	}
+
+	/**
+	 * Waits until the patients, concepts and drugs saved by the transactions committed so far are
+	 * visible to searches. They are visible when their transaction commits unless they are indexed in
+	 * the background, see {@link OpenmrsConstants#GP_SEARCH_INDEXER_ASYNC}, so callers which search
+	 * for what they just saved must call this method first.
+	 *
+	 * @param timeoutMillis the maximum time to wait in milliseconds
+	 * @return true if the saved entities are visible to searches, false if the timeout elapsed first
+	 * @since 2.6.0
+	 */
+	public static boolean waitForSearchIndex(long timeoutMillis) {
+		return getContextDAO().waitForSearchIndex(timeoutMillis);
+	}
+
+	/**
+	 * Gets the depth of the queue of entities waiting to be indexed in the background and the time
+	 * they take to become visible to searches.
+	 *
+	 * @return the statistics of the background indexing
+	 * @since 2.6.0
+	 */
+	public static SearchIndexQueueStatistics getSearchIndexQueueStatistics() {
+		return getContextDAO().getSearchIndexQueueStatistics();
+	}
+
 	/**
 	 * @see org.openmrs.api.context.ServiceContext#setUseSystemClassLoader(boolean)
 	 * @since 1.10
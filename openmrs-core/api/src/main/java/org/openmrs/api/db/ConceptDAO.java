@@ -40,6 +40,7 @@ import org.openmrs.Drug;
 import org.openmrs.DrugIngredient;
 import org.openmrs.api.APIException;
 import org.openmrs.api.ConceptService;
+import org.openmrs.api.ConceptSetClosure;
 
 /**
  * Concept-related database functions
@@ -218,6 +219,23 @@ public interface ConceptDAO {
 	 */
 	public List<ConceptSet> getSetsContainingConcept(Concept concept) throws DAOException;
 	
+	/**
+	 * Loads the whole concept set graph with a single query
+	 * 
+	 * @return a new snapshot of the concept set graph
+	 * @since 2.6.0
+	 */
+	public ConceptSetClosure getConceptSetClosure() throws DAOException;
+	
+	/**
+	 * Loads the concepts with the given ids, fetching the ones which are not cached yet in batches
+	 * 
+	 * @param conceptIds the ids of the concepts to load
+	 * @return the concepts by id, ids of concepts which do not exist are left out
+	 * @since 2.6.0
+	 */
+	public Map<Integer, Concept> getConceptsByIds(Collection<Integer> conceptIds) throws DAOException;
+	
 	/**
 	 * @see org.openmrs.api.ConceptService#getConceptNumeric(java.lang.Integer)
 	 */
@@ -9,6 +9,7 @@
  */
 package org.openmrs.api.db;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Future;
@@ -154,7 +155,8 @@ public interface ContextDAO {
 	 * Updates the search index if necessary.
 	 * <p>
 	 * The update is triggered if {@link OpenmrsConstants#GP_SEARCH_INDEX_VERSION} is blank
-	 * or the value does not match {@link OpenmrsConstants#SEARCH_INDEX_VERSION}.
+	 * or the value does not match {@link OpenmrsConstants#SEARCH_INDEX_VERSION} combined with the
+	 * {@link org.openmrs.api.db.hibernate.search.SearchIndexLayout} of the deployment.
 	 */
 	public void setupSearchIndex();
 	
@@ -177,4 +179,51 @@ public interface ContextDAO {
 	 * @see Context#updateSearchIndexForType(Class)
 	 */
 	public void updateSearchIndexForType(Class<?> type);
+	
+	/**
+	 * @see Context#updateSearchIndex(SearchIndexUpdateOptions)
+	 * @since 2.6.0
+	 */
+	public void updateSearchIndex(SearchIndexUpdateOptions options);
+	
+	/**
+	 * @see Context#updateSearchIndexIncrementally(SearchIndexUpdateOptions)
+	 * @since 2.6.0
+	 */
+	public void updateSearchIndexIncrementally(SearchIndexUpdateOptions options);
+	
+	/**
+	 * Re-indexes the entities of the given types which were created, changed or voided at or after
+	 * the given date.
+	 * 
+	 * @param since the date to re-index from
+	 * @param options the types and batch sizes to use
+	 * @return the number of re-indexed entities
+	 * @since 2.6.0
+	 */
+	public long updateSearchIndexSince(Date since, SearchIndexUpdateOptions options);
+	
+	/**
+	 * @see Context#getSearchIndexProgress()
+	 * @since 2.6.0
+	 */
+	public List<SearchIndexProgress> getSearchIndexProgress();
+	
+	/**
+	 * @see Context#getSearchIndexReport(List)
+	 * @since 2.6.0
+	 */
+	public SearchIndexReport getSearchIndexReport(List<String> sampleQueries);
+	
+	/**
+	 * @see Context#waitForSearchIndex(long)
+	 * @since 2.6.0
+	 */
+	public boolean waitForSearchIndex(long timeoutMillis);
+	
+	/**
+	 * @see Context#getSearchIndexQueueStatistics()
+	 * @since 2.6.0
+	 */
+	public SearchIndexQueueStatistics getSearchIndexQueueStatistics();
 }
@@ -0,0 +1,514 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Snapshot of the Hibernate statistics: sessions and connections, query execution times, entity and
+ * collection loads and fetches, and the hit ratio of each second level cache region. The counters
+ * add up from {@link #getStartTime()}, comparing two snapshots gives the activity in between. A high
+ * fetch count compared to the load count of an entity or collection usually reveals N+1 queries.
+ *
+ * @see org.openmrs.api.AdministrationService#getDatabaseStatistics()
+ * @since 2.6.0
+ */
+public class DatabaseStatistics {
+
+	private Date startTime;
+
+	private Date snapshotTime;
+
+	private long sessionOpenCount;
+
+	private long sessionCloseCount;
+
+	private long connectCount;
+
+	private long connectionAcquisitionTime;
+
+	private long connectionAcquisitionMaxTime;
+
+	private long transactionCount;
+
+	private long prepareStatementCount;
+
+	private long flushCount;
+
+	private long queryExecutionCount;
+
+	private long queryExecutionMaxTime;
+
+	private String queryExecutionMaxTimeQueryString;
+
+	private long entityLoadCount;
+
+	private long entityFetchCount;
+
+	private long collectionLoadCount;
+
+	private long collectionFetchCount;
+
+	private long secondLevelCacheHitCount;
+
+	private long secondLevelCacheMissCount;
+
+	private long secondLevelCachePutCount;
+
+	private List<QueryStatistics> queries = new ArrayList<>();
+
+	private List<EntityStatistics> entities = new ArrayList<>();
+
+	private List<EntityStatistics> collections = new ArrayList<>();
+
+	private List<CacheRegionStatistics> cacheRegions = new ArrayList<>();
+
+	/**
+	 * @return when the statistics started to be collected
+	 */
+	public Date getStartTime() {
+		return startTime;
+	}
+
+	public void setStartTime(Date startTime) {
+		this.startTime = startTime;
+	}
+
+	/**
+	 * @return when this snapshot was taken
+	 */
+	public Date getSnapshotTime() {
+		return snapshotTime;
+	}
+
+	public void setSnapshotTime(Date snapshotTime) {
+		this.snapshotTime = snapshotTime;
+	}
+
+	/**
+	 * @return the number of opened sessions
+	 */
+	public long getSessionOpenCount() {
+		return sessionOpenCount;
+	}
+
+	public void setSessionOpenCount(long sessionOpenCount) {
+		this.sessionOpenCount = sessionOpenCount;
+	}
+
+	/**
+	 * @return the number of closed sessions
+	 */
+	public long getSessionCloseCount() {
+		return sessionCloseCount;
+	}
+
+	public void setSessionCloseCount(long sessionCloseCount) {
+		this.sessionCloseCount = sessionCloseCount;
+	}
+
+	/**
+	 * @return the number of JDBC connections acquired by the sessions
+	 */
+	public long getConnectCount() {
+		return connectCount;
+	}
+
+	public void setConnectCount(long connectCount) {
+		this.connectCount = connectCount;
+	}
+
+	/**
+	 * @return the time in milliseconds the sessions spent acquiring JDBC connections, a high value
+	 *         compared to {@link #getConnectCount()} points at an exhausted connection pool
+	 */
+	public long getConnectionAcquisitionTime() {
+		return connectionAcquisitionTime;
+	}
+
+	public void setConnectionAcquisitionTime(long connectionAcquisitionTime) {
+		this.connectionAcquisitionTime = connectionAcquisitionTime;
+	}
+
+	/**
+	 * @return the longest time in milliseconds a session spent acquiring a JDBC connection
+	 */
+	public long getConnectionAcquisitionMaxTime() {
+		return connectionAcquisitionMaxTime;
+	}
+
+	public void setConnectionAcquisitionMaxTime(long connectionAcquisitionMaxTime) {
+		this.connectionAcquisitionMaxTime = connectionAcquisitionMaxTime;
+	}
+
+	/**
+	 * @return the number of completed transactions
+	 */
+	public long getTransactionCount() {
+		return transactionCount;
+	}
+
+	public void setTransactionCount(long transactionCount) {
+		this.transactionCount = transactionCount;
+	}
+
+	/**
+	 * @return the number of prepared JDBC statements
+	 */
+	public long getPrepareStatementCount() {
+		return prepareStatementCount;
+	}
+
+	public void setPrepareStatementCount(long prepareStatementCount) {
+		this.prepareStatementCount = prepareStatementCount;
+	}
+
+	/**
+	 * @return the number of session flushes
+	 */
+	public long getFlushCount() {
+		return flushCount;
+	}
+
+	public void setFlushCount(long flushCount) {
+		this.flushCount = flushCount;
+	}
+
+	/**
+	 * @return the number of executed HQL, criteria and SQL queries
+	 */
+	public long getQueryExecutionCount() {
+		return queryExecutionCount;
+	}
+
+	public void setQueryExecutionCount(long queryExecutionCount) {
+		this.queryExecutionCount = queryExecutionCount;
+	}
+
+	/**
+	 * @return the execution time in milliseconds of the slowest query
+	 */
+	public long getQueryExecutionMaxTime() {
+		return queryExecutionMaxTime;
+	}
+
+	public void setQueryExecutionMaxTime(long queryExecutionMaxTime) {
+		this.queryExecutionMaxTime = queryExecutionMaxTime;
+	}
+
+	/**
+	 * @return the slowest query
+	 */
+	public String getQueryExecutionMaxTimeQueryString() {
+		return queryExecutionMaxTimeQueryString;
+	}
+
+	public void setQueryExecutionMaxTimeQueryString(String queryExecutionMaxTimeQueryString) {
+		this.queryExecutionMaxTimeQueryString = queryExecutionMaxTimeQueryString;
+	}
+
+	/**
+	 * @return the number of entities loaded from the database
+	 */
+	public long getEntityLoadCount() {
+		return entityLoadCount;
+	}
+
+	public void setEntityLoadCount(long entityLoadCount) {
+		this.entityLoadCount = entityLoadCount;
+	}
+
+	/**
+	 * @return the number of entities fetched lazily, each fetch needed its own query
+	 */
+	public long getEntityFetchCount() {
+		return entityFetchCount;
+	}
+
+	public void setEntityFetchCount(long entityFetchCount) {
+		this.entityFetchCount = entityFetchCount;
+	}
+
+	/**
+	 * @return the number of collections loaded from the database
+	 */
+	public long getCollectionLoadCount() {
+		return collectionLoadCount;
+	}
+
+	public void setCollectionLoadCount(long collectionLoadCount) {
+		this.collectionLoadCount = collectionLoadCount;
+	}
+
+	/**
+	 * @return the number of collections fetched lazily, each fetch needed its own query
+	 */
+	public long getCollectionFetchCount() {
+		return collectionFetchCount;
+	}
+
+	public void setCollectionFetchCount(long collectionFetchCount) {
+		this.collectionFetchCount = collectionFetchCount;
+	}
+
+	/**
+	 * @return the number of hits in the second level cache
+	 */
+	public long getSecondLevelCacheHitCount() {
+		return secondLevelCacheHitCount;
+	}
+
+	public void setSecondLevelCacheHitCount(long secondLevelCacheHitCount) {
+		this.secondLevelCacheHitCount = secondLevelCacheHitCount;
+	}
+
+	/**
+	 * @return the number of misses in the second level cache
+	 */
+	public long getSecondLevelCacheMissCount() {
+		return secondLevelCacheMissCount;
+	}
+
+	public void setSecondLevelCacheMissCount(long secondLevelCacheMissCount) {
+		this.secondLevelCacheMissCount = secondLevelCacheMissCount;
+	}
+
+	/**
+	 * @return the number of entries put in the second level cache
+	 */
+	public long getSecondLevelCachePutCount() {
+		return secondLevelCachePutCount;
+	}
+
+	public void setSecondLevelCachePutCount(long secondLevelCachePutCount) {
+		this.secondLevelCachePutCount = secondLevelCachePutCount;
+	}
+
+	/**
+	 * @return the statistics of each query, the ones with the highest total time first
+	 */
+	public List<QueryStatistics> getQueries() {
+		return queries;
+	}
+
+	public void setQueries(List<QueryStatistics> queries) {
+		this.queries = queries;
+	}
+
+	/**
+	 * @return the statistics of each loaded or fetched entity, the most fetched first
+	 */
+	public List<EntityStatistics> getEntities() {
+		return entities;
+	}
+
+	public void setEntities(List<EntityStatistics> entities) {
+		this.entities = entities;
+	}
+
+	/**
+	 * @return the statistics of each loaded or fetched collection role, the most fetched first
+	 */
+	public List<EntityStatistics> getCollections() {
+		return collections;
+	}
+
+	public void setCollections(List<EntityStatistics> collections) {
+		this.collections = collections;
+	}
+
+	/**
+	 * @return the statistics of each second level cache region
+	 */
+	public List<CacheRegionStatistics> getCacheRegions() {
+		return cacheRegions;
+	}
+
+	public void setCacheRegions(List<CacheRegionStatistics> cacheRegions) {
+		this.cacheRegions = cacheRegions;
+	}
+
+	/**
+	 * @return the ratio of second level cache lookups which were hits, 0 if there was no lookup
+	 */
+	public double getSecondLevelCacheHitRatio() {
+		return ratio(secondLevelCacheHitCount, secondLevelCacheMissCount);
+	}
+
+	private static double ratio(long hits, long misses) {
+		return hits + misses == 0 ? 0 : hits / (double) (hits + misses);
+	}
+
+	/**
+	 * Execution statistics of a query
+	 */
+	public static class QueryStatistics {
+
+		private final String query;
+
+		private final long executionCount;
+
+		private final long executionRowCount;
+
+		private final long executionAvgTime;
+
+		private final long executionMaxTime;
+
+		public QueryStatistics(String query, long executionCount, long executionRowCount, long executionAvgTime,
+		    long executionMaxTime) {
+			this.query = query;
+			this.executionCount = executionCount;
+			this.executionRowCount = executionRowCount;
+			this.executionAvgTime = executionAvgTime;
+			this.executionMaxTime = executionMaxTime;
+		}
+
+		/**
+		 * @return the HQL, criteria or SQL query string
+		 */
+		public String getQuery() {
+			return query;
+		}
+
+		/**
+		 * @return the number of executions
+		 */
+		public long getExecutionCount() {
+			return executionCount;
+		}
+
+		/**
+		 * @return the number of rows returned by all the executions
+		 */
+		public long getExecutionRowCount() {
+			return executionRowCount;
+		}
+
+		/**
+		 * @return the average execution time in milliseconds
+		 */
+		public long getExecutionAvgTime() {
+			return executionAvgTime;
+		}
+
+		/**
+		 * @return the longest execution time in milliseconds
+		 */
+		public long getExecutionMaxTime() {
+			return executionMaxTime;
+		}
+
+		/**
+		 * @return the estimated total execution time in milliseconds
+		 */
+		public long getExecutionTotalTime() {
+			return executionAvgTime * executionCount;
+		}
+	}
+
+	/**
+	 * Load and fetch counts of an entity or a collection role
+	 */
+	public static class EntityStatistics {
+
+		private final String name;
+
+		private final long loadCount;
+
+		private final long fetchCount;
+
+		public EntityStatistics(String name, long loadCount, long fetchCount) {
+			this.name = name;
+			this.loadCount = loadCount;
+			this.fetchCount = fetchCount;
+		}
+
+		/**
+		 * @return the entity name or the collection role, e.g. org.openmrs.Patient.identifiers
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the number of times it was loaded from the database
+		 */
+		public long getLoadCount() {
+			return loadCount;
+		}
+
+		/**
+		 * @return the number of times it was fetched lazily with its own query
+		 */
+		public long getFetchCount() {
+			return fetchCount;
+		}
+	}
+
+	/**
+	 * Statistics of a second level cache region
+	 */
+	public static class CacheRegionStatistics {
+
+		private final String regionName;
+
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long putCount;
+
+		private final long elementCountInMemory;
+
+		public CacheRegionStatistics(String regionName, long hitCount, long missCount, long putCount,
+		    long elementCountInMemory) {
+			this.regionName = regionName;
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.putCount = putCount;
+			this.elementCountInMemory = elementCountInMemory;
+		}
+
+		/**
+		 * @return the name of the region as set in ehcache.xml
+		 */
+		public String getRegionName() {
+			return regionName;
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		public long getPutCount() {
+			return putCount;
+		}
+
+		/**
+		 * @return the number of entries in memory, negative if the cache does not tell it
+		 */
+		public long getElementCountInMemory() {
+			return elementCountInMemory;
+		}
+
+		/**
+		 * @return the ratio of lookups which were hits, 0 if there was no lookup
+		 */
+		public double getHitRatio() {
+			return ratio(hitCount, missCount);
+		}
+	}
+}
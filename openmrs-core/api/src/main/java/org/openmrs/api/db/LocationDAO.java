@@ -9,6 +9,7 @@
  */
 package org.openmrs.api.db;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +19,7 @@ import org.openmrs.LocationAttribute;
 import org.openmrs.LocationAttributeType;
 import org.openmrs.LocationTag;
 import org.openmrs.api.LocationService;
+import org.openmrs.api.LocationTree;
 
 /**
  * Location-related database functions
@@ -156,6 +158,23 @@ public interface LocationDAO {
 	 */
 	public List<Location> getRootLocations(boolean includeRetired);
 	
+	/**
+	 * Loads the parent and retired flag of all locations with a single query
+	 * 
+	 * @return a new snapshot of the location hierarchy
+	 * @since 2.6.0
+	 */
+	public LocationTree getLocationTree();
+	
+	/**
+	 * Loads the locations with the given ids with a single query per thousand ids
+	 * 
+	 * @param locationIds the ids of the locations to load
+	 * @return the locations, ids of locations which do not exist are left out
+	 * @since 2.6.0
+	 */
+	public List<Location> getLocationsByIds(Collection<Integer> locationIds);
+	
 	/**
 	 * @see LocationService#getAllLocationAttributeTypes()
 	 */
@@ -110,6 +110,17 @@ public interface OrderDAO {
 	 */
 	public List<Order> getActiveOrders(Patient patient, List<OrderType> orderTypes, CareSetting careSetting, Date asOfDate);
 	
+	/**
+	 * Gets in a single query the orders of a patient which are active on the given date or become
+	 * active later, in any care setting and of any order type
+	 * 
+	 * @param patient the patient
+	 * @param fromDate the date from which the orders are active
+	 * @return the orders which are active at some point from the given date
+	 * @since 2.6.0
+	 */
+	public List<Order> getOrdersActiveFrom(Patient patient, Date fromDate);
+	
 	/**
 	 * Get care setting by type
 	 * 
@@ -9,6 +9,7 @@
  */
 package org.openmrs.api.db;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.openmrs.Allergies;
@@ -190,6 +191,19 @@ public interface PatientDAO {
 	 */
 	public boolean isIdentifierInUseByAnotherPatient(PatientIdentifier patientIdentifier);
 	
+	/**
+	 * Finds which of the given identifiers of the given type are already assigned to non voided
+	 * patients, with set based queries instead of one query per identifier.
+	 * 
+	 * @param identifierType the type of the identifiers
+	 * @param identifiers the identifiers to look for
+	 * @return an array of the identifier and the id of its location, null if it has none, for each
+	 *         matching non voided patient identifier
+	 * @see org.openmrs.api.PatientService#importPatients(List)
+	 * @since 2.6.0
+	 */
+	public List<Object[]> getIdentifiersInUse(PatientIdentifierType identifierType, Collection<String> identifiers);
+	
 	/**
 	 * @param uuid
 	 * @return patient or null
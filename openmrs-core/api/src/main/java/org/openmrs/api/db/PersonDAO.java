@@ -22,6 +22,7 @@ import org.openmrs.util.OpenmrsConstants;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * Person-related database functions
@@ -145,6 +146,13 @@ public interface PersonDAO {
 	public List<Relationship> getRelationships(Person fromPerson, Person toPerson, RelationshipType relType,
 	        Date startEffectiveDate, Date endEffectiveDate) throws DAOException;
 	
+	/**
+	 * @see org.openmrs.api.PersonService#streamRelationshipPersonIds(RelationshipType, Date,
+	 *      BiConsumer)
+	 */
+	public void streamRelationshipPersonIds(RelationshipType relType, Date effectiveDate,
+	        BiConsumer<Integer, Integer> consumer) throws DAOException;
+	
 	/**
 	 * @see org.openmrs.api.PersonService#saveRelationshipType(org.openmrs.RelationshipType)
 	 */
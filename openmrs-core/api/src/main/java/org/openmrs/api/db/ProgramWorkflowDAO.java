@@ -14,6 +14,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.openmrs.Cohort;
 import org.openmrs.Concept;
@@ -109,6 +110,39 @@ public interface ProgramWorkflowDAO {
 	
 	public List<PatientProgram> getPatientPrograms(Cohort cohort, Collection<Program> programs);
 	
+	/**
+	 * Gets the current states of patients in a workflow with a projection query, the ones which
+	 * started last come last
+	 * 
+	 * @param patientIds the ids of the patients, or null for all patients
+	 * @param workflow the workflow of the states
+	 * @param onDate the date the states are current on
+	 * @return rows of patient id, patient program id, patient state id, program workflow state id
+	 *         and start date of the current states of non voided patient programs
+	 * @since 2.6.0
+	 */
+	public List<Object[]> getCurrentPatientStates(Collection<Integer> patientIds, ProgramWorkflow workflow, Date onDate);
+	
+	/**
+	 * Gets the patient programs which are not voided nor completed, with their states fetched by the
+	 * same query
+	 * 
+	 * @param patientIds the ids of the patients
+	 * @param programs the programs of the patient programs
+	 * @return the patient programs ordered by patient
+	 * @since 2.6.0
+	 */
+	public List<PatientProgram> getActivePatientPrograms(Collection<Integer> patientIds, Collection<Program> programs);
+	
+	/**
+	 * Gets the ids of the patient programs loaded in the current session, so that a caller which
+	 * evicts the patient programs it loads can leave the ones which were already there
+	 * 
+	 * @return the ids of the patient programs in the session
+	 * @since 2.6.0
+	 */
+	public Set<Integer> getPatientProgramIdsInSession();
+	
 	/**
 	 * Returns PatientPrograms that match the input parameters. If an input parameter is set to
 	 * null, the parameter will not be used. Calling this method will all null parameters will
@@ -0,0 +1,138 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the search index update of a single indexed type. Counters are updated by the
+ * indexing threads while the update is running, so they may be read at any time.
+ *
+ * @see org.openmrs.api.context.Context#getSearchIndexProgress()
+ * @since 2.6.0
+ */
+public class SearchIndexProgress {
+
+	private final Class<?> type;
+
+	private final boolean incremental;
+
+	private final AtomicLong totalCount = new AtomicLong();
+
+	private final AtomicLong entitiesLoaded = new AtomicLong();
+
+	private final AtomicLong documentsBuilt = new AtomicLong();
+
+	private final AtomicLong documentsAdded = new AtomicLong();
+
+	private final Date startTime = new Date();
+
+	private volatile Date endTime;
+
+	private volatile boolean failed;
+
+	public SearchIndexProgress(Class<?> type, boolean incremental) {
+		this.type = type;
+		this.incremental = incremental;
+	}
+
+	public void addToTotalCount(long count) {
+		totalCount.addAndGet(count);
+	}
+
+	public void addEntitiesLoaded(long count) {
+		entitiesLoaded.addAndGet(count);
+	}
+
+	public void addDocumentsBuilt(long count) {
+		documentsBuilt.addAndGet(count);
+	}
+
+	public void addDocumentsAdded(long count) {
+		documentsAdded.addAndGet(count);
+	}
+
+	/**
+	 * Marks the update of this type as finished
+	 *
+	 * @param failed true if the update ended with an error
+	 */
+	public void finish(boolean failed) {
+		this.failed = failed;
+		this.endTime = new Date();
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return true if this is the progress of an incremental update rather than a full rebuild
+	 */
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * @return the number of entities to index, it may grow while the ids are still being fetched
+	 */
+	public long getTotalCount() {
+		return totalCount.get();
+	}
+
+	public long getEntitiesLoaded() {
+		return entitiesLoaded.get();
+	}
+
+	public long getDocumentsBuilt() {
+		return documentsBuilt.get();
+	}
+
+	public long getDocumentsAdded() {
+		return documentsAdded.get();
+	}
+
+	public Date getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return the time the update of this type finished or null if it is still running
+	 */
+	public Date getEndTime() {
+		return endTime;
+	}
+
+	public boolean isFinished() {
+		return endTime != null;
+	}
+
+	public boolean isFailed() {
+		return failed;
+	}
+
+	/**
+	 * @return the completed percentage between 0 and 100
+	 */
+	public double getPercentComplete() {
+		long total = getTotalCount();
+		if (total <= 0) {
+			return isFinished() ? 100 : 0;
+		}
+		return Math.min(100, getDocumentsAdded() * 100.0 / total);
+	}
+
+	@Override
+	public String toString() {
+		return type.getSimpleName() + ": " + getDocumentsAdded() + "/" + getTotalCount() + " documents"
+		        + (isFinished() ? (failed ? " (failed)" : " (done)") : "");
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.util.LatencyHistogram;
+
+/**
+ * Snapshot of the state of the queue of entities waiting to be indexed in the background. The lag
+ * of an entity is the time between the commit of the transaction which changed it and its change
+ * being visible to searches. Durations are in milliseconds, percentiles are estimated from a
+ * {@link LatencyHistogram}.
+ *
+ * @see org.openmrs.api.context.Context#getSearchIndexQueueStatistics()
+ * @see org.openmrs.api.db.hibernate.search.AsyncSearchIndexer
+ * @since 2.6.0
+ */
+public class SearchIndexQueueStatistics {
+
+	private final boolean enabled;
+
+	private final long queueDepth;
+
+	private final double currentLag;
+
+	private final long indexedCount;
+
+	private final long failedCount;
+
+	private final double meanLag;
+
+	private final double maxLag;
+
+	private final double percentile99Lag;
+
+	/**
+	 * @param enabled whether changed entities are indexed in the background
+	 * @param queueDepth the number of entities waiting to be indexed
+	 * @param currentLagNanos the time the oldest waiting entity has been waiting, in nanoseconds
+	 * @param failedCount the number of entities which were given up
+	 * @param lags the lag of each indexed entity
+	 */
+	public SearchIndexQueueStatistics(boolean enabled, long queueDepth, long currentLagNanos, long failedCount,
+	    LatencyHistogram lags) {
+		this.enabled = enabled;
+		this.queueDepth = queueDepth;
+		this.currentLag = toMillis(currentLagNanos);
+		this.failedCount = failedCount;
+		this.indexedCount = lags.getCount();
+		this.meanLag = indexedCount == 0 ? 0 : toMillis(lags.getTotalNanos()) / indexedCount;
+		this.maxLag = toMillis(lags.getMaxNanos());
+		this.percentile99Lag = toMillis(lags.getPercentileNanos(99));
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * @return true if changed entities are indexed in the background, false if they are indexed when
+	 *         their transaction commits
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return the number of entities waiting to be indexed, i.e. the depth of the queue
+	 */
+	public long getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * @return the time the oldest waiting entity has been waiting, 0 if the queue is empty
+	 */
+	public double getCurrentLag() {
+		return currentLag;
+	}
+
+	/**
+	 * @return the number of entities indexed in the background since startup
+	 */
+	public long getIndexedCount() {
+		return indexedCount;
+	}
+
+	/**
+	 * @return the number of entities which could not be indexed since startup, even after
+	 *         {@link org.openmrs.api.db.hibernate.search.AsyncSearchIndexer#MAX_ATTEMPTS} attempts, the
+	 *         search index must be rebuilt for them
+	 */
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	public double getMeanLag() {
+		return meanLag;
+	}
+
+	public double getMaxLag() {
+		return maxLag;
+	}
+
+	public double getPercentile99Lag() {
+		return percentile99Lag;
+	}
+
+	@Override
+	public String toString() {
+		return "SearchIndexQueueStatistics(enabled=" + enabled + ", queueDepth=" + queueDepth + ", currentLag="
+		        + currentLag + ", indexedCount=" + indexedCount + ", failedCount=" + failedCount + ", meanLag=" + meanLag
+		        + ", maxLag=" + maxLag + ", percentile99Lag=" + percentile99Lag + ")";
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size of the search index per indexed type and field, with the time taken by sample patient name
+ * searches, to compare the index layouts of a deployment. The time taken to build the index is
+ * given by {@link org.openmrs.api.context.Context#getSearchIndexProgress()}.
+ *
+ * @see org.openmrs.api.context.Context#getSearchIndexReport(List)
+ * @see org.openmrs.api.db.hibernate.search.SearchIndexLayout
+ * @since 2.6.0
+ */
+public class SearchIndexReport {
+
+	private final String layout;
+
+	private final List<IndexedType> indexedTypes = new ArrayList<>();
+
+	private final Map<String, Double> queryTimes = new LinkedHashMap<>();
+
+	/**
+	 * @param layout the description of the layout of the index
+	 */
+	public SearchIndexReport(String layout) {
+		this.layout = layout;
+	}
+
+	public void addIndexedType(IndexedType indexedType) {
+		indexedTypes.add(indexedType);
+	}
+
+	/**
+	 * @param query the searched name
+	 * @param millis the mean time taken by the search, in milliseconds
+	 */
+	public void addQueryTime(String query, double millis) {
+		queryTimes.put(query, millis);
+	}
+
+	/**
+	 * @return the description of the layout of the index
+	 */
+	public String getLayout() {
+		return layout;
+	}
+
+	public List<IndexedType> getIndexedTypes() {
+		return Collections.unmodifiableList(indexedTypes);
+	}
+
+	/**
+	 * @return the size of the index on disk of all the types, in bytes
+	 */
+	public long getSizeInBytes() {
+		long size = 0;
+		for (IndexedType indexedType : indexedTypes) {
+			size += indexedType.getSizeInBytes();
+		}
+		return size;
+	}
+
+	/**
+	 * @return the mean time taken by each sample patient name search, in milliseconds
+	 */
+	public Map<String, Double> getQueryTimes() {
+		return Collections.unmodifiableMap(queryTimes);
+	}
+
+	@Override
+	public String toString() {
+		return "SearchIndexReport(layout=" + layout + ", sizeInBytes=" + getSizeInBytes() + ", indexedTypes="
+		        + indexedTypes + ", queryTimes=" + queryTimes + ")";
+	}
+
+	/**
+	 * Size of the index of a single type
+	 */
+	public static class IndexedType {
+
+		private final Class<?> type;
+
+		private final long documentCount;
+
+		private final long sizeInBytes;
+
+		private final Map<String, Long> postingCounts;
+
+		/**
+		 * @param type the indexed type
+		 * @param documentCount the number of documents in the index
+		 * @param sizeInBytes the size of the index on disk
+		 * @param postingCounts the number of postings of each field, i.e. the sum over its terms of
+		 *            the number of documents containing the term
+		 */
+		public IndexedType(Class<?> type, long documentCount, long sizeInBytes, Map<String, Long> postingCounts) {
+			this.type = type;
+			this.documentCount = documentCount;
+			this.sizeInBytes = sizeInBytes;
+			this.postingCounts = postingCounts;
+		}
+
+		public Class<?> getType() {
+			return type;
+		}
+
+		public long getDocumentCount() {
+			return documentCount;
+		}
+
+		public long getSizeInBytes() {
+			return sizeInBytes;
+		}
+
+		/**
+		 * @return the number of postings by field, which shows the share of each field in the size of
+		 *         the index
+		 */
+		public Map<String, Long> getPostingCounts() {
+			return Collections.unmodifiableMap(postingCounts);
+		}
+
+		@Override
+		public String toString() {
+			return type.getSimpleName() + "(documents=" + documentCount + ", sizeInBytes=" + sizeInBytes
+			        + ", postingCounts=" + postingCounts + ")";
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openmrs.ConceptName;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.PersonName;
+
+/**
+ * Settings used when rebuilding the search index. The defaults match the ones used by the mass
+ * indexer so callers only need to set the values they want to tune.
+ *
+ * @see org.openmrs.api.context.Context#updateSearchIndex(SearchIndexUpdateOptions)
+ * @see org.openmrs.api.context.Context#updateSearchIndexIncrementally(SearchIndexUpdateOptions)
+ * @since 2.6.0
+ */
+public class SearchIndexUpdateOptions {
+
+	public static final int DEFAULT_THREADS_TO_LOAD_OBJECTS = 6;
+
+	public static final int DEFAULT_BATCH_SIZE_TO_LOAD_OBJECTS = 10;
+
+	public static final int DEFAULT_ID_FETCH_SIZE = 100;
+
+	public static final int DEFAULT_TYPES_TO_INDEX_IN_PARALLEL = 1;
+
+	private int threadsToLoadObjects = DEFAULT_THREADS_TO_LOAD_OBJECTS;
+
+	private int batchSizeToLoadObjects = DEFAULT_BATCH_SIZE_TO_LOAD_OBJECTS;
+
+	private int idFetchSize = DEFAULT_ID_FETCH_SIZE;
+
+	private int typesToIndexInParallel = DEFAULT_TYPES_TO_INDEX_IN_PARALLEL;
+
+	private List<Class<?>> types = new ArrayList<>();
+
+	/**
+	 * @return the types updated by an incremental update when no types have been set explicitly
+	 */
+	public static List<Class<?>> getDefaultIncrementalTypes() {
+		return Arrays.asList(PersonName.class, PatientIdentifier.class, ConceptName.class);
+	}
+
+	/**
+	 * @return the number of threads used to load entities for each indexed type
+	 */
+	public int getThreadsToLoadObjects() {
+		return threadsToLoadObjects;
+	}
+
+	/**
+	 * @param threadsToLoadObjects the number of threads used to load entities for each indexed type
+	 */
+	public void setThreadsToLoadObjects(int threadsToLoadObjects) {
+		this.threadsToLoadObjects = threadsToLoadObjects;
+	}
+
+	/**
+	 * @return the number of entities loaded (or indexed, for incremental updates) per batch
+	 */
+	public int getBatchSizeToLoadObjects() {
+		return batchSizeToLoadObjects;
+	}
+
+	/**
+	 * @param batchSizeToLoadObjects the number of entities loaded (or indexed, for incremental
+	 *            updates) per batch
+	 */
+	public void setBatchSizeToLoadObjects(int batchSizeToLoadObjects) {
+		this.batchSizeToLoadObjects = batchSizeToLoadObjects;
+	}
+
+	/**
+	 * @return the JDBC fetch size used when scrolling over the ids (or rows) to index
+	 */
+	public int getIdFetchSize() {
+		return idFetchSize;
+	}
+
+	/**
+	 * @param idFetchSize the JDBC fetch size used when scrolling over the ids (or rows) to index
+	 */
+	public void setIdFetchSize(int idFetchSize) {
+		this.idFetchSize = idFetchSize;
+	}
+
+	/**
+	 * @return the number of indexed types rebuilt at the same time
+	 */
+	public int getTypesToIndexInParallel() {
+		return typesToIndexInParallel;
+	}
+
+	/**
+	 * @param typesToIndexInParallel the number of indexed types rebuilt at the same time
+	 */
+	public void setTypesToIndexInParallel(int typesToIndexInParallel) {
+		this.typesToIndexInParallel = typesToIndexInParallel;
+	}
+
+	/**
+	 * @return the types to update, an empty list means all indexed types for a full rebuild and
+	 *         {@link #getDefaultIncrementalTypes()} for an incremental update
+	 */
+	public List<Class<?>> getTypes() {
+		return types;
+	}
+
+	/**
+	 * @param types the types to update
+	 */
+	public void setTypes(List<Class<?>> types) {
+		this.types = types == null ? new ArrayList<>() : new ArrayList<>(types);
+	}
+}
@@ -184,7 +184,8 @@ public interface SerializedObjectDAO {
 	        throws DAOException;
 	
 	/**
-	 * Converts a raw SerializedObject to an OpenmrsObject, using the appropriate Serializer
+	 * Converts a raw SerializedObject to an OpenmrsObject, using the appropriate Serializer. Each
+	 * call returns a new object, which the caller may change.
 	 * 
 	 * @param clazz the OpenmrsObject class to retrieve
 	 * @param serializedObject the raw SerializedObject to deserialize into an OpenmrsObject
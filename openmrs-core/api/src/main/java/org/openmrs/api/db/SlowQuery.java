@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db;
+
+import java.util.Date;
+
+/**
+ * A database query which took longer than the slow query threshold.
+ *
+ * @see SlowQueryLog
+ * @see org.openmrs.util.OpenmrsConstants#GP_SLOW_QUERY_THRESHOLD
+ * @since 2.6.0
+ */
+public class SlowQuery {
+
+	private final String query;
+
+	private final long executionTime;
+
+	private final Date endTime;
+
+	private final String serviceMethod;
+
+	private final String threadName;
+
+	SlowQuery(String query, long executionTime, Date endTime, String serviceMethod, String threadName) {
+		this.query = query;
+		this.executionTime = executionTime;
+		this.endTime = endTime;
+		this.serviceMethod = serviceMethod;
+		this.threadName = threadName;
+	}
+
+	/**
+	 * @return the SQL of the statement
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return the execution time of the query in milliseconds
+	 */
+	public long getExecutionTime() {
+		return executionTime;
+	}
+
+	/**
+	 * @return when the query ended
+	 */
+	public Date getEndTime() {
+		return (Date) endTime.clone();
+	}
+
+	/**
+	 * @return the innermost service method which ran the query, e.g.
+	 *         org.openmrs.api.PatientService.getPatients(String), null if it did not run in a
+	 *         service method
+	 */
+	public String getServiceMethod() {
+		return serviceMethod;
+	}
+
+	/**
+	 * @return the name of the thread which ran the query
+	 */
+	public String getThreadName() {
+		return threadName;
+	}
+
+	@Override
+	public String toString() {
+		return executionTime + "ms in " + serviceMethod + ": " + query;
+	}
+}
@@ -0,0 +1,207 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.GlobalProperty;
+import org.openmrs.aop.ServiceMethodMetrics;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.util.ConcurrentRingBuffer;
+import org.openmrs.util.OpenmrsConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the most recent database queries which took longer than the threshold set with
+ * {@link OpenmrsConstants#GP_SLOW_QUERY_THRESHOLD}, together with the service method which ran
+ * them. The SQL of the statements is reported by
+ * {@link org.openmrs.api.db.hibernate.SlowQueryInterceptor} when they are prepared, and their
+ * execution time by {@link org.openmrs.api.db.hibernate.JdbcTimingListener}.
+ *
+ * @since 2.6.0
+ */
+public class SlowQueryLog implements GlobalPropertyListener {
+
+	private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+	/**
+	 * The number of slow queries kept when the global property does not set it
+	 */
+	public static final int DEFAULT_SAMPLE_SIZE = 100;
+
+	private static final SlowQueryLog instance = new SlowQueryLog();
+
+	private final ConcurrentRingBuffer<SlowQuery> slowQueries = new ConcurrentRingBuffer<>(DEFAULT_SAMPLE_SIZE);
+
+	private volatile long threshold = -1;
+
+	private final ThreadLocal<String> preparedStatement = new ThreadLocal<>();
+
+	SlowQueryLog() {
+	}
+
+	/**
+	 * @return the slow query log
+	 */
+	public static SlowQueryLog getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Remembers the SQL of the statement prepared by the current thread, until it is executed
+	 *
+	 * @param sql the SQL of the prepared statement
+	 */
+	public void statementPrepared(String sql) {
+		if (threshold >= 0) {
+			preparedStatement.set(sql);
+		}
+	}
+
+	/**
+	 * Captures the statement last prepared by the current thread if it took longer than the
+	 * threshold
+	 *
+	 * @param executionTime the execution time in milliseconds
+	 */
+	public void statementExecuted(long executionTime) {
+		String sql = preparedStatement.get();
+		if (sql == null) {
+			return;
+		}
+		preparedStatement.remove();
+		long currentThreshold = threshold;
+		if (currentThreshold < 0 || executionTime < currentThreshold || slowQueries.getCapacity() == 0) {
+			return;
+		}
+		slowQueries.add(new SlowQuery(sql, executionTime, new Date(), ServiceMethodMetrics.getInstance()
+		        .getCurrentMethodName(), Thread.currentThread().getName()));
+	}
+
+	/**
+	 * @return the most recent slow queries, the latest first
+	 */
+	public List<SlowQuery> getSlowQueries() {
+		List<SlowQuery> ret = slowQueries.snapshot();
+		Collections.reverse(ret);
+		return ret;
+	}
+
+	/**
+	 * Forgets the captured slow queries
+	 */
+	public void clear() {
+		slowQueries.clear();
+	}
+
+	/**
+	 * @return the duration in milliseconds above which queries are captured, negative when slow
+	 *         queries are not captured
+	 */
+	public long getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * @param threshold the duration in milliseconds above which queries are captured, negative to not
+	 *            capture slow queries
+	 */
+	public void setThreshold(long threshold) {
+		this.threshold = threshold < 0 ? -1 : threshold;
+	}
+
+	/**
+	 * @return the maximum number of slow queries kept
+	 */
+	public int getSampleSize() {
+		return slowQueries.getCapacity();
+	}
+
+	/**
+	 * @param sampleSize the maximum number of slow queries kept
+	 */
+	public void setSampleSize(int sampleSize) {
+		slowQueries.resize(sampleSize);
+	}
+
+	/**
+	 * Applies the values of the global properties configuring the slow queries
+	 *
+	 * @param threshold the value of {@link OpenmrsConstants#GP_SLOW_QUERY_THRESHOLD}
+	 * @param sampleSize the value of {@link OpenmrsConstants#GP_SLOW_QUERY_SAMPLE_SIZE}
+	 */
+	public void configure(String threshold, String sampleSize) {
+		applyThreshold(threshold);
+		applySampleSize(sampleSize);
+	}
+
+	private void applyThreshold(String value) {
+		if (StringUtils.isBlank(value)) {
+			setThreshold(-1);
+			return;
+		}
+		try {
+			setThreshold(Long.parseLong(value.trim()));
+		}
+		catch (NumberFormatException e) {
+			log.warn("Invalid value for global property {}: {}", OpenmrsConstants.GP_SLOW_QUERY_THRESHOLD, value);
+		}
+	}
+
+	private void applySampleSize(String value) {
+		if (StringUtils.isBlank(value)) {
+			setSampleSize(DEFAULT_SAMPLE_SIZE);
+			return;
+		}
+		try {
+			setSampleSize(Integer.parseInt(value.trim()));
+		}
+		catch (IllegalArgumentException e) {
+			log.warn("Invalid value for global property {}: {}", OpenmrsConstants.GP_SLOW_QUERY_SAMPLE_SIZE, value);
+		}
+	}
+
+	/**
+	 * @see GlobalPropertyListener#supportsPropertyName(String)
+	 */
+	@Override
+	public boolean supportsPropertyName(String propertyName) {
+		return OpenmrsConstants.GP_SLOW_QUERY_THRESHOLD.equals(propertyName)
+		        || OpenmrsConstants.GP_SLOW_QUERY_SAMPLE_SIZE.equals(propertyName);
+	}
+
+	/**
+	 * @see GlobalPropertyListener#globalPropertyChanged(GlobalProperty)
+	 */
+	@Override
+	public void globalPropertyChanged(GlobalProperty newValue) {
+		if (OpenmrsConstants.GP_SLOW_QUERY_THRESHOLD.equals(newValue.getProperty())) {
+			applyThreshold(newValue.getPropertyValue());
+		} else {
+			applySampleSize(newValue.getPropertyValue());
+		}
+	}
+
+	/**
+	 * @see GlobalPropertyListener#globalPropertyDeleted(String)
+	 */
+	@Override
+	public void globalPropertyDeleted(String propertyName) {
+		if (OpenmrsConstants.GP_SLOW_QUERY_THRESHOLD.equals(propertyName)) {
+			applyThreshold(null);
+		} else {
+			applySampleSize(null);
+		}
+	}
+}
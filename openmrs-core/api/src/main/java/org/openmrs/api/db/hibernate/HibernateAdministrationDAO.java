@@ -13,6 +13,8 @@ import java.sql.Statement;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 
 import org.hibernate.Criteria;
@@ -29,6 +31,11 @@ import org.hibernate.jdbc.Work;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.PersistentClass;
 import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
 import org.hibernate.type.StringType;
 import org.hibernate.type.TextType;
 import org.hibernate.type.Type;
@@ -37,6 +44,7 @@ import org.openmrs.OpenmrsObject;
 import org.openmrs.api.APIException;
 import org.openmrs.api.db.AdministrationDAO;
 import org.openmrs.api.db.DAOException;
+import org.openmrs.api.db.DatabaseStatistics;
 import org.openmrs.util.DatabaseUtil;
 import org.openmrs.util.HandlerUtil;
 import org.openmrs.util.OpenmrsConstants;
@@ -60,6 +68,9 @@ public class HibernateAdministrationDAO implements AdministrationDAO, Applicatio
 	private static final Logger log = LoggerFactory.getLogger(HibernateAdministrationDAO.class);
 	private static final String PROPERTY = "property";
 	
+	private static final Comparator<DatabaseStatistics.EntityStatistics> FETCH_COUNT_ORDER = Comparator.comparingLong(
+	    DatabaseStatistics.EntityStatistics::getFetchCount).reversed();
+	
 	/**
 	 * Hibernate session factory
 	 */
@@ -353,4 +364,79 @@ public class HibernateAdministrationDAO implements AdministrationDAO, Applicatio
 			});
 		}
 	}
+	
+	/**
+	 * @see org.openmrs.api.db.AdministrationDAO#getDatabaseStatistics()
+	 */
+	@Override
+	public DatabaseStatistics getDatabaseStatistics() throws DAOException {
+		Statistics stats = sessionFactory.getStatistics();
+		DatabaseStatistics ret = new DatabaseStatistics();
+		ret.setStartTime(new Date(stats.getStartTime()));
+		ret.setSnapshotTime(new Date());
+		ret.setSessionOpenCount(stats.getSessionOpenCount());
+		ret.setSessionCloseCount(stats.getSessionCloseCount());
+		ret.setConnectCount(stats.getConnectCount());
+		ret.setConnectionAcquisitionTime(JdbcTimingListener.getConnectionAcquisitionTime());
+		ret.setConnectionAcquisitionMaxTime(JdbcTimingListener.getConnectionAcquisitionMaxTime());
+		ret.setTransactionCount(stats.getTransactionCount());
+		ret.setPrepareStatementCount(stats.getPrepareStatementCount());
+		ret.setFlushCount(stats.getFlushCount());
+		ret.setQueryExecutionCount(stats.getQueryExecutionCount());
+		ret.setQueryExecutionMaxTime(stats.getQueryExecutionMaxTime());
+		ret.setQueryExecutionMaxTimeQueryString(stats.getQueryExecutionMaxTimeQueryString());
+		ret.setEntityLoadCount(stats.getEntityLoadCount());
+		ret.setEntityFetchCount(stats.getEntityFetchCount());
+		ret.setCollectionLoadCount(stats.getCollectionLoadCount());
+		ret.setCollectionFetchCount(stats.getCollectionFetchCount());
+		ret.setSecondLevelCacheHitCount(stats.getSecondLevelCacheHitCount());
+		ret.setSecondLevelCacheMissCount(stats.getSecondLevelCacheMissCount());
+		ret.setSecondLevelCachePutCount(stats.getSecondLevelCachePutCount());
+		
+		for (String query : stats.getQueries()) {
+			QueryStatistics queryStats = stats.getQueryStatistics(query);
+			ret.getQueries().add(new DatabaseStatistics.QueryStatistics(query, queryStats.getExecutionCount(), queryStats
+			        .getExecutionRowCount(), queryStats.getExecutionAvgTime(), queryStats.getExecutionMaxTime()));
+		}
+		ret.getQueries().sort(
+		    Comparator.comparingLong(DatabaseStatistics.QueryStatistics::getExecutionTotalTime).reversed());
+		
+		for (String entityName : stats.getEntityNames()) {
+			EntityStatistics entityStats = stats.getEntityStatistics(entityName);
+			if (entityStats.getLoadCount() > 0 || entityStats.getFetchCount() > 0) {
+				ret.getEntities().add(new DatabaseStatistics.EntityStatistics(entityName, entityStats.getLoadCount(),
+				        entityStats.getFetchCount()));
+			}
+		}
+		ret.getEntities().sort(FETCH_COUNT_ORDER);
+		
+		for (String role : stats.getCollectionRoleNames()) {
+			CollectionStatistics collectionStats = stats.getCollectionStatistics(role);
+			if (collectionStats.getLoadCount() > 0 || collectionStats.getFetchCount() > 0) {
+				ret.getCollections().add(new DatabaseStatistics.EntityStatistics(role, collectionStats.getLoadCount(),
+				        collectionStats.getFetchCount()));
+			}
+		}
+		ret.getCollections().sort(FETCH_COUNT_ORDER);
+		
+		for (String regionName : stats.getSecondLevelCacheRegionNames()) {
+			CacheRegionStatistics regionStats = stats.getCacheRegionStatistics(regionName);
+			if (regionStats != null) {
+				ret.getCacheRegions().add(new DatabaseStatistics.CacheRegionStatistics(regionName, regionStats
+				        .getHitCount(), regionStats.getMissCount(), regionStats.getPutCount(), regionStats
+				        .getElementCountInMemory()));
+			}
+		}
+		ret.getCacheRegions().sort(Comparator.comparing(DatabaseStatistics.CacheRegionStatistics::getRegionName));
+		return ret;
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.AdministrationDAO#resetDatabaseStatistics()
+	 */
+	@Override
+	public void resetDatabaseStatistics() throws DAOException {
+		sessionFactory.getStatistics().clear();
+		JdbcTimingListener.reset();
+	}
 }
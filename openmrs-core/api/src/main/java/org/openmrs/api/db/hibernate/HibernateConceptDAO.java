@@ -61,6 +61,7 @@ import org.openmrs.DrugIngredient;
 import org.openmrs.OpenmrsObject;
 import org.openmrs.api.APIException;
 import org.openmrs.api.ConceptService;
+import org.openmrs.api.ConceptSetClosure;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.ConceptDAO;
 import org.openmrs.api.db.DAOException;
@@ -82,6 +83,8 @@ public class HibernateConceptDAO implements ConceptDAO {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernateConceptDAO.class);
 	
+	private static final int MAX_IDS_PER_QUERY = 1000;
+	
 	private SessionFactory sessionFactory;
 	
 	/**
@@ -814,6 +817,60 @@ public class HibernateConceptDAO implements ConceptDAO {
 		        .list();
 	}
 	
+	/**
+	 * @see org.openmrs.api.db.ConceptDAO#getConceptSetClosure()
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public ConceptSetClosure getConceptSetClosure() throws DAOException {
+		List<Object[]> rows = sessionFactory.getCurrentSession().createCriteria(ConceptSet.class, "cs")
+		        .createAlias("cs.conceptSet", "parent").createAlias("cs.concept", "member")
+		        .setProjection(Projections.projectionList().add(Projections.property("parent.conceptId"))
+		                .add(Projections.property("member.conceptId")))
+		        .addOrder(Order.asc("parent.conceptId")).addOrder(Order.asc("cs.sortWeight"))
+		        .addOrder(Order.asc("cs.conceptSetId")).list();
+		
+		Map<Integer, List<Integer>> members = new HashMap<>();
+		Set<Integer> setIds = new HashSet<>(sessionFactory.getCurrentSession().createCriteria(Concept.class).add(
+		    Restrictions.eq("set", true)).setProjection(Projections.property("conceptId")).list());
+		for (Object[] row : rows) {
+			members.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+		}
+		
+		return new ConceptSetClosure(members, setIds);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ConceptDAO#getConceptsByIds(java.util.Collection)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<Integer, Concept> getConceptsByIds(Collection<Integer> conceptIds) throws DAOException {
+		Map<Integer, Concept> ret = new HashMap<>();
+		List<Integer> toFetch = new ArrayList<>();
+		for (Integer conceptId : new LinkedHashSet<>(conceptIds)) {
+			// use the second level cache for the concepts which are in it
+			if (sessionFactory.getCache().containsEntity(Concept.class, conceptId)) {
+				Concept concept = getConcept(conceptId);
+				if (concept != null) {
+					ret.put(conceptId, concept);
+				}
+			} else {
+				toFetch.add(conceptId);
+			}
+		}
+		
+		for (int i = 0; i < toFetch.size(); i += MAX_IDS_PER_QUERY) {
+			List<Integer> batch = toFetch.subList(i, Math.min(toFetch.size(), i + MAX_IDS_PER_QUERY));
+			for (Concept concept : (List<Concept>) sessionFactory.getCurrentSession().createCriteria(Concept.class).add(
+			    Restrictions.in("conceptId", batch)).list()) {
+				ret.put(concept.getConceptId(), concept);
+			}
+		}
+		
+		return ret;
+	}
+	
 	/**
 	 * returns a list of n-generations of parents of a concept in a concept set
 	 * 
@@ -1085,13 +1142,13 @@ public class HibernateConceptDAO implements ConceptDAO {
 	@Override
 	public ConceptAnswer getConceptAnswerByUuid(String uuid) {
 		return (ConceptAnswer) sessionFactory.getCurrentSession().createQuery("from ConceptAnswer cc where cc.uuid = :uuid")
-		        .setString("uuid", uuid).uniqueResult();
+		        .setString("uuid", uuid).setCacheable(true).uniqueResult();
 	}
 	
 	@Override
 	public ConceptName getConceptNameByUuid(String uuid) {
 		return (ConceptName) sessionFactory.getCurrentSession().createQuery("from ConceptName cc where cc.uuid = :uuid")
-		        .setString("uuid", uuid).uniqueResult();
+		        .setString("uuid", uuid).setCacheable(true).uniqueResult();
 	}
 	
 	@Override
@@ -1573,7 +1630,8 @@ public class HibernateConceptDAO implements ConceptDAO {
 	@Override
 	public ConceptReferenceTerm getConceptReferenceTermByUuid(String uuid) throws DAOException {
 		return (ConceptReferenceTerm) sessionFactory.getCurrentSession().createQuery(
-		    "from ConceptReferenceTerm crt where crt.uuid = :uuid").setString("uuid", uuid).uniqueResult();
+		    "from ConceptReferenceTerm crt where crt.uuid = :uuid").setString("uuid", uuid).setCacheable(true)
+		        .uniqueResult();
 	}
 	
 	/**
@@ -1597,6 +1655,7 @@ public class HibernateConceptDAO implements ConceptDAO {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(ConceptReferenceTerm.class);
 		criteria.add(Restrictions.ilike("name", name, MatchMode.EXACT));
 		criteria.add(Restrictions.eq("conceptSource", conceptSource));
+		criteria.setCacheable(true);
 		List terms = criteria.list();
 		if (terms.isEmpty()) {
 			return null;
@@ -1617,6 +1676,7 @@ public class HibernateConceptDAO implements ConceptDAO {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(ConceptReferenceTerm.class);
 		criteria.add(Restrictions.eq("code", code));
 		criteria.add(Restrictions.eq("conceptSource", conceptSource));
+		criteria.setCacheable(true);
 		List terms = criteria.list();
 		if (terms.isEmpty()) {
 			return null;
@@ -10,14 +10,26 @@
 package org.openmrs.api.db.hibernate;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.index.Fields;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiFields;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.index.Terms;
 import org.hibernate.CacheMode;
 import org.hibernate.FlushMode;
 import org.hibernate.HibernateException;
@@ -26,17 +38,33 @@ import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.search.FullTextSession;
+import org.hibernate.search.MassIndexer;
+import org.hibernate.search.indexes.IndexReaderAccessor;
 import org.hibernate.stat.QueryStatistics;
 import org.hibernate.stat.Statistics;
 import org.hibernate.type.StandardBasicTypes;
+import org.openmrs.Auditable;
 import org.openmrs.GlobalProperty;
+import org.openmrs.Retireable;
 import org.openmrs.User;
+import org.openmrs.Voidable;
+import org.openmrs.api.AdministrationService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.context.ContextAuthenticationException;
 import org.openmrs.api.context.Daemon;
 import org.openmrs.api.db.ContextDAO;
+import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.FullTextSessionFactory;
+import org.openmrs.api.db.LoginCredential;
+import org.openmrs.api.db.SearchIndexProgress;
+import org.openmrs.api.db.SearchIndexQueueStatistics;
+import org.openmrs.api.db.SearchIndexReport;
+import org.openmrs.api.db.SearchIndexUpdateOptions;
 import org.openmrs.api.db.UserDAO;
+import org.openmrs.api.db.hibernate.search.AsyncSearchIndexer;
+import org.openmrs.api.db.hibernate.search.LuceneQuery;
+import org.openmrs.api.db.hibernate.search.SearchIndexLayout;
+import org.openmrs.api.db.hibernate.search.SearchIndexProgressMonitor;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.util.Security;
@@ -59,6 +87,12 @@ public class HibernateContextDAO implements ContextDAO {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernateContextDAO.class);
 	
+	private static final Pattern SYSTEM_ID_WITHOUT_DASH = Pattern.compile("\\d{2,}");
+	
+	private static final int SAMPLE_QUERY_RUNS = 5;
+	
+	private static final int SAMPLE_QUERY_MAX_RESULTS = 50;
+	
 	/**
 	 * Hibernate session factory
 	 */
@@ -69,6 +103,13 @@ public class HibernateContextDAO implements ContextDAO {
 	
 	private UserDAO userDao;
 	
+	private VerifiedCredentialCache verifiedCredentialCache;
+	
+	/**
+	 * Progress of the last search index update, per indexed type
+	 */
+	private volatile Map<Class<?>, SearchIndexProgress> searchIndexProgress = new LinkedHashMap<>();
+	
 	/**
 	 * Session factory to use for this DAO. This is usually injected by spring and its application
 	 * context.
@@ -82,6 +123,14 @@ public class HibernateContextDAO implements ContextDAO {
 	public void setUserDAO(UserDAO userDao) {
 		this.userDao = userDao;
 	}
+	
+	/**
+	 * @param verifiedCredentialCache the cache of recently verified logins and passwords
+	 * @since 2.6.0
+	 */
+	public void setVerifiedCredentialCache(VerifiedCredentialCache verifiedCredentialCache) {
+		this.verifiedCredentialCache = verifiedCredentialCache;
+	}
 
 	/**
 	 * @see org.openmrs.api.db.ContextDAO#authenticate(java.lang.String, java.lang.String)
@@ -93,12 +142,16 @@ public class HibernateContextDAO implements ContextDAO {
 
 		Session session = sessionFactory.getCurrentSession();
 
-		User candidateUser = null;
+		User candidateUser = getUserWithVerifiedCredentials(login, password);
+		if (candidateUser != null) {
+			return candidateUser;
+		}
+		long invalidationCount = verifiedCredentialCache == null ? 0 : verifiedCredentialCache.getInvalidationCount();
 
 		if (StringUtils.isNotBlank(login)) {
 			// loginWithoutDash is used to compare to the system id
 			String loginWithDash = login;
-			if (login.matches("\\d{2,}")) {
+			if (SYSTEM_ID_WITHOUT_DASH.matcher(login).matches()) {
 				loginWithDash = login.substring(0, login.length() - 1) + "-" + login.charAt(login.length() - 1);
 			}
 
@@ -144,6 +197,7 @@ public class HibernateContextDAO implements ContextDAO {
 				} else {
 					candidateUser.setUserProperty(OpenmrsConstants.USER_PROPERTY_LOCKOUT_TIMESTAMP, String.valueOf(System
 						.currentTimeMillis()));
+					invalidateVerifiedCredentials(candidateUser);
 					throw new ContextAuthenticationException(
 						"Invalid number of connection attempts. Please try again later.");
 				}
@@ -158,7 +212,19 @@ public class HibernateContextDAO implements ContextDAO {
 			String saltOnRecord = (String) passwordAndSalt[1];
 
 			// if the username and password match, hydrate the user and return it
-			if (passwordOnRecord != null && Security.hashMatches(passwordOnRecord, password + saltOnRecord)) {
+			String currentHash = Security.encodeString(password + saltOnRecord);
+			boolean currentHashMatches = currentHash.equals(passwordOnRecord);
+			if (currentHashMatches
+				|| (passwordOnRecord != null && Security.hashMatches(passwordOnRecord, password + saltOnRecord))) {
+				if (!currentHashMatches) {
+					// the password was hashed with a legacy algorithm, hash it with the current one
+					LoginCredential credentials = session.get(LoginCredential.class, candidateUser.getUserId());
+					credentials.setHashedPassword(currentHash);
+					credentials.setChangedBy(candidateUser);
+					credentials.setDateChanged(new Date());
+				}
+				
+
 				// hydrate the user object
 				candidateUser.getAllRoles().size();
 				candidateUser.getUserProperties().size();
@@ -172,6 +238,8 @@ public class HibernateContextDAO implements ContextDAO {
 					saveUserProperties(candidateUser);
 				}
 
+				rememberVerifiedCredentials(login, password, candidateUser, invalidationCount);
+				
 				// skip out of the method early (instead of throwing the exception)
 				// to indicate that this is the valid user
 				return candidateUser;
@@ -196,6 +264,7 @@ public class HibernateContextDAO implements ContextDAO {
 					// set the user as locked out at this exact time
 					candidateUser.setUserProperty(OpenmrsConstants.USER_PROPERTY_LOCKOUT_TIMESTAMP, String.valueOf(System
 						.currentTimeMillis()));
+					invalidateVerifiedCredentials(candidateUser);
 				} else {
 					candidateUser.setUserProperty(OpenmrsConstants.USER_PROPERTY_LOGIN_ATTEMPTS, String.valueOf(attempts));
 				}
@@ -249,6 +318,62 @@ public class HibernateContextDAO implements ContextDAO {
 		return Daemon.createUser(user, password, roleNames);
 	}
 	
+	/**
+	 * Gets the user whose login and password were verified recently, hydrated like after a full
+	 * authentication
+	 * 
+	 * @return the user, or null if the login and password were not verified recently
+	 */
+	private User getUserWithVerifiedCredentials(String login, String password) {
+		if (verifiedCredentialCache == null || login == null || password == null) {
+			return null;
+		}
+		Integer userId = verifiedCredentialCache.getUserId(login, password);
+		if (userId == null) {
+			return null;
+		}
+		User user = sessionFactory.getCurrentSession().get(User.class, userId);
+		String lockoutTime = user == null ? null : user.getUserProperty(OpenmrsConstants.USER_PROPERTY_LOCKOUT_TIMESTAMP);
+		if (user == null || user.getRetired() || (StringUtils.isNotBlank(lockoutTime) && !"0".equals(lockoutTime))) {
+			verifiedCredentialCache.invalidate(userId);
+			return null;
+		}
+		user.getAllRoles().size();
+		user.getUserProperties().size();
+		user.getPrivileges().size();
+		
+		if (getUsersLoginAttempts(user) > 0) {
+			user.setUserProperty(OpenmrsConstants.USER_PROPERTY_LOGIN_ATTEMPTS, "0");
+			user.removeUserProperty(OpenmrsConstants.USER_PROPERTY_LOCKOUT_TIMESTAMP);
+			saveUserProperties(user);
+		}
+		return user;
+	}
+	
+	private void rememberVerifiedCredentials(String login, String password, User user, long invalidationCount) {
+		if (verifiedCredentialCache == null) {
+			return;
+		}
+		int seconds = 0;
+		try {
+			seconds = Integer.parseInt(Context.getAdministrationService().getGlobalProperty(
+				OpenmrsConstants.GP_VERIFIED_CREDENTIALS_CACHE_SECONDS, "0").trim());
+		}
+		catch (NumberFormatException ex) {
+			log.error("Unable to convert the global property {} to a valid integer, not remembering credentials",
+				OpenmrsConstants.GP_VERIFIED_CREDENTIALS_CACHE_SECONDS);
+		}
+		if (seconds > 0) {
+			verifiedCredentialCache.put(login, password, user.getUserId(), seconds * 1000L, invalidationCount);
+		}
+	}
+	
+	private void invalidateVerifiedCredentials(User user) {
+		if (verifiedCredentialCache != null) {
+			verifiedCredentialCache.invalidate(user.getUserId());
+		}
+	}
+	
 	/**
 	 * Call the UserService to save the given user while proxying the privileges needed to do so.
 	 * 
@@ -454,6 +579,8 @@ public class HibernateContextDAO implements ContextDAO {
 	public void updateSearchIndexForType(Class<?> type) {
 		//From http://docs.jboss.org/hibernate/search/3.3/reference/en-US/html/manual-index-changes.html#search-batchindex-flushtoindexes
 		FullTextSession session = fullTextSessionFactory.getFullTextSession();
+		SearchIndexProgress progress = new SearchIndexProgress(type, false);
+		startSearchIndexProgress(progress);
 		session.purgeAll(type);
 		
 		//Prepare session for batch work
@@ -462,31 +589,240 @@ public class HibernateContextDAO implements ContextDAO {
 		
 		FlushMode flushMode = session.getHibernateFlushMode();
 		CacheMode cacheMode = session.getCacheMode();
+		boolean failed = true;
 		try {
 			session.setHibernateFlushMode(FlushMode.MANUAL);
 			session.setCacheMode(CacheMode.IGNORE);
 			
 			//Scrollable results will avoid loading too many objects in memory
 			ScrollableResults results = session.createCriteria(type).setFetchSize(1000).scroll(ScrollMode.FORWARD_ONLY);
-			int index = 0;
+			indexResults(session, results, 1000, progress);
+			failed = false;
+		}
+		finally {
+			progress.finish(failed);
+			session.setHibernateFlushMode(flushMode);
+			session.setCacheMode(cacheMode);
+		}
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ContextDAO#updateSearchIndexSince(Date, SearchIndexUpdateOptions)
+	 */
+	@Override
+	@Transactional
+	public long updateSearchIndexSince(Date since, SearchIndexUpdateOptions options) {
+		List<Class<?>> types = options.getTypes().isEmpty() ? SearchIndexUpdateOptions.getDefaultIncrementalTypes()
+		        : options.getTypes();
+		int batchSize = Math.max(1, options.getBatchSizeToLoadObjects());
+		
+		FullTextSession session = fullTextSessionFactory.getFullTextSession();
+		session.flush();
+		session.clear();
+		
+		Map<Class<?>, SearchIndexProgress> progressByType = new LinkedHashMap<>();
+		for (Class<?> type : types) {
+			progressByType.put(type, new SearchIndexProgress(type, true));
+		}
+		searchIndexProgress = progressByType;
+		
+		FlushMode flushMode = session.getHibernateFlushMode();
+		CacheMode cacheMode = session.getCacheMode();
+		long count = 0;
+		try {
+			session.setHibernateFlushMode(FlushMode.MANUAL);
+			session.setCacheMode(CacheMode.IGNORE);
+			
+			for (Class<?> type : types) {
+				SearchIndexProgress progress = progressByType.get(type);
+				boolean failed = true;
+				try {
+					String where = getChangedSinceRestriction(type);
+					Long total = (Long) session.createQuery("select count(*) from " + type.getName() + " e where " + where)
+					        .setParameter("since", since).uniqueResult();
+					progress.addToTotalCount(total);
+					
+					ScrollableResults results = session.createQuery("from " + type.getName() + " e where " + where)
+					        .setParameter("since", since).setFetchSize(options.getIdFetchSize())
+					        .scroll(ScrollMode.FORWARD_ONLY);
+					count += indexResults(session, results, batchSize, progress);
+					failed = false;
+				}
+				finally {
+					progress.finish(failed);
+				}
+				log.info("Incremental search index update - {}", progress);
+			}
+		}
+		finally {
+			session.setHibernateFlushMode(flushMode);
+			session.setCacheMode(cacheMode);
+		}
+		return count;
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ContextDAO#updateSearchIndexIncrementally(SearchIndexUpdateOptions)
+	 */
+	@Override
+	@Transactional
+	public void updateSearchIndexIncrementally(SearchIndexUpdateOptions options) {
+		AdministrationService as = Context.getAdministrationService();
+		Long watermark = null;
+		String watermarkString = as.getGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEX_WATERMARK, "");
+		if (StringUtils.isNotBlank(watermarkString)) {
+			try {
+				watermark = Long.valueOf(watermarkString.trim());
+			}
+			catch (NumberFormatException e) {
+				log.warn("Bad value stored in the {} global property: {}", OpenmrsConstants.GP_SEARCH_INDEX_WATERMARK,
+				    watermarkString);
+			}
+		}
+		
+		if (watermark == null) {
+			log.info("No search index watermark found, rebuilding the whole search index");
+			updateSearchIndex(options);
+			return;
+		}
+		
+		// changes made while we are re-indexing will be picked up again by the next update
+		long newWatermark = System.currentTimeMillis();
+		long count = updateSearchIndexSince(new Date(watermark), options);
+		saveGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEX_WATERMARK, String.valueOf(newWatermark));
+		log.info("Re-indexed {} entities changed since {}", count, new Date(watermark));
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ContextDAO#getSearchIndexProgress()
+	 */
+	@Override
+	public List<SearchIndexProgress> getSearchIndexProgress() {
+		return new ArrayList<>(searchIndexProgress.values());
+	}
+	
+	/**
+	 * @see ContextDAO#waitForSearchIndex(long)
+	 */
+	@Override
+	public boolean waitForSearchIndex(long timeoutMillis) {
+		return AsyncSearchIndexer.getInstance().waitForIndexing(timeoutMillis);
+	}
+	
+	/**
+	 * @see ContextDAO#getSearchIndexQueueStatistics()
+	 */
+	@Override
+	public SearchIndexQueueStatistics getSearchIndexQueueStatistics() {
+		return AsyncSearchIndexer.getInstance().getStatistics();
+	}
+	
+	/**
+	 * @see ContextDAO#getSearchIndexReport(List)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public SearchIndexReport getSearchIndexReport(List<String> sampleQueries) {
+		FullTextSession session = fullTextSessionFactory.getFullTextSession();
+		SearchIndexReport report = new SearchIndexReport(SearchIndexLayout.getCurrent().toString());
+		IndexReaderAccessor readers = session.getSearchFactory().getIndexReaderAccessor();
+		for (Class<?> type : getIndexedRootTypes(session)) {
+			IndexReader reader = readers.open(type);
+			try {
+				long sizeInBytes = 0;
+				for (LeafReaderContext leaf : reader.leaves()) {
+					if (leaf.reader() instanceof SegmentReader) {
+						sizeInBytes += ((SegmentReader) leaf.reader()).getSegmentInfo().sizeInBytes();
+					}
+				}
+				Map<String, Long> postingCounts = new TreeMap<>();
+				Fields fields = MultiFields.getFields(reader);
+				if (fields != null) {
+					for (String field : fields) {
+						Terms terms = fields.terms(field);
+						if (terms != null) {
+							postingCounts.put(field, terms.getSumDocFreq());
+						}
+					}
+				}
+				report.addIndexedType(new SearchIndexReport.IndexedType(type, reader.numDocs(), sizeInBytes,
+				        postingCounts));
+			}
+			catch (IOException e) {
+				throw new DAOException("Failed to read the search index of " + type.getName(), e);
+			}
+			finally {
+				readers.close(reader);
+			}
+		}
+		
+		PersonLuceneQuery personLuceneQuery = new PersonLuceneQuery(sessionFactory);
+		for (String query : sampleQueries) {
+			long start = System.nanoTime();
+			for (int i = 0; i < SAMPLE_QUERY_RUNS; i++) {
+				// building the query already runs the projection removing duplicate patients
+				personLuceneQuery.getPatientNameQuery(LuceneQuery.escapeQuery(query), false).listPartProjection(0,
+				    SAMPLE_QUERY_MAX_RESULTS, "person.personId");
+			}
+			report.addQueryTime(query, (System.nanoTime() - start) / (SAMPLE_QUERY_RUNS * 1e6));
+		}
+		return report;
+	}
+	
+	/**
+	 * Indexes each entity of the given results, applying the changes to the index and clearing the
+	 * session after every batch.
+	 * 
+	 * @return the number of indexed entities
+	 */
+	private long indexResults(FullTextSession session, ScrollableResults results, int batchSize,
+	        SearchIndexProgress progress) {
+		long index = 0;
+		try {
 			while (results.next()) {
 				index++;
 				//index each element
 				session.index(results.get(0));
-				if (index % 1000 == 0) {
+				if (index % batchSize == 0) {
 					//apply changes to indexes
 					session.flushToIndexes();
 					//free memory since the queue is processed
 					session.clear();
+					progress.addDocumentsAdded(batchSize);
 				}
 			}
 			session.flushToIndexes();
 			session.clear();
+			progress.addDocumentsAdded(index % batchSize);
 		}
 		finally {
-			session.setHibernateFlushMode(flushMode);
-			session.setCacheMode(cacheMode);
+			results.close();
+		}
+		return index;
+	}
+	
+	/**
+	 * Builds an HQL restriction on the entity alias <code>e</code> matching the rows of the given
+	 * type which were created, changed, voided or retired at or after the <code>:since</code>
+	 * parameter.
+	 */
+	private String getChangedSinceRestriction(Class<?> type) {
+		List<String> restrictions = new ArrayList<>();
+		if (Auditable.class.isAssignableFrom(type)) {
+			restrictions.add("e.dateCreated >= :since");
+			restrictions.add("e.dateChanged >= :since");
+		}
+		if (Voidable.class.isAssignableFrom(type)) {
+			restrictions.add("e.dateVoided >= :since");
+		}
+		if (Retireable.class.isAssignableFrom(type)) {
+			restrictions.add("e.dateRetired >= :since");
 		}
+		if (restrictions.isEmpty()) {
+			throw new IllegalArgumentException(type.getName()
+			        + " has no audit dates and cannot be updated incrementally in the search index");
+		}
+		return "(" + StringUtils.join(restrictions, " or ") + ")";
 	}
 	
 	/**
@@ -505,9 +841,15 @@ public class HibernateContextDAO implements ContextDAO {
 	 */
 	@Override
 	public void setupSearchIndex() {
-		String gp = Context.getAdministrationService().getGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEX_VERSION, "");
+		AdministrationService as = Context.getAdministrationService();
+		AsyncSearchIndexer.getInstance().configure(as.getGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC),
+		    as.getGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_THREADS),
+		    as.getGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_QUEUE_SIZE),
+		    as.getGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_BATCH_SIZE));
+		
+		String gp = as.getGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEX_VERSION, "");
 		
-		if (!OpenmrsConstants.SEARCH_INDEX_VERSION.toString().equals(gp)) {
+		if (!SearchIndexLayout.getCurrent().getIndexVersion().equals(gp)) {
 			updateSearchIndex();
 		}
 	}
@@ -517,23 +859,117 @@ public class HibernateContextDAO implements ContextDAO {
 	 */
 	@Override
 	public void updateSearchIndex() {
+		updateSearchIndex(getDefaultSearchIndexUpdateOptions());
+	}
+	
+	/**
+	 * @see ContextDAO#updateSearchIndex(SearchIndexUpdateOptions)
+	 */
+	@Override
+	public void updateSearchIndex(SearchIndexUpdateOptions options) {
 		try {
 			log.info("Updating the search index... It may take a few minutes.");
-			fullTextSessionFactory.getFullTextSession().createIndexer().startAndWait();
-			GlobalProperty gp = Context.getAdministrationService().getGlobalPropertyObject(
-			    OpenmrsConstants.GP_SEARCH_INDEX_VERSION);
-			if (gp == null) {
-				gp = new GlobalProperty(OpenmrsConstants.GP_SEARCH_INDEX_VERSION);
+			long watermark = System.currentTimeMillis();
+			FullTextSession session = fullTextSessionFactory.getFullTextSession();
+			List<Class<?>> types = options.getTypes().isEmpty() ? getIndexedRootTypes(session) : options.getTypes();
+			
+			Map<Class<?>, SearchIndexProgress> progressByType = new LinkedHashMap<>();
+			for (Class<?> type : types) {
+				progressByType.put(type, new SearchIndexProgress(type, false));
+			}
+			searchIndexProgress = progressByType;
+			
+			int typesInParallel = Math.max(1, options.getTypesToIndexInParallel());
+			for (int i = 0; i < types.size(); i += typesInParallel) {
+				List<Class<?>> batch = types.subList(i, Math.min(i + typesInParallel, types.size()));
+				List<Future<?>> futures = new ArrayList<>();
+				for (Class<?> type : batch) {
+					futures.add(createMassIndexer(session, type, options, progressByType.get(type)).start());
+				}
+				for (int j = 0; j < batch.size(); j++) {
+					SearchIndexProgress progress = progressByType.get(batch.get(j));
+					try {
+						futures.get(j).get();
+						progress.finish(false);
+					}
+					catch (Exception e) {
+						progress.finish(true);
+						throw e;
+					}
+				}
+			}
+			
+			if (options.getTypes().isEmpty()) {
+				saveGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEX_VERSION, SearchIndexLayout.getCurrent().getIndexVersion());
+				saveGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEX_WATERMARK, String.valueOf(watermark));
 			}
-			gp.setPropertyValue(OpenmrsConstants.SEARCH_INDEX_VERSION.toString());
-			Context.getAdministrationService().saveGlobalProperty(gp);
 			log.info("Finished updating the search index");
 		}
 		catch (Exception e) {
 			throw new RuntimeException("Failed to update the search index", e);
 		}
 	}
-
+	
+	private MassIndexer createMassIndexer(FullTextSession session, Class<?> type, SearchIndexUpdateOptions options,
+	        SearchIndexProgress progress) {
+		return session.createIndexer(type).threadsToLoadObjects(options.getThreadsToLoadObjects())
+		        .batchSizeToLoadObjects(options.getBatchSizeToLoadObjects()).idFetchSize(options.getIdFetchSize())
+		        .cacheMode(CacheMode.IGNORE).progressMonitor(new SearchIndexProgressMonitor(progress));
+	}
+	
+	/**
+	 * Gets the indexed types leaving out subclasses of other indexed types, since the mass indexer
+	 * includes subclasses when rebuilding a type.
+	 */
+	private List<Class<?>> getIndexedRootTypes(FullTextSession session) {
+		List<Class<?>> types = new ArrayList<>(session.getSearchFactory().getIndexedTypes());
+		List<Class<?>> rootTypes = new ArrayList<>();
+		for (Class<?> type : types) {
+			boolean root = true;
+			for (Class<?> other : types) {
+				if (other != type && other.isAssignableFrom(type)) {
+					root = false;
+					break;
+				}
+			}
+			if (root) {
+				rootTypes.add(type);
+			}
+		}
+		rootTypes.sort((a, b) -> a.getName().compareTo(b.getName()));
+		return rootTypes;
+	}
+	
+	private SearchIndexUpdateOptions getDefaultSearchIndexUpdateOptions() {
+		AdministrationService as = Context.getAdministrationService();
+		SearchIndexUpdateOptions options = new SearchIndexUpdateOptions();
+		options.setThreadsToLoadObjects(as.getGlobalPropertyValue(
+		    OpenmrsConstants.GP_SEARCH_INDEXER_THREADS_TO_LOAD_OBJECTS, SearchIndexUpdateOptions.DEFAULT_THREADS_TO_LOAD_OBJECTS));
+		options.setBatchSizeToLoadObjects(as.getGlobalPropertyValue(
+		    OpenmrsConstants.GP_SEARCH_INDEXER_BATCH_SIZE_TO_LOAD_OBJECTS,
+		    SearchIndexUpdateOptions.DEFAULT_BATCH_SIZE_TO_LOAD_OBJECTS));
+		options.setIdFetchSize(as.getGlobalPropertyValue(OpenmrsConstants.GP_SEARCH_INDEXER_ID_FETCH_SIZE,
+		    SearchIndexUpdateOptions.DEFAULT_ID_FETCH_SIZE));
+		options.setTypesToIndexInParallel(as.getGlobalPropertyValue(OpenmrsConstants.GP_SEARCH_INDEXER_TYPES_IN_PARALLEL,
+		    SearchIndexUpdateOptions.DEFAULT_TYPES_TO_INDEX_IN_PARALLEL));
+		return options;
+	}
+	
+	private void startSearchIndexProgress(SearchIndexProgress progress) {
+		Map<Class<?>, SearchIndexProgress> progressByType = new LinkedHashMap<>();
+		progressByType.put(progress.getType(), progress);
+		searchIndexProgress = progressByType;
+	}
+	
+	private void saveGlobalProperty(String property, String value) {
+		GlobalProperty gp = Context.getAdministrationService().getGlobalPropertyObject(property);
+		if (gp == null) {
+			gp = new GlobalProperty(property);
+		}
+		gp.setPropertyValue(value);
+		Context.getAdministrationService().saveGlobalProperty(gp);
+	}
+	
 	/**
 	 * @see ContextDAO#updateSearchIndexAsync()
 	 */
@@ -191,6 +191,7 @@ public class HibernateEncounterDAO implements EncounterDAO {
 		Criteria crit = sessionFactory.getCurrentSession().createCriteria(EncounterType.class);
 		crit.add(Restrictions.eq("retired", false));
 		crit.add(Restrictions.eq("name", name));
+		crit.setCacheable(true);
 
 		return (EncounterType) crit.uniqueResult();
 	}
@@ -260,7 +261,7 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	 */
 	@Override
 	public EncounterType getEncounterTypeByUuid(String uuid) {
-		return getClassByUuid(EncounterType.class, uuid);
+		return getMetadataByUuid(EncounterType.class, uuid);
 	}
 	
 	/**
@@ -489,7 +490,7 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	 */
 	@Override
 	public EncounterRole getEncounterRoleByUuid(String uuid) {
-		return getClassByUuid(EncounterRole.class, uuid);
+		return getMetadataByUuid(EncounterRole.class, uuid);
 	}
 	
 	/**
@@ -507,7 +508,7 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	@Override
 	public EncounterRole getEncounterRoleByName(String name) throws DAOException {
 		return (EncounterRole) sessionFactory.getCurrentSession().createCriteria(EncounterRole.class).add(
-		    Restrictions.eq("name", name)).uniqueResult();
+		    Restrictions.eq("name", name)).setCacheable(true).uniqueResult();
 		
 	}
 	
@@ -524,6 +525,16 @@ public class HibernateEncounterDAO implements EncounterDAO {
 		        .uniqueResult();
 	}
 	
+	/**
+	 * Same as {@link #getClassByUuid(Class, String)} but uses the query cache, for metadata which is
+	 * read much more often than it is saved
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T getMetadataByUuid(Class<T> clazz, String uuid) {
+		return (T) sessionFactory.getCurrentSession().createCriteria(clazz).add(Restrictions.eq("uuid", uuid))
+		        .setCacheable(true).uniqueResult();
+	}
+	
 	@SuppressWarnings("unchecked")
 	@Override
 	public List<Encounter> getEncountersNotAssignedToAnyVisit(Patient patient) throws DAOException {
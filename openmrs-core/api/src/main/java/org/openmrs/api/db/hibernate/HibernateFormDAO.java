@@ -379,6 +379,7 @@ public class HibernateFormDAO implements FormDAO {
 		
 		crit.add(Restrictions.eq("name", name));
 		crit.add(Restrictions.eq("version", version));
+		crit.setCacheable(true);
 		
 		return (Form) crit.uniqueResult();
 	}
@@ -530,7 +531,7 @@ public class HibernateFormDAO implements FormDAO {
 	@Override
 	public Form getFormByUuid(String uuid) {
 		return (Form) sessionFactory.getCurrentSession().createQuery("from Form f where f.uuid = :uuid").setString("uuid",
-		    uuid).uniqueResult();
+		    uuid).setCacheable(true).uniqueResult();
 	}
 	
 	/**
@@ -10,9 +10,13 @@
 package org.openmrs.api.db.hibernate;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
@@ -27,6 +31,7 @@ import org.openmrs.Location;
 import org.openmrs.LocationAttribute;
 import org.openmrs.LocationAttributeType;
 import org.openmrs.LocationTag;
+import org.openmrs.api.LocationTree;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.LocationDAO;
 
@@ -35,6 +40,8 @@ import org.openmrs.api.db.LocationDAO;
  */
 public class HibernateLocationDAO implements LocationDAO {
 	
+	private static final int MAX_IDS_PER_QUERY = 1000;
+	
 	private SessionFactory sessionFactory;
 	
 	/**
@@ -272,6 +279,41 @@ public class HibernateLocationDAO implements LocationDAO {
 		return criteria.list();
 	}
 	
+	/**
+	 * @see LocationDAO#getLocationTree()
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public LocationTree getLocationTree() {
+		List<Object[]> rows = sessionFactory.getCurrentSession().createQuery(
+		    "select l.locationId, p.locationId, l.retired from Location l left join l.parentLocation p").list();
+		
+		Map<Integer, Integer> parentIds = new HashMap<>();
+		Set<Integer> retiredIds = new HashSet<>();
+		for (Object[] row : rows) {
+			parentIds.put((Integer) row[0], (Integer) row[1]);
+			if (Boolean.TRUE.equals(row[2])) {
+				retiredIds.add((Integer) row[0]);
+			}
+		}
+		return new LocationTree(parentIds, retiredIds);
+	}
+	
+	/**
+	 * @see LocationDAO#getLocationsByIds(Collection)
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<Location> getLocationsByIds(Collection<Integer> locationIds) {
+		List<Integer> ids = new ArrayList<>(locationIds);
+		List<Location> ret = new ArrayList<>(ids.size());
+		for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+			ret.addAll(sessionFactory.getCurrentSession().createCriteria(Location.class).add(
+			    Restrictions.in("locationId", ids.subList(i, Math.min(ids.size(), i + MAX_IDS_PER_QUERY)))).list());
+		}
+		return ret;
+	}
+	
 	/**
 	 * @see org.openmrs.api.db.LocationDAO#getAllLocationAttributeTypes()
 	 */
@@ -410,21 +410,36 @@ public class HibernateOrderDAO implements OrderDAO {
 	public List<Order> getActiveOrders(Patient patient, List<OrderType> orderTypes, CareSetting careSetting, Date asOfDate) {
 		Criteria crit = createOrderCriteria(patient, careSetting, orderTypes, false, false);
 		crit.add(Restrictions.le("dateActivated", asOfDate));
+		crit.add(notStoppedOrExpiredBefore(asOfDate));
 		
+		return crit.list();
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.OrderDAO#getOrdersActiveFrom(org.openmrs.Patient, java.util.Date)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Order> getOrdersActiveFrom(Patient patient, Date fromDate) {
+		Criteria crit = createOrderCriteria(patient, null, null, false, false);
+		crit.add(notStoppedOrExpiredBefore(fromDate));
+		
+		return crit.list();
+	}
+	
+	private Criterion notStoppedOrExpiredBefore(Date date) {
 		Disjunction dateStoppedAndAutoExpDateDisjunction = Restrictions.disjunction();
 		Criterion stopAndAutoExpDateAreBothNull = Restrictions.and(Restrictions.isNull("dateStopped"), Restrictions
 		        .isNull("autoExpireDate"));
 		dateStoppedAndAutoExpDateDisjunction.add(stopAndAutoExpDateAreBothNull);
 		
 		Criterion autoExpireDateEqualToOrAfterAsOfDate = Restrictions.and(Restrictions.isNull("dateStopped"), Restrictions
-		        .ge("autoExpireDate", asOfDate));
+		        .ge("autoExpireDate", date));
 		dateStoppedAndAutoExpDateDisjunction.add(autoExpireDateEqualToOrAfterAsOfDate);
 		
-		dateStoppedAndAutoExpDateDisjunction.add(Restrictions.ge("dateStopped", asOfDate));
-		
-		crit.add(dateStoppedAndAutoExpDateDisjunction);
+		dateStoppedAndAutoExpDateDisjunction.add(Restrictions.ge("dateStopped", date));
 		
-		return crit.list();
+		return dateStoppedAndAutoExpDateDisjunction;
 	}
 	
 	/**
@@ -473,7 +488,7 @@ public class HibernateOrderDAO implements OrderDAO {
 	@Override
 	public CareSetting getCareSettingByUuid(String uuid) {
 		return (CareSetting) sessionFactory.getCurrentSession().createQuery("from CareSetting cs where cs.uuid = :uuid")
-		        .setString("uuid", uuid).uniqueResult();
+		        .setString("uuid", uuid).setCacheable(true).uniqueResult();
 	}
 	
 	/**
@@ -482,7 +497,7 @@ public class HibernateOrderDAO implements OrderDAO {
 	@Override
 	public CareSetting getCareSettingByName(String name) {
 		return (CareSetting) sessionFactory.getCurrentSession().createCriteria(CareSetting.class).add(
-		    Restrictions.ilike("name", name)).uniqueResult();
+		    Restrictions.ilike("name", name)).setCacheable(true).uniqueResult();
 	}
 	
 	/**
@@ -504,6 +519,7 @@ public class HibernateOrderDAO implements OrderDAO {
 	public OrderType getOrderTypeByName(String orderTypeName) {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(OrderType.class);
 		criteria.add(Restrictions.eq("name", orderTypeName));
+		criteria.setCacheable(true);
 		return (OrderType) criteria.uniqueResult();
 	}
 	
@@ -645,7 +661,7 @@ public class HibernateOrderDAO implements OrderDAO {
 	@Override
 	public OrderType getOrderTypeByUuid(String uuid) {
 		return (OrderType) sessionFactory.getCurrentSession().createQuery("from OrderType o where o.uuid = :uuid")
-		        .setString("uuid", uuid).uniqueResult();
+		        .setString("uuid", uuid).setCacheable(true).uniqueResult();
 	}
 	
 	/**
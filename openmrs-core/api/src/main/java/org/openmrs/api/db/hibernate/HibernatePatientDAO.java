@@ -11,6 +11,7 @@ package org.openmrs.api.db.hibernate;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -40,10 +41,12 @@ import org.openmrs.PatientIdentifierType.UniquenessBehavior;
 import org.openmrs.Person;
 import org.openmrs.PersonAttribute;
 import org.openmrs.PersonName;
+import org.openmrs.api.AdministrationService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.PatientDAO;
 import org.openmrs.api.db.hibernate.search.LuceneQuery;
+import org.openmrs.api.db.hibernate.search.SearchIndexLayout;
 import org.openmrs.collection.ListPart;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
@@ -61,10 +64,14 @@ public class HibernatePatientDAO implements PatientDAO {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernatePatientDAO.class);
 	
+	private static final int IDENTIFIERS_IN_USE_QUERY_SIZE = 500;
+	
 	/**
 	 * Hibernate session factory
 	 */
 	private SessionFactory sessionFactory;
+
+	private PatientSearchCache patientSearchCache;
 	
 	/**
 	 * Set session factory
@@ -75,6 +82,14 @@ public class HibernatePatientDAO implements PatientDAO {
 		this.sessionFactory = sessionFactory;
 	}
 
+	/**
+	 * @param patientSearchCache the cache of recent patient search results
+	 * @since 2.6.0
+	 */
+	public void setPatientSearchCache(PatientSearchCache patientSearchCache) {
+		this.patientSearchCache = patientSearchCache;
+	}
+
 	/**
      * @param patientId  internal patient identifier
      * @return           patient with given internal identifier
@@ -347,6 +362,7 @@ public class HibernatePatientDAO implements PatientDAO {
 		criteria.addOrder(Order.desc("required"));
 		criteria.addOrder(Order.asc("name"));
 		criteria.addOrder(Order.asc("patientIdentifierTypeId"));
+		criteria.setCacheable(true);
 		
 		return criteria.list();
 	}
@@ -589,7 +605,8 @@ public class HibernatePatientDAO implements PatientDAO {
         @Override
 	public PatientIdentifierType getPatientIdentifierTypeByUuid(String uuid) {
 		return (PatientIdentifierType) sessionFactory.getCurrentSession().createQuery(
-		    "from PatientIdentifierType pit where pit.uuid = :uuid").setString("uuid", uuid).uniqueResult();
+		    "from PatientIdentifierType pit where pit.uuid = :uuid").setString("uuid", uuid).setCacheable(true)
+		        .uniqueResult();
 	}
 	
 	/**
@@ -628,6 +645,27 @@ public class HibernatePatientDAO implements PatientDAO {
 		return !"0".equals(query.uniqueResult().toString());
 	}
 	
+	/**
+	 * @see org.openmrs.api.db.PatientDAO#getIdentifiersInUse(PatientIdentifierType, Collection)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Object[]> getIdentifiersInUse(PatientIdentifierType identifierType, Collection<String> identifiers) {
+		List<Object[]> inUse = new ArrayList<>();
+		// keep the in clause within the limits of all supported databases
+		List<String> identifierList = new ArrayList<>(identifiers);
+		for (int from = 0; from < identifierList.size(); from += IDENTIFIERS_IN_USE_QUERY_SIZE) {
+			List<String> chunk = identifierList.subList(from,
+			    Math.min(from + IDENTIFIERS_IN_USE_QUERY_SIZE, identifierList.size()));
+			inUse.addAll(sessionFactory.getCurrentSession().createQuery(
+			    "select pi.identifier, l.locationId from PatientIdentifier pi join pi.patient p left join pi.location l "
+			            + "where p.voided = false and pi.voided = false and pi.identifierType = :idType "
+			            + "and pi.identifier in (:identifiers)").setParameter("idType", identifierType).setParameterList(
+			    "identifiers", chunk).list());
+		}
+		return inUse;
+	}
+	
 	/**
      * @param patientIdentifierId  the patientIdentifier id
      * @return                     the patientIdentifier matching the Id
@@ -687,6 +725,14 @@ public class HibernatePatientDAO implements PatientDAO {
 		}
 		String tmpQuery = LuceneQuery.escapeQuery(query);
 
+		long timeToLive = getPatientSearchCacheTimeToLive();
+		if (timeToLive > 0) {
+			Long count = patientSearchCache.getCount(tmpQuery, includeVoided);
+			if (count != null) {
+				return count;
+			}
+		}
+
 		LuceneQuery<PatientIdentifier> identifierQuery = getPatientIdentifierLuceneQuery(tmpQuery, includeVoided, false);
 
 		PersonLuceneQuery personLuceneQuery = new PersonLuceneQuery(sessionFactory);
@@ -694,7 +740,11 @@ public class HibernatePatientDAO implements PatientDAO {
 		LuceneQuery<PersonName> nameQuery = personLuceneQuery.getPatientNameQuery(tmpQuery, includeVoided, identifierQuery);
 		LuceneQuery<PersonAttribute> attributeQuery = personLuceneQuery.getPatientAttributeQuery(tmpQuery, includeVoided, nameQuery);
 
-		return identifierQuery.resultSize() + nameQuery.resultSize() + attributeQuery.resultSize();
+		long count = identifierQuery.resultSize() + nameQuery.resultSize() + attributeQuery.resultSize();
+		if (timeToLive > 0) {
+			patientSearchCache.putCount(tmpQuery, includeVoided, count, timeToLive);
+		}
+		return count;
 	}
 
     private List<Patient> findPatients(String query, boolean includeVoided) {
@@ -767,12 +817,101 @@ public class HibernatePatientDAO implements PatientDAO {
 			return patients;
 		}
 
-		LuceneQuery<PatientIdentifier> identifierQuery = getPatientIdentifierLuceneQuery(query, includeVoided, false);
+		List<Integer> patientIds;
+		long timeToLive = getPatientSearchCacheTimeToLive();
+		if (timeToLive > 0) {
+			patientIds = getCachedPatientIds(query, includeVoided, tmpStart, tmpLength, maxLength, timeToLive);
+		} else {
+			patientIds = findPatientIds(query, includeVoided, tmpStart, tmpLength, null);
+		}
+		patientIds.forEach(patientId -> patients.add(getPatient(patientId)));
+
+		return patients;
+	}
+
+	/**
+	 * Gets the ids of the patients found by the search from the {@link PatientSearchCache}, by
+	 * filtering the results of a recent search for a prefix of the query, or else by searching them
+	 *
+	 * @param query the escaped search string
+	 * @param maxLength the maximum number of results of a search
+	 */
+	private List<Integer> getCachedPatientIds(String query, boolean includeVoided, int start, int length, int maxLength,
+	        long timeToLive) {
+		List<Integer> patientIds = patientSearchCache.getPatientIds(query, includeVoided, start, length);
+		if (patientIds != null) {
+			return patientIds;
+		}
+
+		List<Integer> prefixPatientIds = getPatientIdsOfPrefix(query, includeVoided);
+		if (prefixPatientIds != null) {
+			List<Integer> allPatientIds = prefixPatientIds.isEmpty() ? prefixPatientIds : findPatientIds(query,
+			    includeVoided, 0, maxLength, prefixPatientIds);
+			patientSearchCache.putPatientIds(query, includeVoided, 0, maxLength, allPatientIds, timeToLive);
+			patientIds = patientSearchCache.getPatientIds(query, includeVoided, start, length);
+			if (patientIds != null) {
+				return patientIds;
+			}
+		}
+
+		patientIds = findPatientIds(query, includeVoided, start, length, null);
+		patientSearchCache.putPatientIds(query, includeVoided, start, length, patientIds, timeToLive);
+		return patientIds;
+	}
+
+	/**
+	 * Gets all the results of a recent search for a prefix of the query if the search is configured
+	 * so that the patients found by the query are among them: identifiers are not searched with
+	 * patterns or padding, which change with the query, attributes are matched anywhere in their
+	 * value, unless the prefix found nothing, and the last words of the query and of the prefix are
+	 * not longer nor shorter than the n-grams of the search index.
+	 *
+	 * @param query the escaped search string
+	 * @return the ids of the patients found for the prefix, or null if they cannot be reused
+	 */
+	private List<Integer> getPatientIdsOfPrefix(String query, boolean includeVoided) {
+		AdministrationService as = Context.getAdministrationService();
+		int maxResults = getIntegerGlobalProperty(OpenmrsConstants.GP_PATIENT_SEARCH_CACHE_PREFIX_MAX_RESULTS,
+		    PatientSearchCache.DEFAULT_PREFIX_MAX_RESULTS);
+		if (maxResults <= 0 || StringUtils.isNotBlank(as.getGlobalProperty(
+		    OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_IDENTIFIER_SEARCH_PATTERN)) || !removeIdentifierPadding(query).equals(
+		    query)) {
+			return null;
+		}
+		SearchIndexLayout layout = SearchIndexLayout.getCurrent();
+		String lastWord = StringUtils.substringAfterLast(" " + query.trim(), " ");
+		if (lastWord.length() > layout.getMaxGramSize()) {
+			return null;
+		}
+
+		List<Integer> patientIds = patientSearchCache.getPatientIdsOfPrefix(query, includeVoided, maxResults,
+		    layout.getMinGramSize());
+		if (patientIds != null && patientIds.isEmpty() && !isPersonAttributeMatchedAnywhere()) {
+			return null;
+		}
+		return patientIds;
+	}
+
+	/**
+	 * Searches the ids of the patients by identifier, then name and then attribute
+	 *
+	 * @param query the escaped search string
+	 * @param patientIds the ids of the patients to search among, all patients are searched if null,
+	 *            attributes are searched for all patients unless they are matched anywhere
+	 */
+	private List<Integer> findPatientIds(String query, boolean includeVoided, int start, int length,
+	        Collection<Integer> patientIds) {
+		int tmpStart = start;
+		int tmpLength = length;
+		List<Integer> ids = new ArrayList<>();
+
+		LuceneQuery<PatientIdentifier> identifierQuery = getPatientIdentifierLuceneQuery(query, includeVoided, false,
+		    patientIds);
 
 		long identifiersSize = identifierQuery.resultSize();
 		if (identifiersSize > tmpStart) {
 			ListPart<Object[]> patientIdentifiers = identifierQuery.listPartProjection(tmpStart, tmpLength, "patient.personId");
-			patientIdentifiers.getList().forEach(patientIdentifier -> patients.add(getPatient((Integer) patientIdentifier[0])));
+			patientIdentifiers.getList().forEach(patientIdentifier -> ids.add((Integer) patientIdentifier[0]));
 
 			tmpLength -= patientIdentifiers.getList().size();
 			tmpStart = 0;
@@ -781,16 +920,17 @@ public class HibernatePatientDAO implements PatientDAO {
 		}
 
 		if (tmpLength == 0) {
-			return patients;
+			return ids;
 		}
 
 		PersonLuceneQuery personLuceneQuery = new PersonLuceneQuery(sessionFactory);
 
-		LuceneQuery<PersonName> nameQuery = personLuceneQuery.getPatientNameQuery(query, includeVoided, identifierQuery);
+		LuceneQuery<PersonName> nameQuery = personLuceneQuery.getPatientNameQuery(query, includeVoided, identifierQuery,
+		    patientIds);
 		long namesSize = nameQuery.resultSize();
 		if (namesSize > tmpStart) {
 			ListPart<Object[]> personNames = nameQuery.listPartProjection(tmpStart, tmpLength, "person.personId");
-			personNames.getList().forEach(personName -> patients.add(getPatient((Integer) personName[0])));
+			personNames.getList().forEach(personName -> ids.add((Integer) personName[0]));
 
 			tmpLength -= personNames.getList().size();
 			tmpStart = 0;
@@ -799,18 +939,50 @@ public class HibernatePatientDAO implements PatientDAO {
 		}
 
 		if (tmpLength == 0) {
-			return patients;
+			return ids;
 		}
 
-		LuceneQuery<PersonAttribute> attributeQuery = personLuceneQuery.getPatientAttributeQuery(query, includeVoided, nameQuery);
+		LuceneQuery<PersonAttribute> attributeQuery = personLuceneQuery.getPatientAttributeQuery(query, includeVoided,
+		    nameQuery, isPersonAttributeMatchedAnywhere() ? patientIds : null);
 		long attributesSize = attributeQuery.resultSize();
 		if (attributesSize > tmpStart) {
 			ListPart<Object[]> personAttributes = attributeQuery.listPartProjection(tmpStart, tmpLength, "person.personId");
-			personAttributes.getList().forEach(personAttribute -> patients.add(getPatient((Integer) personAttribute[0])));
+			personAttributes.getList().forEach(personAttribute -> ids.add((Integer) personAttribute[0]));
 		}
 
-		return patients;
+		return ids;
 	}
+
+	private boolean isPersonAttributeMatchedAnywhere() {
+		return OpenmrsConstants.GLOBAL_PROPERTY_PERSON_ATTRIBUTE_SEARCH_MATCH_ANYWHERE.equals(Context
+		        .getAdministrationService().getGlobalProperty(
+		            OpenmrsConstants.GLOBAL_PROPERTY_PERSON_ATTRIBUTE_SEARCH_MATCH_MODE));
+	}
+
+	/**
+	 * @return how long patient search results are remembered, in milliseconds, 0 if they are not
+	 */
+	private long getPatientSearchCacheTimeToLive() {
+		if (patientSearchCache == null) {
+			return 0;
+		}
+		return getIntegerGlobalProperty(OpenmrsConstants.GP_PATIENT_SEARCH_CACHE_SECONDS, 0) * 1000L;
+	}
+
+	private int getIntegerGlobalProperty(String name, int defaultValue) {
+		String value = Context.getAdministrationService().getGlobalProperty(name);
+		if (StringUtils.isBlank(value)) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			log.error("Unable to convert the global property {} to a valid integer, using {}", name, defaultValue);
+			return defaultValue;
+		}
+	}
+
 	private LuceneQuery<PatientIdentifier> getPatientIdentifierLuceneQuery(String query, List<PatientIdentifierType> identifierTypes, boolean matchExactly) {
 		LuceneQuery<PatientIdentifier> patientIdentifierLuceneQuery = getPatientIdentifierLuceneQuery(query, matchExactly);
 		List<Integer> identifierTypeIds = new ArrayList<Integer>();
@@ -847,6 +1019,11 @@ public class HibernatePatientDAO implements PatientDAO {
 	}		
 		
 	private LuceneQuery<PatientIdentifier> getPatientIdentifierLuceneQuery(String query, boolean includeVoided, boolean matchExactly) {
+		return getPatientIdentifierLuceneQuery(query, includeVoided, matchExactly, null);
+	}
+
+	private LuceneQuery<PatientIdentifier> getPatientIdentifierLuceneQuery(String query, boolean includeVoided, boolean matchExactly,
+	        Collection<Integer> patientIds) {
 	    LuceneQuery<PatientIdentifier> luceneQuery = getPatientIdentifierLuceneQuery(query, matchExactly);
 		if(!includeVoided){
         	luceneQuery.include("voided", false);
@@ -854,6 +1031,9 @@ public class HibernatePatientDAO implements PatientDAO {
         }
 
         luceneQuery.include("patient.isPatient", true);
+		if (patientIds != null) {
+			luceneQuery.include("patient.personId", patientIds);
+		}
 		luceneQuery.skipSame("patient.personId");
 
         return luceneQuery;
@@ -14,11 +14,14 @@ import java.util.Date;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
 import org.hibernate.Query;
 import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
@@ -487,6 +490,42 @@ public class HibernatePersonDAO implements PersonDAO {
 		return criteria.list();
 	}
 	
+	/**
+	 * @see org.openmrs.api.db.PersonDAO#streamRelationshipPersonIds(RelationshipType, Date,
+	 *      BiConsumer)
+	 */
+	@Override
+	public void streamRelationshipPersonIds(RelationshipType relType, Date effectiveDate,
+	        BiConsumer<Integer, Integer> consumer) {
+		StringBuilder hql = new StringBuilder(
+		        "select r.personA.personId, r.personB.personId from Relationship r where r.voided = false");
+		if (relType != null) {
+			hql.append(" and r.relationshipType = :relType");
+		}
+		if (effectiveDate != null) {
+			hql.append(" and (r.startDate is null or r.startDate <= :effectiveDate)");
+			hql.append(" and (r.endDate is null or r.endDate >= :effectiveDate)");
+		}
+		Query query = sessionFactory.getCurrentSession().createQuery(hql.toString());
+		if (relType != null) {
+			query.setParameter("relType", relType);
+		}
+		if (effectiveDate != null) {
+			query.setParameter("effectiveDate", effectiveDate);
+		}
+		
+		//only the ids are read, scrolling avoids holding all the rows in memory
+		ScrollableResults results = query.setFetchSize(1000).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+		try {
+			while (results.next()) {
+				consumer.accept((Integer) results.get(0), (Integer) results.get(1));
+			}
+		}
+		finally {
+			results.close();
+		}
+	}
+	
 	/**
 	 * @see org.openmrs.api.PersonService#getRelationshipType(java.lang.Integer)
 	 * @see org.openmrs.api.db.PersonDAO#getRelationshipType(java.lang.Integer)
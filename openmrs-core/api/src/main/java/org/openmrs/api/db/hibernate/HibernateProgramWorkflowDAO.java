@@ -12,8 +12,10 @@ package org.openmrs.api.db.hibernate;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 
 import org.hibernate.Criteria;
@@ -22,6 +24,7 @@ import org.hibernate.SessionFactory;
 import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.engine.spi.EntityKey;
 import org.hibernate.FlushMode;
 import org.hibernate.type.StandardBasicTypes;
 import org.openmrs.Cohort;
@@ -108,6 +111,7 @@ public class HibernateProgramWorkflowDAO implements ProgramWorkflowDAO {
 		if (!includeRetired) {
 			criteria.add(Restrictions.eq("retired", false));
 		}
+		criteria.setCacheable(true);
 		
 		@SuppressWarnings("unchecked")
 		List<Program> list = criteria.list();
@@ -230,6 +234,59 @@ public class HibernateProgramWorkflowDAO implements ProgramWorkflowDAO {
 		return query.list();
 	}
 	
+	/**
+	 * @see org.openmrs.api.db.ProgramWorkflowDAO#getCurrentPatientStates(Collection, ProgramWorkflow,
+	 *      Date)
+	 */
+	@Override
+	public List<Object[]> getCurrentPatientStates(Collection<Integer> patientIds, ProgramWorkflow workflow, Date onDate) {
+		// same conditions as PatientState#getActive(Date)
+		String hql = "select pp.patient.patientId, pp.patientProgramId, ps.patientStateId, s.programWorkflowStateId, "
+		        + "ps.startDate from PatientState ps join ps.patientProgram pp join ps.state s "
+		        + "where s.programWorkflow = :workflow and ps.voided = false and pp.voided = false "
+		        + "and (ps.startDate is null or ps.startDate <= :onDate) and (ps.endDate is null or ps.endDate > :onDate) ";
+		if (patientIds != null) {
+			hql += "and pp.patient.patientId in (:patientIds) ";
+		}
+		// states without a start date first, whatever the database does with nulls
+		hql += "order by case when ps.startDate is null then 0 else 1 end, ps.startDate, ps.patientStateId";
+		Query query = sessionFactory.getCurrentSession().createQuery(hql);
+		query.setParameter("workflow", workflow);
+		query.setParameter("onDate", onDate);
+		if (patientIds != null) {
+			query.setParameterList("patientIds", patientIds);
+		}
+		return query.list();
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ProgramWorkflowDAO#getActivePatientPrograms(Collection, Collection)
+	 */
+	@Override
+	public List<PatientProgram> getActivePatientPrograms(Collection<Integer> patientIds, Collection<Program> programs) {
+		// the states are mapped eagerly, fetching them here avoids a select per patient program
+		return sessionFactory.getCurrentSession().createQuery(
+		    "select distinct pp from PatientProgram pp left join fetch pp.states where pp.patient.patientId in (:patientIds) "
+		            + "and pp.program in (:programs) and pp.voided = false and pp.dateCompleted is null "
+		            + "order by pp.patient.patientId, pp.dateEnrolled", PatientProgram.class)
+		        .setParameterList("patientIds", patientIds).setParameterList("programs", programs).list();
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ProgramWorkflowDAO#getPatientProgramIdsInSession()
+	 */
+	@Override
+	public Set<Integer> getPatientProgramIdsInSession() {
+		Set<Integer> patientProgramIds = new HashSet<>();
+		for (Object key : sessionFactory.getCurrentSession().getStatistics().getEntityKeys()) {
+			EntityKey entityKey = (EntityKey) key;
+			if (PatientProgram.class.getName().equals(entityKey.getEntityName())) {
+				patientProgramIds.add((Integer) entityKey.getIdentifier());
+			}
+		}
+		return patientProgramIds;
+	}
+	
 	/**
 	 * @see org.openmrs.api.db.ProgramWorkflowDAO#deletePatientProgram(org.openmrs.PatientProgram)
 	 */
@@ -319,7 +376,7 @@ public class HibernateProgramWorkflowDAO implements ProgramWorkflowDAO {
 	@Override
 	public Program getProgramByUuid(String uuid) {
 		return (Program) sessionFactory.getCurrentSession().createQuery("from Program p where p.uuid = :uuid").setString(
-		    "uuid", uuid).uniqueResult();
+		    "uuid", uuid).setCacheable(true).uniqueResult();
 	}
 	
 	/**
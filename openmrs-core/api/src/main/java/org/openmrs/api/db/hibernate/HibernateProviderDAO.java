@@ -91,7 +91,8 @@ public class HibernateProviderDAO implements ProviderDAO {
 	 */
 	@Override
 	public Provider getProviderByUuid(String uuid) {
-		return getByUuid(uuid, Provider.class);
+		return (Provider) getSession().createCriteria(Provider.class).add(Restrictions.eq("uuid", uuid)).setCacheable(
+		    true).uniqueResult();
 	}
 	
 	/**
@@ -327,6 +328,7 @@ public class HibernateProviderDAO implements ProviderDAO {
 	public Provider getProviderByIdentifier(String identifier) {
 		Criteria criteria = sessionFactory.getCurrentSession().createCriteria(Provider.class);
 		criteria.add(Restrictions.ilike("identifier", identifier, MatchMode.EXACT));
+		criteria.setCacheable(true);
 		return (Provider) criteria.uniqueResult();
 	}
 }
@@ -25,15 +25,23 @@ import org.openmrs.api.context.Context;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.SerializedObject;
 import org.openmrs.api.db.SerializedObjectDAO;
+import org.openmrs.serialization.BinaryXStreamSerializer;
 import org.openmrs.serialization.OpenmrsSerializer;
 import org.openmrs.serialization.SerializationException;
+import org.openmrs.serialization.SimpleXStreamSerializer;
 import org.openmrs.util.ExceptionUtil;
+import org.openmrs.util.OpenmrsUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 
 /**
  * Hibernate specific database access methods for serialized objects
  */
 public class HibernateSerializedObjectDAO implements SerializedObjectDAO {
 	
+	private static final Logger log = LoggerFactory.getLogger(HibernateSerializedObjectDAO.class);
+	
 	private static HibernateSerializedObjectDAO instance;
 	
 	//********* PROPERTIES **********
@@ -42,6 +50,8 @@ public class HibernateSerializedObjectDAO implements SerializedObjectDAO {
 	
 	private List<Class<? extends OpenmrsObject>> supportedTypes;
 	
+	private Cache deserializedObjectCache;
+	
 	/**
 	 * Private Constructor to support a singleton instance
 	 */
@@ -196,6 +206,9 @@ public class HibernateSerializedObjectDAO implements SerializedObjectDAO {
 			serializedObject = new SerializedObject();
 		}
 		
+		if (serializer == null) {
+			serializer = Context.getSerializationService().getSerializerForType(object.getClass());
+		}
 		if (serializer == null) {
 			serializer = getSerializer(serializedObject);
 		}
@@ -248,6 +261,7 @@ public class HibernateSerializedObjectDAO implements SerializedObjectDAO {
 		}
 		
 		sessionFactory.getCurrentSession().saveOrUpdate(serializedObject);
+		evictDeserializedObject(serializedObject.getUuid());
 		
 		object.setId(serializedObject.getId());
 		return object;
@@ -260,6 +274,9 @@ public class HibernateSerializedObjectDAO implements SerializedObjectDAO {
 	public void purgeObject(Integer id) throws DAOException {
 		SerializedObject o = getSerializedObject(id);
 		sessionFactory.getCurrentSession().delete(o);
+		if (o != null) {
+			evictDeserializedObject(o.getUuid());
+		}
 	}
 	
 	/**
@@ -303,8 +320,11 @@ public class HibernateSerializedObjectDAO implements SerializedObjectDAO {
 		if (serializedObject == null) {
 			return null;
 		}
+		T obj = getDeserializedObject(clazz, serializedObject);
+		if (obj != null) {
+			return obj;
+		}
 		OpenmrsSerializer serializer = getSerializer(serializedObject);
-		T obj;
 		try {
 			Class<?> subtype = Context.loadClass(serializedObject.getSubtype());
 			obj = (T) serializer.deserialize(serializedObject.getSerializedData(), subtype);
@@ -319,9 +339,78 @@ public class HibernateSerializedObjectDAO implements SerializedObjectDAO {
 		}
 		obj.setId(serializedObject.getId());
 		obj.setUuid(serializedObject.getUuid());
+		cacheDeserializedObject(serializedObject, serializer, obj);
 		return obj;
 	}
 	
+	/**
+	 * Deserializes a new copy of the object from the binary form kept when it was first read, if the
+	 * serialized object did not change since then. Reading the binary form is much faster than
+	 * parsing xml, and callers never share the objects they get.
+	 */
+	private <T extends OpenmrsObject> T getDeserializedObject(Class<T> clazz, SerializedObject serializedObject) {
+		if (deserializedObjectCache == null || serializedObject.getUuid() == null) {
+			return null;
+		}
+		DeserializedObject cached = deserializedObjectCache.get(serializedObject.getUuid(), DeserializedObject.class);
+		if (cached == null || !OpenmrsUtil.nullSafeEquals(cached.dateChanged, serializedObject.getDateChanged())) {
+			return null;
+		}
+		BinaryXStreamSerializer binarySerializer = getBinarySerializer();
+		if (binarySerializer == null) {
+			return null;
+		}
+		try {
+			Object obj = binarySerializer.deserialize(cached.data, OpenmrsObject.class);
+			if (!clazz.isInstance(obj)) {
+				return null;
+			}
+			T copy = clazz.cast(obj);
+			copy.setId(serializedObject.getId());
+			copy.setUuid(serializedObject.getUuid());
+			return copy;
+		}
+		catch (SerializationException e) {
+			log.debug("Unable to deserialize the cached copy of {}", serializedObject, e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Keeps the given object in binary form, if it was deserialized from xml by the same xstream
+	 * object the binary serializer uses, so that its copies are identical
+	 */
+	private void cacheDeserializedObject(SerializedObject serializedObject, OpenmrsSerializer serializer,
+	        OpenmrsObject obj) {
+		if (deserializedObjectCache == null || serializedObject.getUuid() == null
+		        || !(serializer instanceof SimpleXStreamSerializer)) {
+			return;
+		}
+		BinaryXStreamSerializer binarySerializer = getBinarySerializer();
+		if (binarySerializer == null
+		        || binarySerializer.getXstream() != ((SimpleXStreamSerializer) serializer).getXstream()) {
+			return;
+		}
+		try {
+			deserializedObjectCache.put(serializedObject.getUuid(), new DeserializedObject(serializedObject
+			        .getDateChanged(), binarySerializer.serialize(obj)));
+		}
+		catch (SerializationException | RuntimeException e) {
+			log.debug("Unable to cache {}", serializedObject, e);
+		}
+	}
+	
+	private BinaryXStreamSerializer getBinarySerializer() {
+		OpenmrsSerializer serializer = Context.getSerializationService().getSerializer(BinaryXStreamSerializer.class);
+		return serializer instanceof BinaryXStreamSerializer ? (BinaryXStreamSerializer) serializer : null;
+	}
+	
+	private void evictDeserializedObject(String uuid) {
+		if (deserializedObjectCache != null && uuid != null) {
+			deserializedObjectCache.evict(uuid);
+		}
+	}
+	
 	/**
 	 * Private method for retrieving the Serializer that should be used for the passed
 	 * SerializedObject, defaulting to the default system serializer if none is explicitly set on
@@ -345,6 +434,17 @@ public class HibernateSerializedObjectDAO implements SerializedObjectDAO {
 		this.sessionFactory = sessionFactory;
 	}
 	
+	/**
+	 * Sets the cache of the binary form of deserialized objects, objects are deserialized from their
+	 * serialized data on every read if not set
+	 * 
+	 * @param deserializedObjectCache
+	 * @since 2.6.0
+	 */
+	public void setDeserializedObjectCache(Cache deserializedObjectCache) {
+		this.deserializedObjectCache = deserializedObjectCache;
+	}
+	
 	/**
 	 * @return the supportedTypes
 	 */
@@ -368,4 +468,20 @@ public class HibernateSerializedObjectDAO implements SerializedObjectDAO {
 		}
 		
 	}
+	
+	/**
+	 * The binary form of an object deserialized from a serialized object, with the date the
+	 * serialized object was last changed
+	 */
+	private static class DeserializedObject {
+		
+		private final Date dateChanged;
+		
+		private final String data;
+		
+		DeserializedObject(Date dateChanged, String data) {
+			this.dateChanged = dateChanged;
+			this.data = data;
+		}
+	}
 }
@@ -39,6 +39,8 @@ import org.openmrs.util.Security;
 import org.openmrs.util.UserByNameComparator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Hibernate specific database methods for the UserService
@@ -56,6 +58,8 @@ public class HibernateUserDAO implements UserDAO {
 	 */
 	private SessionFactory sessionFactory;
 	
+	private VerifiedCredentialCache verifiedCredentialCache;
+	
 	/**
 	 * Set session factory
 	 * 
@@ -65,6 +69,34 @@ public class HibernateUserDAO implements UserDAO {
 		this.sessionFactory = sessionFactory;
 	}
 	
+	/**
+	 * @param verifiedCredentialCache the cache to invalidate when users or their passwords change
+	 * @since 2.6.0
+	 */
+	public void setVerifiedCredentialCache(VerifiedCredentialCache verifiedCredentialCache) {
+		this.verifiedCredentialCache = verifiedCredentialCache;
+	}
+	
+	/**
+	 * Forgets the verified passwords of the user now and again once the transaction commits, since
+	 * logins made until then still read the old password
+	 */
+	private void invalidateVerifiedCredentials(Integer userId) {
+		if (verifiedCredentialCache == null) {
+			return;
+		}
+		verifiedCredentialCache.invalidate(userId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				
+				@Override
+				public void afterCommit() {
+					verifiedCredentialCache.invalidate(userId);
+				}
+			});
+		}
+	}
+	
 	/**
 	 * @see org.openmrs.api.UserService#saveUser(org.openmrs.User, java.lang.String)
 	 */
@@ -75,6 +107,7 @@ public class HibernateUserDAO implements UserDAO {
 		boolean isNewUser = user.getUserId() == null;
 		
 		sessionFactory.getCurrentSession().saveOrUpdate(user);
+		invalidateVerifiedCredentials(user.getUserId());
 		
 		if (isNewUser && password != null) {
 			/* In OpenMRS, we are using generation strategy as native which will convert to IDENTITY 
@@ -207,6 +240,7 @@ public class HibernateUserDAO implements UserDAO {
 	 */
 	@Override
 	public void deleteUser(User user) {
+		invalidateVerifiedCredentials(user.getUserId());
 		sessionFactory.getCurrentSession().delete(user);
 	}
 	
@@ -341,6 +375,7 @@ public class HibernateUserDAO implements UserDAO {
 		credentials.setUuid(changeForUser.getUuid());
 		
 		sessionFactory.getCurrentSession().merge(credentials);
+		invalidateVerifiedCredentials(userIdToChange);
 		
 		// reset lockout 
 		changeForUser.setUserProperty(OpenmrsConstants.USER_PROPERTY_LOCKOUT_TIMESTAMP, "");
@@ -86,7 +86,7 @@ public class HibernateVisitDAO implements VisitDAO {
 	@Transactional(readOnly = true)
 	public VisitType getVisitTypeByUuid(String uuid) {
 		return (VisitType) sessionFactory.getCurrentSession().createQuery("from VisitType vt where vt.uuid = :uuid")
-		        .setString("uuid", uuid).uniqueResult();
+		        .setString("uuid", uuid).setCacheable(true).uniqueResult();
 	}
 	
 	/**
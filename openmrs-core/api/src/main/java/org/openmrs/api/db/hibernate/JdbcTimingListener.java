@@ -0,0 +1,105 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.BaseSessionEventListener;
+import org.openmrs.api.db.SlowQueryLog;
+
+/**
+ * Times the JDBC work of the sessions: executed statements are reported to the {@link SlowQueryLog}
+ * and the time spent acquiring connections is added up for
+ * {@link org.openmrs.api.db.DatabaseStatistics}. It is set with the hibernate.session.events.auto
+ * property in hibernate.default.properties, Hibernate creates one for each session.
+ *
+ * @since 2.6.0
+ */
+public class JdbcTimingListener extends BaseSessionEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final LongAdder connectionAcquisitionTime = new LongAdder();
+
+	private static final LongAccumulator connectionAcquisitionMaxTime = new LongAccumulator(Long::max, 0);
+
+	private long connectionAcquisitionStart = -1;
+
+	private long statementStart = -1;
+
+	@Override
+	public void jdbcConnectionAcquisitionStart() {
+		connectionAcquisitionStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcConnectionAcquisitionEnd() {
+		if (connectionAcquisitionStart >= 0) {
+			long elapsedNanos = System.nanoTime() - connectionAcquisitionStart;
+			connectionAcquisitionTime.add(elapsedNanos);
+			connectionAcquisitionMaxTime.accumulate(elapsedNanos);
+			connectionAcquisitionStart = -1;
+		}
+	}
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		statementStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		statementExecuted();
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		statementStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		statementExecuted();
+	}
+
+	private void statementExecuted() {
+		if (statementStart >= 0) {
+			SlowQueryLog.getInstance().statementExecuted(
+			    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - statementStart));
+			statementStart = -1;
+		}
+	}
+
+	/**
+	 * @return the time in milliseconds all sessions spent acquiring JDBC connections, since startup
+	 *         or since {@link #reset()}
+	 */
+	public static long getConnectionAcquisitionTime() {
+		return TimeUnit.NANOSECONDS.toMillis(connectionAcquisitionTime.sum());
+	}
+
+	/**
+	 * @return the longest time in milliseconds a session spent acquiring a JDBC connection, since
+	 *         startup or since {@link #reset()}
+	 */
+	public static long getConnectionAcquisitionMaxTime() {
+		return TimeUnit.NANOSECONDS.toMillis(connectionAcquisitionMaxTime.get());
+	}
+
+	/**
+	 * Restarts the connection acquisition times
+	 */
+	public static void reset() {
+		connectionAcquisitionTime.reset();
+		connectionAcquisitionMaxTime.reset();
+	}
+}
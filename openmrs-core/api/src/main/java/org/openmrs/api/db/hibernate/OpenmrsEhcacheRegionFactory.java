@@ -0,0 +1,50 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import java.util.Map;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.ehcache.internal.EhcacheRegionFactory;
+import org.openmrs.api.cache.CachePropertiesUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+
+/**
+ * The Ehcache region factory of the second level cache. The regions are set in ehcache.xml, their
+ * settings can be overridden through {@link CachePropertiesUtil#HIBERNATE_CACHE_CONFIG} files in the
+ * classpath, e.g. org.openmrs.ConceptName.maxElementsInMemory=100000. The properties are applied
+ * on top of the settings in ehcache.xml, regions which are not in ehcache.xml are added.
+ *
+ * @since 2.6.0
+ */
+public class OpenmrsEhcacheRegionFactory extends EhcacheRegionFactory {
+
+	private static final Logger log = LoggerFactory.getLogger(OpenmrsEhcacheRegionFactory.class);
+
+	@Override
+	protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map properties) {
+		CacheManager cacheManager = super.resolveCacheManager(settings, properties);
+		Map<String, CacheConfiguration> configurations = cacheManager.getConfiguration().getCacheConfigurations();
+		for (CacheConfiguration configuration : CachePropertiesUtil.getCacheConfigurations(
+		    CachePropertiesUtil.HIBERNATE_CACHE_CONFIG, configurations)) {
+			log.debug("Configuring second level cache region {}", configuration.getName());
+			if (cacheManager.cacheExists(configuration.getName())) {
+				cacheManager.removeCache(configuration.getName());
+			}
+			cacheManager.addCache(new Cache(configuration));
+		}
+		return cacheManager;
+	}
+}
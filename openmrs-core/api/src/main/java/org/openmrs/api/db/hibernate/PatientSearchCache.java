@@ -0,0 +1,225 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Remembers for a short time the ids of the patients found by recent patient searches, so that
+ * typeahead lookups, which search again for the same query to page and count the results and then
+ * for a longer query with every typed character, do not run the search queries each time.
+ * <p>
+ * Results are kept per normalized query, i.e. lower case with single spaces, and per inclusion of
+ * voided patients. Only ids are kept, privileges are checked by the service before the patients are
+ * loaded. When the first page of a search holds all its results, they can be filtered by the
+ * searches for longer queries, see {@link #getPatientIdsOfPrefix(String, boolean, int, int)}. The cache
+ * is cleared when patients, names, identifiers or attributes are saved, see
+ * {@link PatientSearchCacheInterceptor}, and holds at most {@link #MAX_SIZE} queries, the least
+ * recently used are dropped first.
+ *
+ * @see HibernatePatientDAO#getPatients(String, boolean, Integer, Integer)
+ * @see HibernatePatientDAO#getCountOfPatients(String, boolean)
+ * @since 2.6.0
+ */
+public class PatientSearchCache {
+
+	static final int MAX_SIZE = 1000;
+
+	/**
+	 * The maximum number of results of a search reused for longer queries when the global property
+	 * does not set it
+	 */
+	public static final int DEFAULT_PREFIX_MAX_RESULTS = 100;
+
+	private final Map<String, SearchResult> results = new LinkedHashMap<String, SearchResult>(16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, SearchResult> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	/**
+	 * @param query the searched string
+	 * @param includeVoided whether voided patients were included
+	 * @param start the index of the first result
+	 * @param length the maximum number of results
+	 * @return the ids of the patients found, or null if the search was not done recently enough
+	 */
+	public List<Integer> getPatientIds(String query, boolean includeVoided, int start, int length) {
+		synchronized (results) {
+			SearchResult result = getResult(query, includeVoided);
+			if (result == null) {
+				return null;
+			}
+			if (result.allPatientIds != null) {
+				int size = result.allPatientIds.size();
+				return new ArrayList<>(result.allPatientIds.subList(Math.min(start, size), Math.min(start + length, size)));
+			}
+			List<Integer> patientIds = result.pages.get(getPageKey(start, length));
+			return patientIds == null ? null : new ArrayList<>(patientIds);
+		}
+	}
+
+	/**
+	 * Remembers the ids of the patients found, all the results are known when the first page is not
+	 * full
+	 *
+	 * @param query the searched string
+	 * @param includeVoided whether voided patients were included
+	 * @param start the index of the first result
+	 * @param length the maximum number of results
+	 * @param patientIds the ids of the patients found
+	 * @param timeToLive how long to remember the ids, in milliseconds
+	 */
+	public void putPatientIds(String query, boolean includeVoided, int start, int length, List<Integer> patientIds,
+	        long timeToLive) {
+		List<Integer> copy = Collections.unmodifiableList(new ArrayList<>(patientIds));
+		synchronized (results) {
+			SearchResult result = getOrCreateResult(query, includeVoided, timeToLive);
+			if (start == 0 && copy.size() < length) {
+				result.allPatientIds = copy;
+				result.pages.clear();
+			} else if (result.allPatientIds == null) {
+				result.pages.put(getPageKey(start, length), copy);
+			}
+		}
+	}
+
+	/**
+	 * @param query the searched string
+	 * @param includeVoided whether voided patients were included
+	 * @return the number of patients found, or null if the search was not done recently enough
+	 */
+	public Long getCount(String query, boolean includeVoided) {
+		synchronized (results) {
+			SearchResult result = getResult(query, includeVoided);
+			if (result == null) {
+				return null;
+			}
+			return result.allPatientIds != null ? Long.valueOf(result.allPatientIds.size()) : result.count;
+		}
+	}
+
+	/**
+	 * @param query the searched string
+	 * @param includeVoided whether voided patients were included
+	 * @param count the number of patients found
+	 * @param timeToLive how long to remember the number, in milliseconds
+	 */
+	public void putCount(String query, boolean includeVoided, long count, long timeToLive) {
+		synchronized (results) {
+			getOrCreateResult(query, includeVoided, timeToLive).count = count;
+		}
+	}
+
+	/**
+	 * Gets all the results of the longest recent search for a prefix of the given query, with as many
+	 * words as the query. As search terms match names, identifiers and attributes from their start
+	 * or anywhere in them, the patients found by the given query are among these results, unless the
+	 * search is configured otherwise, which the caller must check.
+	 *
+	 * @param query the searched string
+	 * @param includeVoided whether voided patients are included
+	 * @param maxResults the maximum number of results of the search for the prefix
+	 * @param minLastWordLength the minimum length of the last word of the prefix, shorter words are
+	 *            only matched exactly so their results may not include the ones of longer words
+	 * @return the ids of all the patients found for the prefix, or null if there is no such recent
+	 *         search with at most maxResults results
+	 */
+	public List<Integer> getPatientIdsOfPrefix(String query, boolean includeVoided, int maxResults,
+	        int minLastWordLength) {
+		String normalizedQuery = normalize(query);
+		int wordCount = StringUtils.countMatches(normalizedQuery, ' ');
+		int lastWordStart = normalizedQuery.lastIndexOf(' ') + 1;
+		synchronized (results) {
+			for (int end = normalizedQuery.length() - 1; end > 0; end--) {
+				String prefix = normalizedQuery.substring(0, end);
+				if (prefix.endsWith(" ") || StringUtils.countMatches(prefix, ' ') != wordCount
+				        || end - lastWordStart < minLastWordLength) {
+					break;
+				}
+				SearchResult result = getResult(prefix, includeVoided);
+				if (result != null && result.allPatientIds != null) {
+					return result.allPatientIds.size() <= maxResults ? result.allPatientIds : null;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Forgets all the search results
+	 */
+	public void clear() {
+		synchronized (results) {
+			results.clear();
+		}
+	}
+
+	/**
+	 * @param query the searched string
+	 * @return the query in lower case, without leading and trailing spaces and with single spaces
+	 *         between words
+	 */
+	static String normalize(String query) {
+		return StringUtils.normalizeSpace(query).toLowerCase(Locale.ROOT);
+	}
+
+	private SearchResult getResult(String query, boolean includeVoided) {
+		String key = getKey(query, includeVoided);
+		SearchResult result = results.get(key);
+		if (result != null && result.expiresAt < System.currentTimeMillis()) {
+			results.remove(key);
+			return null;
+		}
+		return result;
+	}
+
+	private SearchResult getOrCreateResult(String query, boolean includeVoided, long timeToLive) {
+		SearchResult result = getResult(query, includeVoided);
+		if (result == null) {
+			result = new SearchResult(System.currentTimeMillis() + timeToLive);
+			results.put(getKey(query, includeVoided), result);
+		}
+		return result;
+	}
+
+	private static String getKey(String query, boolean includeVoided) {
+		return (includeVoided ? "v:" : "n:") + normalize(query);
+	}
+
+	private static String getPageKey(int start, int length) {
+		return start + ":" + length;
+	}
+
+	private static class SearchResult {
+
+		private final long expiresAt;
+
+		private final Map<String, List<Integer>> pages = new HashMap<>();
+
+		private List<Integer> allPatientIds;
+
+		private Long count;
+
+		SearchResult(long expiresAt) {
+			this.expiresAt = expiresAt;
+		}
+	}
+}
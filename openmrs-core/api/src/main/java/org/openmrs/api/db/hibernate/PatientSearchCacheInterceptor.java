@@ -0,0 +1,87 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import java.io.Serializable;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+import org.hibernate.type.Type;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.Person;
+import org.openmrs.PersonAttribute;
+import org.openmrs.PersonName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Clears the {@link PatientSearchCache} when persons, patients, names, identifiers or attributes
+ * are saved or deleted. The cache is cleared when the change is flushed and again when the
+ * transaction completes, since the search index is only updated then and searches made in between
+ * by other threads would be remembered with the old results. When entities are indexed in the
+ * background, the {@link org.openmrs.api.db.hibernate.search.AsyncSearchIndexer} clears it once more
+ * after indexing them.
+ *
+ * @since 2.6.0
+ */
+@Component
+public class PatientSearchCacheInterceptor extends EmptyInterceptor {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ThreadLocal<Boolean> changed = new ThreadLocal<>();
+
+	@Autowired(required = false)
+	private transient PatientSearchCache patientSearchCache;
+
+	public void setPatientSearchCache(PatientSearchCache patientSearchCache) {
+		this.patientSearchCache = patientSearchCache;
+	}
+
+	@Override
+	public boolean onSave(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+		entityChanged(entity);
+		return false;
+	}
+
+	@Override
+	public boolean onFlushDirty(Object entity, Serializable id, Object[] currentState, Object[] previousState,
+	        String[] propertyNames, Type[] types) {
+		entityChanged(entity);
+		return false;
+	}
+
+	@Override
+	public void onDelete(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+		entityChanged(entity);
+	}
+
+	@Override
+	public void afterTransactionCompletion(Transaction tx) {
+		if (changed.get() != null) {
+			changed.remove();
+			clearCache();
+		}
+	}
+
+	private void entityChanged(Object entity) {
+		if (entity instanceof Person || entity instanceof PersonName || entity instanceof PatientIdentifier
+		        || entity instanceof PersonAttribute) {
+			changed.set(Boolean.TRUE);
+			clearCache();
+		}
+	}
+
+	private void clearCache() {
+		if (patientSearchCache != null) {
+			patientSearchCache.clear();
+		}
+	}
+}
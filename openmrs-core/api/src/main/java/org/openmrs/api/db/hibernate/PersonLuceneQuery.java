@@ -11,6 +11,7 @@ package org.openmrs.api.db.hibernate;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import org.hibernate.SessionFactory;
@@ -22,6 +23,9 @@ import org.openmrs.util.OpenmrsConstants;
 
 /**
  * Provides common queries for HibernatePatientDAO and HibernatePersonDAO.
+ * <p>
+ * Queries name every declared field, the ones left out of the index by the
+ * {@link org.openmrs.api.db.hibernate.search.SearchIndexLayout} are replaced by {@link LuceneQuery}.
  *
  * @see HibernatePatientDAO
  * @see HibernatePersonDAO
@@ -62,6 +66,14 @@ public class PersonLuceneQuery {
 		return getPersonNameQuery(query, false, includeVoided, true, skipSame);
 	}
 
+	/**
+	 * @param personIds the ids of the patients to search among, all patients are searched if null
+	 * @since 2.6.0
+	 */
+	public LuceneQuery<PersonName> getPatientNameQuery(String query, boolean includeVoided, LuceneQuery<?> skipSame, Collection<Integer> personIds) {
+		return getPersonNameQuery(query, false, includeVoided, true, skipSame, personIds);
+	}
+
 	public LuceneQuery<PersonName> getPersonNameQueryWithOrParser(String query, boolean includeVoided) {
 		return getPersonNameQuery(query, true, includeVoided, false, null);
 	}
@@ -190,6 +202,10 @@ public class PersonLuceneQuery {
 		
 		
 	private LuceneQuery<PersonName> getPersonNameQuery(String query, boolean orQueryParser, boolean includeVoided, boolean patientsOnly, LuceneQuery<?> skipSame) {
+		return getPersonNameQuery(query, orQueryParser, includeVoided, patientsOnly, skipSame, null);
+	}
+
+	private LuceneQuery<PersonName> getPersonNameQuery(String query, boolean orQueryParser, boolean includeVoided, boolean patientsOnly, LuceneQuery<?> skipSame, Collection<Integer> personIds) {
 		List<String> fields = new ArrayList<>();
 		fields.addAll(Arrays.asList("givenNameExact", "middleNameExact", "familyNameExact", "familyName2Exact"));
 		fields.addAll(Arrays.asList("givenNameStart", "middleNameStart", "familyNameStart", "familyName2Start"));
@@ -214,6 +230,10 @@ public class PersonLuceneQuery {
 			luceneQuery.include("person.isPatient", true);
 		}
 
+		if (personIds != null) {
+			luceneQuery.include("person.personId", personIds);
+		}
+
 		if (skipSame != null) {
 			luceneQuery.skipSame("person.personId", skipSame);
 		} else {
@@ -231,6 +251,14 @@ public class PersonLuceneQuery {
 		return getPersonAttributeQuery(query, false, includeVoided, true, skipSame);
 	}
 
+	/**
+	 * @param personIds the ids of the patients to search among, all patients are searched if null
+	 * @since 2.6.0
+	 */
+	public LuceneQuery<PersonAttribute> getPatientAttributeQuery(String query, boolean includeVoided, LuceneQuery<?> skipSame, Collection<Integer> personIds) {
+		return getPersonAttributeQuery(query, false, includeVoided, true, skipSame, personIds);
+	}
+
 	public LuceneQuery<PersonAttribute> getPersonAttributeQueryWithOrParser(String query, boolean includeVoided, LuceneQuery<?> skipSame) {
 		return getPersonAttributeQuery(query, true, includeVoided, false, skipSame);
 	}
@@ -240,6 +268,10 @@ public class PersonLuceneQuery {
 	}
 
 	private LuceneQuery<PersonAttribute> getPersonAttributeQuery(String query, boolean orQueryParser, boolean includeVoided, boolean patientsOnly, LuceneQuery<?> skipSame) {
+		return getPersonAttributeQuery(query, orQueryParser, includeVoided, patientsOnly, skipSame, null);
+	}
+
+	private LuceneQuery<PersonAttribute> getPersonAttributeQuery(String query, boolean orQueryParser, boolean includeVoided, boolean patientsOnly, LuceneQuery<?> skipSame, Collection<Integer> personIds) {
 		List<String> fields = new ArrayList<>();
 		fields.add("valuePhrase"); //will position whole phrase match higher
 		fields.add("valueExact");
@@ -267,6 +299,10 @@ public class PersonLuceneQuery {
 			luceneQuery.include("person.isPatient", true);
 		}
 
+		if (personIds != null) {
+			luceneQuery.include("person.personId", personIds);
+		}
+
 		if (skipSame != null) {
 			luceneQuery.skipSame("person.personId", skipSame);
 		} else {
@@ -0,0 +1,35 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import org.hibernate.EmptyInterceptor;
+import org.openmrs.api.db.SlowQueryLog;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands the SQL of the prepared statements to the {@link SlowQueryLog}, which captures it if its
+ * execution, timed by {@link JdbcTimingListener}, is slow.
+ *
+ * @since 2.6.0
+ */
+@Component
+public class SlowQueryInterceptor extends EmptyInterceptor {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @see org.hibernate.Interceptor#onPrepareStatement(String)
+	 */
+	@Override
+	public String onPrepareStatement(String sql) {
+		SlowQueryLog.getInstance().statementPrepared(sql);
+		return sql;
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.openmrs.api.APIException;
+
+/**
+ * Remembers for a short time the logins and passwords that were successfully verified, so that
+ * clients authenticating on every request do not need the user to be looked up and the password
+ * hashed each time. Passwords are not kept, only a SHA-256 digest of the password with a random
+ * salt of each entry. The cache holds at most {@link #MAX_SIZE} entries, the least recently used
+ * are dropped first.
+ * <p>
+ * Entries are only invalidated by changes made through this server, a password changed directly in
+ * the database or by another server sharing it keeps working here until its entry expires.
+ *
+ * @see HibernateContextDAO#authenticate(String, String)
+ * @since 2.6.0
+ */
+public class VerifiedCredentialCache {
+
+	static final int MAX_SIZE = 1000;
+
+	private static final Random RANDOM = new SecureRandom();
+
+	private final Map<String, VerifiedCredential> credentials = new LinkedHashMap<String, VerifiedCredential>(16,
+	        0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, VerifiedCredential> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	private long invalidationCount;
+
+	/**
+	 * @param login the username or system id used to authenticate
+	 * @param password the password used to authenticate
+	 * @return the id of the user the login and password were verified for, or null if they were not
+	 *         verified or not recently enough
+	 */
+	public Integer getUserId(String login, String password) {
+		VerifiedCredential credential;
+		synchronized (credentials) {
+			credential = credentials.get(login);
+			if (credential != null && credential.expiresAt < System.currentTimeMillis()) {
+				credentials.remove(login);
+				credential = null;
+			}
+		}
+		if (credential != null && MessageDigest.isEqual(credential.digest, digest(credential.salt, password))) {
+			return credential.userId;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the number of invalidations so far, to be passed to
+	 *         {@link #put(String, String, Integer, long, long)} by a login which starts verifying a
+	 *         password
+	 */
+	public long getInvalidationCount() {
+		synchronized (credentials) {
+			return invalidationCount;
+		}
+	}
+
+	/**
+	 * Remembers a verified password, unless users were invalidated since the password was read,
+	 * since it may be the password the invalidation was meant to forget
+	 *
+	 * @param login the username or system id used to authenticate
+	 * @param password the password that was verified
+	 * @param userId the id of the user the password was verified for
+	 * @param timeToLive how long to remember the password, in milliseconds
+	 * @param invalidationCountBefore the {@link #getInvalidationCount() invalidation count} before the
+	 *            password was read from the database
+	 */
+	public void put(String login, String password, Integer userId, long timeToLive, long invalidationCountBefore) {
+		byte[] salt = new byte[16];
+		RANDOM.nextBytes(salt);
+		VerifiedCredential credential = new VerifiedCredential(userId, salt, digest(salt, password),
+		        System.currentTimeMillis() + timeToLive);
+		synchronized (credentials) {
+			if (invalidationCount == invalidationCountBefore) {
+				credentials.put(login, credential);
+			}
+		}
+	}
+
+	/**
+	 * Forgets the passwords verified for the given user, e.g. because the password changed or the
+	 * user was retired or locked out
+	 *
+	 * @param userId the id of the user
+	 */
+	public void invalidate(Integer userId) {
+		if (userId == null) {
+			return;
+		}
+		synchronized (credentials) {
+			invalidationCount++;
+			credentials.values().removeIf(credential -> credential.userId.equals(userId));
+		}
+	}
+
+	/**
+	 * Forgets all the verified passwords
+	 */
+	public void clear() {
+		synchronized (credentials) {
+			invalidationCount++;
+			credentials.clear();
+		}
+	}
+
+	private static byte[] digest(byte[] salt, String password) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			md.update(salt);
+			return md.digest(password.getBytes(StandardCharsets.UTF_8));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new APIException("system.cannot.find.password.encryption.algorithm", null, e);
+		}
+	}
+
+	private static class VerifiedCredential {
+
+		private final Integer userId;
+
+		private final byte[] salt;
+
+		private final byte[] digest;
+
+		private final long expiresAt;
+
+		VerifiedCredential(Integer userId, byte[] salt, byte[] digest, long expiresAt) {
+			this.userId = userId;
+			this.salt = salt;
+			this.digest = digest;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
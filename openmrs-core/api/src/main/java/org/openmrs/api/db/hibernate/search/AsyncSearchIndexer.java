@@ -0,0 +1,665 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.search.FullTextSession;
+import org.hibernate.search.Search;
+import org.openmrs.GlobalProperty;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.PersonAttribute;
+import org.openmrs.PersonName;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.api.db.SearchIndexQueueStatistics;
+import org.openmrs.api.db.hibernate.PatientSearchCache;
+import org.openmrs.util.DaemonThreadFactory;
+import org.openmrs.util.LatencyHistogram;
+import org.openmrs.util.OpenmrsConstants;
+import org.openmrs.util.PerTransactionResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Indexes the entities added or updated by a transaction in the background once it commits, instead
+ * of in the committing thread, when {@link OpenmrsConstants#GP_SEARCH_INDEXER_ASYNC} is true.
+ * <p>
+ * {@link DeferrableIndexingInterceptor} skips the automatic indexing of the entities and hands them
+ * to {@link #defer(Object)}, they are queued when the transaction commits. Entities are spread over
+ * {@link OpenmrsConstants#GP_SEARCH_INDEXER_ASYNC_THREADS} worker threads by id, so that the changes
+ * of an entity are indexed in order, each worker having a queue bounded by its share of
+ * {@link OpenmrsConstants#GP_SEARCH_INDEXER_ASYNC_QUEUE_SIZE}. Committing threads wait a little
+ * when the queue is full and then index the entities themselves. Workers reload and index up to
+ * {@link OpenmrsConstants#GP_SEARCH_INDEXER_ASYNC_BATCH_SIZE} entities at once and commit them to
+ * the index together. The entities of a batch which fails are retried one by one when the workers
+ * are idle, up to {@link #MAX_ATTEMPTS} times. Deleted entities are still removed from the index
+ * when their transaction commits.
+ * <p>
+ * Changes are visible to searches after a lag, callers which need to read their writes wait for
+ * them with {@link #waitForIndexing(long)}. The queue depth and the lag are reported by
+ * {@link #getStatistics()} and through JMX under {@link #OBJECT_NAME}. Entities still queued at
+ * shutdown are not indexed, they are picked up by the next incremental update of the search index.
+ *
+ * @see org.openmrs.api.context.Context#waitForSearchIndex(long)
+ * @since 2.6.0
+ */
+public class AsyncSearchIndexer implements AsyncSearchIndexerMXBean, GlobalPropertyListener {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncSearchIndexer.class);
+
+	/**
+	 * The name of the MBean exposing the queue metrics
+	 */
+	public static final String OBJECT_NAME = "org.openmrs:type=AsyncSearchIndexer";
+
+	public static final int DEFAULT_THREADS = 1;
+
+	public static final int DEFAULT_QUEUE_SIZE = 10000;
+
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	/**
+	 * The number of times an entity is indexed before it is given up
+	 */
+	public static final int MAX_ATTEMPTS = 3;
+
+	private static final long POLL_INTERVAL_MILLIS = 500;
+
+	private static final long OFFER_TIMEOUT_MILLIS = 1000;
+
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+	private static final AsyncSearchIndexer instance = new AsyncSearchIndexer();
+
+	private final PerTransactionResource<QueueSynchronization> queueSynchronization =
+	        new PerTransactionResource<>(QueueSynchronization::new);
+
+	private final Object indexedMonitor = new Object();
+
+	private final ConcurrentSkipListMap<Long, Long> pending = new ConcurrentSkipListMap<>();
+
+	private final Queue<QueuedEntity> retries = new ConcurrentLinkedQueue<>();
+
+	private final LatencyHistogram lags = new LatencyHistogram();
+
+	private final LongAdder failedCount = new LongAdder();
+
+	private long lastSequence;
+
+	private volatile SessionFactory sessionFactory;
+
+	private volatile PatientSearchCache patientSearchCache;
+
+	private volatile boolean enabled;
+
+	private volatile int threads = DEFAULT_THREADS;
+
+	private volatile int queueSize = DEFAULT_QUEUE_SIZE;
+
+	private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+	private volatile boolean running;
+
+	private volatile boolean registered;
+
+	private List<BlockingQueue<QueuedEntity>> queues;
+
+	private ExecutorService workers;
+
+	AsyncSearchIndexer() {
+	}
+
+	/**
+	 * @return the background indexer
+	 */
+	public static AsyncSearchIndexer getInstance() {
+		return instance;
+	}
+
+	/**
+	 * @param sessionFactory the session factory the workers open their sessions with
+	 */
+	public void setSessionFactory(SessionFactory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
+	/**
+	 * @param patientSearchCache the cache of patient search results, cleared once changed names,
+	 *            identifiers and attributes are indexed
+	 */
+	public void setPatientSearchCache(PatientSearchCache patientSearchCache) {
+		this.patientSearchCache = patientSearchCache;
+	}
+
+	/**
+	 * @return true if changed entities are indexed in the background
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param enabled true to index the entities changed by the next transactions in the background,
+	 *            false to index them when their transaction commits
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Applies the values of the global properties configuring background indexing, the number of
+	 * threads and the size of the queue are only applied when the workers are started, i.e. on the
+	 * first change after startup
+	 *
+	 * @param enabled the value of {@link OpenmrsConstants#GP_SEARCH_INDEXER_ASYNC}
+	 * @param threads the value of {@link OpenmrsConstants#GP_SEARCH_INDEXER_ASYNC_THREADS}
+	 * @param queueSize the value of {@link OpenmrsConstants#GP_SEARCH_INDEXER_ASYNC_QUEUE_SIZE}
+	 * @param batchSize the value of {@link OpenmrsConstants#GP_SEARCH_INDEXER_ASYNC_BATCH_SIZE}
+	 */
+	public void configure(String enabled, String threads, String queueSize, String batchSize) {
+		setEnabled(Boolean.parseBoolean(StringUtils.trim(enabled)));
+		this.threads = parsePositive(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_THREADS, threads, DEFAULT_THREADS);
+		this.queueSize = parsePositive(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_QUEUE_SIZE, queueSize,
+		    DEFAULT_QUEUE_SIZE);
+		this.batchSize = parsePositive(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_BATCH_SIZE, batchSize,
+		    DEFAULT_BATCH_SIZE);
+	}
+
+	private static int parsePositive(String name, String value, int defaultValue) {
+		if (StringUtils.isBlank(value)) {
+			return defaultValue;
+		}
+		try {
+			int result = Integer.parseInt(value.trim());
+			if (result > 0) {
+				return result;
+			}
+		}
+		catch (NumberFormatException e) {
+			// logged below
+		}
+		log.warn("Invalid value for global property {}: {}", name, value);
+		return defaultValue;
+	}
+
+	/**
+	 * Remembers an entity added or updated by the current transaction to index it in the background
+	 * once the transaction commits
+	 *
+	 * @param entity the added or updated entity
+	 * @return true if the entity will be indexed in the background, false if background indexing is
+	 *         disabled or there is no transaction and the entity must be indexed now
+	 */
+	public boolean defer(Object entity) {
+		if (!enabled || sessionFactory == null || !(entity instanceof OpenmrsObject)
+		        || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return false;
+		}
+		Integer id = ((OpenmrsObject) entity).getId();
+		if (id == null) {
+			return false;
+		}
+
+		queueSynchronization.getOrCreate().entities.add(new IndexedEntity(Hibernate.getClass(entity), id));
+		return true;
+	}
+
+	/**
+	 * Queues entities to index them in the background, an entity is indexed in the calling thread if
+	 * there is no room in the queue for it after a while
+	 *
+	 * @param entities the entities to index
+	 */
+	public void enqueue(Collection<IndexedEntity> entities) {
+		List<BlockingQueue<QueuedEntity>> currentQueues = getQueues();
+		for (IndexedEntity entity : entities) {
+			QueuedEntity queued;
+			synchronized (pending) {
+				queued = new QueuedEntity(entity, ++lastSequence, System.nanoTime());
+				pending.put(queued.sequence, queued.queuedAt);
+			}
+			BlockingQueue<QueuedEntity> queue = currentQueues.get(Math.floorMod(entity.hashCode(), currentQueues.size()));
+			try {
+				if (!queue.offer(queued, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+					log.debug("The search index queue is full, indexing {} now", entity);
+					index(Collections.singletonList(queued));
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.warn("Interrupted while queueing {} for indexing, it will be retried", entity);
+				retries.add(queued);
+			}
+		}
+	}
+
+	/**
+	 * Waits until the entities of the transactions committed before this call are visible to
+	 * searches
+	 *
+	 * @param timeoutMillis the maximum time to wait in milliseconds
+	 * @return true if the entities were indexed, false if the timeout elapsed or the thread was
+	 *         interrupted first
+	 */
+	public boolean waitForIndexing(long timeoutMillis) {
+		long target;
+		synchronized (pending) {
+			target = lastSequence;
+		}
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		synchronized (indexedMonitor) {
+			while (!isIndexedUpTo(target)) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				try {
+					TimeUnit.NANOSECONDS.timedWait(indexedMonitor, remaining);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean isIndexedUpTo(long sequence) {
+		Map.Entry<Long, Long> oldest = pending.firstEntry();
+		return oldest == null || oldest.getKey() > sequence;
+	}
+
+	/**
+	 * @see AsyncSearchIndexerMXBean#getQueueDepth()
+	 */
+	@Override
+	public long getQueueDepth() {
+		return pending.size();
+	}
+
+	/**
+	 * @see AsyncSearchIndexerMXBean#getCurrentLag()
+	 */
+	@Override
+	public double getCurrentLag() {
+		return getCurrentLagNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	private long getCurrentLagNanos() {
+		Map.Entry<Long, Long> oldest = pending.firstEntry();
+		return oldest == null ? 0 : System.nanoTime() - oldest.getValue();
+	}
+
+	/**
+	 * @see AsyncSearchIndexerMXBean#getStatistics()
+	 */
+	@Override
+	public SearchIndexQueueStatistics getStatistics() {
+		return new SearchIndexQueueStatistics(enabled, pending.size(), getCurrentLagNanos(), failedCount.sum(), lags);
+	}
+
+	private synchronized List<BlockingQueue<QueuedEntity>> getQueues() {
+		if (queues == null) {
+			int workerCount = threads;
+			int capacity = Math.max(1, queueSize / workerCount);
+			List<BlockingQueue<QueuedEntity>> newQueues = new ArrayList<>();
+			running = true;
+			workers = Executors.newFixedThreadPool(workerCount, new DaemonThreadFactory("AsyncSearchIndexer"));
+			for (int i = 0; i < workerCount; i++) {
+				BlockingQueue<QueuedEntity> queue = new ArrayBlockingQueue<>(capacity);
+				newQueues.add(queue);
+				workers.execute(() -> work(queue));
+			}
+			queues = newQueues;
+		}
+		return queues;
+	}
+
+	/**
+	 * Indexes the queued entities in batches until shutdown, and retries the failed ones when there
+	 * is nothing queued. Workers are not interrupted to stop them, an interrupt while writing closes
+	 * the index files.
+	 */
+	private void work(BlockingQueue<QueuedEntity> queue) {
+		List<QueuedEntity> batch = new ArrayList<>();
+		while (running) {
+			try {
+				QueuedEntity first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					retry();
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				index(batch);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			catch (Throwable e) {
+				// the worker must keep going, or the queue fills up and committing threads wait for it
+				log.error("Unexpected failure of the search index worker", e);
+			}
+			finally {
+				batch.clear();
+			}
+		}
+		if (!queue.isEmpty()) {
+			log.warn("{} entities were not indexed before shutdown, they will be indexed by the next incremental "
+			        + "update of the search index", queue.size());
+		}
+	}
+
+	/**
+	 * Indexes the entities which failed before one by one, so that an entity which cannot be indexed
+	 * does not fail the others again
+	 */
+	private void retry() {
+		for (int i = retries.size(); i > 0 && running; i--) {
+			QueuedEntity queued = retries.poll();
+			if (queued == null) {
+				return;
+			}
+			index(Collections.singletonList(queued));
+		}
+	}
+
+	private void index(List<QueuedEntity> batch) {
+		boolean failed = true;
+		try (Session session = sessionFactory.openSession()) {
+			FullTextSession fullTextSession = Search.getFullTextSession(session);
+			fullTextSession.setHibernateFlushMode(FlushMode.MANUAL);
+			fullTextSession.setCacheMode(CacheMode.IGNORE);
+			Transaction transaction = fullTextSession.beginTransaction();
+			try {
+				for (QueuedEntity queued : batch) {
+					Object entity = fullTextSession.get(queued.entity.type, queued.entity.id);
+					if (entity == null) {
+						fullTextSession.purge(queued.entity.type, queued.entity.id);
+					} else {
+						fullTextSession.index(entity);
+					}
+				}
+				// a single commit to the index for the whole batch
+				fullTextSession.flushToIndexes();
+				transaction.commit();
+				failed = false;
+			}
+			finally {
+				if (failed && transaction.isActive()) {
+					transaction.rollback();
+				}
+			}
+		}
+		catch (Throwable e) {
+			log.error("Failed to index {} entities, they will be retried", batch.size(), e);
+		}
+
+		if (!failed) {
+			clearPatientSearchCache(batch);
+		}
+		long now = System.nanoTime();
+		for (QueuedEntity queued : batch) {
+			if (!failed) {
+				lags.record(now - queued.queuedAt);
+			} else if (++queued.attempts < MAX_ATTEMPTS) {
+				retries.add(queued);
+				continue;
+			} else {
+				log.error("Gave up indexing {} after {} attempts, rebuild the search index to make it visible to "
+				        + "searches", queued.entity, queued.attempts);
+				failedCount.increment();
+			}
+			pending.remove(queued.sequence);
+		}
+		synchronized (indexedMonitor) {
+			indexedMonitor.notifyAll();
+		}
+	}
+
+	/**
+	 * Clears the patient search results found before the names, identifiers or attributes of the
+	 * batch were visible to searches, the cache was already cleared when their transaction completed
+	 */
+	private void clearPatientSearchCache(List<QueuedEntity> batch) {
+		if (patientSearchCache == null) {
+			return;
+		}
+		for (QueuedEntity queued : batch) {
+			Class<?> type = queued.entity.type;
+			if (PersonName.class.isAssignableFrom(type) || PatientIdentifier.class.isAssignableFrom(type)
+			        || PersonAttribute.class.isAssignableFrom(type)) {
+				patientSearchCache.clear();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Stops the workers once they are done with their current batch and removes the queue metrics
+	 * from JMX
+	 */
+	public synchronized void shutdown() {
+		unregisterMBean();
+		running = false;
+		if (workers != null) {
+			workers.shutdown();
+			try {
+				workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			workers = null;
+		}
+		queues = null;
+		if (!retries.isEmpty()) {
+			List<IndexedEntity> notRetried = new ArrayList<>();
+			retries.forEach(queued -> notRetried.add(queued.entity));
+			log.warn("Entities which failed to be indexed were not retried before shutdown, rebuild the search index to "
+			        + "make them visible to searches: {}", notRetried);
+			retries.clear();
+		}
+		// entities left in the queues will not be indexed, do not keep callers waiting for them
+		pending.clear();
+		synchronized (indexedMonitor) {
+			indexedMonitor.notifyAll();
+		}
+	}
+
+	/**
+	 * Registers the queue metrics with the platform MBean server
+	 */
+	public void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+			registered = true;
+		}
+		catch (JMException | RuntimeException e) {
+			log.warn("Unable to register the search index queue metrics with JMX", e);
+		}
+	}
+
+	/**
+	 * Removes the queue metrics from the platform MBean server
+	 */
+	public void unregisterMBean() {
+		if (!registered) {
+			return;
+		}
+		registered = false;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		}
+		catch (JMException | RuntimeException e) {
+			log.warn("Unable to unregister the search index queue metrics from JMX", e);
+		}
+	}
+
+	/**
+	 * @see GlobalPropertyListener#supportsPropertyName(String)
+	 */
+	@Override
+	public boolean supportsPropertyName(String propertyName) {
+		return OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC.equals(propertyName)
+		        || OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_THREADS.equals(propertyName)
+		        || OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_QUEUE_SIZE.equals(propertyName)
+		        || OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_BATCH_SIZE.equals(propertyName);
+	}
+
+	/**
+	 * @see GlobalPropertyListener#globalPropertyChanged(GlobalProperty)
+	 */
+	@Override
+	public void globalPropertyChanged(GlobalProperty newValue) {
+		apply(newValue.getProperty(), newValue.getPropertyValue());
+	}
+
+	/**
+	 * @see GlobalPropertyListener#globalPropertyDeleted(String)
+	 */
+	@Override
+	public void globalPropertyDeleted(String propertyName) {
+		apply(propertyName, null);
+	}
+
+	private void apply(String name, String value) {
+		if (OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC.equals(name)) {
+			setEnabled(Boolean.parseBoolean(StringUtils.trim(value)));
+		} else if (OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_THREADS.equals(name)) {
+			threads = parsePositive(name, value, DEFAULT_THREADS);
+		} else if (OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC_QUEUE_SIZE.equals(name)) {
+			queueSize = parsePositive(name, value, DEFAULT_QUEUE_SIZE);
+		} else {
+			batchSize = parsePositive(name, value, DEFAULT_BATCH_SIZE);
+		}
+	}
+
+	/**
+	 * An entity to index, identified by its type and id
+	 */
+	public static class IndexedEntity {
+
+		private final Class<?> type;
+
+		private final Serializable id;
+
+		public IndexedEntity(Class<?> type, Serializable id) {
+			this.type = type;
+			this.id = id;
+		}
+
+		public Class<?> getType() {
+			return type;
+		}
+
+		public Serializable getId() {
+			return id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof IndexedEntity)) {
+				return false;
+			}
+			IndexedEntity other = (IndexedEntity) o;
+			return type.equals(other.type) && id.equals(other.id);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type.getName(), id);
+		}
+
+		@Override
+		public String toString() {
+			return type.getSimpleName() + "#" + id;
+		}
+	}
+
+	private static class QueuedEntity {
+
+		private final IndexedEntity entity;
+
+		private final long sequence;
+
+		private final long queuedAt;
+
+		private int attempts;
+
+		QueuedEntity(IndexedEntity entity, long sequence, long queuedAt) {
+			this.entity = entity;
+			this.sequence = sequence;
+			this.queuedAt = queuedAt;
+		}
+	}
+
+	/**
+	 * Queues the entities changed by the transaction once it commits
+	 */
+	private class QueueSynchronization extends TransactionSynchronizationAdapter {
+
+		private final Set<IndexedEntity> entities = new LinkedHashSet<>();
+
+		@Override
+		public void afterCompletion(int status) {
+			if (status == TransactionSynchronization.STATUS_COMMITTED) {
+				enqueue(entities);
+			}
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import org.openmrs.api.db.SearchIndexQueueStatistics;
+
+/**
+ * JMX view of the background indexing queue, registered as {@link AsyncSearchIndexer#OBJECT_NAME}.
+ *
+ * @since 2.6.0
+ */
+public interface AsyncSearchIndexerMXBean {
+
+	/**
+	 * @return the number of entities waiting to be indexed
+	 */
+	long getQueueDepth();
+
+	/**
+	 * @return the time in milliseconds the oldest waiting entity has been waiting, 0 if the queue is
+	 *         empty
+	 */
+	double getCurrentLag();
+
+	/**
+	 * @return the statistics of the entities indexed since startup
+	 */
+	SearchIndexQueueStatistics getStatistics();
+}
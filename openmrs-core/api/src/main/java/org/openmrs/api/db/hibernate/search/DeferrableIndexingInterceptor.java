@@ -0,0 +1,73 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import org.hibernate.search.indexes.interceptor.EntityIndexingInterceptor;
+import org.hibernate.search.indexes.interceptor.IndexingOverride;
+
+/**
+ * Lets bulk operations turn off the automatic indexing of the entities they add or update in the
+ * current thread, to index them all at once when they are done, e.g. with
+ * {@link org.openmrs.api.context.Context#updateSearchIndexSince}. Otherwise, when background
+ * indexing is enabled, added and updated entities are handed to the {@link AsyncSearchIndexer}.
+ * Deletions are always indexed when their transaction commits.
+ *
+ * @since 2.6.0
+ */
+public class DeferrableIndexingInterceptor implements EntityIndexingInterceptor<Object> {
+
+	private static final ThreadLocal<Boolean> deferred = ThreadLocal.withInitial(() -> false);
+
+	/**
+	 * @param defer true to skip the automatic indexing of added and updated entities in the
+	 *            current thread, false to restore it
+	 */
+	public static void setDeferred(boolean defer) {
+		if (defer) {
+			deferred.set(true);
+		} else {
+			deferred.remove();
+		}
+	}
+
+	/**
+	 * @return true if automatic indexing is deferred in the current thread
+	 */
+	public static boolean isDeferred() {
+		return deferred.get();
+	}
+
+	@Override
+	public IndexingOverride onAdd(Object entity) {
+		return skipOrDefer(entity);
+	}
+
+	@Override
+	public IndexingOverride onUpdate(Object entity) {
+		return skipOrDefer(entity);
+	}
+
+	@Override
+	public IndexingOverride onDelete(Object entity) {
+		return IndexingOverride.APPLY_DEFAULT;
+	}
+
+	@Override
+	public IndexingOverride onCollectionUpdate(Object entity) {
+		return onUpdate(entity);
+	}
+
+	private static IndexingOverride skipOrDefer(Object entity) {
+		if (isDeferred() || AsyncSearchIndexer.getInstance().defer(entity)) {
+			return IndexingOverride.SKIP;
+		}
+		return IndexingOverride.APPLY_DEFAULT;
+	}
+}
@@ -13,6 +13,7 @@ import org.apache.lucene.analysis.core.KeywordTokenizerFactory;
 import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
 import org.apache.lucene.analysis.core.WhitespaceTokenizerFactory;
 import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilterFactory;
+import org.apache.lucene.analysis.miscellaneous.LengthFilterFactory;
 import org.apache.lucene.analysis.ngram.EdgeNGramFilterFactory;
 import org.apache.lucene.analysis.ngram.NGramFilterFactory;
 import org.apache.lucene.analysis.standard.ClassicFilterFactory;
@@ -31,6 +32,9 @@ import org.hibernate.search.cfg.SearchMapping;
  * 	exactAnalyzer, which allows searching for tokens that are identical
  * 	anywhereAnalyzer, which allows searching for text within tokens
  *
+ * The n-gram sizes and whether the anywhere and soundex analyzers produce any terms depend on the
+ * {@link SearchIndexLayout} of the deployment.
+ *
  * @since 2.4.0
  */
 public class LuceneAnalyzerFactory {
@@ -46,27 +50,52 @@ public class LuceneAnalyzerFactory {
 			.filter(ClassicFilterFactory.class)
 			.filter(LowerCaseFilterFactory.class)
 			.filter(ASCIIFoldingFilterFactory.class);
+		SearchIndexLayout layout = SearchIndexLayout.getCurrent();
+		String minGramSize = String.valueOf(layout.getMinGramSize());
+		String maxGramSize = String.valueOf(layout.getMaxGramSize());
 		mapping.analyzerDef(LuceneAnalyzers.START_ANALYZER, WhitespaceTokenizerFactory.class)
 			.filter(ClassicFilterFactory.class)
 			.filter(LowerCaseFilterFactory.class)
 			.filter(ASCIIFoldingFilterFactory.class)
 			.filter(EdgeNGramFilterFactory.class)
-			.param("minGramSize", "2")
-			.param("maxGramSize", "20");
-		mapping.analyzerDef(LuceneAnalyzers.ANYWHERE_ANALYZER, WhitespaceTokenizerFactory.class)
-			.filter(ClassicFilterFactory.class)
-			.filter(LowerCaseFilterFactory.class)
-			.filter(ASCIIFoldingFilterFactory.class)
-			.filter(NGramFilterFactory.class)
-			.param("minGramSize", "2")
-			.param("maxGramSize", "20");
-		mapping.analyzerDef(LuceneAnalyzers.SOUNDEX_ANALYZER, StandardTokenizerFactory.class)
-			.filter(ClassicFilterFactory.class) 
-			.filter(LowerCaseFilterFactory.class)
-			.filter(PhoneticFilterFactory.class)
-			.param("encoder", "Soundex");
+			.param("minGramSize", minGramSize)
+			.param("maxGramSize", maxGramSize);
+		if (layout.isAnywhereIndexed()) {
+			mapping.analyzerDef(LuceneAnalyzers.ANYWHERE_ANALYZER, WhitespaceTokenizerFactory.class)
+				.filter(ClassicFilterFactory.class)
+				.filter(LowerCaseFilterFactory.class)
+				.filter(ASCIIFoldingFilterFactory.class)
+				.filter(NGramFilterFactory.class)
+				.param("minGramSize", minGramSize)
+				.param("maxGramSize", maxGramSize);
+		} else {
+			defineEmptyAnalyzer(mapping, LuceneAnalyzers.ANYWHERE_ANALYZER);
+		}
+		if (layout.isSoundexIndexed()) {
+			mapping.analyzerDef(LuceneAnalyzers.SOUNDEX_ANALYZER, StandardTokenizerFactory.class)
+				.filter(ClassicFilterFactory.class) 
+				.filter(LowerCaseFilterFactory.class)
+				.filter(PhoneticFilterFactory.class)
+				.param("encoder", "Soundex");
+		} else {
+			defineEmptyAnalyzer(mapping, LuceneAnalyzers.SOUNDEX_ANALYZER);
+		}
 		
 		return mapping;
 	}
+	
+	/**
+	 * Defines an analyzer which drops every token, so that the fields using it are left out of the
+	 * index without changing the mapping of the indexed objects
+	 * 
+	 * @see SearchIndexLayout
+	 */
+	private void defineEmptyAnalyzer(SearchMapping mapping, String name) {
+		String maxLength = String.valueOf(Integer.MAX_VALUE);
+		mapping.analyzerDef(name, KeywordTokenizerFactory.class)
+			.filter(LengthFilterFactory.class)
+			.param("min", maxLength)
+			.param("max", maxLength);
+	}
 }
 
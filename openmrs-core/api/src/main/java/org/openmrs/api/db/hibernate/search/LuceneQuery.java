@@ -67,14 +67,29 @@ public abstract class LuceneQuery<T> extends SearchQuery<T> {
 		return newQuery(type, session, query, fields, MatchType.NORMAL);
 	}
 	
+	/**
+	 * Creates a query on the given fields. Fields which are left out of the index by the
+	 * {@link SearchIndexLayout} are replaced by the nearest indexed ones, also in the soundex
+	 * queries which name their fields.
+	 * 
+	 * @param type filters on type
+	 * @param session
+	 * @param query
+	 * @param fields the fields to search
+	 * @param matchType the match type
+	 * @return the Lucene query
+	 */
 	public static <T> LuceneQuery<T> newQuery(final Class<T> type, final Session session, final String query, final Collection<String> fields, MatchType matchType) {
+		SearchIndexLayout layout = SearchIndexLayout.getCurrent();
+		final List<String> indexedFields = layout.adaptFields(fields);
+		final String indexedQuery = matchType == MatchType.SOUNDEX ? layout.adaptQuery(query) : query;
 		return new LuceneQuery<T>(type, session) {
 			@Override
 			protected Query prepareQuery() throws ParseException {
-				if (query.isEmpty()) {
+				if (indexedQuery.isEmpty()) {
 					return new MatchAllDocsQuery();
 				}
-				return newMultipleFieldQueryParser(fields, matchType).parse(query);
+				return newMultipleFieldQueryParser(indexedFields, matchType).parse(indexedQuery);
 			}
 		};
 	}
@@ -0,0 +1,254 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.api.context.Context;
+import org.openmrs.util.OpenmrsConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Describes which of the fields declared on the indexed objects are actually filled in the search
+ * index of this deployment. Names, identifiers and attributes are declared with exact, start,
+ * anywhere and soundex fields, the anywhere n-grams being by far the largest part of the index.
+ * <p>
+ * The layout is read once from the runtime properties:
+ * <ul>
+ * <li>{@link OpenmrsConstants#SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY}: <code>full</code> (the
+ * default) indexes every field, <code>lean</code> leaves out the anywhere n-grams and
+ * <code>minimal</code> leaves out the anywhere n-grams and the soundex codes</li>
+ * <li>{@link OpenmrsConstants#SEARCH_INDEX_ANYWHERE_RUNTIME_PROPERTY} and
+ * {@link OpenmrsConstants#SEARCH_INDEX_SOUNDEX_RUNTIME_PROPERTY} override the profile</li>
+ * <li>{@link OpenmrsConstants#SEARCH_INDEX_MIN_GRAM_SIZE_RUNTIME_PROPERTY} and
+ * {@link OpenmrsConstants#SEARCH_INDEX_MAX_GRAM_SIZE_RUNTIME_PROPERTY} set the sizes of the start
+ * and anywhere n-grams, search terms longer than the maximum size only match the exact fields</li>
+ * </ul>
+ * Fields which are left out are still declared but analyzed to no terms by
+ * {@link LuceneAnalyzerFactory}, and queries are moved to the nearest field which is indexed with
+ * {@link #adaptField(String)}: anywhere matches become start matches and soundex matches become
+ * exact matches. The layout is part of the search index version, so the index is rebuilt on startup
+ * when it changes.
+ *
+ * @see LuceneAnalyzerFactory
+ * @see LuceneQuery
+ * @since 2.6.0
+ */
+public class SearchIndexLayout {
+
+	private static final Logger log = LoggerFactory.getLogger(SearchIndexLayout.class);
+
+	public enum Profile {
+		FULL, LEAN, MINIMAL
+	}
+
+	public static final int DEFAULT_MIN_GRAM_SIZE = 2;
+
+	public static final int DEFAULT_MAX_GRAM_SIZE = 20;
+
+	static final String EXACT_SUFFIX = "Exact";
+
+	static final String START_SUFFIX = "Start";
+
+	static final String ANYWHERE_SUFFIX = "Anywhere";
+
+	static final String SOUNDEX_SUFFIX = "Soundex";
+
+	private static volatile SearchIndexLayout current;
+
+	private final Profile profile;
+
+	private final boolean anywhereIndexed;
+
+	private final boolean soundexIndexed;
+
+	private final int minGramSize;
+
+	private final int maxGramSize;
+
+	public SearchIndexLayout(Profile profile, boolean anywhereIndexed, boolean soundexIndexed, int minGramSize,
+	    int maxGramSize) {
+		this.profile = profile;
+		this.anywhereIndexed = anywhereIndexed;
+		this.soundexIndexed = soundexIndexed;
+		this.minGramSize = minGramSize;
+		this.maxGramSize = maxGramSize;
+	}
+
+	/**
+	 * @return the layout of this deployment, read from the runtime properties on first use
+	 */
+	public static SearchIndexLayout getCurrent() {
+		if (current == null) {
+			current = fromProperties(Context.getRuntimeProperties());
+			log.info("Using search index layout {}", current);
+		}
+		return current;
+	}
+
+	/**
+	 * Reads a layout from runtime properties, invalid values are logged and replaced by the defaults
+	 *
+	 * @param properties the runtime properties
+	 * @return the layout
+	 */
+	public static SearchIndexLayout fromProperties(Properties properties) {
+		Profile profile = Profile.FULL;
+		String profileName = properties.getProperty(OpenmrsConstants.SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY);
+		if (StringUtils.isNotBlank(profileName)) {
+			try {
+				profile = Profile.valueOf(profileName.trim().toUpperCase());
+			}
+			catch (IllegalArgumentException e) {
+				log.warn("Unknown search index profile {}, using {}", profileName, profile);
+			}
+		}
+
+		boolean anywhereIndexed = getBoolean(properties, OpenmrsConstants.SEARCH_INDEX_ANYWHERE_RUNTIME_PROPERTY,
+		    profile == Profile.FULL);
+		boolean soundexIndexed = getBoolean(properties, OpenmrsConstants.SEARCH_INDEX_SOUNDEX_RUNTIME_PROPERTY,
+		    profile != Profile.MINIMAL);
+		int minGramSize = getInt(properties, OpenmrsConstants.SEARCH_INDEX_MIN_GRAM_SIZE_RUNTIME_PROPERTY,
+		    DEFAULT_MIN_GRAM_SIZE);
+		int maxGramSize = getInt(properties, OpenmrsConstants.SEARCH_INDEX_MAX_GRAM_SIZE_RUNTIME_PROPERTY,
+		    DEFAULT_MAX_GRAM_SIZE);
+		if (maxGramSize < minGramSize) {
+			log.warn("The maximum n-gram size {} is smaller than the minimum {}, using the defaults", maxGramSize,
+			    minGramSize);
+			minGramSize = DEFAULT_MIN_GRAM_SIZE;
+			maxGramSize = DEFAULT_MAX_GRAM_SIZE;
+		}
+		return new SearchIndexLayout(profile, anywhereIndexed, soundexIndexed, minGramSize, maxGramSize);
+	}
+
+	private static boolean getBoolean(Properties properties, String name, boolean defaultValue) {
+		String value = properties.getProperty(name);
+		return StringUtils.isBlank(value) ? defaultValue : Boolean.parseBoolean(value.trim());
+	}
+
+	private static int getInt(Properties properties, String name, int defaultValue) {
+		String value = properties.getProperty(name);
+		if (StringUtils.isBlank(value)) {
+			return defaultValue;
+		}
+		try {
+			int result = Integer.parseInt(value.trim());
+			if (result > 0) {
+				return result;
+			}
+		}
+		catch (NumberFormatException e) {
+			// logged below
+		}
+		log.warn("Invalid value {} of {}, using {}", value, name, defaultValue);
+		return defaultValue;
+	}
+
+	public Profile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * @return true if the anywhere fields are filled with n-grams
+	 */
+	public boolean isAnywhereIndexed() {
+		return anywhereIndexed;
+	}
+
+	/**
+	 * @return true if the soundex fields are filled with soundex codes
+	 */
+	public boolean isSoundexIndexed() {
+		return soundexIndexed;
+	}
+
+	public int getMinGramSize() {
+		return minGramSize;
+	}
+
+	public int getMaxGramSize() {
+		return maxGramSize;
+	}
+
+	/**
+	 * Gets the field to query instead of the given one, if it is left out of the index
+	 *
+	 * @param field the name of a field, e.g. <code>givenNameAnywhere</code>
+	 * @return the start field instead of an anywhere field and the exact field instead of a soundex
+	 *         field if they are left out, the given field otherwise
+	 */
+	public String adaptField(String field) {
+		if (!anywhereIndexed && field.endsWith(ANYWHERE_SUFFIX)) {
+			return StringUtils.removeEnd(field, ANYWHERE_SUFFIX) + START_SUFFIX;
+		}
+		if (!soundexIndexed && field.endsWith(SOUNDEX_SUFFIX)) {
+			return StringUtils.removeEnd(field, SOUNDEX_SUFFIX) + EXACT_SUFFIX;
+		}
+		return field;
+	}
+
+	/**
+	 * @param fields the names of fields
+	 * @return the adapted fields in the same order, without duplicates
+	 * @see #adaptField(String)
+	 */
+	public List<String> adaptFields(Collection<String> fields) {
+		Set<String> adapted = new LinkedHashSet<>();
+		for (String field : fields) {
+			adapted.add(adaptField(field));
+		}
+		return new ArrayList<>(adapted);
+	}
+
+	/**
+	 * Adapts the fields named in a query, e.g. <code>givenNameSoundex:john</code>
+	 *
+	 * @param query a query in the query parser syntax, with escaped search terms
+	 * @return the query with the fields adapted
+	 * @see #adaptField(String)
+	 */
+	public String adaptQuery(String query) {
+		String adapted = query;
+		if (!anywhereIndexed) {
+			adapted = adapted.replace(ANYWHERE_SUFFIX + ":", START_SUFFIX + ":");
+		}
+		if (!soundexIndexed) {
+			adapted = adapted.replace(SOUNDEX_SUFFIX + ":", EXACT_SUFFIX + ":");
+		}
+		return adapted;
+	}
+
+	/**
+	 * @return the version of the search index to rebuild it when the layout changes, the plain
+	 *         {@link OpenmrsConstants#SEARCH_INDEX_VERSION} for the full layout
+	 */
+	public String getIndexVersion() {
+		String version = OpenmrsConstants.SEARCH_INDEX_VERSION.toString();
+		if (anywhereIndexed && soundexIndexed && minGramSize == DEFAULT_MIN_GRAM_SIZE
+		        && maxGramSize == DEFAULT_MAX_GRAM_SIZE) {
+			return version;
+		}
+		return version + "-" + (anywhereIndexed ? "a" : "") + (soundexIndexed ? "s" : "") + minGramSize + "-"
+		        + maxGramSize;
+	}
+
+	@Override
+	public String toString() {
+		return "SearchIndexLayout(profile=" + profile + ", anywhere=" + anywhereIndexed + ", soundex=" + soundexIndexed
+		        + ", grams=" + minGramSize + "-" + maxGramSize + ")";
+	}
+}
@@ -0,0 +1,63 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import org.hibernate.search.batchindexing.MassIndexerProgressMonitor;
+import org.openmrs.api.db.SearchIndexProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Forwards the mass indexer callbacks to a {@link SearchIndexProgress} and logs the progress
+ * periodically.
+ *
+ * @since 2.6.0
+ */
+public class SearchIndexProgressMonitor implements MassIndexerProgressMonitor {
+
+	private static final Logger log = LoggerFactory.getLogger(SearchIndexProgressMonitor.class);
+
+	private static final long LOG_INTERVAL = 10000;
+
+	private final SearchIndexProgress progress;
+
+	public SearchIndexProgressMonitor(SearchIndexProgress progress) {
+		this.progress = progress;
+	}
+
+	@Override
+	public void documentsAdded(long increment) {
+		long before = progress.getDocumentsAdded();
+		progress.addDocumentsAdded(increment);
+		if ((before / LOG_INTERVAL) != ((before + increment) / LOG_INTERVAL)) {
+			log.info("Search index update progress - {}", progress);
+		}
+	}
+
+	@Override
+	public void documentsBuilt(int number) {
+		progress.addDocumentsBuilt(number);
+	}
+
+	@Override
+	public void entitiesLoaded(int size) {
+		progress.addEntitiesLoaded(size);
+	}
+
+	@Override
+	public void addToTotalCount(long count) {
+		progress.addToTotalCount(count);
+	}
+
+	@Override
+	public void indexingCompleted() {
+		log.info("Finished updating the search index - {}", progress);
+	}
+}
@@ -15,7 +15,6 @@ import java.util.List;
 import java.util.Locale;
 
 import org.openmrs.Encounter;
-import org.openmrs.Location;
 import org.openmrs.Patient;
 import org.openmrs.Visit;
 import org.openmrs.annotation.Handler;
@@ -77,7 +76,8 @@ public class ExistingVisitAssignmentHandler extends BaseEncounterVisitHandler {
 				continue;
 			}
 			
-			if (visit.getLocation() == null || Location.isInHierarchy(encounter.getLocation(), visit.getLocation())) {
+			if (visit.getLocation() == null
+			        || Context.getLocationService().isInHierarchy(encounter.getLocation(), visit.getLocation())) {
 				encounter.setVisit(visit);
 				return;
 			}
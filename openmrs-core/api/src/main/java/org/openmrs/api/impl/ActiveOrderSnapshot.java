@@ -0,0 +1,133 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openmrs.CareSetting;
+import org.openmrs.Concept;
+import org.openmrs.Order;
+
+/**
+ * The orders of a patient which are active at some point from a given date, indexed by care
+ * setting and concept so that the orders of the same orderable are found without going through
+ * all the active orders of the patient. It is kept for the duration of a transaction by
+ * {@link OrderServiceImpl}, the orders saved through the service during the transaction are put
+ * back in it so that it follows the changes.
+ *
+ * @since 2.6.0
+ */
+class ActiveOrderSnapshot {
+
+	private final Date fromDate;
+
+	private final Map<Integer, Order> ordersById = new HashMap<>();
+
+	private final Map<Integer, Map<Integer, List<Order>>> ordersByCareSettingAndConcept = new HashMap<>();
+
+	/**
+	 * @param fromDate the date from which the given orders are active
+	 * @param orders the orders of the patient which are active at some point from the given date
+	 */
+	ActiveOrderSnapshot(Date fromDate, Collection<Order> orders) {
+		this.fromDate = fromDate;
+		for (Order order : orders) {
+			put(order);
+		}
+	}
+
+	/**
+	 * @param asOfDate the date to check
+	 * @return true if the orders active as of the given date are in this snapshot
+	 */
+	boolean covers(Date asOfDate) {
+		return !asOfDate.before(fromDate);
+	}
+
+	/**
+	 * Adds or replaces an order after it was saved, voided orders and discontinuation orders are
+	 * removed since they are never active
+	 *
+	 * @param order the saved order
+	 */
+	void put(Order order) {
+		if (order.getOrderId() == null) {
+			return;
+		}
+		remove(order);
+		if (order.getVoided() || order.getAction() == Order.Action.DISCONTINUE || order.getConcept() == null
+		        || order.getCareSetting() == null) {
+			return;
+		}
+		ordersById.put(order.getOrderId(), order);
+		ordersByCareSettingAndConcept.computeIfAbsent(order.getCareSetting().getCareSettingId(), k -> new HashMap<>())
+		        .computeIfAbsent(order.getConcept().getConceptId(), k -> new ArrayList<>()).add(order);
+	}
+
+	/**
+	 * @param order the order to remove, e.g. because it was purged
+	 */
+	void remove(Order order) {
+		Order existing = ordersById.remove(order.getOrderId());
+		if (existing == null) {
+			return;
+		}
+		Map<Integer, List<Order>> ordersByConcept = ordersByCareSettingAndConcept.get(existing.getCareSetting()
+		        .getCareSettingId());
+		List<Order> orders = ordersByConcept.get(existing.getConcept().getConceptId());
+		orders.remove(existing);
+		if (orders.isEmpty()) {
+			ordersByConcept.remove(existing.getConcept().getConceptId());
+		}
+	}
+
+	/**
+	 * Gets the active orders for a concept, the same way as
+	 * {@link org.openmrs.api.db.OrderDAO#getActiveOrders} does
+	 *
+	 * @param concept the concept of the orders
+	 * @param careSetting the care setting of the orders
+	 * @param asOfDate the date the orders are active on, it must be covered by this snapshot
+	 * @return the active orders
+	 */
+	List<Order> getActiveOrders(Concept concept, CareSetting careSetting, Date asOfDate) {
+		if (concept == null || concept.getConceptId() == null || careSetting == null) {
+			return Collections.emptyList();
+		}
+		Map<Integer, List<Order>> ordersByConcept = ordersByCareSettingAndConcept.get(careSetting.getCareSettingId());
+		List<Order> orders = ordersByConcept == null ? null : ordersByConcept.get(concept.getConceptId());
+		if (orders == null) {
+			return Collections.emptyList();
+		}
+		List<Order> activeOrders = new ArrayList<>(orders.size());
+		for (Order order : orders) {
+			if (isActive(order, asOfDate)) {
+				activeOrders.add(order);
+			}
+		}
+		return activeOrders;
+	}
+
+	private static boolean isActive(Order order, Date asOfDate) {
+		if (order.getDateActivated() == null || order.getDateActivated().after(asOfDate)) {
+			return false;
+		}
+		if (order.getDateStopped() != null) {
+			return !order.getDateStopped().before(asOfDate);
+		}
+		return order.getAutoExpireDate() == null || !order.getAutoExpireDate().before(asOfDate);
+	}
+}
@@ -34,12 +34,18 @@ import org.openmrs.GlobalProperty;
 import org.openmrs.ImplementationId;
 import org.openmrs.OpenmrsObject;
 import org.openmrs.User;
+import org.openmrs.aop.ServiceMethodMetrics;
+import org.openmrs.aop.ServiceMethodStatistics;
+import org.openmrs.aop.SlowServiceCall;
 import org.openmrs.api.APIException;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.EventListeners;
 import org.openmrs.api.GlobalPropertyListener;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.AdministrationDAO;
+import org.openmrs.api.db.DatabaseStatistics;
+import org.openmrs.api.db.SlowQuery;
+import org.openmrs.api.db.SlowQueryLog;
 import org.openmrs.customdatatype.CustomDatatypeUtil;
 import org.openmrs.module.Module;
 import org.openmrs.module.ModuleFactory;
@@ -757,6 +763,59 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 		return systemInfoMap;
 	}
 	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getServiceMethodStatistics()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<ServiceMethodStatistics> getServiceMethodStatistics() {
+		return ServiceMethodMetrics.getInstance().getStatistics();
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getSlowServiceCalls()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<SlowServiceCall> getSlowServiceCalls() {
+		return ServiceMethodMetrics.getInstance().getSlowCalls();
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#resetServiceMethodStatistics()
+	 */
+	@Override
+	public void resetServiceMethodStatistics() {
+		ServiceMethodMetrics.getInstance().reset();
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getDatabaseStatistics()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public DatabaseStatistics getDatabaseStatistics() {
+		return dao.getDatabaseStatistics();
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getSlowQueries()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<SlowQuery> getSlowQueries() {
+		return SlowQueryLog.getInstance().getSlowQueries();
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#resetDatabaseStatistics()
+	 */
+	@Override
+	public void resetDatabaseStatistics() {
+		dao.resetDatabaseStatistics();
+		SlowQueryLog.getInstance().clear();
+	}
+	
 	/**
 	 * @param bytes to be converted into mega bytes
 	 * @return memory in mega bytes
@@ -24,6 +24,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.collections.CollectionUtils;
@@ -56,6 +57,7 @@ import org.openmrs.api.AdministrationService;
 import org.openmrs.api.ConceptInUseException;
 import org.openmrs.api.ConceptNameInUseException;
 import org.openmrs.api.ConceptService;
+import org.openmrs.api.ConceptSetClosure;
 import org.openmrs.api.ConceptStopWordException;
 import org.openmrs.api.ConceptsLockedException;
 import org.openmrs.api.context.Context;
@@ -64,10 +66,12 @@ import org.openmrs.api.db.DAOException;
 import org.openmrs.customdatatype.CustomDatatypeUtil;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
+import org.openmrs.util.PerTransactionResource;
 import org.openmrs.validator.ValidateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.util.StringUtils;
 
 /**
@@ -90,6 +94,19 @@ public class ConceptServiceImpl extends BaseOpenmrsService implements ConceptSer
 
 	private static final String ERROR_MESSAGE = "Error generated";
 	
+	/** Guards the shared concept set closure */
+	private final Object conceptSetClosureLock = new Object();
+	
+	/** The concept set closure seen by the current transaction and the changes it made to it */
+	private final PerTransactionResource<ConceptSetClosureTransaction> conceptSetClosureTransaction =
+	        new PerTransactionResource<>(ConceptSetClosureTransaction::new);
+	
+	/** The concept set closure of the committed data, null until it is first loaded */
+	private volatile ConceptSetClosure conceptSetClosure;
+	
+	/** Incremented for each committed concept set change so that stale snapshots are not shared */
+	private long conceptSetClosureVersion;
+	
 	/**
 	 * @see org.openmrs.api.ConceptService#setConceptDAO(org.openmrs.api.db.ConceptDAO)
 	 */
@@ -177,7 +194,14 @@ public class ConceptServiceImpl extends BaseOpenmrsService implements ConceptSer
 			concept.setSet(true);
 		}
 
-		return dao.saveConcept(concept);
+		Concept savedConcept = dao.saveConcept(concept);
+		
+		ConceptSetClosure closure = getCachedConceptSetClosure();
+		if (closure == null || closure.hasChanged(savedConcept)) {
+			updateConceptSetClosure(c -> c.putConcept(savedConcept));
+		}
+		
+		return savedConcept;
 	}
 
 	private void ensureConceptMapTypeIsSet(Concept concept) {
@@ -273,7 +297,11 @@ public class ConceptServiceImpl extends BaseOpenmrsService implements ConceptSer
 			}
 		}
 		
+		Integer conceptId = concept.getConceptId();
 		dao.purgeConcept(concept);
+		if (conceptId != null) {
+			updateConceptSetClosure(c -> c.removeConcept(conceptId));
+		}
 	}
 	
 	/**
@@ -677,12 +705,176 @@ public class ConceptServiceImpl extends BaseOpenmrsService implements ConceptSer
 	@Override
 	@Transactional(readOnly = true)
 	public List<Concept> getConceptsByConceptSet(Concept c) {
-		Set<Integer> alreadySeen = new HashSet<>();
 		List<Concept> ret = new ArrayList<>();
-		explodeConceptSetHelper(c, ret, alreadySeen);
+		if (c.getConceptId() == null) {
+			explodeConceptSetHelper(c, ret, new HashSet<>());
+			return ret;
+		}
+		
+		List<Integer> memberIds = getConceptSetClosure().getExplodedMemberIds(c.getConceptId());
+		Map<Integer, Concept> members = dao.getConceptsByIds(memberIds);
+		for (Integer memberId : memberIds) {
+			Concept member = members.get(memberId);
+			if (member != null) {
+				ret.add(member);
+			}
+		}
 		return ret;
 	}
 	
+	/**
+	 * @see org.openmrs.api.ConceptService#getConceptSetClosure()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public ConceptSetClosure getConceptSetClosure() throws APIException {
+		ConceptSetClosureTransaction transaction = conceptSetClosureTransaction.get();
+		ConceptSetClosure closure = transaction != null ? transaction.getClosure() : conceptSetClosure;
+		if (closure != null) {
+			return closure;
+		}
+		
+		long version;
+		synchronized (conceptSetClosureLock) {
+			version = conceptSetClosureVersion;
+		}
+		closure = dao.getConceptSetClosure();
+		
+		if (transaction == null) {
+			transaction = conceptSetClosureTransaction.getOrCreate();
+		}
+		if (transaction == null) {
+			synchronized (conceptSetClosureLock) {
+				if (conceptSetClosure == null && version == conceptSetClosureVersion) {
+					conceptSetClosure = closure;
+				}
+			}
+		} else {
+			transaction.setLoadedClosure(closure, version);
+		}
+		return closure;
+	}
+	
+	/**
+	 * @see org.openmrs.api.ConceptService#isConceptInSet(org.openmrs.Concept, org.openmrs.Concept)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public boolean isConceptInSet(Concept concept, Concept conceptSet) throws APIException {
+		if (concept.getConceptId() == null || conceptSet.getConceptId() == null) {
+			return false;
+		}
+		return getConceptSetClosure().isMember(concept.getConceptId(), conceptSet.getConceptId());
+	}
+	
+	/**
+	 * @return the concept set closure seen by the current transaction if it is in memory and holds
+	 *         all the changes of the transaction, null otherwise
+	 */
+	private ConceptSetClosure getCachedConceptSetClosure() {
+		ConceptSetClosureTransaction transaction = conceptSetClosureTransaction.get();
+		if (transaction == null) {
+			return conceptSetClosure;
+		}
+		// do not apply the pending changes for each saved concept, a change is cheap to record
+		return transaction.hasPendingChanges() ? null : transaction.getClosure();
+	}
+	
+	/**
+	 * Records a change to the concept set closure of the current transaction, it is applied to the
+	 * closure of the transaction the next time it is read and to the shared one once the
+	 * transaction is committed, so that rolled back changes are never seen by other transactions.
+	 */
+	private void updateConceptSetClosure(Consumer<ConceptSetClosure.Editor> change) {
+		ConceptSetClosureTransaction transaction = conceptSetClosureTransaction.getOrCreate();
+		if (transaction == null) {
+			synchronized (conceptSetClosureLock) {
+				if (conceptSetClosure != null) {
+					conceptSetClosure = applyConceptSetChanges(conceptSetClosure, Collections.singletonList(change));
+				}
+				conceptSetClosureVersion++;
+			}
+			return;
+		}
+		transaction.changes.add(change);
+	}
+	
+	/**
+	 * Applies all the changes on a single editor so that each shard of the closure is copied once
+	 */
+	private static ConceptSetClosure applyConceptSetChanges(ConceptSetClosure closure,
+	        List<Consumer<ConceptSetClosure.Editor>> changes) {
+		ConceptSetClosure.Editor editor = closure.edit();
+		for (Consumer<ConceptSetClosure.Editor> change : changes) {
+			change.accept(editor);
+		}
+		return editor.build();
+	}
+	
+	/**
+	 * The concept set closure seen by a transaction and the changes it made to it
+	 */
+	private class ConceptSetClosureTransaction extends TransactionSynchronizationAdapter {
+		
+		/** Does not hold the changes from the index {@link #applied} onwards yet */
+		private ConceptSetClosure closure;
+		
+		private long loadedVersion = -1;
+		
+		private final List<Consumer<ConceptSetClosure.Editor>> changes = new ArrayList<>();
+		
+		private int applied;
+		
+		/**
+		 * @return the closure holding all the changes of the transaction, derived from the shared
+		 *         one if the transaction did not load its own, null if none is in memory
+		 */
+		ConceptSetClosure getClosure() {
+			if (closure == null) {
+				closure = conceptSetClosure;
+				if (closure == null) {
+					return null;
+				}
+			}
+			if (hasPendingChanges()) {
+				closure = applyConceptSetChanges(closure, changes.subList(applied, changes.size()));
+				applied = changes.size();
+			}
+			return closure;
+		}
+		
+		boolean hasPendingChanges() {
+			return applied < changes.size();
+		}
+		
+		/**
+		 * @param loaded the closure loaded from the database, which already holds the flushed changes
+		 * @param version the version of the shared closure when it was loaded
+		 */
+		void setLoadedClosure(ConceptSetClosure loaded, long version) {
+			closure = loaded;
+			loadedVersion = version;
+			applied = changes.size();
+		}
+		
+		@Override
+		public void afterCommit() {
+			synchronized (conceptSetClosureLock) {
+				if (conceptSetClosure == null) {
+					// share the snapshot loaded by this transaction unless another one changed sets meanwhile
+					if (closure != null && loadedVersion == conceptSetClosureVersion) {
+						conceptSetClosure = getClosure();
+					}
+				} else if (!changes.isEmpty()) {
+					conceptSetClosure = applyConceptSetChanges(conceptSetClosure, changes);
+				}
+				if (!changes.isEmpty()) {
+					conceptSetClosureVersion++;
+				}
+			}
+		}
+	}
+	
 	/**
 	 * @see org.openmrs.api.ConceptService#getSetsContainingConcept(org.openmrs.Concept)
 	 */
@@ -25,6 +25,8 @@ import org.openmrs.api.db.DatatypeDAO;
 import org.openmrs.customdatatype.CustomDatatype;
 import org.openmrs.customdatatype.CustomDatatypeException;
 import org.openmrs.customdatatype.CustomDatatypeHandler;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -98,6 +100,7 @@ public class DatatypeServiceImpl extends BaseOpenmrsService implements DatatypeS
 	 */
 	@Override
 	@Transactional(readOnly = true)
+	@Cacheable(value = "customDatatypes", key = "{ #p0, #p1 }")
 	public <T extends CustomDatatype<?>> T getDatatype(Class<T> clazz, String config) {
 		try {
 			T dt = clazz.newInstance();
@@ -162,6 +165,7 @@ public class DatatypeServiceImpl extends BaseOpenmrsService implements DatatypeS
 	 */
 	@Override
 	@Transactional(readOnly = true)
+	@Cacheable(value = "customDatatypeHandlers", key = "{ #p0.class, #p1 }")
 	public synchronized CustomDatatypeHandler<?, ?> getHandler(CustomDatatype<?> datatype, String handlerConfig) {
 		if (prioritizedHandlerClasses == null) {
 			prioritizeHandlers();
@@ -181,6 +185,25 @@ public class DatatypeServiceImpl extends BaseOpenmrsService implements DatatypeS
 		}
 	}
 	
+	/**
+	 * @see org.openmrs.api.DatatypeService#getHandler(java.lang.Class, java.lang.String)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	@Cacheable(value = "customDatatypeHandlers", key = "{ #p0, #p1 }")
+	public <T extends CustomDatatypeHandler<?, ?>> T getHandler(Class<T> clazz, String handlerConfig) {
+		try {
+			T handler = clazz.newInstance();
+			if (handlerConfig != null) {
+				handler.setHandlerConfiguration(handlerConfig);
+			}
+			return handler;
+		}
+		catch (Exception ex) {
+			throw new CustomDatatypeException("Failed to instantiate " + clazz + " with config " + handlerConfig, ex);
+		}
+	}
+	
 	/**
 	 * private method that prioritizes all registered handlers so we can quickly determine which to use for
 	 * each datatype
@@ -199,6 +222,15 @@ public class DatatypeServiceImpl extends BaseOpenmrsService implements DatatypeS
 		}
 	}
 	
+	/**
+	 * @see org.openmrs.api.DatatypeService#clearCachedDatatypes()
+	 */
+	@Override
+	@CacheEvict(value = { "customDatatypes", "customDatatypeHandlers" }, allEntries = true)
+	public synchronized void clearCachedDatatypes() {
+		prioritizedHandlerClasses = null;
+	}
+	
 	/**
 	 * @see org.openmrs.api.DatatypeService#getClobDatatypeStorage(java.lang.Integer)
 	 */
@@ -32,6 +32,7 @@ import org.openmrs.FormField;
 import org.openmrs.FormResource;
 import org.openmrs.aop.RequiredDataAdvice;
 import org.openmrs.api.APIException;
+import org.openmrs.api.CompiledForm;
 import org.openmrs.api.FormService;
 import org.openmrs.api.FormsLockedException;
 import org.openmrs.api.InvalidFileTypeException;
@@ -44,7 +45,11 @@ import org.openmrs.obs.SerializableComplexObsHandler;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.validator.FormValidator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.BindException;
 
 /**
@@ -63,6 +68,8 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 	
 	private final FormValidator formValidator;
 	
+	private Cache compiledFormCache;
+	
 	/**
 	 * Default empty constructor
 	 */
@@ -79,6 +86,35 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 		this.dao = dao;
 	}
 	
+	/**
+	 * @param compiledFormCache the cache holding the compiled forms, evicted when forms change
+	 * @since 2.6.0
+	 */
+	public void setCompiledFormCache(Cache compiledFormCache) {
+		this.compiledFormCache = compiledFormCache;
+	}
+	
+	/**
+	 * Evicts the compiled forms now, so that the current transaction sees its changes, and again
+	 * once it completes, since the forms may be compiled with the uncommitted changes before a roll
+	 * back or by other transactions as they were before a commit.
+	 */
+	private void evictCompiledForms() {
+		if (compiledFormCache == null) {
+			return;
+		}
+		compiledFormCache.clear();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				
+				@Override
+				public void afterCompletion(int status) {
+					compiledFormCache.clear();
+				}
+			});
+		}
+	}
+	
 	/**
 	 * @see org.openmrs.api.FormService#getForm(java.lang.Integer)
 	 */
@@ -213,7 +249,40 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 			tmpIgnoreFormFields = Collections.emptyList();
 		}
 		
-		return dao.getFormField(form, concept, tmpIgnoreFormFields, force);
+		if (form == null || form.getFormId() == null) {
+			return dao.getFormField(form, concept, tmpIgnoreFormFields, force);
+		}
+		
+		CompiledForm compiledForm = Context.getFormService().getCompiledForm(form);
+		if (compiledForm == null || concept == null) {
+			return null;
+		}
+		Set<Integer> ignoreFormFieldIds = new HashSet<>();
+		for (FormField ignoreFormField : tmpIgnoreFormFields) {
+			ignoreFormFieldIds.add(ignoreFormField.getFormFieldId());
+		}
+		Integer formFieldId = compiledForm.getFormFieldId(concept.getConceptId(), ignoreFormFieldIds, force);
+		return formFieldId == null ? null : dao.getFormField(formFieldId);
+	}
+	
+	/**
+	 * @see org.openmrs.api.FormService#getCompiledForm(org.openmrs.Form)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	@Cacheable(value = "compiledForms", key = "#p0.formId", condition = "#p0 != null and #p0.formId != null")
+	public CompiledForm getCompiledForm(Form form) throws APIException {
+		if (form == null) {
+			return null;
+		}
+		Form formToCompile = form;
+		if (form.getFormId() != null) {
+			formToCompile = dao.getForm(form.getFormId());
+			if (formToCompile == null) {
+				return null;
+			}
+		}
+		return new CompiledForm(formToCompile);
 	}
 	
 	/**
@@ -444,6 +513,7 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 	 */
 	@Override
 	public void purgeField(Field field, boolean cascade) throws APIException {
+		evictCompiledForms();
 		if (cascade) {
 			throw new APIException("general.not.yet.implemented", (Object[]) null);
 		} else {
@@ -465,6 +535,7 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 	 */
 	@Override
 	public void purgeForm(Form form, boolean cascade) throws APIException {
+		evictCompiledForms();
 		if (cascade) {
 			throw new APIException("general.not.yet.implemented", (Object[]) null);
 		}
@@ -482,6 +553,7 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 	 */
 	@Override
 	public void purgeFormField(FormField formField) throws APIException {
+		evictCompiledForms();
 		dao.deleteFormField(formField);
 	}
 	
@@ -503,6 +575,7 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 	 */
 	@Override
 	public Field saveField(Field field) throws APIException {
+		evictCompiledForms();
 		return dao.saveField(field);
 	}
 	
@@ -511,6 +584,7 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 	 */
 	@Override
 	public Form saveForm(Form form) throws APIException {
+		evictCompiledForms();
 		checkIfFormsAreLocked();
 		BindException errors = new BindException(form, "form");
 		formValidator.validate(form, errors);
@@ -536,6 +610,7 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 	 */
 	@Override
 	public FormField saveFormField(FormField formField) throws APIException {
+		evictCompiledForms();
 		Field field = formField.getField();
 		if (field.getCreator() == null) {
 			field.setCreator(Context.getAuthenticatedUser());
@@ -640,6 +715,7 @@ public class FormServiceImpl extends BaseOpenmrsService implements FormService {
 	 */
 	@Override
 	public int mergeDuplicateFields() throws APIException {
+		evictCompiledForms();
 		
 		List<Field> fields = dao.getAllFields(true);
 		Set<Field> fieldsToDelete = new HashSet<>();
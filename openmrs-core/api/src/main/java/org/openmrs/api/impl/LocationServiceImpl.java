@@ -11,8 +11,10 @@ package org.openmrs.api.impl;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.openmrs.Address;
@@ -22,12 +24,15 @@ import org.openmrs.LocationAttributeType;
 import org.openmrs.LocationTag;
 import org.openmrs.api.APIException;
 import org.openmrs.api.LocationService;
+import org.openmrs.api.LocationTree;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.LocationDAO;
 import org.openmrs.customdatatype.CustomDatatypeUtil;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
+import org.openmrs.util.PerTransactionResource;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.util.StringUtils;
 
 /**
@@ -45,6 +50,19 @@ public class LocationServiceImpl extends BaseOpenmrsService implements LocationS
 	
 	private LocationDAO dao;
 	
+	/** Guards the shared location tree */
+	private final Object locationTreeLock = new Object();
+	
+	/** The location tree seen by the current transaction and whether it changed locations */
+	private final PerTransactionResource<LocationTreeTransaction> locationTreeTransaction =
+	        new PerTransactionResource<>(LocationTreeTransaction::new);
+	
+	/** The location tree of the committed data, null until it is first loaded */
+	private volatile LocationTree locationTree;
+	
+	/** Incremented for each committed location change so that stale trees are not shared */
+	private long locationTreeVersion;
+	
 	/**
 	 * @see org.openmrs.api.LocationService#setLocationDAO(org.openmrs.api.db.LocationDAO)
 	 */
@@ -85,6 +103,7 @@ public class LocationServiceImpl extends BaseOpenmrsService implements LocationS
 		
 		CustomDatatypeUtil.saveAttributesIfNecessary(location);
 		
+		invalidateLocationTree();
 		return dao.saveLocation(location);
 	}
 	
@@ -267,6 +286,7 @@ public class LocationServiceImpl extends BaseOpenmrsService implements LocationS
 	 */
 	@Override
 	public void purgeLocation(Location location) throws APIException {
+		invalidateLocationTree();
 		dao.deleteLocation(location);
 	}
 	
@@ -398,6 +418,118 @@ public class LocationServiceImpl extends BaseOpenmrsService implements LocationS
 		return dao.getRootLocations(includeRetired);
 	}
 	
+	/**
+	 * @see org.openmrs.api.LocationService#getLocationTree()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public LocationTree getLocationTree() {
+		LocationTreeTransaction transaction = locationTreeTransaction.get();
+		if (transaction != null && transaction.tree != null) {
+			return transaction.tree;
+		}
+		LocationTree tree = locationTree;
+		if (tree != null && (transaction == null || !transaction.changed)) {
+			return tree;
+		}
+		
+		long version;
+		synchronized (locationTreeLock) {
+			version = locationTreeVersion;
+		}
+		tree = dao.getLocationTree();
+		
+		if (transaction == null) {
+			transaction = locationTreeTransaction.getOrCreate();
+		}
+		if (transaction == null) {
+			synchronized (locationTreeLock) {
+				if (version == locationTreeVersion) {
+					locationTree = tree;
+				}
+			}
+		} else {
+			transaction.tree = tree;
+			transaction.loadedVersion = version;
+		}
+		return tree;
+	}
+	
+	/**
+	 * @see org.openmrs.api.LocationService#isInHierarchy(org.openmrs.Location, org.openmrs.Location)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public boolean isInHierarchy(Location location, Location root) {
+		if (location == null || root == null) {
+			return false;
+		}
+		LocationTree tree = location.getLocationId() == null || root.getLocationId() == null ? null : getLocationTree();
+		if (tree == null || !tree.contains(location.getLocationId())) {
+			// unsaved locations are not in the tree
+			return Location.isInHierarchy(location, root);
+		}
+		return tree.isInHierarchy(location.getLocationId(), root.getLocationId());
+	}
+	
+	/**
+	 * @see org.openmrs.api.LocationService#getDescendantLocations(org.openmrs.Location, boolean)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Set<Location> getDescendantLocations(Location location, boolean includeRetired) {
+		if (location.getLocationId() == null) {
+			return location.getDescendantLocations(includeRetired);
+		}
+		List<Integer> descendantIds = getLocationTree().getDescendantIds(location.getLocationId(), includeRetired);
+		if (descendantIds.isEmpty()) {
+			return new HashSet<>();
+		}
+		return new HashSet<>(dao.getLocationsByIds(descendantIds));
+	}
+	
+	/**
+	 * Drops the location tree seen by the current transaction right away and the shared one once
+	 * the transaction is committed
+	 */
+	private void invalidateLocationTree() {
+		LocationTreeTransaction transaction = locationTreeTransaction.getOrCreate();
+		if (transaction == null) {
+			synchronized (locationTreeLock) {
+				locationTree = null;
+				locationTreeVersion++;
+			}
+		} else {
+			transaction.tree = null;
+			transaction.changed = true;
+		}
+	}
+	
+	/**
+	 * The location tree seen by a transaction and whether it changed locations
+	 */
+	private class LocationTreeTransaction extends TransactionSynchronizationAdapter {
+		
+		private LocationTree tree;
+		
+		private long loadedVersion = -1;
+		
+		private boolean changed;
+		
+		@Override
+		public void afterCommit() {
+			synchronized (locationTreeLock) {
+				if (changed) {
+					locationTree = null;
+					locationTreeVersion++;
+				} else if (tree != null && locationTree == null && loadedVersion == locationTreeVersion) {
+					// only share trees loaded from committed data
+					locationTree = tree;
+				}
+			}
+		}
+	}
+	
 	/**
 	 * @see org.openmrs.api.LocationService#getPossibleAddressValues(Address, String)
 	 */
@@ -9,7 +9,6 @@
  */
 package org.openmrs.api.impl;
 
-import java.io.File;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -23,8 +22,10 @@ import org.openmrs.Location;
 import org.openmrs.Obs;
 import org.openmrs.Patient;
 import org.openmrs.Person;
+import org.openmrs.User;
 import org.openmrs.aop.RequiredDataAdvice;
 import org.openmrs.api.APIException;
+import org.openmrs.api.BulkSaveResult;
 import org.openmrs.api.EncounterService;
 import org.openmrs.api.ObsService;
 import org.openmrs.api.PatientService;
@@ -33,11 +34,12 @@ import org.openmrs.api.db.ObsDAO;
 import org.openmrs.api.handler.SaveHandler;
 import org.openmrs.obs.ComplexData;
 import org.openmrs.obs.ComplexObsHandler;
-import org.openmrs.obs.handler.AbstractHandler;
 import org.openmrs.util.OpenmrsClassLoader;
+import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsConstants.PERSON_TYPE;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.util.PrivilegeConstants;
+import org.openmrs.validator.ValidateUtil;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -114,6 +116,96 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 		}
 	}
 
+	/**
+	 * @see org.openmrs.api.ObsService#importObs(java.util.List)
+	 */
+	@Override
+	public BulkSaveResult<Obs> importObs(List<Obs> obsList) throws APIException {
+		BulkSaveResult<Obs> result = new BulkSaveResult<>();
+		int batchSize = Math.max(1, Context.getAdministrationService().getGlobalPropertyValue(
+		    OpenmrsConstants.GP_OBS_IMPORT_BATCH_SIZE, 50));
+		// the same creator and date created for the whole import, like a single saveObs call does
+		User currentUser = Context.getAuthenticatedUser();
+		Date currentDate = new Date();
+		
+		// validate the whole list before anything is written
+		List<Integer> validIndexes = new ArrayList<>(obsList.size());
+		for (int i = 0; i < obsList.size(); i++) {
+			Obs obs = obsList.get(i);
+			try {
+				if (obs == null) {
+					throw new APIException("Obs.error.cannot.be.null", (Object[]) null);
+				}
+				if (obs.getObsId() != null) {
+					throw new APIException("Obs.error.import.existing", new Object[] { obs.getObsId() });
+				}
+				
+				// what RequiredDataAdvice does for saveObs, but failing this obs only
+				ValidateUtil.validate(obs);
+				RequiredDataAdvice.recursivelyHandle(SaveHandler.class, obs, currentUser, currentDate, null, null);
+				if (hasComplexDataToSave(obs) && getHandler(obs) == null) {
+					throw new APIException("unknown.handler", new Object[] { obs.getConcept() });
+				}
+				validIndexes.add(i);
+			}
+			catch (APIException e) {
+				result.addFailure(i, obs, e);
+			}
+		}
+		
+		for (int from = 0; from < validIndexes.size(); from += batchSize) {
+			saveImportedObs(obsList, validIndexes.subList(from, Math.min(from + batchSize, validIndexes.size())), result);
+		}
+		return result;
+	}
+	
+	/**
+	 * Saves a batch of validated obs: their complex data is written by the handlers first, then the
+	 * obs are inserted, flushed and evicted from the session so that it does not grow with the
+	 * import, the other entities of the caller stay in the session.
+	 */
+	private void saveImportedObs(List<Obs> obsList, List<Integer> indexes, BulkSaveResult<Obs> result) {
+		List<Obs> batch = new ArrayList<>(indexes.size());
+		for (Integer index : indexes) {
+			Obs obs = obsList.get(index);
+			try {
+				handleExistingObsWithComplexConcept(obs);
+			}
+			catch (APIException e) {
+				result.addFailure(index, obs, e);
+				continue;
+			}
+			batch.add(obs);
+		}
+		
+		for (Obs obs : batch) {
+			saveNewObsAndGroupMembers(obs);
+			result.addSaved(obs);
+		}
+		Context.flushSession();
+		for (Obs obs : batch) {
+			evictObsAndGroupMembers(obs);
+		}
+	}
+	
+	private void saveNewObsAndGroupMembers(Obs obs) {
+		dao.saveObs(obs);
+		if (obs.isObsGrouping()) {
+			for (Obs member : obs.getGroupMembers(true)) {
+				saveNewObsAndGroupMembers(member);
+			}
+		}
+	}
+	
+	private void evictObsAndGroupMembers(Obs obs) {
+		if (obs.isObsGrouping()) {
+			for (Obs member : obs.getGroupMembers(true)) {
+				evictObsAndGroupMembers(member);
+			}
+		}
+		Context.evictFromSession(obs);
+	}
+	
 	private void setPersonFromEncounter(Obs obs) {
 		Encounter encounter = obs.getEncounter();
 		if (encounter != null) {
@@ -132,10 +224,9 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 			// the fact that the obs is now voided
 			evictObsAndChildren(obs);
 			obs = Context.getObsService().getObs(obs.getObsId());
-			//delete the previous file from the appdata/complex_obs folder
+			//delete the previous data, and what the handler derived from it, e.g. image thumbnails
 			if (newObs.hasPreviousVersion() && newObs.getPreviousVersion().isComplex()) {
-				File previousFile = AbstractHandler.getComplexDataFile(obs);
-				previousFile.delete();
+				purgeComplexData(obs);
 			}
 			// calling this via the service so that AOP hooks are called
 			Context.getObsService().voidObs(obs, changeMessage);
@@ -241,10 +332,7 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 	}
 
 	private void handleExistingObsWithComplexConcept(Obs obs) {
-		ComplexData complexData = obs.getComplexData();
-		Concept concept = obs.getConcept();
-		if (null != concept && concept.isComplex()
-		        && null != complexData && null != complexData.getData()) {
+		if (hasComplexDataToSave(obs)) {
 			// save or update complexData object on this obs
 			// this is done before the database save so that the obs.valueComplex
 			// can be filled in by the handler.
@@ -252,10 +340,16 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 			if (null != handler) {
 				handler.saveObs(obs);
 			} else {
-				throw new APIException("unknown.handler", new Object[] {concept});
+				throw new APIException("unknown.handler", new Object[] {obs.getConcept()});
 			}
 		}
 	}
+	
+	private boolean hasComplexDataToSave(Obs obs) {
+		ComplexData complexData = obs.getComplexData();
+		Concept concept = obs.getConcept();
+		return null != concept && concept.isComplex() && null != complexData && null != complexData.getData();
+	}
 
 	/**
 	 * @see org.openmrs.api.ObsService#getObs(java.lang.Integer)
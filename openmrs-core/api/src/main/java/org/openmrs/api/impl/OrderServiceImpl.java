@@ -52,10 +52,12 @@ import org.openmrs.order.OrderUtil;
 import org.openmrs.parameter.OrderSearchCriteria;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
+import org.openmrs.util.PerTransactionResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Field;
@@ -64,8 +66,10 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import static org.openmrs.Order.Action.DISCONTINUE;
@@ -89,6 +93,10 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	protected OrderDAO dao;
 	
 	private static OrderNumberGenerator orderNumberGenerator = null;
+	
+	/** The active order snapshots of the current transaction */
+	private final PerTransactionResource<ActiveOrderSnapshots> activeOrderSnapshots =
+	        new PerTransactionResource<>(ActiveOrderSnapshots::new);
 
 	public OrderServiceImpl() {
 	}
@@ -191,7 +199,8 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 			if (isRetrospective) {
 				asOfDate = order.getDateActivated();
 			}
-			List<Order> activeOrders = getActiveOrders(order.getPatient(), null, order.getCareSetting(), asOfDate);
+			List<Order> activeOrders = getActiveOrderSnapshot(order.getPatient(), asOfDate).getActiveOrders(
+			    order.getConcept(), order.getCareSetting(), asOfDate);
 			List<String> parallelOrders = Collections.emptyList();
 			if (orderContext != null && orderContext.getAttribute(PARALLEL_ORDERS) != null) {
 				parallelOrders = Arrays.asList((String[]) orderContext.getAttribute(PARALLEL_ORDERS));
@@ -342,7 +351,51 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 			}
 		}
 		
-		return dao.saveOrder(order);
+		Order savedOrder = dao.saveOrder(order);
+		ActiveOrderSnapshot snapshot = getCurrentActiveOrderSnapshot(savedOrder.getPatient());
+		if (snapshot != null) {
+			snapshot.put(savedOrder);
+		}
+		return savedOrder;
+	}
+	
+	/**
+	 * Gets the snapshot of the active orders of a patient for the current transaction, it is loaded
+	 * the first time it is needed or again if it does not go back to the given date
+	 * 
+	 * @param patient the patient
+	 * @param asOfDate the date the active orders are looked up for
+	 * @return the snapshot of the active orders of the patient
+	 */
+	private ActiveOrderSnapshot getActiveOrderSnapshot(Patient patient, Date asOfDate) {
+		if (patient == null) {
+			throw new IllegalArgumentException("Patient is required when fetching active orders");
+		}
+		ActiveOrderSnapshot snapshot = getCurrentActiveOrderSnapshot(patient);
+		if (snapshot == null || !snapshot.covers(asOfDate)) {
+			snapshot = new ActiveOrderSnapshot(asOfDate, dao.getOrdersActiveFrom(patient, asOfDate));
+			ActiveOrderSnapshots snapshots = activeOrderSnapshots.getOrCreate();
+			if (snapshots != null && patient.getPatientId() != null) {
+				snapshots.byPatient.put(patient.getPatientId(), snapshot);
+			}
+		}
+		return snapshot;
+	}
+	
+	private ActiveOrderSnapshot getCurrentActiveOrderSnapshot(Patient patient) {
+		ActiveOrderSnapshots snapshots = activeOrderSnapshots.get();
+		if (snapshots == null || patient == null) {
+			return null;
+		}
+		return snapshots.byPatient.get(patient.getPatientId());
+	}
+	
+	/**
+	 * The active order snapshots loaded by a transaction, by patient id
+	 */
+	private static class ActiveOrderSnapshots extends TransactionSynchronizationAdapter {
+		
+		private final Map<Integer, ActiveOrderSnapshot> byPatient = new HashMap<>();
 	}
 	
 	private void setProperty(Order order, String propertyName, Object value) {
@@ -408,12 +461,18 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 		}
 		
 		//Mark first order found corresponding to this DC order as discontinued.
-		Date asOfDate = null;
+		Date asOfDate = new Date();
 		if (isRetrospective) {
 			asOfDate = order.getDateActivated();
 		}
-		List<? extends Order> orders = getActiveOrders(order.getPatient(), order.getOrderType(), order.getCareSetting(),
-		    asOfDate);
+		List<Order> orders = getActiveOrderSnapshot(order.getPatient(), asOfDate).getActiveOrders(order.getConcept(),
+		    order.getCareSetting(), asOfDate);
+		if (order.getOrderType() != null) {
+			List<OrderType> orderTypes = new ArrayList<>();
+			orderTypes.add(order.getOrderType());
+			orderTypes.addAll(getSubtypes(order.getOrderType(), true));
+			orders.removeIf(activeOrder -> !orderTypes.contains(activeOrder.getOrderType()));
+		}
 		boolean isDrugOrderAndHasADrug = isDrugOrder(order)
 		        && (((DrugOrder) order).getDrug() != null || ((DrugOrder) order).isNonCodedDrug());
 		Order orderToBeDiscontinued = null;
@@ -478,6 +537,10 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 		}
 		
 		dao.deleteOrder(order);
+		ActiveOrderSnapshot snapshot = getCurrentActiveOrderSnapshot(order.getPatient());
+		if (snapshot != null) {
+			snapshot.remove(order);
+		}
 	}
 	
 	/**
@@ -10,9 +10,12 @@
 package org.openmrs.api.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -22,6 +25,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.DateUtils;
 import org.openmrs.Allergen;
 import org.openmrs.Allergies;
 import org.openmrs.Allergy;
@@ -34,6 +38,7 @@ import org.openmrs.Order;
 import org.openmrs.Patient;
 import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
+import org.openmrs.PatientIdentifierType.UniquenessBehavior;
 import org.openmrs.PatientProgram;
 import org.openmrs.Person;
 import org.openmrs.PersonAddress;
@@ -42,8 +47,10 @@ import org.openmrs.PersonName;
 import org.openmrs.Relationship;
 import org.openmrs.User;
 import org.openmrs.Visit;
+import org.openmrs.aop.RequiredDataAdvice;
 import org.openmrs.api.APIException;
 import org.openmrs.api.BlankIdentifierException;
+import org.openmrs.api.BulkSaveResult;
 import org.openmrs.api.DuplicateIdentifierException;
 import org.openmrs.api.EncounterService;
 import org.openmrs.api.InsufficientIdentifiersException;
@@ -55,10 +62,14 @@ import org.openmrs.api.PatientService;
 import org.openmrs.api.PersonService;
 import org.openmrs.api.ProgramWorkflowService;
 import org.openmrs.api.UserService;
+import org.openmrs.api.ValidationException;
 import org.openmrs.api.VisitService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.PatientDAO;
+import org.openmrs.api.db.SearchIndexUpdateOptions;
 import org.openmrs.api.db.hibernate.HibernateUtil;
+import org.openmrs.api.db.hibernate.search.DeferrableIndexingInterceptor;
+import org.openmrs.api.handler.SaveHandler;
 import org.openmrs.parameter.EncounterSearchCriteria;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
 import org.openmrs.patient.IdentifierValidator;
@@ -66,13 +77,19 @@ import org.openmrs.patient.impl.LuhnIdentifierValidator;
 import org.openmrs.person.PersonMergeLog;
 import org.openmrs.person.PersonMergeLogData;
 import org.openmrs.serialization.SerializationException;
+import org.openmrs.util.HandlerUtil;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.util.PrivilegeConstants;
 import org.openmrs.validator.PatientIdentifierValidator;
+import org.openmrs.validator.PatientValidator;
+import org.openmrs.validator.ValidateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.BindException;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
 
 /**
  * Default implementation of the patient service. This class should not be used on its own. The
@@ -298,17 +315,17 @@ public class PatientServiceImpl extends BaseOpenmrsService implements PatientSer
 				}
 			});
 
-		checkForMissingRequiredIdentifiers(patientIdentifiers);
+		checkForMissingRequiredIdentifiers(patientIdentifiers, this.getPatientIdentifierTypes(null, null, true, null));
 
 	}
 
-	private void checkForMissingRequiredIdentifiers(List<PatientIdentifier> patientIdentifiers) {
+	private void checkForMissingRequiredIdentifiers(List<PatientIdentifier> patientIdentifiers,
+			List<PatientIdentifierType> requiredTypes) {
 		final Set<PatientIdentifierType> patientIdentifierTypes =
 				patientIdentifiers.stream()
 						.map(PatientIdentifier::getIdentifierType)
 						.collect(Collectors.toSet());
 
-		final List<PatientIdentifierType> requiredTypes = this.getPatientIdentifierTypes(null, null, true, null);
 		final Set<String> missingRequiredTypeNames =
 				requiredTypes.stream()
 						.filter(requiredType -> !patientIdentifierTypes.contains(requiredType))
@@ -321,6 +338,213 @@ public class PatientServiceImpl extends BaseOpenmrsService implements PatientSer
 		}
 	}
 
+	/**
+	 * @see org.openmrs.api.PatientService#importPatients(java.util.List)
+	 */
+	@Override
+	public BulkSaveResult<Patient> importPatients(List<Patient> patients) throws APIException {
+		BulkSaveResult<Patient> result = new BulkSaveResult<>();
+		List<PatientIdentifierType> requiredTypes = getPatientIdentifierTypes(null, null, true, null);
+		
+		// check each patient on its own first so that only the identifiers of importable patients are looked up
+		Map<Integer, Patient> candidates = new LinkedHashMap<>();
+		for (int i = 0; i < patients.size(); i++) {
+			Patient patient = patients.get(i);
+			try {
+				checkPatientToImport(patient, requiredTypes);
+				candidates.put(i, patient);
+			}
+			catch (APIException e) {
+				result.addFailure(i, patient, e);
+			}
+		}
+		
+		Set<String> identifiersInUse = getIdentifiersInUse(candidates.values());
+		
+		int batchSize = Context.getAdministrationService().getGlobalPropertyValue(
+		    OpenmrsConstants.GP_PATIENT_IMPORT_BATCH_SIZE, 50);
+		User currentUser = Context.getAuthenticatedUser();
+		Date currentDate = new Date();
+		List<Patient> batch = new ArrayList<>();
+		DeferrableIndexingInterceptor.setDeferred(true);
+		try {
+			for (Map.Entry<Integer, Patient> candidate : candidates.entrySet()) {
+				Patient patient = candidate.getValue();
+				try {
+					// what RequiredDataAdvice does for savePatient, but failing this patient only
+					validatePatientToImport(patient, identifiersInUse);
+					RequiredDataAdvice.recursivelyHandle(SaveHandler.class, patient, currentUser, currentDate, null,
+					    null);
+				}
+				catch (APIException e) {
+					result.addFailure(candidate.getKey(), patient, e);
+					continue;
+				}
+				
+				addIdentifiersInUse(patient, identifiersInUse);
+				dao.savePatient(patient);
+				result.addSaved(patient);
+				batch.add(patient);
+				
+				if (batch.size() >= batchSize) {
+					flushAndEvict(batch);
+				}
+			}
+			flushAndEvict(batch);
+		}
+		finally {
+			DeferrableIndexingInterceptor.setDeferred(false);
+		}
+		
+		if (!result.getSaved().isEmpty()) {
+			// one index update for all the patients instead of one per flush
+			SearchIndexUpdateOptions options = new SearchIndexUpdateOptions();
+			options.setTypes(Arrays.asList(PersonName.class, PatientIdentifier.class, PersonAttribute.class));
+			options.setBatchSizeToLoadObjects(batchSize);
+			// the database may not store milliseconds
+			Context.updateSearchIndexSince(DateUtils.truncate(currentDate, Calendar.SECOND), options);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Flushes the imported patients and evicts them from the session so that it does not grow with
+	 * the import, the other entities of the caller stay in the session. Their names, identifiers,
+	 * addresses and attributes are evicted with them.
+	 */
+	private void flushAndEvict(List<Patient> batch) {
+		Context.flushSession();
+		for (Patient patient : batch) {
+			Context.evictFromSession(patient);
+		}
+		batch.clear();
+	}
+	
+	/**
+	 * Does the checks of {@link #savePatient(Patient)} which do not need the database, the
+	 * identifiers themselves are checked by {@link #validatePatientToImport(Patient, Set)}
+	 */
+	private void checkPatientToImport(Patient patient, List<PatientIdentifierType> requiredTypes) {
+		if (patient == null) {
+			throw new APIException("Patient.null", (Object[]) null);
+		}
+		if (patient.getPatientId() != null) {
+			throw new APIException("Patient.error.import.existing", new Object[] { patient.getPatientId() });
+		}
+		if (patient.getActiveIdentifiers().isEmpty()) {
+			throw new InsufficientIdentifiersException("At least one nonvoided Patient Identifier is required");
+		}
+		if (patient.getIdentifiers().size() == 1) {
+			patient.getPatientIdentifier().setPreferred(true);
+		}
+		
+		Set<String> uniqueIdentifiers = new HashSet<>();
+		for (PatientIdentifier pi : patient.getActiveIdentifiers()) {
+			PatientIdentifierType type = pi.getIdentifierType();
+			if (type == null || StringUtils.isBlank(pi.getIdentifier())) {
+				continue;
+			}
+			String compareString = pi.getIdentifier() + " id type #: " + type.getPatientIdentifierTypeId();
+			if (!uniqueIdentifiers.add(compareString)) {
+				throw new DuplicateIdentifierException("This patient has two identical identifiers of type "
+				        + compareString, pi);
+			}
+		}
+		checkForMissingRequiredIdentifiers(new ArrayList<>(patient.getIdentifiers()), requiredTypes);
+		
+		setPreferredPatientIdentifier(patient);
+		setPreferredPatientName(patient);
+		setPreferredPatientAddress(patient);
+	}
+	
+	/**
+	 * Looks up which of the identifiers of the given patients are in use with one query per
+	 * identifier type, see {@link #getIdentifierInUseKey(PatientIdentifier)} for the returned keys
+	 */
+	private Set<String> getIdentifiersInUse(Collection<Patient> patients) {
+		Map<PatientIdentifierType, Set<String>> identifiersByType = new HashMap<>();
+		for (Patient patient : patients) {
+			for (PatientIdentifier pi : patient.getActiveIdentifiers()) {
+				if (pi.getIdentifierType() != null && StringUtils.isNotBlank(pi.getIdentifier())
+				        && pi.getIdentifierType().getUniquenessBehavior() != UniquenessBehavior.NON_UNIQUE) {
+					identifiersByType.computeIfAbsent(pi.getIdentifierType(), type -> new HashSet<>()).add(
+					    pi.getIdentifier());
+				}
+			}
+		}
+		
+		Set<String> inUse = new HashSet<>();
+		for (Map.Entry<PatientIdentifierType, Set<String>> entry : identifiersByType.entrySet()) {
+			Integer typeId = entry.getKey().getPatientIdentifierTypeId();
+			for (Object[] row : dao.getIdentifiersInUse(entry.getKey(), entry.getValue())) {
+				inUse.add(typeId + ":" + row[0]);
+				if (row[1] != null) {
+					inUse.add(typeId + ":" + row[0] + "@" + row[1]);
+				}
+			}
+		}
+		return inUse;
+	}
+	
+	/**
+	 * @return the key under which another use of the given identifier is looked up, it includes the
+	 *         location if the identifier only has to be unique per location
+	 */
+	private String getIdentifierInUseKey(PatientIdentifier pi) {
+		String key = pi.getIdentifierType().getPatientIdentifierTypeId() + ":" + pi.getIdentifier();
+		if (pi.getIdentifierType().getUniquenessBehavior() == UniquenessBehavior.LOCATION && pi.getLocation() != null) {
+			key += "@" + pi.getLocation().getLocationId();
+		}
+		return key;
+	}
+	
+	/**
+	 * Like {@link #isIdentifierInUseByAnotherPatient(PatientIdentifier)} but against the identifiers
+	 * in use looked up by {@link #getIdentifiersInUse(Collection)}
+	 */
+	private boolean isIdentifierInUseByAnotherPatient(PatientIdentifier pi, Set<String> identifiersInUse) {
+		return pi.getIdentifierType().getUniquenessBehavior() != UniquenessBehavior.NON_UNIQUE
+		        && identifiersInUse.contains(getIdentifierInUseKey(pi));
+	}
+	
+	/**
+	 * Validates a patient to import like {@link ValidateUtil#validate(Object)}, except that the
+	 * identifiers are checked against the identifiers in use looked up in bulk instead of one query
+	 * each
+	 */
+	private void validatePatientToImport(Patient patient, Set<String> identifiersInUse) throws ValidationException {
+		if (ValidateUtil.getDisableValidation()) {
+			return;
+		}
+		
+		Errors errors = new BindException(patient, "");
+		for (Validator validator : HandlerUtil.getHandlersForType(Validator.class, Patient.class)) {
+			if (validator instanceof PatientValidator) {
+				((PatientValidator) validator).validate(patient, errors,
+				    pi -> isIdentifierInUseByAnotherPatient(pi, identifiersInUse));
+			} else if (validator.supports(Patient.class)) {
+				validator.validate(patient, errors);
+			}
+		}
+		// the string properties the validators do not check
+		ValidateUtil.validateFieldLengths(errors, Patient.class, "allergyStatus", "causeOfDeathNonCoded");
+		ValidateUtil.throwIfErrors(patient, errors);
+	}
+	
+	/**
+	 * Marks the identifiers of an imported patient as in use for the next patients of the import
+	 */
+	private void addIdentifiersInUse(Patient patient, Set<String> identifiersInUse) {
+		for (PatientIdentifier pi : patient.getActiveIdentifiers()) {
+			Integer typeId = pi.getIdentifierType().getPatientIdentifierTypeId();
+			identifiersInUse.add(typeId + ":" + pi.getIdentifier());
+			if (pi.getLocation() != null) {
+				identifiersInUse.add(typeId + ":" + pi.getIdentifier() + "@" + pi.getLocation().getLocationId());
+			}
+		}
+	}
+	
 	/**
 	 * @see org.openmrs.api.PatientService#voidPatient(org.openmrs.Patient, java.lang.String)
 	 */
@@ -22,6 +22,7 @@ import org.openmrs.api.APIException;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.PersonAttributeTypeLockedException;
 import org.openmrs.api.PersonService;
+import org.openmrs.api.RelationshipGraph;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.PersonDAO;
 import org.openmrs.person.PersonMergeLog;
@@ -42,6 +43,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * Default implementation of the PersonService
@@ -769,6 +771,30 @@ public class PersonServiceImpl extends BaseOpenmrsService implements PersonServi
 		return ret;
 	}
 	
+	/**
+	 * @see org.openmrs.api.PersonService#getRelationshipGraph(org.openmrs.RelationshipType,
+	 *      java.util.Date)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public RelationshipGraph getRelationshipGraph(RelationshipType relationshipType, Date effectiveDate)
+	        throws APIException {
+		RelationshipGraph.Builder builder = new RelationshipGraph.Builder();
+		dao.streamRelationshipPersonIds(relationshipType, effectiveDate, builder::add);
+		return builder.build();
+	}
+	
+	/**
+	 * @see org.openmrs.api.PersonService#streamRelationshipPersonIds(org.openmrs.RelationshipType,
+	 *      java.util.Date, java.util.function.BiConsumer)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void streamRelationshipPersonIds(RelationshipType relationshipType, Date effectiveDate,
+	        BiConsumer<Integer, Integer> consumer) throws APIException {
+		dao.streamRelationshipPersonIds(relationshipType, effectiveDate, consumer);
+	}
+	
 	/**
 	 * @see org.openmrs.api.PersonService#getPersonAttributeTypeByUuid(java.lang.String)
 	 */
@@ -13,6 +13,8 @@ import java.util.ArrayList;
 import java.util.Set;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.openmrs.Cohort;
@@ -28,10 +30,12 @@ import org.openmrs.ProgramAttributeType;
 import org.openmrs.ProgramWorkflow;
 import org.openmrs.ProgramWorkflowState;
 import org.openmrs.api.APIException;
+import org.openmrs.api.CurrentPatientState;
 import org.openmrs.api.ProgramNameDuplicatedException;
 import org.openmrs.api.ProgramWorkflowService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.ProgramWorkflowDAO;
+import org.openmrs.util.OpenmrsConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
@@ -49,6 +53,8 @@ public class ProgramWorkflowServiceImpl extends BaseOpenmrsService implements Pr
 	
 	private static final Logger log = LoggerFactory.getLogger(ProgramWorkflowServiceImpl.class);
 	
+	private static final int DEFAULT_COHORT_BATCH_SIZE = 500;
+	
 	protected ProgramWorkflowDAO dao;
         
 	public ProgramWorkflowServiceImpl() {
@@ -459,26 +465,7 @@ public class ProgramWorkflowServiceImpl extends BaseOpenmrsService implements Pr
 		for (PatientProgram patientProgram : getPatientPrograms(patient, null, null, null, null, null, false)) {
 			//skip past patient programs that already completed
 			if (patientProgram.getDateCompleted() == null) {
-				Set<ProgramWorkflow> workflows = patientProgram.getProgram().getWorkflows();
-				for (ProgramWorkflow workflow : workflows) {
-					// (getWorkflows() is only returning over nonretired workflows)
-					PatientState patientState = patientProgram.getCurrentState(workflow);
-					
-					// #1080 cannot exit patient from care  
-					// Should allow a transition from a null state to a terminal state
-					// Or we should require a user to ALWAYS add an initial workflow/state when a patient is added to a program
-					ProgramWorkflowState currentState = (patientState != null) ? patientState.getState() : null;
-					ProgramWorkflowState transitionState = workflow.getState(trigger);
-					
-					log.debug("Transitioning from current state [" + currentState + "]");
-					log.debug("|---> Transitioning to final state [" + transitionState + "]");
-					
-					if (transitionState != null && workflow.isLegalTransition(currentState, transitionState)) {
-						patientProgram.transitionToState(transitionState, dateConverted);
-						log.debug("State Conversion Triggered: patientProgram=" + patientProgram + " transition from "
-						        + currentState + " to " + transitionState + " on " + dateConverted);
-					}
-				}
+				transitionToTriggerStates(patientProgram, trigger, dateConverted);
 				
 				// #1068 - Exiting a patient from care causes "not-null property references
 				// a null or transient value: org.openmrs.PatientState.dateCreated". Explicitly
@@ -491,6 +478,128 @@ public class ProgramWorkflowServiceImpl extends BaseOpenmrsService implements Pr
 		}
 	}
 	
+	/**
+	 * @see org.openmrs.api.ProgramWorkflowService#triggerStateConversion(Cohort, Concept, Date)
+	 */
+	@Override
+	public int triggerStateConversion(Cohort cohort, Concept trigger, Date dateConverted) {
+		if (cohort == null) {
+			throw new APIException("convert.state.invalid.patient", (Object[]) null);
+		}
+		if (trigger == null) {
+			throw new APIException("convert.state.patient.without.valid.trigger", (Object[]) null);
+		}
+		if (dateConverted == null) {
+			throw new APIException("convert.state.invalid.date", (Object[]) null);
+		}
+		
+		// only the programs which have a workflow with a state for the trigger can be transitioned
+		Set<Program> programs = new HashSet<>();
+		for (ProgramWorkflowState state : dao.getProgramWorkflowStatesByConcept(trigger)) {
+			programs.add(state.getProgramWorkflow().getProgram());
+		}
+		if (programs.isEmpty() || cohort.getMemberIds().isEmpty()) {
+			return 0;
+		}
+		
+		int transitioned = 0;
+		for (List<Integer> patientIds : partition(cohort.getMemberIds(), getCohortBatchSize())) {
+			// the patient programs the caller already has must stay in the session
+			Set<Integer> attachedIds = dao.getPatientProgramIdsInSession();
+			List<PatientProgram> patientPrograms = dao.getActivePatientPrograms(patientIds, programs);
+			for (PatientProgram patientProgram : patientPrograms) {
+				if (transitionToTriggerStates(patientProgram, trigger, dateConverted)) {
+					// see #1068 and #1067 in triggerStateConversion(Patient, Concept, Date)
+					Context.getProgramWorkflowService().savePatientProgram(patientProgram);
+					transitioned++;
+				}
+			}
+			Context.flushSession();
+			for (PatientProgram patientProgram : patientPrograms) {
+				if (!attachedIds.contains(patientProgram.getPatientProgramId())) {
+					// evicts its states too
+					Context.evictFromSession(patientProgram);
+				}
+			}
+		}
+		return transitioned;
+	}
+	
+	/**
+	 * Transitions a patient program to the state of the trigger in each of its workflows where it is
+	 * a legal transition
+	 * 
+	 * @return true if the patient program was transitioned in at least one workflow
+	 */
+	private boolean transitionToTriggerStates(PatientProgram patientProgram, Concept trigger, Date dateConverted) {
+		boolean transitioned = false;
+		Set<ProgramWorkflow> workflows = patientProgram.getProgram().getWorkflows();
+		for (ProgramWorkflow workflow : workflows) {
+			// (getWorkflows() is only returning over nonretired workflows)
+			PatientState patientState = patientProgram.getCurrentState(workflow);
+			
+			// #1080 cannot exit patient from care  
+			// Should allow a transition from a null state to a terminal state
+			// Or we should require a user to ALWAYS add an initial workflow/state when a patient is added to a program
+			ProgramWorkflowState currentState = (patientState != null) ? patientState.getState() : null;
+			ProgramWorkflowState transitionState = workflow.getState(trigger);
+			
+			log.debug("Transitioning from current state [" + currentState + "]");
+			log.debug("|---> Transitioning to final state [" + transitionState + "]");
+			
+			if (transitionState != null && workflow.isLegalTransition(currentState, transitionState)) {
+				patientProgram.transitionToState(transitionState, dateConverted);
+				transitioned = true;
+				log.debug("State Conversion Triggered: patientProgram=" + patientProgram + " transition from "
+				        + currentState + " to " + transitionState + " on " + dateConverted);
+			}
+		}
+		return transitioned;
+	}
+	
+	/**
+	 * @see org.openmrs.api.ProgramWorkflowService#getCurrentStates(Cohort, ProgramWorkflow)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Integer, CurrentPatientState> getCurrentStates(Cohort cohort, ProgramWorkflow workflow) {
+		Date now = new Date();
+		Map<Integer, CurrentPatientState> currentStates = new LinkedHashMap<>();
+		if (cohort == null) {
+			addCurrentStates(currentStates, null, workflow, now);
+		} else {
+			for (List<Integer> patientIds : partition(cohort.getMemberIds(), getCohortBatchSize())) {
+				addCurrentStates(currentStates, patientIds, workflow, now);
+			}
+		}
+		return currentStates;
+	}
+	
+	private void addCurrentStates(Map<Integer, CurrentPatientState> currentStates, List<Integer> patientIds,
+	        ProgramWorkflow workflow, Date onDate) {
+		for (Object[] row : dao.getCurrentPatientStates(patientIds, workflow, onDate)) {
+			// the rows come in the order the states started, so the state which started last wins
+			Integer patientId = (Integer) row[0];
+			currentStates.put(patientId, new CurrentPatientState(patientId, (Integer) row[1], (Integer) row[2],
+			        workflow.getState((Integer) row[3]), (Date) row[4]));
+		}
+	}
+	
+	private int getCohortBatchSize() {
+		int batchSize = Context.getAdministrationService().getGlobalPropertyValue(
+		    OpenmrsConstants.GP_PROGRAM_COHORT_BATCH_SIZE, DEFAULT_COHORT_BATCH_SIZE);
+		return batchSize > 0 ? batchSize : DEFAULT_COHORT_BATCH_SIZE;
+	}
+	
+	private static List<List<Integer>> partition(Collection<Integer> ids, int size) {
+		List<Integer> list = new ArrayList<>(ids);
+		List<List<Integer>> partitions = new ArrayList<>();
+		for (int from = 0; from < list.size(); from += size) {
+			partitions.add(list.subList(from, Math.min(from + size, list.size())));
+		}
+		return partitions;
+	}
+	
 	/**
 	 * @see org.openmrs.api.ProgramWorkflowService#getConceptStateConversion(org.openmrs.ProgramWorkflow,
 	 *      org.openmrs.Concept)
@@ -22,6 +22,7 @@ import org.openmrs.serialization.OpenmrsSerializer;
 import org.openmrs.serialization.SerializationException;
 import org.openmrs.serialization.SimpleXStreamSerializer;
 import org.openmrs.util.OpenmrsConstants;
+import org.openmrs.util.OpenmrsUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
@@ -75,6 +76,39 @@ public class SerializationServiceImpl extends BaseOpenmrsService implements Seri
 		return serializerMap.get(SimpleXStreamSerializer.class);
 	}
 	
+	/**
+	 * @see org.openmrs.api.SerializationService#getSerializerForType(java.lang.Class)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public OpenmrsSerializer getSerializerForType(Class<?> type) {
+		String prop = Context.getAdministrationService().getGlobalProperty(OpenmrsConstants.GP_SERIALIZER_BY_TYPE);
+		if (StringUtils.isBlank(prop)) {
+			return null;
+		}
+		Map<String, String> serializerByType;
+		try {
+			serializerByType = OpenmrsUtil.parseParameterList(prop);
+		}
+		catch (IllegalArgumentException e) {
+			log.warn("Ignoring invalid value of global property " + OpenmrsConstants.GP_SERIALIZER_BY_TYPE, e);
+			return null;
+		}
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			String serializerClassname = serializerByType.get(c.getName());
+			if (serializerClassname != null) {
+				for (OpenmrsSerializer serializer : getSerializers()) {
+					if (serializer.getClass().getName().equals(serializerClassname.trim())) {
+						return serializer;
+					}
+				}
+				log.warn("Serializer {} configured for {} is not registered", serializerClassname, c.getName());
+				return null;
+			}
+		}
+		return null;
+	}
+	
 	/**
 	 * @see org.openmrs.api.SerializationService#serialize(java.lang.Object, java.lang.Class)
 	 */
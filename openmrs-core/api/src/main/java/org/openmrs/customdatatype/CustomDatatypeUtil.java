@@ -97,13 +97,9 @@ public class CustomDatatypeUtil {
 	        String handlerConfig) {
 		if (preferredHandlerClassname != null) {
 			try {
-				Class<? extends CustomDatatypeHandler> clazz = (Class<? extends CustomDatatypeHandler>) Context
+				Class<? extends CustomDatatypeHandler<?, ?>> clazz = (Class<? extends CustomDatatypeHandler<?, ?>>) Context
 				        .loadClass(preferredHandlerClassname);
-				CustomDatatypeHandler handler = clazz.newInstance();
-				if (handlerConfig != null) {
-					handler.setHandlerConfiguration(handlerConfig);
-				}
-				return handler;
+				return Context.getDatatypeService().getHandler(clazz, handlerConfig);
 			}
 			catch (Exception ex) {
 				log.warn("Failed to instantiate and configure preferred handler with class " + preferredHandlerClassname
@@ -0,0 +1,242 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.hl7;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Stores migrated hl7 in archives in append-only segment files instead of one file per message.
+ * Each message is compressed on its own as a gzip member and appended to the current segment, so a
+ * whole segment is also a valid gzip file, and the location of a message is the uri of its segment
+ * with the offset and length of the message as fragment, e.g.
+ * <code>file:/.../hl7-in-archive-20220101-120000-000-1.seg#1024,345</code>. That location is
+ * saved as the data of the archive, which makes the archives table the offset index: an archive is
+ * found by uuid in the database and its message read with a single seek. The uuid, offset and
+ * length of the messages of each segment are also appended to an index file next to it, so that the
+ * locations can be rebuilt from the files alone.
+ * <br>
+ * Segments are never reopened for writing, a new one is started when the current one is full and
+ * each time a store is created. Appending is thread safe, compressing is not done under the lock so
+ * that threads migrating archives in parallel only wait for each other to write the bytes.
+ *
+ * @see HL7Service#migrateHl7InArchivesToFileSystem(Map)
+ * @since 2.6.0
+ */
+public class HL7InArchiveSegmentStore {
+
+	/**
+	 * The default size from which a new segment is started, 256 MiB
+	 */
+	public static final long DEFAULT_MAX_SEGMENT_SIZE = 256L * 1024 * 1024;
+
+	/**
+	 * The name of the directory of the segments in the hl7 archives directory
+	 */
+	public static final String SEGMENT_DIRECTORY_NAME = "segments";
+
+	static final String SEGMENT_SUFFIX = ".seg";
+
+	static final String INDEX_SUFFIX = ".idx";
+
+	private static final AtomicInteger segmentCounter = new AtomicInteger();
+
+	private final File directory;
+
+	private final long maxSegmentSize;
+
+	private File segment;
+
+	private FileChannel channel;
+
+	private Writer index;
+
+	private long size;
+
+	/**
+	 * @param directory the directory of the segment files, created if needed
+	 * @param maxSegmentSize the size in bytes from which a new segment is started
+	 */
+	public HL7InArchiveSegmentStore(File directory, long maxSegmentSize) {
+		this.directory = directory;
+		this.maxSegmentSize = maxSegmentSize;
+	}
+
+	/**
+	 * @return the directory of the segment files
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Compresses a message, to be done before {@link #append(String, byte[])} outside of any lock
+	 *
+	 * @param data the message
+	 * @return the message as a gzip member
+	 */
+	public static byte[] compress(String data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length() / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data.getBytes(StandardCharsets.UTF_8));
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Appends a compressed message to the current segment
+	 *
+	 * @param uuid the uuid of the archive of the message
+	 * @param compressedData the message compressed by {@link #compress(String)}
+	 * @return the location of the message
+	 */
+	public synchronized URI append(String uuid, byte[] compressedData) throws IOException {
+		if (channel == null || size >= maxSegmentSize) {
+			startSegment();
+		}
+		long offset = size;
+		ByteBuffer buffer = ByteBuffer.wrap(compressedData);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		size += compressedData.length;
+		index.write(uuid + " " + offset + " " + compressedData.length + "\n");
+		return getLocation(segment, offset, compressedData.length);
+	}
+
+	/**
+	 * Forces the appended messages to disk, it must be called before saving their locations
+	 */
+	public synchronized void sync() throws IOException {
+		if (channel != null) {
+			index.flush();
+			channel.force(false);
+		}
+	}
+
+	/**
+	 * Syncs and closes the current segment, the next append starts a new one
+	 */
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			try {
+				sync();
+			}
+			finally {
+				index.close();
+				channel.close();
+				channel = null;
+				index = null;
+			}
+		}
+	}
+
+	private void startSegment() throws IOException {
+		close();
+		Files.createDirectories(directory.toPath());
+		String name = "hl7-in-archive-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date()) + "-"
+		        + segmentCounter.incrementAndGet();
+		segment = new File(directory, name + SEGMENT_SUFFIX);
+		channel = new FileOutputStream(segment, true).getChannel();
+		index = new OutputStreamWriter(new FileOutputStream(new File(directory, name + INDEX_SUFFIX), true),
+		        StandardCharsets.UTF_8);
+		size = channel.size();
+	}
+
+	private static URI getLocation(File segment, long offset, int length) {
+		URI uri = segment.toURI();
+		try {
+			return new URI(uri.getScheme(), uri.getSchemeSpecificPart(), offset + "," + length);
+		}
+		catch (URISyntaxException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @param location the location of a migrated archive
+	 * @return true if the archive is stored in a segment, false if it has a file of its own
+	 */
+	public static boolean isSegmentLocation(URI location) {
+		return location.getFragment() != null;
+	}
+
+	/**
+	 * Reads a message from its segment with a single seek
+	 *
+	 * @param location the location returned by {@link #append(String, byte[])}
+	 * @return the message
+	 */
+	public static String read(URI location) throws IOException {
+		String[] range = location.getFragment().split(",");
+		long offset = Long.parseLong(range[0]);
+		byte[] compressedData = new byte[Integer.parseInt(range[1])];
+		File segment;
+		try {
+			segment = new File(new URI(location.getScheme(), location.getSchemeSpecificPart(), null));
+		}
+		catch (URISyntaxException e) {
+			throw new IOException("Invalid segment location " + location, e);
+		}
+		try (RandomAccessFile file = new RandomAccessFile(segment, "r")) {
+			file.seek(offset);
+			file.readFully(compressedData);
+		}
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressedData))) {
+			return IOUtils.toString(in, StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Reads the index file of a segment
+	 *
+	 * @param segment the segment file
+	 * @return the locations of the messages of the segment by uuid of their archive, in the order
+	 *         they were appended
+	 */
+	public static Map<String, URI> readIndex(File segment) throws IOException {
+		String name = segment.getName();
+		File indexFile = new File(segment.getParentFile(), name.substring(0, name.length() - SEGMENT_SUFFIX.length())
+		        + INDEX_SUFFIX);
+		Map<String, URI> locations = new LinkedHashMap<>();
+		try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				String[] parts = line.split(" ");
+				if (parts.length == 3) {
+					locations.put(parts[0], getLocation(segment, Long.parseLong(parts[1]), Integer.parseInt(parts[2])));
+				}
+			}
+		}
+		return locations;
+	}
+}
@@ -447,7 +447,11 @@ public interface HL7Service extends OpenmrsService {
 	
 	/**
 	 * Method is called by the archives migration thread to transfer hl7 in archives from the
-	 * hl7_in_archives database table to the file system
+	 * hl7_in_archives database table to the file system. The archives are split in as many
+	 * partitions as the global property
+	 * {@link org.openmrs.util.OpenmrsConstants#GP_HL7_ARCHIVE_MIGRATION_THREADS} says, which are
+	 * migrated in parallel, each one batch after the other with
+	 * {@link #migrateHl7InArchiveBatch(int, int, Integer, Map)}.
 	 * 
 	 * @param progressStatusMap the map holding the number of archives transferred and failed
 	 *            transfers
@@ -457,6 +461,31 @@ public interface HL7Service extends OpenmrsService {
 			PrivilegeConstants.PRIV_ADD_HL7_IN_QUEUE })
 	public void migrateHl7InArchivesToFileSystem(Map<String, Integer> progressStatusMap) throws APIException;
 	
+	/**
+	 * Migrates the next batch of the hl7 in archives of one partition to the file system, in a
+	 * transaction of its own. The messages are compressed and appended to the segment files of the
+	 * hl7 archives directory, and their locations saved instead of their data. The archives which
+	 * cannot be written are skipped and counted as failed transfers.
+	 * 
+	 * @param partition the partition of the archives, the remainder of their id divided by the
+	 *            number of partitions
+	 * @param partitionCount the number of partitions, i.e. of threads migrating archives
+	 * @param afterId the id returned by the previous call, null for the first batch
+	 * @param progressStatusMap the map holding the number of archives transferred and failed
+	 *            transfers
+	 * @return the id of the last archive of the batch, or null if no archive is left to migrate
+	 * @throws APIException
+	 * @see HL7InArchiveSegmentStore
+	 * @since 2.6.0
+	 * <strong>Should</strong> migrate the archives of the partition to segment files
+	 * <strong>Should</strong> only migrate the archives of the given partition
+	 * <strong>Should</strong> return null when there is no archive left to migrate
+	 */
+	@Authorized(requireAll = true, value = { PrivilegeConstants.GET_HL7_IN_ARCHIVE, PrivilegeConstants.PRIV_PURGE_HL7_IN_ARCHIVE,
+			PrivilegeConstants.PRIV_ADD_HL7_IN_QUEUE })
+	public Integer migrateHl7InArchiveBatch(int partition, int partitionCount, Integer afterId,
+	        Map<String, Integer> progressStatusMap) throws APIException;
+	
 	/**
 	 * finds a UUID from an array of identifiers
 	 * 
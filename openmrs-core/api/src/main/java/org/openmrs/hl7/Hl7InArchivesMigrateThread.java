@@ -9,8 +9,8 @@
  */
 package org.openmrs.hl7;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openmrs.api.APIException;
 import org.openmrs.api.context.Context;
@@ -73,7 +73,7 @@ public class Hl7InArchivesMigrateThread extends Thread {
 	 */
 	public Hl7InArchivesMigrateThread() {
 		this.userContext = Context.getUserContext();
-		setProgressStatusMap(new HashMap<>());
+		setProgressStatusMap(new ConcurrentHashMap<>());
 		progressStatusMap.put(HL7Constants.NUMBER_TRANSFERRED_KEY, 0);
 		progressStatusMap.put(HL7Constants.NUMBER_OF_FAILED_TRANSFERS_KEY, 0);
 	}
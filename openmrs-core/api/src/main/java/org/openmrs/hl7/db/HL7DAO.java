@@ -159,6 +159,21 @@ public interface HL7DAO {
 	 */
 	public List<HL7InArchive> getHL7InArchivesToMigrate();
 	
+	/**
+	 * Provides the archives of one partition to be migrated, in the order of their ids, so that
+	 * several threads can migrate the archives of different partitions at the same time
+	 * 
+	 * @param partition the partition of the archives, the remainder of their id divided by the
+	 *            number of partitions
+	 * @param partitionCount the number of partitions
+	 * @param afterId the id after which to look for archives, null to start from the first one
+	 * @param maxResults the maximum number of archives to return
+	 * @return the archives to migrate
+	 * @since 2.6.0
+	 */
+	public List<HL7InArchive> getHL7InArchivesToMigrate(int partition, int partitionCount, Integer afterId,
+	        int maxResults);
+	
 	/* HL7InError */
 
 	/**
@@ -20,6 +20,7 @@ import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.hl7.HL7Constants;
@@ -369,4 +370,30 @@ public class HibernateHL7DAO implements HL7DAO {
 		return crit.list();
 	}
 	
+	/**
+	 * @see org.openmrs.hl7.db.HL7DAO#getHL7InArchivesToMigrate(int, int, Integer, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<HL7InArchive> getHL7InArchivesToMigrate(int partition, int partitionCount, Integer afterId,
+	        int maxResults) {
+		Integer daysToKeep = Hl7InArchivesMigrateThread.getDaysKept();
+		Criteria crit = getHL7SearchCriteria(HL7InArchive.class, HL7Constants.HL7_STATUS_PROCESSED, null);
+		if (partitionCount > 1) {
+			crit.add(Restrictions.sqlRestriction("mod({alias}.hl7_in_archive_id, ?) = ?", new Object[] { partitionCount,
+			        partition }, new Type[] { StandardBasicTypes.INTEGER, StandardBasicTypes.INTEGER }));
+		}
+		if (afterId != null) {
+			crit.add(Restrictions.gt("HL7InArchiveId", afterId));
+		}
+		if (daysToKeep != null) {
+			Calendar cal = Calendar.getInstance();
+			cal.add(Calendar.DATE, -1 * daysToKeep);
+			crit.add(Restrictions.lt("dateCreated", cal.getTime()));
+		}
+		crit.addOrder(Order.asc("HL7InArchiveId"));
+		crit.setMaxResults(maxResults);
+		return crit.list();
+	}
+	
 }
@@ -10,22 +10,20 @@
 package org.openmrs.hl7.impl;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -39,10 +37,11 @@ import org.openmrs.User;
 import org.openmrs.api.APIException;
 import org.openmrs.api.PatientIdentifierException;
 import org.openmrs.api.context.Context;
-import org.openmrs.api.db.DAOException;
+import org.openmrs.api.context.UserContext;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.hl7.HL7Constants;
 import org.openmrs.hl7.HL7InArchive;
+import org.openmrs.hl7.HL7InArchiveSegmentStore;
 import org.openmrs.hl7.HL7InError;
 import org.openmrs.hl7.HL7InQueue;
 import org.openmrs.hl7.HL7QueueItem;
@@ -52,6 +51,7 @@ import org.openmrs.hl7.HL7Util;
 import org.openmrs.hl7.Hl7InArchivesMigrateThread;
 import org.openmrs.hl7.Hl7InArchivesMigrateThread.Status;
 import org.openmrs.hl7.db.HL7DAO;
+import org.openmrs.util.DaemonThreadFactory;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.util.PrivilegeConstants;
@@ -95,6 +95,8 @@ public class HL7ServiceImpl extends BaseOpenmrsService implements HL7Service {
 	
 	private MessageTypeRouter router;
 	
+	private HL7InArchiveSegmentStore segmentStore;
+	
 	/**
 	 * Private constructor to only support on singleton instance.
 	 *
@@ -368,13 +370,6 @@ public class HL7ServiceImpl extends BaseOpenmrsService implements HL7Service {
 		return dao.getHL7InArchive(hl7InArchiveId);
 	}
 	
-	/**
-	 * get a list of archives to be migrated to the filesystem
-	 */
-	private List<HL7InArchive> getHL7InArchivesToMigrate() {
-		return dao.getHL7InArchivesToMigrate();
-	}
-	
 	/**
 	 * @see org.openmrs.hl7.HL7Service#getAllHL7InErrors()
 	 */
@@ -1040,7 +1035,12 @@ public class HL7ServiceImpl extends BaseOpenmrsService implements HL7Service {
 		}
 		
 		try {
-			archive.setHL7Data(OpenmrsUtil.getFileAsString(new File(new URI(archive.getHL7Data()))));
+			URI location = new URI(archive.getHL7Data());
+			if (HL7InArchiveSegmentStore.isSegmentLocation(location)) {
+				archive.setHL7Data(HL7InArchiveSegmentStore.read(location));
+			} else {
+				archive.setHL7Data(OpenmrsUtil.getFileAsString(new File(location)));
+			}
 			archive.setLoaded(true);
 		}
 		catch (URISyntaxException e) {
@@ -1055,133 +1055,156 @@ public class HL7ServiceImpl extends BaseOpenmrsService implements HL7Service {
 	 * @see org.openmrs.hl7.HL7Service#migrateHl7InArchivesToFileSystem(Map)
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public void migrateHl7InArchivesToFileSystem(Map<String, Integer> progressStatusMap) throws APIException {
-		int numberTransferred = 0;
-		int numberOfFailedTransfers = 0;
-		
-		// HL7Constants.HL7_STATUS_ARCHIVED indicates the HL7 has been archived to the filesystem
-		List<HL7InArchive> hl7InArchives = getHL7InArchivesToMigrate();
-		
-		// while we still we have any archives to be processed, process them
-		while (Hl7InArchivesMigrateThread.isActive() && Hl7InArchivesMigrateThread.getTransferStatus() == Status.RUNNING
-		        && hl7InArchives != null && !hl7InArchives.isEmpty()) {
-			
-			Iterator<HL7InArchive> iterator = hl7InArchives.iterator();
-			
-			while (Hl7InArchivesMigrateThread.isActive() && Hl7InArchivesMigrateThread.getTransferStatus() == Status.RUNNING
-			        && iterator.hasNext()) {
-				HL7InArchive archive = iterator.next();
-				
-				try {
-					migrateHL7InArchive(archive);
-					progressStatusMap.put(HL7Constants.NUMBER_TRANSFERRED_KEY, numberTransferred++);
-				}
-				catch (DAOException e) {
-					progressStatusMap.put(HL7Constants.NUMBER_OF_FAILED_TRANSFERS_KEY, numberOfFailedTransfers++);
-				}
+		int threads = Math.max(1, Context.getAdministrationService().getGlobalPropertyValue(
+		    OpenmrsConstants.GP_HL7_ARCHIVE_MIGRATION_THREADS, 1));
+		UserContext userContext = Context.getUserContext();
+		ExecutorService workers = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("HL7ArchiveMigration"));
+		try {
+			List<Future<?>> partitions = new ArrayList<>(threads);
+			for (int i = 0; i < threads; i++) {
+				int partition = i;
+				partitions.add(workers.submit(() -> migratePartition(partition, threads, userContext, progressStatusMap)));
 			}
-			
-			// fetch more archives to be processed
-			hl7InArchives = getHL7InArchivesToMigrate();
+			for (Future<?> partition : partitions) {
+				partition.get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			Hl7InArchivesMigrateThread.stopMigration();
+		}
+		catch (ExecutionException e) {
+			// the other partitions stop after their current batch
+			Hl7InArchivesMigrateThread.setTransferStatus(Status.ERROR);
+			throw new APIException("Hl7Service.migrate.archive", null, e.getCause());
+		}
+		finally {
+			workers.shutdown();
+			awaitTermination(workers);
+			closeSegmentStore();
 		}
 		
 		log.debug("Transfer of HL7 archives has completed or has been stopped");
 	}
 	
 	/**
-	 * moves data to the filesystem from an HL7InArchive
-	 *
-	 * @param archive
-	 * @throws APIException
+	 * Waits for the workers to finish their current batch, so that none of them appends to the
+	 * segment store once it is closed
 	 */
-	private void migrateHL7InArchive(HL7InArchive archive) throws APIException {
-		if (archive == null) {
-			throw new APIException("Hl7Service.migrate.null.archive", (Object[]) null);
+	private static void awaitTermination(ExecutorService workers) {
+		boolean interrupted = false;
+		while (!workers.isTerminated()) {
+			try {
+				workers.awaitTermination(1, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
+			}
 		}
-		
-		if (!OpenmrsUtil.nullSafeEquals(archive.getMessageState(), HL7Constants.HL7_STATUS_PROCESSED)) {
-			throw new APIException("Hl7Service.migrate.archive.state", (Object[]) null);
+		if (interrupted) {
+			Thread.currentThread().interrupt();
 		}
-		
+	}
+	
+	/**
+	 * Migrates the archives of one partition, one batch and transaction after the other, on a thread
+	 * of its own
+	 */
+	private void migratePartition(int partition, int partitionCount, UserContext userContext,
+	        Map<String, Integer> progressStatusMap) {
+		Context.openSession();
 		try {
-			URI uri = writeHL7InArchiveToFileSystem(archive);
-			archive.setHL7Data(uri.toString());
-			archive.setMessageState(HL7Constants.HL7_STATUS_MIGRATED);
-			saveHL7InArchive(archive);
+			Context.setUserContext(userContext);
+			HL7Service hl7Service = Context.getHL7Service();
+			Integer lastId = null;
+			do {
+				lastId = hl7Service.migrateHl7InArchiveBatch(partition, partitionCount, lastId, progressStatusMap);
+			} while (lastId != null && Hl7InArchivesMigrateThread.isActive()
+			        && Hl7InArchivesMigrateThread.getTransferStatus() == Status.RUNNING);
 		}
-		catch (APIException e) {
-			throw new APIException("Hl7Service.migrate.archive", null, e);
+		finally {
+			Context.closeSession();
 		}
-		
 	}
 	
 	/**
-	 * writes a given hl7 archive to the file system
-	 *
-	 * @param hl7InArchive the hl7 archive to write to the file system
+	 * @see org.openmrs.hl7.HL7Service#migrateHl7InArchiveBatch(int, int, Integer, Map)
 	 */
-	private URI writeHL7InArchiveToFileSystem(HL7InArchive hl7InArchive) throws APIException {
+	@Override
+	public Integer migrateHl7InArchiveBatch(int partition, int partitionCount, Integer afterId,
+	        Map<String, Integer> progressStatusMap) throws APIException {
+		int batchSize = Context.getAdministrationService().getGlobalPropertyValue(
+		    OpenmrsConstants.GP_HL7_ARCHIVE_MIGRATION_BATCH_SIZE, HL7Constants.MIGRATION_MAX_BATCH_SIZE);
+		List<HL7InArchive> archives = dao.getHL7InArchivesToMigrate(partition, partitionCount, afterId, Math.max(1,
+		    batchSize));
+		if (archives.isEmpty()) {
+			return null;
+		}
 		
-		PrintWriter writer = null;
-		File destinationDir = HL7Util.getHl7ArchivesDirectory();
-		try {
-			// number formatter used to format month and day with zero padding
-			DecimalFormat df = new DecimalFormat("00");
-			
-			//write the archive to a separate file while grouping them according to
-			//the year, month and date of month when they were stored in the archives table
-			Calendar calendar = Calendar.getInstance(Context.getLocale());
-			calendar.setTime(hl7InArchive.getDateCreated());
-			
-			//resolve the year folder from the date of creation of the archive
-			File yearDir = new File(destinationDir, Integer.toString(calendar.get(Calendar.YEAR)));
-			if (!yearDir.isDirectory()) {
-				yearDir.mkdirs();
-			}
-			
-			//resolve the appropriate month folder
-			File monthDir = new File(yearDir, df.format(calendar.get(Calendar.MONTH) + 1));
-			if (!monthDir.isDirectory()) {
-				monthDir.mkdirs();
-			}
-			
-			//resolve the appropriate day of month folder
-			File dayDir = new File(monthDir, df.format(calendar.get(Calendar.DAY_OF_MONTH)));
-			if (!dayDir.isDirectory()) {
-				dayDir.mkdirs();
+		HL7InArchiveSegmentStore store = getSegmentStore();
+		Map<HL7InArchive, URI> locations = new LinkedHashMap<>();
+		for (HL7InArchive archive : archives) {
+			try {
+				// compressing is the expensive part, it is done before taking the lock of the store
+				byte[] compressedData = HL7InArchiveSegmentStore.compress(archive.getHL7Data());
+				locations.put(archive, store.append(archive.getUuid(), compressedData));
 			}
-			
-			//use the uuid, source id and source key(if present) to generate the file name
-			File fileToWriteTo = new File(dayDir, hl7InArchive.getUuid()
-			        + (StringUtils.isBlank(hl7InArchive.getHL7SourceKey()) ? "" : "_" + hl7InArchive.getHL7SourceKey())
-			        + ".txt");
-			
-			//write the hl7 data to the file
-			writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(fileToWriteTo), StandardCharsets.UTF_8));
-			writer.write(hl7InArchive.getHL7Data());
-			
-			//check if there was an error while writing to the current file
-			if (writer.checkError()) {
-				log.warn("An Error occured while writing hl7 archive with id '" + hl7InArchive.getHL7InArchiveId()
-				        + "' to the file system");
-				throw new APIException("Hl7Service.write.no.error", (Object[]) null);
+			catch (IOException e) {
+				log.warn("Failed to write hl7 archive with id '" + archive.getHL7InArchiveId() + "' to the file system",
+				    e);
+				addProgress(progressStatusMap, HL7Constants.NUMBER_OF_FAILED_TRANSFERS_KEY, 1);
 			}
-			
-			// hand back the URI for the file
-			return fileToWriteTo.toURI();
-			
 		}
-		catch (FileNotFoundException e) {
-			log
-			        .warn("Failed to write hl7 archive with id '" + hl7InArchive.getHL7InArchiveId()
-			                + "' to the file system ", e);
+		try {
+			store.sync();
+		}
+		catch (IOException e) {
 			throw new APIException("Hl7Service.write.error", null, e);
-			
 		}
-		finally {
-			if (writer != null) {
-				writer.close();
+		
+		// the archives are updated together when the transaction is flushed
+		for (Map.Entry<HL7InArchive, URI> location : locations.entrySet()) {
+			HL7InArchive archive = location.getKey();
+			archive.setHL7Data(location.getValue().toString());
+			archive.setMessageState(HL7Constants.HL7_STATUS_MIGRATED);
+			dao.saveHL7InArchive(archive);
+		}
+		addProgress(progressStatusMap, HL7Constants.NUMBER_TRANSFERRED_KEY, locations.size());
+		
+		return archives.get(archives.size() - 1).getHL7InArchiveId();
+	}
+	
+	private static void addProgress(Map<String, Integer> progressStatusMap, String key, int count) {
+		if (progressStatusMap != null) {
+			synchronized (progressStatusMap) {
+				progressStatusMap.merge(key, count, Integer::sum);
+			}
+		}
+	}
+	
+	/**
+	 * @return the segment store of the hl7 archives directory, started on first use
+	 */
+	private synchronized HL7InArchiveSegmentStore getSegmentStore() {
+		File directory = new File(HL7Util.getHl7ArchivesDirectory(), HL7InArchiveSegmentStore.SEGMENT_DIRECTORY_NAME);
+		if (segmentStore == null || !segmentStore.getDirectory().equals(directory)) {
+			closeSegmentStore();
+			segmentStore = new HL7InArchiveSegmentStore(directory, HL7InArchiveSegmentStore.DEFAULT_MAX_SEGMENT_SIZE);
+		}
+		return segmentStore;
+	}
+	
+	private synchronized void closeSegmentStore() {
+		if (segmentStore != null) {
+			try {
+				segmentStore.close();
+			}
+			catch (IOException e) {
+				log.warn("Failed to close the hl7 archive segment in " + segmentStore.getDirectory(), e);
 			}
+			segmentStore = null;
 		}
 	}
 	
@@ -36,6 +36,7 @@ public class LoggingConfigurationGlobalPropertyListener implements GlobalPropert
 	public boolean supportsPropertyName(String propertyName) {
 		return
 			OpenmrsConstants.GLOBAL_PROPERTY_LOG_LEVEL.equals(propertyName) ||
+			OpenmrsConstants.GP_LOG_MEMORY_BUFFER_SIZE.equals(propertyName) ||
 			OpenmrsConstants.GP_LOG_LAYOUT.equals(propertyName) ||
 			OpenmrsConstants.GP_LOG_LOCATION.equals(propertyName);
 	}
@@ -49,6 +50,9 @@ public class LoggingConfigurationGlobalPropertyListener implements GlobalPropert
 			case OpenmrsConstants.GLOBAL_PROPERTY_LOG_LEVEL:
 				OpenmrsLoggingUtil.applyLogLevels();
 				return;
+			case OpenmrsConstants.GP_LOG_MEMORY_BUFFER_SIZE:
+				OpenmrsLoggingUtil.applyMemoryBufferSize();
+				return;
 			case OpenmrsConstants.GP_LOG_LAYOUT:
 				if (logLayout != null && logLayout.equals(newValue.getPropertyValue())) {
 					return;
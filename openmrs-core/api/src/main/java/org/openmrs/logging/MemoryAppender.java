@@ -11,13 +11,10 @@ package org.openmrs.logging;
 
 import java.io.Serializable;
 import java.lang.ref.SoftReference;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.core.Appender;
@@ -33,11 +30,14 @@ import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.openmrs.util.OpenmrsConstants;
-import org.openmrs.util.ThreadSafeCircularFifoQueue;
+import org.openmrs.util.ConcurrentRingBuffer;
 
 /**
  * This class stores a configurable number lines of the output from the log file.
  * <p/>
+ * The lines are kept in a {@link ConcurrentRingBuffer} so logging threads never wait for each other or for the log
+ * viewer, and the number of lines kept can be changed at runtime with {@link #setBufferSize(int)}.
+ * <p/>
  * Note that this class is implemented as a single-buffer-per-appender-name meaning that each appender name can only support
  * a single configuration (the most recent applied)
  */
@@ -49,17 +49,14 @@ public class MemoryAppender extends AbstractAppender {
 	// is only allocated an initial capacity of 1
 	private static final Map<String, SoftReference<MemoryAppender>> APPENDERS = new HashMap<>(1);
 
-	private ThreadSafeCircularFifoQueue<LogEvent> buffer;
-
-	private int bufferSize;
+	private final ConcurrentRingBuffer<LogEvent> buffer;
 
 	protected MemoryAppender(String name, Filter filter,
 		StringLayout layout, boolean ignoreExceptions,
 		Property[] properties, int bufferSize) {
 		super(name, filter, layout, ignoreExceptions, properties);
 
-		this.buffer = new ThreadSafeCircularFifoQueue<>(bufferSize);
-		this.bufferSize = bufferSize;
+		this.buffer = new ConcurrentRingBuffer<>(bufferSize);
 	}
 
 	public static MemoryAppenderBuilder newBuilder() {
@@ -80,11 +77,8 @@ public class MemoryAppender extends AbstractAppender {
 		if (APPENDERS.containsKey(name)) {
 			appender = APPENDERS.get(name).get();
 
-			if (appender != null && appender.bufferSize != theBufferSize) {
-				LogEvent[] oldBuffer = appender.buffer.toArray(new LogEvent[0]);
-				appender.buffer = new ThreadSafeCircularFifoQueue<>(theBufferSize);
-				appender.bufferSize = theBufferSize;
-				appender.buffer.addAll(Arrays.asList(oldBuffer));
+			if (appender != null) {
+				appender.setBufferSize(theBufferSize);
 			}
 		}
 
@@ -102,21 +96,26 @@ public class MemoryAppender extends AbstractAppender {
 	}
 	
 	public int getBufferSize() {
-		return bufferSize;
+		return buffer.getCapacity();
+	}
+	
+	/**
+	 * Changes the number of log lines kept, the most recent lines which fit in the new size are kept
+	 * 
+	 * @param bufferSize the number of log lines to keep
+	 * @since 2.6.0
+	 */
+	public void setBufferSize(int bufferSize) {
+		buffer.resize(bufferSize);
 	}
 	
 	public List<String> getLogLines() {
-		if (buffer == null) {
-			return new ArrayList<>(0);
-		}
-
-		LogEvent[] events = buffer.toArray(new LogEvent[0]);
-		if (events.length == 0) {
+		List<LogEvent> events = buffer.snapshot();
+		if (events.isEmpty()) {
 			return Collections.emptyList();
 		}
 		
-		return Arrays.stream(events).filter(Objects::nonNull).map(((StringLayout) getLayout())::toSerializable)
-			.collect(Collectors.toList());
+		return events.stream().map(((StringLayout) getLayout())::toSerializable).collect(Collectors.toList());
 	}
 
 	public static class MemoryAppenderBuilder extends AbstractAppender.Builder<MemoryAppenderBuilder> {
@@ -121,6 +121,8 @@ public class OpenmrsConfigurationFactory extends ConfigurationFactory {
 		try {
 			AdministrationService adminService = Context.getAdministrationService();
 			applyLogLevels(configuration, adminService);
+			OpenmrsLoggingUtil.applyMemoryBufferSize(memoryAppender,
+				adminService.getGlobalProperty(OpenmrsConstants.GP_LOG_MEMORY_BUFFER_SIZE, ""));
 		} catch (ServiceNotFoundException e) {
 			// if AdministrativeService is not available, we'll assume we're starting up and everything is ok
 			if (!e.getServiceClass().isAssignableFrom(AdministrationService.class)) {
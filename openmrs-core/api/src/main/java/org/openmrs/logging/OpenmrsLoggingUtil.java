@@ -125,6 +125,35 @@ public final class OpenmrsLoggingUtil {
 		}
 	}
 	
+	/**
+	 * Resizes the in-memory log buffer if global property log.memoryBufferSize (
+	 * {@link OpenmrsConstants#GP_LOG_MEMORY_BUFFER_SIZE} ) is set. The most recent log lines which
+	 * fit in the new size are kept.
+	 * 
+	 * @since 2.6.0
+	 */
+	@Logging(ignore = true)
+	public static void applyMemoryBufferSize() {
+		MemoryAppender memoryAppender = getMemoryAppender();
+		if (memoryAppender != null) {
+			applyMemoryBufferSize(memoryAppender,
+				Context.getAdministrationService().getGlobalProperty(OpenmrsConstants.GP_LOG_MEMORY_BUFFER_SIZE, ""));
+		}
+	}
+	
+	static void applyMemoryBufferSize(MemoryAppender memoryAppender, String bufferSize) {
+		if (StringUtils.isBlank(bufferSize)) {
+			return;
+		}
+		
+		try {
+			memoryAppender.setBufferSize(Integer.parseInt(bufferSize.trim()));
+		}
+		catch (IllegalArgumentException e) {
+			log.warn("Invalid value for global property {}: {}", OpenmrsConstants.GP_LOG_MEMORY_BUFFER_SIZE, bufferSize);
+		}
+	}
+	
 	/**
 	 * Set the log4j log level for class <code>logClass</code> to <code>logLevel</code>.
 	 *
@@ -1169,6 +1169,15 @@ public class ModuleFactory {
 			mod.setModuleActivator(null);
 			mod.disposeAdvicePointsClassInstance();
 			
+			//The configured custom datatypes and handlers are cached by their class, which may be
+			//one of the module
+			try {
+				Context.getDatatypeService().clearCachedDatatypes();
+			}
+			catch (Exception e) {
+				log.warn("Unable to clear the cached custom datatypes", e);
+			}
+			
 			ModuleClassLoader cl = removeClassLoader(mod);
 			if (cl != null) {
 				cl.dispose();
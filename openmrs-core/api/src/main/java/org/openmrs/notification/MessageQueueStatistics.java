@@ -0,0 +1,143 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.notification;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.util.LatencyHistogram;
+
+/**
+ * Snapshot of the state of the outbound message queue. The queue depth is read from the database,
+ * the counts and durations are the ones of the messages sent by this instance since it was started.
+ * Durations are in milliseconds, percentiles are estimated from a {@link LatencyHistogram}.
+ *
+ * @see MessageService#getMessageQueueStatistics()
+ * @since 2.6.0
+ */
+public class MessageQueueStatistics {
+
+	private final long pendingCount;
+
+	private final long failedCount;
+
+	private final long sentCount;
+
+	private final long failedAttemptCount;
+
+	private final double meanSendTime;
+
+	private final double maxSendTime;
+
+	private final double percentile99SendTime;
+
+	private final double meanDeliveryTime;
+
+	private final double maxDeliveryTime;
+
+	private final double percentile99DeliveryTime;
+
+	/**
+	 * @param pendingCount the number of messages waiting to be sent
+	 * @param failedCount the number of messages which were given up on
+	 * @param failedAttemptCount the number of failed attempts to send a message
+	 * @param sendTimes the time taken by the message sender to send each message
+	 * @param deliveryTimes the time between queueing and sending each message
+	 */
+	public MessageQueueStatistics(long pendingCount, long failedCount, long failedAttemptCount,
+	    LatencyHistogram sendTimes, LatencyHistogram deliveryTimes) {
+		this.pendingCount = pendingCount;
+		this.failedCount = failedCount;
+		this.failedAttemptCount = failedAttemptCount;
+		this.sentCount = sendTimes.getCount();
+		this.meanSendTime = sentCount == 0 ? 0 : toMillis(sendTimes.getTotalNanos()) / sentCount;
+		this.maxSendTime = toMillis(sendTimes.getMaxNanos());
+		this.percentile99SendTime = toMillis(sendTimes.getPercentileNanos(99));
+		long deliveredCount = deliveryTimes.getCount();
+		this.meanDeliveryTime = deliveredCount == 0 ? 0 : toMillis(deliveryTimes.getTotalNanos()) / deliveredCount;
+		this.maxDeliveryTime = toMillis(deliveryTimes.getMaxNanos());
+		this.percentile99DeliveryTime = toMillis(deliveryTimes.getPercentileNanos(99));
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * @return the number of messages waiting to be sent, i.e. the depth of the queue
+	 */
+	public long getPendingCount() {
+		return pendingCount;
+	}
+
+	/**
+	 * @return the number of messages which were given up on after too many failed attempts
+	 */
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * @return the number of messages sent
+	 */
+	public long getSentCount() {
+		return sentCount;
+	}
+
+	/**
+	 * @return the number of failed attempts to send a message
+	 */
+	public long getFailedAttemptCount() {
+		return failedAttemptCount;
+	}
+
+	/**
+	 * @return the mean time taken to hand a message over to the mail server, in milliseconds
+	 */
+	public double getMeanSendTime() {
+		return meanSendTime;
+	}
+
+	/**
+	 * @return the longest time taken to hand a message over to the mail server, in milliseconds
+	 */
+	public double getMaxSendTime() {
+		return maxSendTime;
+	}
+
+	/**
+	 * @return the estimated 99th percentile of the times taken to hand a message over to the mail
+	 *         server, in milliseconds
+	 */
+	public double getPercentile99SendTime() {
+		return percentile99SendTime;
+	}
+
+	/**
+	 * @return the mean time between queueing and sending a message, in milliseconds
+	 */
+	public double getMeanDeliveryTime() {
+		return meanDeliveryTime;
+	}
+
+	/**
+	 * @return the longest time between queueing and sending a message, in milliseconds
+	 */
+	public double getMaxDeliveryTime() {
+		return maxDeliveryTime;
+	}
+
+	/**
+	 * @return the estimated 99th percentile of the times between queueing and sending a message, in
+	 *         milliseconds
+	 */
+	public double getPercentile99DeliveryTime() {
+		return percentile99DeliveryTime;
+	}
+}
@@ -10,6 +10,7 @@
 package org.openmrs.notification;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -31,11 +32,15 @@ public interface MessageService {
 	/* Send Message Methods */
 
 	/**
-	 * TODO Auto generated method comment
+	 * Sends a message. Unless the global property
+	 * {@link org.openmrs.util.OpenmrsConstants#GP_MAIL_SEND_ASYNCHRONOUSLY} is false, the message is
+	 * only written to the outbound queue with {@link #queueMessage(Message)} and this method returns
+	 * without waiting for it to be sent.
 	 * 
 	 * @param message
 	 * @throws MessageException
 	 * <strong>Should</strong> send message
+	 * <strong>Should</strong> queue the message instead of sending it when sending asynchronously
 	 */
 	public void sendMessage(Message message) throws MessageException;
 	
@@ -56,6 +61,61 @@ public interface MessageService {
 	
 	public void sendMessage(String recipients, String sender, String subject, String message) throws MessageException;
 	
+	/**
+	 * Writes a message to the outbound queue and returns without sending it. The queued messages are
+	 * sent in the background once the transaction commits, those which cannot be sent are tried again
+	 * later by {@link #sendQueuedMessages()}.
+	 * 
+	 * @param message the message to send
+	 * @return the queued message
+	 * @throws MessageException if the message has no recipient
+	 * @since 2.6.0
+	 * <strong>Should</strong> save a pending message due right away
+	 * <strong>Should</strong> fail if the message has no recipient
+	 */
+	public QueuedMessage queueMessage(Message message) throws MessageException;
+	
+	/**
+	 * @param queuedMessageId the id of the queued message
+	 * @return the queued message with the given id or null
+	 * @since 2.6.0
+	 */
+	public QueuedMessage getQueuedMessage(Integer queuedMessageId);
+	
+	/**
+	 * Sends a batch of the queued messages which are due, on the pool of threads sized by
+	 * {@link org.openmrs.util.OpenmrsConstants#GP_MAIL_QUEUE_SENDER_THREADS}. The messages which
+	 * cannot be sent are tried again after a delay which doubles with each attempt, until
+	 * {@link org.openmrs.util.OpenmrsConstants#GP_MAIL_QUEUE_MAX_ATTEMPTS} attempts have failed.
+	 * Only one batch is sent at a time, if another one is being sent nothing is done.
+	 * 
+	 * @return the number of messages which were tried, 0 once no message is due
+	 * @throws MessageException
+	 * @since 2.6.0
+	 * <strong>Should</strong> send the due messages and mark them as sent
+	 * <strong>Should</strong> not send messages which are not due
+	 * <strong>Should</strong> retry failed messages later
+	 * <strong>Should</strong> mark the message as failed after the maximum number of attempts
+	 */
+	public int sendQueuedMessages() throws MessageException;
+	
+	/**
+	 * Deletes the queued messages which were sent before a given date
+	 * 
+	 * @param sentBefore the date before which the messages were sent
+	 * @return the number of deleted messages
+	 * @since 2.6.0
+	 * <strong>Should</strong> delete only the messages sent before the given date
+	 */
+	public int purgeSentQueuedMessages(Date sentBefore);
+	
+	/**
+	 * @return the depth of the outbound queue and the send times of the messages sent since startup
+	 * @since 2.6.0
+	 * <strong>Should</strong> count pending messages and record send times
+	 */
+	public MessageQueueStatistics getMessageQueueStatistics();
+	
 	// Prepare message methods
 	public Message createMessage(String subject, String message) throws MessageException;
 	
@@ -0,0 +1,306 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.notification;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.BaseOpenmrsObject;
+
+/**
+ * A message waiting in the outbound queue, or which went through it. Messages are written to the
+ * queue by {@link MessageService#queueMessage(Message)} and sent in batches by
+ * {@link MessageService#sendQueuedMessages()}, so that they are not lost if the mail server cannot
+ * be reached or the application is restarted before they are sent.
+ *
+ * @since 2.6.0
+ */
+@Entity
+@Table(name = "notification_message_queue")
+public class QueuedMessage extends BaseOpenmrsObject {
+
+	public static final long serialVersionUID = 1;
+
+	/**
+	 * The states a queued message goes through
+	 */
+	public enum Status {
+		/** waiting to be sent, possibly again after a failed attempt */
+		PENDING,
+		/** sent */
+		SENT,
+		/** given up on after too many failed attempts */
+		FAILED
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "queued_message_id")
+	private Integer queuedMessageId;
+
+	@Column(name = "recipients", nullable = false, length = 65535)
+	private String recipients;
+
+	@Column(name = "sender")
+	private String sender;
+
+	@Column(name = "subject", length = 1024)
+	private String subject;
+
+	@Column(name = "content", length = 65535)
+	private String content;
+
+	@Column(name = "content_type")
+	private String contentType;
+
+	@Column(name = "attachment", length = 65535)
+	private String attachment;
+
+	@Column(name = "attachment_content_type")
+	private String attachmentContentType;
+
+	@Column(name = "attachment_file_name")
+	private String attachmentFileName;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false, length = 50)
+	private Status status = Status.PENDING;
+
+	@Column(name = "attempts", nullable = false)
+	private Integer attempts = 0;
+
+	@Column(name = "date_created", nullable = false)
+	private Date dateCreated;
+
+	@Column(name = "next_attempt_date", nullable = false)
+	private Date nextAttemptDate;
+
+	@Column(name = "date_sent")
+	private Date dateSent;
+
+	@Column(name = "last_error", length = 1024)
+	private String lastError;
+
+	/**
+	 * Default constructor
+	 */
+	public QueuedMessage() {
+	}
+
+	/**
+	 * Creates a pending queued message with the parts of the given message, to be sent right away
+	 *
+	 * @param message the message to queue
+	 */
+	public QueuedMessage(Message message) {
+		this.recipients = message.getRecipients();
+		this.sender = message.getSender();
+		this.subject = message.getSubject();
+		this.content = message.getContent();
+		this.contentType = message.getContentType();
+		this.attachment = message.getAttachment();
+		this.attachmentContentType = message.getAttachmentContentType();
+		this.attachmentFileName = message.getAttachmentFileName();
+		this.dateCreated = new Date();
+		this.nextAttemptDate = this.dateCreated;
+	}
+
+	/**
+	 * @return a new message with the parts of this queued message
+	 */
+	public Message toMessage() {
+		Message message = new Message(queuedMessageId, recipients, sender, subject, content, attachment,
+		        attachmentContentType, attachmentFileName);
+		message.setContentType(contentType);
+		return message;
+	}
+
+	/**
+	 * Records a successful attempt to send this message
+	 *
+	 * @param dateSent when the message was sent
+	 */
+	public void markSent(Date dateSent) {
+		this.attempts++;
+		this.status = Status.SENT;
+		this.dateSent = dateSent;
+		this.lastError = null;
+	}
+
+	/**
+	 * Records a failed attempt to send this message
+	 *
+	 * @param error the reason of the failure
+	 * @param nextAttemptDate when to try again, or null to give up on the message
+	 */
+	public void markFailed(String error, Date nextAttemptDate) {
+		this.attempts++;
+		this.lastError = StringUtils.abbreviate(error, 1024);
+		if (nextAttemptDate == null) {
+			this.status = Status.FAILED;
+		} else {
+			this.nextAttemptDate = nextAttemptDate;
+		}
+	}
+
+	/**
+	 * @see org.openmrs.OpenmrsObject#getId()
+	 */
+	@Override
+	public Integer getId() {
+		return getQueuedMessageId();
+	}
+
+	/**
+	 * @see org.openmrs.OpenmrsObject#setId(java.lang.Integer)
+	 */
+	@Override
+	public void setId(Integer id) {
+		setQueuedMessageId(id);
+	}
+
+	public Integer getQueuedMessageId() {
+		return queuedMessageId;
+	}
+
+	public void setQueuedMessageId(Integer queuedMessageId) {
+		this.queuedMessageId = queuedMessageId;
+	}
+
+	public String getRecipients() {
+		return recipients;
+	}
+
+	public void setRecipients(String recipients) {
+		this.recipients = recipients;
+	}
+
+	public String getSender() {
+		return sender;
+	}
+
+	public void setSender(String sender) {
+		this.sender = sender;
+	}
+
+	public String getSubject() {
+		return subject;
+	}
+
+	public void setSubject(String subject) {
+		this.subject = subject;
+	}
+
+	public String getContent() {
+		return content;
+	}
+
+	public void setContent(String content) {
+		this.content = content;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public String getAttachment() {
+		return attachment;
+	}
+
+	public void setAttachment(String attachment) {
+		this.attachment = attachment;
+	}
+
+	public String getAttachmentContentType() {
+		return attachmentContentType;
+	}
+
+	public void setAttachmentContentType(String attachmentContentType) {
+		this.attachmentContentType = attachmentContentType;
+	}
+
+	public String getAttachmentFileName() {
+		return attachmentFileName;
+	}
+
+	public void setAttachmentFileName(String attachmentFileName) {
+		this.attachmentFileName = attachmentFileName;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	/**
+	 * @return the number of times sending the message was tried
+	 */
+	public Integer getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(Integer attempts) {
+		this.attempts = attempts;
+	}
+
+	public Date getDateCreated() {
+		return dateCreated;
+	}
+
+	public void setDateCreated(Date dateCreated) {
+		this.dateCreated = dateCreated;
+	}
+
+	/**
+	 * @return the date from which a pending message is sent
+	 */
+	public Date getNextAttemptDate() {
+		return nextAttemptDate;
+	}
+
+	public void setNextAttemptDate(Date nextAttemptDate) {
+		this.nextAttemptDate = nextAttemptDate;
+	}
+
+	public Date getDateSent() {
+		return dateSent;
+	}
+
+	public void setDateSent(Date dateSent) {
+		this.dateSent = dateSent;
+	}
+
+	/**
+	 * @return the error of the last failed attempt to send the message
+	 */
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+}
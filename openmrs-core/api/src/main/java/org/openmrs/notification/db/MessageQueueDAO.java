@@ -0,0 +1,57 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.notification.db;
+
+import java.util.Date;
+import java.util.List;
+
+import org.openmrs.api.db.DAOException;
+import org.openmrs.notification.QueuedMessage;
+
+/**
+ * Database methods for the outbound message queue of the MessageService
+ *
+ * @see org.openmrs.notification.MessageService
+ * @since 2.6.0
+ */
+public interface MessageQueueDAO {
+
+	/**
+	 * @see org.openmrs.notification.MessageService#queueMessage(org.openmrs.notification.Message)
+	 */
+	public QueuedMessage saveQueuedMessage(QueuedMessage queuedMessage) throws DAOException;
+
+	/**
+	 * @see org.openmrs.notification.MessageService#getQueuedMessage(Integer)
+	 */
+	public QueuedMessage getQueuedMessage(Integer queuedMessageId) throws DAOException;
+
+	/**
+	 * Gets the pending messages which are due to be sent, the ones which are due for the longest
+	 * time first
+	 *
+	 * @param asOfDate the date the messages are due on
+	 * @param maxResults the maximum number of messages to return
+	 * @return the due messages
+	 */
+	public List<QueuedMessage> getDueQueuedMessages(Date asOfDate, int maxResults) throws DAOException;
+
+	/**
+	 * @param status the status of the messages to count
+	 * @return the number of queued messages with the given status
+	 */
+	public long getQueuedMessageCount(QueuedMessage.Status status) throws DAOException;
+
+	/**
+	 * @see org.openmrs.notification.MessageService#purgeSentQueuedMessages(Date)
+	 */
+	public int deleteSentQueuedMessages(Date sentBefore) throws DAOException;
+
+}
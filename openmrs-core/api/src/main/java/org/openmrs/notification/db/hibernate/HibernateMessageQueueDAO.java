@@ -0,0 +1,91 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.notification.db.hibernate;
+
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.openmrs.api.db.DAOException;
+import org.openmrs.notification.QueuedMessage;
+import org.openmrs.notification.db.MessageQueueDAO;
+
+/**
+ * Hibernate specific implementation of the {@link MessageQueueDAO}
+ *
+ * @since 2.6.0
+ */
+public class HibernateMessageQueueDAO implements MessageQueueDAO {
+
+	/**
+	 * Hibernate session factory
+	 */
+	private SessionFactory sessionFactory;
+
+	/**
+	 * Set session factory
+	 *
+	 * @param sessionFactory
+	 */
+	public void setSessionFactory(SessionFactory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
+	/**
+	 * @see org.openmrs.notification.db.MessageQueueDAO#saveQueuedMessage(org.openmrs.notification.QueuedMessage)
+	 */
+	@Override
+	public QueuedMessage saveQueuedMessage(QueuedMessage queuedMessage) throws DAOException {
+		sessionFactory.getCurrentSession().saveOrUpdate(queuedMessage);
+		return queuedMessage;
+	}
+
+	/**
+	 * @see org.openmrs.notification.db.MessageQueueDAO#getQueuedMessage(java.lang.Integer)
+	 */
+	@Override
+	public QueuedMessage getQueuedMessage(Integer queuedMessageId) throws DAOException {
+		return sessionFactory.getCurrentSession().get(QueuedMessage.class, queuedMessageId);
+	}
+
+	/**
+	 * @see org.openmrs.notification.db.MessageQueueDAO#getDueQueuedMessages(java.util.Date, int)
+	 */
+	@Override
+	public List<QueuedMessage> getDueQueuedMessages(Date asOfDate, int maxResults) throws DAOException {
+		return sessionFactory.getCurrentSession()
+		        .createQuery("from QueuedMessage where status = :status and nextAttemptDate <= :asOfDate "
+		                + "order by nextAttemptDate, queuedMessageId", QueuedMessage.class)
+		        .setParameter("status", QueuedMessage.Status.PENDING).setParameter("asOfDate", asOfDate)
+		        .setMaxResults(maxResults).list();
+	}
+
+	/**
+	 * @see org.openmrs.notification.db.MessageQueueDAO#getQueuedMessageCount(org.openmrs.notification.QueuedMessage.Status)
+	 */
+	@Override
+	public long getQueuedMessageCount(QueuedMessage.Status status) throws DAOException {
+		return sessionFactory.getCurrentSession()
+		        .createQuery("select count(*) from QueuedMessage where status = :status", Long.class)
+		        .setParameter("status", status).uniqueResult();
+	}
+
+	/**
+	 * @see org.openmrs.notification.db.MessageQueueDAO#deleteSentQueuedMessages(java.util.Date)
+	 */
+	@Override
+	public int deleteSentQueuedMessages(Date sentBefore) throws DAOException {
+		return sessionFactory.getCurrentSession()
+		        .createQuery("delete from QueuedMessage where status = :status and dateSent < :sentBefore")
+		        .setParameter("status", QueuedMessage.Status.SENT).setParameter("sentBefore", sentBefore)
+		        .executeUpdate();
+	}
+
+}
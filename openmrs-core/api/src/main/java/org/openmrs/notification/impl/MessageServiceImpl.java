@@ -10,32 +10,87 @@
 package org.openmrs.notification.impl;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.commons.lang3.StringUtils;
 import org.openmrs.Role;
 import org.openmrs.User;
+import org.openmrs.api.AdministrationService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.TemplateDAO;
 import org.openmrs.notification.Message;
 import org.openmrs.notification.MessageException;
 import org.openmrs.notification.MessagePreparator;
+import org.openmrs.notification.MessageQueueStatistics;
 import org.openmrs.notification.MessageSender;
 import org.openmrs.notification.MessageService;
+import org.openmrs.notification.QueuedMessage;
 import org.openmrs.notification.Template;
+import org.openmrs.notification.db.MessageQueueDAO;
+import org.openmrs.util.DaemonThreadFactory;
+import org.openmrs.util.LatencyHistogram;
 import org.openmrs.util.OpenmrsConstants;
+import org.openmrs.util.PerTransactionResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Transactional
 public class MessageServiceImpl implements MessageService {
 	
 	private static final Logger log = LoggerFactory.getLogger(MessageServiceImpl.class);
 	
+	private static final int DEFAULT_QUEUE_BATCH_SIZE = 50;
+	
+	private static final int DEFAULT_QUEUE_SENDER_THREADS = 2;
+	
+	private static final int DEFAULT_QUEUE_MAX_ATTEMPTS = 5;
+	
+	private static final long DEFAULT_QUEUE_RETRY_DELAY_SECONDS = 60;
+	
+	private static final long MAX_QUEUE_RETRY_DELAY_SECONDS = TimeUnit.DAYS.toSeconds(1);
+	
 	private TemplateDAO templateDAO;
 	
+	private MessageQueueDAO messageQueueDAO;
+	
+	/**
+	 * Held while a batch of queued messages is sent and until its transaction completes, so that
+	 * the same messages are not loaded and sent twice
+	 */
+	private final ReentrantLock sendLock = new ReentrantLock();
+	
+	/**
+	 * Drains the queue once the messages queued in the current transaction are committed
+	 */
+	private final PerTransactionResource<QueueDispatchSynchronization> queueDispatch =
+	        new PerTransactionResource<>(QueueDispatchSynchronization::new);
+	
+	private final LatencyHistogram sendTimes = new LatencyHistogram();
+	
+	private final LatencyHistogram deliveryTimes = new LatencyHistogram();
+	
+	private final LongAdder failedAttemptCount = new LongAdder();
+	
+	private ExecutorService senderPool;
+	
+	private ExecutorService dispatcher;
+	
 	private MessageSender messageSender; // Delivers message 
 	
 	private MessagePreparator messagePreparator; // Prepares message for delivery 
@@ -44,6 +99,14 @@ public class MessageServiceImpl implements MessageService {
 		this.templateDAO = dao;
 	}
 	
+	/**
+	 * @param messageQueueDAO the dao of the outbound message queue
+	 * @since 2.6.0
+	 */
+	public void setMessageQueueDAO(MessageQueueDAO messageQueueDAO) {
+		this.messageQueueDAO = messageQueueDAO;
+	}
+	
 	/**
 	 * Public constructor Required for use with spring's method injection. Be careful because this
 	 * class requires a DAO Context in order to work properly. Please set the DAO context
@@ -89,6 +152,11 @@ public class MessageServiceImpl implements MessageService {
 	 */
 	@Override
 	public void sendMessage(Message message) throws MessageException {
+		if (Context.getAdministrationService().getGlobalPropertyValue(OpenmrsConstants.GP_MAIL_SEND_ASYNCHRONOUSLY,
+		    Boolean.TRUE)) {
+			Context.getMessageService().queueMessage(message);
+			return;
+		}
 		try {
 			messageSender.send(message);
 		}
@@ -98,6 +166,200 @@ public class MessageServiceImpl implements MessageService {
 		}
 	}
 	
+	/**
+	 * @see org.openmrs.notification.MessageService#queueMessage(org.openmrs.notification.Message)
+	 */
+	@Override
+	public QueuedMessage queueMessage(Message message) throws MessageException {
+		if (StringUtils.isBlank(message.getRecipients())) {
+			throw new MessageException("Message must contain at least one recipient");
+		}
+		QueuedMessage queuedMessage = messageQueueDAO.saveQueuedMessage(new QueuedMessage(message));
+		queueDispatch.getOrCreate();
+		return queuedMessage;
+	}
+	
+	/**
+	 * @see org.openmrs.notification.MessageService#getQueuedMessage(java.lang.Integer)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public QueuedMessage getQueuedMessage(Integer queuedMessageId) {
+		return messageQueueDAO.getQueuedMessage(queuedMessageId);
+	}
+	
+	/**
+	 * @see org.openmrs.notification.MessageService#sendQueuedMessages()
+	 */
+	@Override
+	public int sendQueuedMessages() throws MessageException {
+		if (!sendLock.tryLock()) {
+			return 0;
+		}
+		boolean unlockAfterCompletion = false;
+		try {
+			AdministrationService as = Context.getAdministrationService();
+			int batchSize = as.getGlobalPropertyValue(OpenmrsConstants.GP_MAIL_QUEUE_BATCH_SIZE, DEFAULT_QUEUE_BATCH_SIZE);
+			List<QueuedMessage> batch = messageQueueDAO.getDueQueuedMessages(new Date(), Math.max(1, batchSize));
+			if (batch.isEmpty()) {
+				return 0;
+			}
+			int maxAttempts = as.getGlobalPropertyValue(OpenmrsConstants.GP_MAIL_QUEUE_MAX_ATTEMPTS,
+			    DEFAULT_QUEUE_MAX_ATTEMPTS);
+			long retryDelay = as.getGlobalPropertyValue(OpenmrsConstants.GP_MAIL_QUEUE_RETRY_DELAY_SECONDS,
+			    DEFAULT_QUEUE_RETRY_DELAY_SECONDS);
+			
+			ExecutorService pool = getSenderPool();
+			List<Future<Long>> results = new ArrayList<>(batch.size());
+			for (QueuedMessage queuedMessage : batch) {
+				Message message = queuedMessage.toMessage();
+				results.add(pool.submit(() -> send(message)));
+			}
+			for (int i = 0; i < batch.size(); i++) {
+				QueuedMessage queuedMessage = batch.get(i);
+				try {
+					sendTimes.record(results.get(i).get());
+					Date dateSent = new Date();
+					deliveryTimes.record(TimeUnit.MILLISECONDS.toNanos(dateSent.getTime()
+					        - queuedMessage.getDateCreated().getTime()));
+					queuedMessage.markSent(dateSent);
+				}
+				catch (ExecutionException e) {
+					failedAttemptCount.increment();
+					Throwable cause = e.getCause() instanceof MessageException && e.getCause().getCause() != null
+					        ? e.getCause().getCause() : e.getCause();
+					Date nextAttemptDate = getNextAttemptDate(queuedMessage.getAttempts() + 1, maxAttempts, retryDelay);
+					log.warn("Queued message {} could not be sent, {}", queuedMessage.getQueuedMessageId(),
+					    nextAttemptDate == null ? "giving up on it" : "trying again on " + nextAttemptDate, cause);
+					queuedMessage.markFailed(cause.toString(), nextAttemptDate);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new MessageException("Interrupted while sending queued messages", e);
+				}
+				messageQueueDAO.saveQueuedMessage(queuedMessage);
+			}
+			
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new SendLockRelease());
+				unlockAfterCompletion = true;
+			}
+			return batch.size();
+		}
+		finally {
+			if (!unlockAfterCompletion) {
+				sendLock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Sends a message on a thread of the sender pool, which has no session of its own
+	 *
+	 * @return the time taken to send the message in nanoseconds
+	 */
+	private long send(Message message) throws MessageException {
+		Context.openSession();
+		try {
+			long start = System.nanoTime();
+			messageSender.send(message);
+			return System.nanoTime() - start;
+		}
+		finally {
+			Context.closeSession();
+		}
+	}
+	
+	/**
+	 * @param attempts the number of failed attempts to send a message
+	 * @return when to try to send the message again, or null if there were too many attempts
+	 */
+	private static Date getNextAttemptDate(int attempts, int maxAttempts, long retryDelaySeconds) {
+		if (attempts >= maxAttempts) {
+			return null;
+		}
+		long delay = Math.max(1, retryDelaySeconds) << Math.min(attempts - 1, 20);
+		return new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Math.min(delay,
+		    MAX_QUEUE_RETRY_DELAY_SECONDS)));
+	}
+	
+	/**
+	 * @see org.openmrs.notification.MessageService#purgeSentQueuedMessages(java.util.Date)
+	 */
+	@Override
+	public int purgeSentQueuedMessages(Date sentBefore) {
+		return messageQueueDAO.deleteSentQueuedMessages(sentBefore);
+	}
+	
+	/**
+	 * @see org.openmrs.notification.MessageService#getMessageQueueStatistics()
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public MessageQueueStatistics getMessageQueueStatistics() {
+		return new MessageQueueStatistics(messageQueueDAO.getQueuedMessageCount(QueuedMessage.Status.PENDING),
+		        messageQueueDAO.getQueuedMessageCount(QueuedMessage.Status.FAILED), failedAttemptCount.sum(), sendTimes,
+		        deliveryTimes);
+	}
+	
+	/**
+	 * Sends the due queued messages in the background, one batch after the other. While the queue is
+	 * being drained at most one more drain is waiting, the others are dropped since it picks up
+	 * their messages anyway.
+	 */
+	private void dispatchQueuedMessages() {
+		getDispatcher().execute(() -> {
+			Context.openSession();
+			try {
+				MessageService messageService = Context.getMessageService();
+				while (messageService.sendQueuedMessages() > 0) {
+					log.debug("Sent a batch of queued messages");
+				}
+			}
+			catch (Exception e) {
+				log.error("Failed to send the queued messages, they will be sent by the next run of the send email task",
+				    e);
+			}
+			finally {
+				Context.closeSession();
+			}
+		});
+	}
+	
+	private synchronized ExecutorService getSenderPool() {
+		if (senderPool == null) {
+			int threads = Context.getAdministrationService().getGlobalPropertyValue(
+			    OpenmrsConstants.GP_MAIL_QUEUE_SENDER_THREADS, DEFAULT_QUEUE_SENDER_THREADS);
+			senderPool = Executors.newFixedThreadPool(Math.max(1, threads), new DaemonThreadFactory("MessageSender"));
+		}
+		return senderPool;
+	}
+	
+	private synchronized ExecutorService getDispatcher() {
+		if (dispatcher == null) {
+			dispatcher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+			        new DaemonThreadFactory("MessageQueueDispatcher"), new ThreadPoolExecutor.DiscardPolicy());
+		}
+		return dispatcher;
+	}
+	
+	/**
+	 * Stops the threads sending queued messages, the messages which were not sent yet stay in the
+	 * queue and are sent after the next startup
+	 * 
+	 * @since 2.6.0
+	 */
+	public synchronized void shutdown() {
+		if (dispatcher != null) {
+			dispatcher.shutdownNow();
+			dispatcher = null;
+		}
+		if (senderPool != null) {
+			senderPool.shutdown();
+			senderPool = null;
+		}
+	}
+	
 	/**
 	 * Create a message object with the given parts.
 	 *
@@ -301,4 +563,28 @@ public class MessageServiceImpl implements MessageService {
 	public List getTemplatesByName(String name) throws MessageException {
 		return templateDAO.getTemplatesByName(name);
 	}	
+
+	/**
+	 * Drains the queue once the messages queued in a transaction are committed
+	 */
+	private class QueueDispatchSynchronization extends TransactionSynchronizationAdapter {
+		
+		@Override
+		public void afterCompletion(int status) {
+			if (status == TransactionSynchronization.STATUS_COMMITTED) {
+				dispatchQueuedMessages();
+			}
+		}
+	}
+	
+	/**
+	 * Releases the send lock once the status of the sent messages is committed or rolled back
+	 */
+	private class SendLockRelease extends TransactionSynchronizationAdapter {
+		
+		@Override
+		public void afterCompletion(int status) {
+			sendLock.unlock();
+		}
+	}
 }
@@ -42,8 +42,23 @@ public interface ComplexObsHandler {
 	
 	public static final String PREVIEW_VIEW = "PREVIEW_VIEW";
 	
+	/**
+	 * View returning a small version of the stored data, e.g. an image thumbnail
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String THUMBNAIL_VIEW = "THUMBNAIL_VIEW";
+	
 	public static final String URI_VIEW = "URI_VIEW";
 	
+	/**
+	 * View returning a {@link StreamingComplexData} which reads the stored data on demand instead of
+	 * loading it into memory
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String STREAM_VIEW = "STREAM_VIEW";
+	
 	/**
 	 * Save a complex obs. This extracts the ComplexData from an Obs, stores it to a location
 	 * determined by the handler, and returns the Obs with the ComplexData nullified.
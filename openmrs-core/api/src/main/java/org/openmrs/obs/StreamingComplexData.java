@@ -0,0 +1,114 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.obs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.input.BoundedInputStream;
+import org.openmrs.api.APIException;
+
+/**
+ * ComplexData backed by a file which is never loaded into memory as a whole. The data is an
+ * {@link InputStream} opened on the first call to {@link #getData()}, byte ranges can be read with
+ * {@link #openStream(long, long)} and callers needing random access can use
+ * {@link #openChannel()}. Callers are responsible for closing the streams and channels they get.
+ *
+ * @see ComplexObsHandler#STREAM_VIEW
+ * @since 2.6.0
+ */
+public class StreamingComplexData extends ComplexData {
+
+	private static final long serialVersionUID = 1L;
+
+	private final File file;
+
+	private transient InputStream stream;
+
+	/**
+	 * @param title the title of the complex data
+	 * @param file the file holding the data
+	 */
+	public StreamingComplexData(String title, File file) {
+		super(title, null);
+		this.file = file;
+		setLength(file.length());
+	}
+
+	/**
+	 * @return the file holding the data
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Gets a stream over the whole file, it is opened on the first call and the same stream is
+	 * returned afterwards.
+	 *
+	 * @see org.openmrs.obs.ComplexData#getData()
+	 */
+	@Override
+	public synchronized InputStream getData() {
+		if (stream == null) {
+			try {
+				stream = openStream();
+			}
+			catch (IOException e) {
+				throw new APIException("Obs.error.while.trying.get.binary.complex", null, e);
+			}
+		}
+		return stream;
+	}
+
+	/**
+	 * @return a new stream over the whole file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public InputStream openStream() throws IOException {
+		return openStream(0, file.length());
+	}
+
+	/**
+	 * Opens a stream over a range of the file.
+	 *
+	 * @param offset the position of the first byte to read
+	 * @param length the maximum number of bytes to read
+	 * @return a new stream returning at most <code>length</code> bytes starting at
+	 *         <code>offset</code>
+	 * @throws IOException if the file cannot be opened
+	 */
+	public InputStream openStream(long offset, long length) throws IOException {
+		if (offset < 0 || length < 0) {
+			throw new IllegalArgumentException("offset and length must not be negative");
+		}
+		FileChannel channel = openChannel();
+		try {
+			channel.position(offset);
+		}
+		catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		return new BoundedInputStream(Channels.newInputStream(channel), length);
+	}
+
+	/**
+	 * @return a new read only channel over the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public FileChannel openChannel() throws IOException {
+		return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+	}
+}
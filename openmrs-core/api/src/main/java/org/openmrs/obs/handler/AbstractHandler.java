@@ -9,8 +9,15 @@
  */
 package org.openmrs.obs.handler;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.NumberFormat;
 import java.util.Arrays;
 
@@ -19,14 +26,18 @@ import org.apache.commons.lang3.StringUtils;
 import org.openmrs.Obs;
 import org.openmrs.api.context.Context;
 import org.openmrs.obs.ComplexData;
+import org.openmrs.obs.ComplexObsHandler;
+import org.openmrs.obs.StreamingComplexData;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.DigestUtils;
 
 /**
  * Abstract handler for some convenience methods Files are stored in the location specified by the
- * global property: "obs.complex_obs_dir"
+ * global property: "obs.complex_obs_dir", spread over hashed sub-directories as configured by the
+ * global property "obs.complex_obs_dir.shardDepth"
  * 
  * @since 1.5
  */
@@ -34,6 +45,20 @@ public class AbstractHandler {
 	
 	private static final Logger log = LoggerFactory.getLogger(AbstractHandler.class);
 	
+	private static final int DEFAULT_SHARD_DEPTH = 2;
+	
+	private static final int MAX_SHARD_DEPTH = 4;
+	
+	/**
+	 * Writes complex data to the given stream
+	 * 
+	 * @since 2.6.0
+	 */
+	protected interface ComplexDataWriter {
+		
+		void write(OutputStream out) throws IOException;
+	}
+	
 	protected NumberFormat nf;
 	
 	/**
@@ -67,11 +92,60 @@ public class AbstractHandler {
 			filename = uuid + extension;
 		}
 		
-		File dir = OpenmrsUtil.getDirectoryInApplicationDataDirectory(
-		    Context.getAdministrationService().getGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR));
+		File dir = getShardDirectory(getComplexObsDir(), filename);
+		if (!dir.exists() && !dir.mkdirs() && !dir.isDirectory()) {
+			throw new IOException("Unable to create directory " + dir.getAbsolutePath());
+		}
 		return new File(dir, filename);
 	}
 	
+	/**
+	 * Writes the complex data to a temporary file next to the given output file and renames it to
+	 * the output file once it has been written completely, so that readers never see a partially
+	 * written file.
+	 * 
+	 * @param outfile the file to write
+	 * @param writer writes the data to the stream it is given
+	 * @throws IOException if the data cannot be written
+	 * @since 2.6.0
+	 */
+	protected void writeAtomically(File outfile, ComplexDataWriter writer) throws IOException {
+		File tempFile = File.createTempFile("." + outfile.getName() + ".", ".tmp", outfile.getParentFile());
+		try {
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+				writer.write(out);
+			}
+			try {
+				Files.move(tempFile.toPath(), outfile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), outfile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+	
+	/**
+	 * Gets the path of the given complex obs file relative to the complex obs directory, this is
+	 * what handlers store in {@link Obs#getValueComplex()}.
+	 * 
+	 * @param file a file in the complex obs directory or one of its sub-directories
+	 * @return the relative path using '/' as separator
+	 * @since 2.6.0
+	 */
+	public static String getRelativePath(File file) {
+		String dir = getComplexObsDir().getAbsolutePath() + File.separator;
+		String path = file.getAbsolutePath();
+		if (path.startsWith(dir)) {
+			path = path.substring(dir.length());
+		} else {
+			path = file.getName();
+		}
+		return path.replace(File.separatorChar, '/');
+	}
+		
 	/**
 	 * Get the extension for a given filename if it exists, else return the filename. If there is no
 	 * filename in the input string, "raw" is returned. 
@@ -107,6 +181,9 @@ public class AbstractHandler {
 		File file = BinaryDataHandler.getComplexDataFile(obs);
 		log.debug("value complex: " + obs.getValueComplex());
 		log.debug("file path: " + file.getAbsolutePath());
+		if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			return getStreamingObs(obs, file.getName());
+		}
 		ComplexData complexData = null;
 		try {
 			complexData = new ComplexData(file.getName(), OpenmrsUtil.getFileAsBytes(file));
@@ -121,6 +198,27 @@ public class AbstractHandler {
 		return obs;
 	}
 	
+	/**
+	 * Sets a {@link StreamingComplexData} over the file of the given obs as its complex data
+	 * 
+	 * @param obs the obs to get the data for
+	 * @param title the title of the complex data
+	 * @return the obs or null if its file does not exist
+	 * @see org.openmrs.obs.ComplexObsHandler#STREAM_VIEW
+	 * @since 2.6.0
+	 */
+	protected Obs getStreamingObs(Obs obs, String title) {
+		File file = getComplexDataFile(obs);
+		if (!file.exists()) {
+			log.error("Unable to find file associated with complex obs " + obs.getId());
+			return null;
+		}
+		ComplexData complexData = new StreamingComplexData(title, file);
+		complexData.setMimeType(OpenmrsUtil.getFileMimeType(file));
+		obs.setComplexData(complexData);
+		return obs;
+	}
+	
 	/**
 	 * @see org.openmrs.obs.ComplexObsHandler#purgeComplexData(org.openmrs.Obs)
 	 */
@@ -147,9 +245,31 @@ public class AbstractHandler {
 	public static File getComplexDataFile(Obs obs) {
 		String[] names = obs.getValueComplex().split("\\|");
 		String filename = names.length < 2 ? names[0] : names[names.length - 1];
-		File dir = OpenmrsUtil.getDirectoryInApplicationDataDirectory(
+		return new File(getComplexObsDir(), filename);
+	}
+	
+	/**
+	 * @return the directory complex obs are stored in
+	 */
+	private static File getComplexObsDir() {
+		return OpenmrsUtil.getDirectoryInApplicationDataDirectory(
 		    Context.getAdministrationService().getGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR));
-		return new File(dir, filename);
+	}
+	
+	/**
+	 * Gets the sub-directory of the complex obs directory the given file is stored in. Each level
+	 * is named after two hex digits of the hash of the file name so files spread evenly over
+	 * 256 directories per level.
+	 */
+	private static File getShardDirectory(File dir, String filename) {
+		int depth = Context.getAdministrationService().getGlobalPropertyValue(
+		    OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR_SHARD_DEPTH, DEFAULT_SHARD_DEPTH);
+		depth = Math.max(0, Math.min(depth, MAX_SHARD_DEPTH));
+		String hash = DigestUtils.md5DigestAsHex(filename.getBytes(StandardCharsets.UTF_8));
+		for (int i = 0; i < depth; i++) {
+			dir = new File(dir, hash.substring(i * 2, i * 2 + 2));
+		}
+		return dir;
 	}
 	
 	/**
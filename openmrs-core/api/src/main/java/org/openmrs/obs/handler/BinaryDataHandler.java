@@ -10,10 +10,10 @@
 package org.openmrs.obs.handler;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.apache.commons.io.IOUtils;
 import org.openmrs.Obs;
 import org.openmrs.api.APIException;
 import org.openmrs.obs.ComplexData;
@@ -32,7 +32,7 @@ import org.springframework.util.Assert;
 public class BinaryDataHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
-	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, };
+	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW };
 	
 	private static final Logger log = LoggerFactory.getLogger(BinaryDataHandler.class);
 	
@@ -45,7 +45,8 @@ public class BinaryDataHandler extends AbstractHandler implements ComplexObsHand
 	}
 	
 	/**
-	 * Currently supports the following views: org.openmrs.obs.ComplexObsHandler#RAW_VIEW
+	 * Currently supports the following views: org.openmrs.obs.ComplexObsHandler#RAW_VIEW and
+	 * org.openmrs.obs.ComplexObsHandler#STREAM_VIEW
 	 * 
 	 * @see org.openmrs.obs.ComplexObsHandler#getObs(org.openmrs.Obs, java.lang.String)
 	 */
@@ -56,20 +57,22 @@ public class BinaryDataHandler extends AbstractHandler implements ComplexObsHand
 		log.debug("file path: " + file.getAbsolutePath());
 		ComplexData complexData = null;
 		
+		// to handle problem with downloading/saving files with blank spaces or commas in their names
+		// also need to remove the "file" text appended to the end of the file name
+		String[] names = obs.getValueComplex().split("\\|");
+		String originalFilename = names[0];
+		originalFilename = originalFilename.replaceAll(",", "").replaceAll(" ", "").replaceAll("file$", "");
+		
 		// Raw view (i.e. the file as is)
 		if (ComplexObsHandler.RAW_VIEW.equals(view)) {
-			// to handle problem with downloading/saving files with blank spaces or commas in their names
-			// also need to remove the "file" text appended to the end of the file name
-			String[] names = obs.getValueComplex().split("\\|");
-			String originalFilename = names[0];
-			originalFilename = originalFilename.replaceAll(",", "").replaceAll(" ", "").replaceAll("file$", "");
-			
 			try {
 				complexData = new ComplexData(originalFilename, OpenmrsUtil.getFileAsBytes(file));
 			}
 			catch (IOException e) {
 				log.error("Trying to read file: " + file.getAbsolutePath(), e);
 			}
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			return getStreamingObs(obs, originalFilename);
 		} else {
 			// No other view supported
 			// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -109,25 +112,25 @@ public class BinaryDataHandler extends AbstractHandler implements ComplexObsHand
 			return obs;
 		}
 		
-		FileOutputStream fout = null;
 		try {
 			File outfile = getOutputFileToWrite(obs);
-			fout = new FileOutputStream(outfile);
 			
 			Object data = obs.getComplexData().getData();
-			if (data instanceof byte[]) {
-				fout.write((byte[]) data);
-			} else if (InputStream.class.isAssignableFrom(data.getClass())) {
-				try {
-					OpenmrsUtil.copyFile((InputStream) data, fout);
+			writeAtomically(outfile, out -> {
+				if (data instanceof byte[]) {
+					out.write((byte[]) data);
+				} else if (InputStream.class.isAssignableFrom(data.getClass())) {
+					try {
+						IOUtils.copy((InputStream) data, out);
+					}
+					catch (IOException e) {
+						throw new APIException("Obs.error.unable.convert.complex.data", new Object[] { "input stream" }, e);
+					}
 				}
-				catch (IOException e) {
-					throw new APIException("Obs.error.unable.convert.complex.data", new Object[] { "input stream" }, e);
-				}
-			}
+			});
 			
 			// Set the Title and URI for the valueComplex
-			obs.setValueComplex(outfile.getName() + " file |" + outfile.getName());
+			obs.setValueComplex(outfile.getName() + " file |" + getRelativePath(outfile));
 			
 			// Remove the ComplexData from the Obs
 			obs.setComplexData(null);
@@ -136,14 +139,6 @@ public class BinaryDataHandler extends AbstractHandler implements ComplexObsHand
 		catch (IOException ioe) {
 			throw new APIException("Obs.error.trying.write.complex", null, ioe);
 		}
-		finally {
-			try {
-				fout.close();
-			}
-			catch (Exception e) {
-				// pass
-			}
-		}
 		
 		return obs;
 	}
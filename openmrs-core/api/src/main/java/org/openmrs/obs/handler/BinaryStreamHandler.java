@@ -11,10 +11,9 @@ package org.openmrs.obs.handler;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.InputStream;
-import java.io.OutputStream;
 
+import org.apache.commons.io.IOUtils;
 import org.openmrs.Obs;
 import org.openmrs.api.APIException;
 import org.openmrs.obs.ComplexData;
@@ -34,7 +33,7 @@ import org.springframework.util.Assert;
 public class BinaryStreamHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
-	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, };
+	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW };
 	
 	private static final Logger log = LoggerFactory.getLogger(BinaryStreamHandler.class);
 	
@@ -78,6 +77,9 @@ public class BinaryStreamHandler extends AbstractHandler implements ComplexObsHa
 			catch (Exception e) {
 				throw new APIException("Obs.error.while.trying.get.binary.complex", null, e);
 			}
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			String[] names = obs.getValueComplex().split("\\|");
+			return getStreamingObs(obs, names[0].replace(",", "").replace(" ", ""));
 		} else {
 			// No other view supported
 			// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -113,15 +115,11 @@ public class BinaryStreamHandler extends AbstractHandler implements ComplexObsHa
 			String fileName = obs.getComplexData().getTitle();
 			InputStream in = (InputStream) obs.getComplexData().getData();
 			File outfile = getOutputFileToWrite(obs);
-			OutputStream out = new FileOutputStream(outfile, false);
-			OpenmrsUtil.copyFile(in, out);
+			writeAtomically(outfile, out -> IOUtils.copy(in, out));
 			
 			// Store the filename in the Obs
 			obs.setComplexData(null);
-			obs.setValueComplex(fileName + "|" + outfile.getName());
-			
-			// close the stream
-			out.close();
+			obs.setValueComplex(fileName + "|" + getRelativePath(outfile));
 		}
 		catch (Exception e) {
 			throw new APIException("Obs.error.writing.binary.data.complex", null, e);
@@ -9,24 +9,31 @@
  */
 package org.openmrs.obs.handler;
 
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
 
+import org.apache.commons.io.FilenameUtils;
 import org.openmrs.Obs;
 import org.openmrs.api.APIException;
 import org.openmrs.obs.ComplexData;
 import org.openmrs.obs.ComplexObsHandler;
+import org.openmrs.obs.StreamingComplexData;
 import org.openmrs.util.OpenmrsUtil;
 import java.io.ByteArrayInputStream;
 import org.slf4j.Logger;
@@ -37,6 +44,11 @@ import org.slf4j.LoggerFactory;
  * taken from the image name. if the .* image name suffix matches
  * {@link javax.imageio.ImageIO#getWriterFormatNames()} then that mime type will be used to save the
  * image. Images are stored in the location specified by the global property: "obs.complex_obs_dir"
+ * <br>
+ * Scaled down copies of the image are served for the {@link ComplexObsHandler#THUMBNAIL_VIEW} and
+ * {@link ComplexObsHandler#PREVIEW_VIEW}. They are stored next to the original image, created on
+ * the first request (or when the image is saved if {@link #setGenerateDerivativesOnSave(boolean)}
+ * is enabled) and deleted together with the original.
  * 
  * @see org.openmrs.util.OpenmrsConstants#GLOBAL_PROPERTY_COMPLEX_OBS_DIR
  * @since 1.5
@@ -44,12 +56,26 @@ import org.slf4j.LoggerFactory;
 public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
-	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW };
+	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW,
+	        ComplexObsHandler.THUMBNAIL_VIEW, ComplexObsHandler.PREVIEW_VIEW };
+	
+	/** Views served from scaled down copies of the image */
+	private static final String[] derivativeViews = { ComplexObsHandler.THUMBNAIL_VIEW, ComplexObsHandler.PREVIEW_VIEW };
+	
+	public static final int DEFAULT_THUMBNAIL_SIZE = 150;
+	
+	public static final int DEFAULT_PREVIEW_SIZE = 800;
 	
 	private static final Logger log = LoggerFactory.getLogger(ImageHandler.class);
 	
 	private Set<String> extensions;
 	
+	private int thumbnailSize = DEFAULT_THUMBNAIL_SIZE;
+	
+	private int previewSize = DEFAULT_PREVIEW_SIZE;
+	
+	private boolean generateDerivativesOnSave = false;
+	
 	/**
 	 * Constructor initializes formats for alternative file names to protect from unintentionally
 	 * overwriting existing files.
@@ -83,32 +109,15 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 			
 			ComplexData complexData = new ComplexData(file.getName(), img);
 			
-			String mimeType = null;
-			
-			// Image MIME type
-			try {
-				FileImageInputStream imgStream = new FileImageInputStream(file);
-				Iterator<ImageReader> imgReader = ImageIO.getImageReaders(imgStream);
-				imgStream.close();
-				if (imgReader.hasNext()) {
-					mimeType = "image/" + imgReader.next().getFormatName().toLowerCase();
-				} else {
-					log.warn("MIME type of " + file.getAbsolutePath() + " is not known");
-				}
-			}
-			catch (FileNotFoundException e) {
-				log.error("Image " + file.getAbsolutePath() + " was not found", e);
-			}
-			catch (IOException e) {
-				log.error("Trying to determine MIME type of " + file.getAbsolutePath(), e);
-			}
-					
-			// If the mimetype is still null, determine it via getFileMimeType()
-			mimeType = mimeType != null ? mimeType : OpenmrsUtil.getFileMimeType(file);
+			String mimeType = getImageMimeType(file);
 			
 			complexData.setMimeType(mimeType);	
 			
 			obs.setComplexData(complexData);
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			return getStreamingObs(obs, file.getName());
+		} else if (ComplexObsHandler.THUMBNAIL_VIEW.equals(view) || ComplexObsHandler.PREVIEW_VIEW.equals(view)) {
+			return getDerivativeObs(obs, file, view);
 		} else {
 			// No other view supported
 			// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -118,6 +127,167 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 		return obs;
 	}
 	
+	/**
+	 * Sets a {@link StreamingComplexData} over the scaled down copy of the image for the given view
+	 * as the complex data of the obs, creating the copy if it does not exist yet or is older than
+	 * the image.
+	 */
+	private Obs getDerivativeObs(Obs obs, File file, String view) {
+		if (!file.exists()) {
+			log.error("Unable to find file associated with complex obs " + obs.getId());
+			return null;
+		}
+		
+		File derivative = getDerivativeFile(file, view);
+		if (!derivative.exists() || derivative.lastModified() < file.lastModified()) {
+			try {
+				BufferedImage img = readImage(file, getDerivativeSize(view));
+				if (img == null) {
+					log.warn("Unable to read image " + file.getAbsolutePath() + ", serving it as is for " + view);
+					return getStreamingObs(obs, file.getName());
+				}
+				writeDerivative(img, derivative, getDerivativeSize(view));
+			}
+			catch (IOException e) {
+				throw new APIException("Obs.error.trying.write.complex", null, e);
+			}
+		}
+		
+		ComplexData complexData = new StreamingComplexData(derivative.getName(), derivative);
+		complexData.setMimeType(getImageMimeType(derivative));
+		obs.setComplexData(complexData);
+		return obs;
+	}
+	
+	/**
+	 * Gets the file storing the scaled down copy of the given image for the given view, e.g.
+	 * <code>photo_uuid.thumbnail.jpg</code> for <code>photo_uuid.jpg</code>.
+	 * 
+	 * @param file the original image
+	 * @param view the view to get the copy for
+	 * @return the file of the copy, it may not exist yet
+	 * @since 2.6.0
+	 */
+	public File getDerivativeFile(File file, String view) {
+		String extension = FilenameUtils.getExtension(file.getName()).toLowerCase();
+		if (!extensions.contains(extension)) {
+			extension = "png";
+		}
+		String suffix = ComplexObsHandler.THUMBNAIL_VIEW.equals(view) ? "thumbnail" : "preview";
+		return new File(file.getParentFile(), FilenameUtils.getBaseName(file.getName()) + "." + suffix + "." + extension);
+	}
+	
+	private int getDerivativeSize(String view) {
+		return ComplexObsHandler.THUMBNAIL_VIEW.equals(view) ? thumbnailSize : previewSize;
+	}
+	
+	/**
+	 * Reads the given image, skipping pixels of images which are much larger than needed for the
+	 * given size so that large images are never decoded in full.
+	 * 
+	 * @return the image or null if no reader supports the file
+	 */
+	private BufferedImage readImage(File file, int size) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+			Iterator<ImageReader> readers = in == null ? Collections.emptyIterator() : ImageIO.getImageReaders(in);
+			if (!readers.hasNext()) {
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, true);
+				int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+				// keep twice the needed resolution so the final scaling step can smooth the result
+				int subsampling = Math.max(1, longestSide / (size * 2));
+				ImageReadParam param = reader.getDefaultReadParam();
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				return reader.read(0, param);
+			}
+			finally {
+				reader.dispose();
+			}
+		}
+	}
+	
+	/**
+	 * Scales the given image down so that its longest side is at most the given size and writes it
+	 * to the given file in the format matching the file extension.
+	 */
+	private void writeDerivative(BufferedImage img, File derivative, int size) throws IOException {
+		String format = FilenameUtils.getExtension(derivative.getName());
+		double factor = Math.min(1.0, (double) size / Math.max(img.getWidth(), img.getHeight()));
+		int width = Math.max(1, (int) Math.round(img.getWidth() * factor));
+		int height = Math.max(1, (int) Math.round(img.getHeight() * factor));
+		boolean alpha = img.getColorModel().hasAlpha() && !"jpg".equals(format) && !"jpeg".equals(format);
+		
+		BufferedImage scaled = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB
+		        : BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = scaled.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(img, 0, 0, width, height, null);
+		}
+		finally {
+			graphics.dispose();
+		}
+		
+		writeAtomically(derivative, out -> {
+			if (!ImageIO.write(scaled, format, out)) {
+				throw new IOException("No image writer found for " + format);
+			}
+		});
+	}
+	
+	/**
+	 * Gets the MIME type of the given image from the image reader supporting it, falling back to
+	 * the file name if there is none.
+	 */
+	private String getImageMimeType(File file) {
+		String mimeType = null;
+		
+		// Image MIME type
+		try {
+			FileImageInputStream imgStream = new FileImageInputStream(file);
+			Iterator<ImageReader> imgReader = ImageIO.getImageReaders(imgStream);
+			imgStream.close();
+			if (imgReader.hasNext()) {
+				mimeType = "image/" + imgReader.next().getFormatName().toLowerCase();
+			} else {
+				log.warn("MIME type of " + file.getAbsolutePath() + " is not known");
+			}
+		}
+		catch (FileNotFoundException e) {
+			log.error("Image " + file.getAbsolutePath() + " was not found", e);
+		}
+		catch (IOException e) {
+			log.error("Trying to determine MIME type of " + file.getAbsolutePath(), e);
+		}
+		
+		// If the mimetype is still null, determine it via getFileMimeType()
+		return mimeType != null ? mimeType : OpenmrsUtil.getFileMimeType(file);
+	}
+	
+	/**
+	 * Deletes the scaled down copies of the image before deleting the image itself
+	 * 
+	 * @see org.openmrs.obs.handler.AbstractHandler#purgeComplexData(org.openmrs.Obs)
+	 */
+	@Override
+	public boolean purgeComplexData(Obs obs) {
+		File file = getComplexDataFile(obs);
+		for (String view : derivativeViews) {
+			File derivative = getDerivativeFile(file, view);
+			try {
+				Files.deleteIfExists(derivative.toPath());
+			}
+			catch (IOException e) {
+				log.warn("Could not delete " + derivative.getAbsolutePath() + " for obsId=" + obs.getObsId(), e);
+			}
+		}
+		return super.purgeComplexData(obs);
+	}
+	
 	/**
 	 * @see org.openmrs.obs.ComplexObsHandler#getSupportedViews()
 	 */
@@ -162,32 +332,95 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 			throw new APIException("Obs.error.cannot.save.complex", new Object[] { obs.getObsId() });
 		}
 		
-		File outfile = null;
 		try {
-			outfile = getOutputFileToWrite(obs);
+			File outfile = getOutputFileToWrite(obs);
 			
 			String extension = getExtension(obs.getComplexData().getTitle());
 			
 			// TODO: Check this extension against the registered extensions for validity
 			
-			// Write the file to the file system.
-			ImageIO.write(img, extension, outfile);
+			// Write the file to the file system, a failed write leaves no file behind
+			BufferedImage image = img;
+			writeAtomically(outfile, out -> {
+				if (!ImageIO.write(image, extension, out)) {
+					throw new IOException("No image writer found for " + extension);
+				}
+			});
 			
 			// Set the Title and URI for the valueComplex
-			obs.setValueComplex(extension + " image |" + outfile.getName());
+			obs.setValueComplex(extension + " image |" + getRelativePath(outfile));
+			
+			if (generateDerivativesOnSave) {
+				for (String view : derivativeViews) {
+					try {
+						writeDerivative(image, getDerivativeFile(outfile, view), getDerivativeSize(view));
+					}
+					catch (IOException e) {
+						// the copy is created again on the first request
+						log.warn("Unable to create the " + view + " of " + outfile.getAbsolutePath(), e);
+					}
+				}
+			}
 			
 			// Remove the ComlexData from the Obs
 			obs.setComplexData(null);
 			
 		}
 		catch (IOException ioe) {
-			if (outfile != null && outfile.length() == 0) {
-				outfile.delete(); // OpenJDK 7 & 8 may leave a 0-byte file when ImageIO.write(..) fails.
-			}
 			throw new APIException("Obs.error.trying.write.complex", null, ioe);
 		}
 		
 		return obs;
 	}
 	
+	/**
+	 * @return the maximum width and height of images served for the thumbnail view
+	 * @since 2.6.0
+	 */
+	public int getThumbnailSize() {
+		return thumbnailSize;
+	}
+	
+	/**
+	 * @param thumbnailSize the maximum width and height of images served for the thumbnail view
+	 * @since 2.6.0
+	 */
+	public void setThumbnailSize(int thumbnailSize) {
+		this.thumbnailSize = thumbnailSize;
+	}
+	
+	/**
+	 * @return the maximum width and height of images served for the preview view
+	 * @since 2.6.0
+	 */
+	public int getPreviewSize() {
+		return previewSize;
+	}
+	
+	/**
+	 * @param previewSize the maximum width and height of images served for the preview view
+	 * @since 2.6.0
+	 */
+	public void setPreviewSize(int previewSize) {
+		this.previewSize = previewSize;
+	}
+	
+	/**
+	 * @return true if the thumbnail and preview are created when an image is saved rather than on
+	 *         their first request
+	 * @since 2.6.0
+	 */
+	public boolean isGenerateDerivativesOnSave() {
+		return generateDerivativesOnSave;
+	}
+	
+	/**
+	 * @param generateDerivativesOnSave true to create the thumbnail and preview when an image is
+	 *            saved rather than on their first request
+	 * @since 2.6.0
+	 */
+	public void setGenerateDerivativesOnSave(boolean generateDerivativesOnSave) {
+		this.generateDerivativesOnSave = generateDerivativesOnSave;
+	}
+	
 }
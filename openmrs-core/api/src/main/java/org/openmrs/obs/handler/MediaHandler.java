@@ -12,10 +12,10 @@ package org.openmrs.obs.handler;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.InputStream;
 
+import org.apache.commons.io.IOUtils;
 import org.openmrs.Obs;
 import org.openmrs.api.APIException;
 import org.openmrs.obs.ComplexData;
@@ -35,7 +35,7 @@ import org.slf4j.LoggerFactory;
 public class MediaHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
-	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, };
+	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW };
 	
 	private static final Logger log = LoggerFactory.getLogger(MediaHandler.class);
 	
@@ -73,6 +73,9 @@ public class MediaHandler extends AbstractHandler implements ComplexObsHandler {
 			catch (FileNotFoundException e) {
 				log.error("Trying to create media file stream from " + file.getAbsolutePath(), e);
 			}
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			String[] names = obs.getValueComplex().split("\\|");
+			return getStreamingObs(obs, names[0].replace(",", "").replace(" ", ""));
 		}
 		// No other view supported
 		// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -101,16 +104,12 @@ public class MediaHandler extends AbstractHandler implements ComplexObsHandler {
 			// Write the File to the File System
 			String fileName = obs.getComplexData().getTitle();
 			File outfile = getOutputFileToWrite(obs);
-			OutputStream out = new FileOutputStream(outfile, false);
-			FileInputStream mediaStream = (FileInputStream) obs.getComplexData().getData();
-			OpenmrsUtil.copyFile(mediaStream, out);
+			InputStream mediaStream = (InputStream) obs.getComplexData().getData();
+			writeAtomically(outfile, out -> IOUtils.copy(mediaStream, out));
 			
 			// Store the filename in the Obs
 			obs.setComplexData(null);
-			obs.setValueComplex(fileName + "|" + outfile.getName());
-			
-			// close the stream
-			out.close();
+			obs.setValueComplex(fileName + "|" + getRelativePath(outfile));
 		}
 		catch (IOException ioe) {
 			throw new APIException("Obs.error.trying.write.complex", null, ioe);
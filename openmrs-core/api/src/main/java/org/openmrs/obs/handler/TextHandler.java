@@ -12,11 +12,11 @@ package org.openmrs.obs.handler;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.io.IOUtils;
@@ -39,7 +39,7 @@ public class TextHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
 	private static final String[] supportedViews = { ComplexObsHandler.TEXT_VIEW, ComplexObsHandler.RAW_VIEW,
-	        ComplexObsHandler.URI_VIEW };
+	        ComplexObsHandler.URI_VIEW, ComplexObsHandler.STREAM_VIEW };
 	
 	private static final Logger log = LoggerFactory.getLogger(TextHandler.class);
 	
@@ -79,6 +79,9 @@ public class TextHandler extends AbstractHandler implements ComplexObsHandler {
 			}
 		} else if (ComplexObsHandler.URI_VIEW.equals(view)) {
 			complexData = new ComplexData(file.getName(), file.getPath());
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			String[] names = obs.getValueComplex().split("\\|");
+			return getStreamingObs(obs, names[0].replaceAll(",", "").replaceAll(" ", "").replaceAll("file$", ""));
 		} else {
 			// No other view supported
 			// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -117,40 +120,33 @@ public class TextHandler extends AbstractHandler implements ComplexObsHandler {
 			log.error("Cannot save complex data where obsId=" + obs.getObsId() + " because its ComplexData is null.");
 			return obs;
 		}
-		BufferedWriter fout = null;
 		try {
 			File outfile = getOutputFileToWrite(obs);
-			fout = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outfile), StandardCharsets.UTF_8));
-			Reader tempRd;
 			Object data = obs.getComplexData().getData();
-			if (data instanceof char[]) {
-				fout.write((char[]) data);
-			} else if (Reader.class.isAssignableFrom(data.getClass())) {
-				try {
-					tempRd = new BufferedReader((Reader) data);
-					while (true) {
-						int character = tempRd.read();
-						if (character == -1) {
-							break;
-						}
-						fout.write(character);
+			writeAtomically(outfile, out -> {
+				Writer fout = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+				if (data instanceof char[]) {
+					fout.write((char[]) data);
+				} else if (Reader.class.isAssignableFrom(data.getClass())) {
+					try (Reader tempRd = new BufferedReader((Reader) data)) {
+						IOUtils.copy(tempRd, fout);
+					}
+					catch (IOException e) {
+						throw new APIException("Obs.error.unable.convert.complex.data", new Object[] { "Reader" }, e);
+					}
+				} else if (InputStream.class.isAssignableFrom(data.getClass())) {
+					try {
+						IOUtils.copy((InputStream) data, fout);
+					}
+					catch (IOException e) {
+						throw new APIException("Obs.error.unable.convert.complex.data", new Object[] { "input stream" }, e);
 					}
-					tempRd.close();
-				}
-				catch (IOException e) {
-					throw new APIException("Obs.error.unable.convert.complex.data", new Object[] { "Reader" }, e);
-				}
-			} else if (InputStream.class.isAssignableFrom(data.getClass())) {
-				try {
-					IOUtils.copy((InputStream) data, fout);
-				}
-				catch (IOException e) {
-					throw new APIException("Obs.error.unable.convert.complex.data", new Object[] { "input stream" }, e);
 				}
-			}
+				fout.flush();
+			});
 			
 			// Set the Title and URI for the valueComplex
-			obs.setValueComplex(outfile.getName() + " file |" + outfile.getName());
+			obs.setValueComplex(outfile.getName() + " file |" + getRelativePath(outfile));
 			
 			// Remove the ComplexData from the Obs
 			obs.setComplexData(null);
@@ -159,14 +155,6 @@ public class TextHandler extends AbstractHandler implements ComplexObsHandler {
 		catch (IOException ioe) {
 			throw new APIException("Obs.error.trying.write.complex", null, ioe);
 		}
-		finally {
-			try {
-				fout.close();
-			}
-			catch (Exception e) {
-				// pass
-			}
-		}
 		
 		return obs;
 	}
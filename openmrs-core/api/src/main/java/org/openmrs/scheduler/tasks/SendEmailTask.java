@@ -9,31 +9,68 @@
  */
 package org.openmrs.scheduler.tasks;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
 import org.openmrs.api.context.Context;
+import org.openmrs.notification.MessageService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Implementation of the stateful task that sends an email.
+ * Implementation of the stateful task that sends the emails waiting in the outbound message queue,
+ * i.e. the ones queued while the application was stopped and the ones which could not be sent
+ * before and are due to be tried again.
+ * <br>
+ * If the task property {@value #SENT_MESSAGE_RETENTION_DAYS_PROPERTY} is set, the queued messages
+ * sent more than that many days ago are deleted.
  */
 public class SendEmailTask extends AbstractTask {
 	
+	/**
+	 * @since 2.6.0
+	 */
+	public static final String SENT_MESSAGE_RETENTION_DAYS_PROPERTY = "sentMessageRetentionDays";
+	
 	// Logger 
 	private static final Logger log = LoggerFactory.getLogger(SendEmailTask.class);
 	
 	/**
-	 * Process the next form entry in the database and then remove the form entry from the database.
+	 * Sends the queued messages which are due, one batch after the other
+	 * 
+	 * @see MessageService#sendQueuedMessages()
 	 */
 	@Override
 	public void execute() {
-		try {
-			Context.openSession();
-			log.info("****************************** SEND EMAIL TASK:  Executing task ...");
-		}
-		finally {
-			Context.closeSession();
+		if (!isExecuting) {
+			log.debug("Starting Send Email Task...");
+			
+			startExecuting();
+			try {
+				MessageService messageService = Context.getMessageService();
+				int sent = 0;
+				for (int batch = messageService.sendQueuedMessages(); batch > 0; batch = messageService
+				        .sendQueuedMessages()) {
+					sent += batch;
+				}
+				log.debug("Tried to send {} queued messages", sent);
+				
+				String retentionDays = taskDefinition == null ? null : taskDefinition
+				        .getProperty(SENT_MESSAGE_RETENTION_DAYS_PROPERTY);
+				if (StringUtils.isNotBlank(retentionDays)) {
+					Date sentBefore = new Date(System.currentTimeMillis()
+					        - TimeUnit.DAYS.toMillis(Long.parseLong(retentionDays.trim())));
+					messageService.purgeSentQueuedMessages(sentBefore);
+				}
+			}
+			catch (Exception e) {
+				log.error("Error while sending queued messages:", e);
+			}
+			finally {
+				stopExecuting();
+			}
 		}
-		
 	}
 	
 	/**
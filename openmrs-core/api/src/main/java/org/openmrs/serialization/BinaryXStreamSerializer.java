@@ -0,0 +1,105 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.XStreamException;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
+
+/**
+ * This serializer uses the xstream library like {@link SimpleXStreamSerializer} but writes objects
+ * in xstream's binary format instead of xml, encoded as base64. The output is more compact and
+ * reading it back is much faster because there is no xml to parse, which makes it a good fit for
+ * large objects that are read often.
+ * <br>
+ * When it is given the xstream object of the {@link SimpleXStreamSerializer}, the aliases and
+ * converters that modules register there are used for both formats.
+ *
+ * @since 2.6.0
+ */
+public class BinaryXStreamSerializer implements OpenmrsSerializer {
+
+	private static final BinaryStreamDriver driver = new BinaryStreamDriver();
+
+	private final XStream xstream;
+
+	/**
+	 * Default Constructor
+	 *
+	 * @throws SerializationException
+	 */
+	public BinaryXStreamSerializer() throws SerializationException {
+		this(new SimpleXStreamSerializer().getXstream());
+	}
+
+	/**
+	 * Constructor that takes the xstream object to use, it must be set up like the one of
+	 * {@link SimpleXStreamSerializer} so that proxies are not serialized
+	 *
+	 * @param xstream
+	 */
+	public BinaryXStreamSerializer(XStream xstream) {
+		this.xstream = xstream;
+	}
+
+	/**
+	 * @return the xstream object used by this serializer
+	 */
+	public XStream getXstream() {
+		return xstream;
+	}
+
+	/**
+	 * @see OpenmrsSerializer#serialize(java.lang.Object)
+	 * <strong>Should</strong> serialize an object that can be deserialized again
+	 * <strong>Should</strong> not serialize proxies
+	 */
+	@Override
+	public String serialize(Object o) throws SerializationException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		HierarchicalStreamWriter writer = driver.createWriter(out);
+		try {
+			xstream.marshal(o, writer);
+		}
+		finally {
+			writer.close();
+		}
+		return Base64.getEncoder().encodeToString(out.toByteArray());
+	}
+
+	/**
+	 * @see OpenmrsSerializer#deserialize(String, Class)
+	 * <strong>Should</strong> fail if the string was not serialized by this serializer
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T deserialize(String serializedObject, Class<? extends T> clazz) throws SerializationException {
+		HierarchicalStreamReader reader = null;
+		try {
+			byte[] data = Base64.getDecoder().decode(serializedObject);
+			reader = driver.createReader(new ByteArrayInputStream(data));
+			return (T) xstream.unmarshal(reader);
+		}
+		catch (XStreamException | IllegalArgumentException e) {
+			throw new SerializationException("Unable to deserialize class: " + clazz.getName(), e);
+		}
+		finally {
+			if (reader != null) {
+				reader.close();
+			}
+		}
+	}
+}
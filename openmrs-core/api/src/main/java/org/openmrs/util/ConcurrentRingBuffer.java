@@ -0,0 +1,163 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free ring buffer keeping the most recently added elements, meant for many threads adding
+ * elements and occasional readers taking a snapshot of its content.
+ * <p>
+ * Each added element gets a sequence number from a shared counter and is stored in the slot
+ * <code>sequence % capacity</code> with a compare-and-set which never replaces a newer element by
+ * an older one, so adding never blocks. Snapshots read each slot once and keep the elements whose
+ * sequence matches the slot, which makes them wait-free; elements being added while the snapshot
+ * is taken may be left out.
+ * <p>
+ * The capacity can be changed at any time with {@link #resize(int)}, the most recent elements
+ * are kept, including the ones added while resizing.
+ * <p>
+ * This class does not support null elements.
+ *
+ * @param <E> the type of elements in this buffer
+ * @since 2.6.0
+ */
+public class ConcurrentRingBuffer<E> {
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private volatile AtomicReferenceArray<Entry<E>> slots;
+
+	/**
+	 * @param capacity the maximum number of elements kept, 0 to keep none
+	 */
+	public ConcurrentRingBuffer(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must be a positive number or 0");
+		}
+		this.slots = new AtomicReferenceArray<>(capacity);
+	}
+
+	/**
+	 * Adds an element, replacing the oldest one if the buffer is full
+	 *
+	 * @param element the element to add
+	 */
+	public void add(E element) {
+		Objects.requireNonNull(element);
+		Entry<E> entry = new Entry<>(sequence.getAndIncrement(), element);
+		AtomicReferenceArray<Entry<E>> current = slots;
+		store(current, entry);
+		// the buffer was resized while storing, the copy may have missed this entry
+		AtomicReferenceArray<Entry<E>> resized = slots;
+		if (resized != current) {
+			store(resized, entry);
+		}
+	}
+
+	private static <E> void store(AtomicReferenceArray<Entry<E>> slots, Entry<E> entry) {
+		if (slots.length() == 0) {
+			return;
+		}
+		int index = (int) (entry.sequence % slots.length());
+		Entry<E> existing = slots.get(index);
+		while (existing == null || existing.sequence < entry.sequence) {
+			if (slots.compareAndSet(index, existing, entry)) {
+				return;
+			}
+			existing = slots.get(index);
+		}
+	}
+
+	/**
+	 * @return the elements currently in the buffer from the oldest to the most recent
+	 */
+	public List<E> snapshot() {
+		AtomicReferenceArray<Entry<E>> current = slots;
+		int capacity = current.length();
+		if (capacity == 0) {
+			return Collections.emptyList();
+		}
+		long end = sequence.get();
+		long start = Math.max(0, end - capacity);
+		List<E> ret = new ArrayList<>((int) (end - start));
+		for (long s = start; s < end; s++) {
+			Entry<E> entry = current.get((int) (s % capacity));
+			if (entry != null && entry.sequence == s) {
+				ret.add(entry.element);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Changes the capacity of the buffer, keeping the most recent elements which fit in the new
+	 * capacity
+	 *
+	 * @param capacity the new capacity
+	 */
+	public synchronized void resize(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must be a positive number or 0");
+		}
+		AtomicReferenceArray<Entry<E>> old = slots;
+		if (old.length() == capacity) {
+			return;
+		}
+		// publish the new slots first so that elements added from now on go there, then copy the
+		// old ones, store() never lets an old element replace a newer one
+		AtomicReferenceArray<Entry<E>> resized = new AtomicReferenceArray<>(capacity);
+		slots = resized;
+		for (int i = 0; i < old.length(); i++) {
+			Entry<E> entry = old.get(i);
+			if (entry != null) {
+				store(resized, entry);
+			}
+		}
+	}
+
+	/**
+	 * Removes all the elements
+	 */
+	public synchronized void clear() {
+		slots = new AtomicReferenceArray<>(slots.length());
+	}
+
+	/**
+	 * @return the maximum number of elements kept
+	 */
+	public int getCapacity() {
+		return slots.length();
+	}
+
+	/**
+	 * @return the number of elements added since the buffer was created
+	 */
+	public long getAddedCount() {
+		return sequence.get();
+	}
+
+	private static final class Entry<E> {
+
+		private final long sequence;
+
+		private final E element;
+
+		private Entry(long sequence, E element) {
+			this.sequence = sequence;
+			this.element = element;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates daemon threads named after the pool they belong to, e.g. "MessageSender-1", so that
+ * background workers do not keep the JVM alive on shutdown and can be told apart in thread dumps.
+ *
+ * @since 2.6.0
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+	
+	private final String name;
+	
+	private final AtomicInteger count = new AtomicInteger();
+	
+	/**
+	 * @param name the prefix of the names of the created threads
+	 */
+	public DaemonThreadFactory(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * @see ThreadFactory#newThread(Runnable)
+	 */
+	@Override
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
@@ -17,10 +17,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -55,11 +59,13 @@ import liquibase.lockservice.LockServiceFactory;
 import liquibase.resource.CompositeResourceAccessor;
 import liquibase.resource.FileSystemResourceAccessor;
 import liquibase.resource.ResourceAccessor;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.context.Context;
 import org.openmrs.liquibase.ChangeLogDetective;
 import org.openmrs.liquibase.ChangeLogVersionFinder;
+import org.openmrs.liquibase.ChangeLogVersions;
 import org.openmrs.liquibase.ChangeSetExecutorCallback;
 import org.openmrs.liquibase.LiquibaseProvider;
 import org.slf4j.Logger;
@@ -84,6 +90,15 @@ public class DatabaseUpdater {
 	
 	public static final String DATABASE_UPDATES_LOG_FILE = "liquibaseUpdateLogs.txt";
 	
+	/**
+	 * The file in the application data directory holding the fingerprint of the database changes the
+	 * last time they were all found to be run
+	 * 
+	 * @see #getChangeLogFingerprint()
+	 * @since 2.6.0
+	 */
+	public static final String CHANGE_LOG_FINGERPRINT_FILE = "liquibaseChangeLogFingerprint.txt";
+	
 	private static Integer authenticatedUserId;
 	
 	private static final ChangeLogDetective changeLogDetective;
@@ -148,6 +163,8 @@ public class DatabaseUpdater {
 			log.debug("applying Liquibase changelog '{}'", changeLog);
 			executeChangelog(changeLog, (ChangeSetExecutorCallback) null);
 		}
+		
+		writeChangeLogFingerprint(getChangeLogFingerprint());
 	}
 	
 	/**
@@ -256,13 +273,22 @@ public class DatabaseUpdater {
 	}
 	
 	/**
-	 * Ask Liquibase if it needs to do any updates.
+	 * Ask Liquibase if it needs to do any updates. Parsing the changelogs is skipped if the
+	 * {@link #getChangeLogFingerprint()} did not change since all the changes were last found to be
+	 * run, unless the {@link OpenmrsConstants#FORCE_DATABASE_UPDATE_CHECK_RUNTIME_PROPERTY} is set.
 	 *
 	 * @return true/false whether database updates are required
 	 * @throws Exception when an exception is raised while processing Liquibase changelog files
 	 */
 	public static boolean updatesRequired() throws Exception {
 		log.debug("checking for updates");
+		String fingerprint = getChangeLogFingerprint();
+		if (fingerprint != null && !isUpdateCheckForced() && fingerprint.equals(readChangeLogFingerprint())
+		        && !isLocked()) {
+			log.debug("database changes did not change since they were all found to be run");
+			return false;
+		}
+		
 		List<OpenMRSChangeSet> changesets = getUnrunDatabaseChanges(new DatabaseUpdaterLiquibaseProvider());
 		
 		// if the db is locked, it means there was a crash
@@ -274,10 +300,105 @@ public class DatabaseUpdater {
 			// lock
 			DatabaseUpdater.releaseDatabaseLock();
 			log.debug("db lock found and released automatically");
-			return false;
 		}
 		
-		return !changesets.isEmpty();
+		if (changesets.isEmpty()) {
+			writeChangeLogFingerprint(fingerprint);
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Computes a fingerprint of the core database changes and of the changes that were run on the
+	 * database. It changes when the OpenMRS version, the database, the content of a core changelog
+	 * or the changes recorded in the liquibasechangelog table change.
+	 * 
+	 * @return the fingerprint, or null if it could not be computed, e.g. because the database is
+	 *         not set up yet
+	 * @since 2.6.0
+	 */
+	public static String getChangeLogFingerprint() {
+		return getChangeLogFingerprint(OpenmrsClassLoader.getInstance());
+	}
+	
+	/**
+	 * @param classLoader the {@link ClassLoader} to read the core changelogs from
+	 * @return the fingerprint, or null if it could not be computed
+	 * @see #getChangeLogFingerprint()
+	 */
+	static String getChangeLogFingerprint(ClassLoader classLoader) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(OpenmrsConstants.OPENMRS_VERSION_LONG.getBytes(StandardCharsets.UTF_8));
+			String url = Context.getRuntimeProperties().getProperty("connection.url", "");
+			digest.update(url.getBytes(StandardCharsets.UTF_8));
+			
+			List<String> changeLogFilenames = new ArrayList<>();
+			for (List<String> snapshotFilenames : changeLogVersionFinder.getSnapshotCombinations().values()) {
+				changeLogFilenames.addAll(snapshotFilenames);
+			}
+			changeLogFilenames.addAll(changeLogVersionFinder.getUpdateFileNames(new ChangeLogVersions()
+			        .getUpdateVersions()));
+			for (String filename : changeLogFilenames) {
+				try (InputStream in = classLoader.getResourceAsStream(
+				    filename.replace(File.separatorChar, '/'))) {
+					if (in != null) {
+						digest.update(IOUtils.toByteArray(in));
+					}
+				}
+			}
+			
+			try (Connection connection = getConnection();
+			        Statement statement = connection.createStatement();
+			        ResultSet resultSet = statement
+			                .executeQuery("select count(*), max(orderexecuted), max(dateexecuted) from liquibasechangelog")) {
+				resultSet.next();
+				digest.update((resultSet.getString(1) + "|" + resultSet.getString(2) + "|" + resultSet.getString(3))
+				        .getBytes(StandardCharsets.UTF_8));
+			}
+			
+			return new BigInteger(1, digest.digest()).toString(16);
+		}
+		catch (Exception e) {
+			log.debug("Unable to compute the fingerprint of the database changes", e);
+			return null;
+		}
+	}
+	
+	private static boolean isUpdateCheckForced() {
+		return "true".equals(Context.getRuntimeProperties().getProperty(
+		    OpenmrsConstants.FORCE_DATABASE_UPDATE_CHECK_RUNTIME_PROPERTY, "false"));
+	}
+	
+	private static File getChangeLogFingerprintFile() {
+		return new File(OpenmrsUtil.getApplicationDataDirectory(), CHANGE_LOG_FINGERPRINT_FILE);
+	}
+	
+	private static String readChangeLogFingerprint() {
+		File file = getChangeLogFingerprintFile();
+		if (!file.exists()) {
+			return null;
+		}
+		try {
+			return FileUtils.readFileToString(file, StandardCharsets.UTF_8).trim();
+		}
+		catch (IOException e) {
+			log.warn("Failed to read the fingerprint of the database changes", e);
+			return null;
+		}
+	}
+	
+	private static void writeChangeLogFingerprint(String fingerprint) {
+		if (fingerprint == null) {
+			return;
+		}
+		try {
+			FileUtils.writeStringToFile(getChangeLogFingerprintFile(), fingerprint, StandardCharsets.UTF_8);
+		}
+		catch (IOException e) {
+			log.warn("Failed to write the fingerprint of the database changes", e);
+		}
 	}
 	
 	/**
@@ -156,6 +156,7 @@ public class FormUtil {
 	 * @param form form for which structure is requested
 	 * @return sorted map of <code>FormField</code>s, where the top-level fields are under the key
 	 *         zero and all other leaves are stored under their parent <code>FormField</code>'s id.
+	 * @see org.openmrs.api.FormService#getCompiledForm(Form) to reuse the structure of a saved form
 	 */
 	public static Map<Integer, TreeSet<FormField>> getFormStructure(Form form) {
 		Map<Integer, TreeSet<FormField>> formStructure = new TreeMap<>();
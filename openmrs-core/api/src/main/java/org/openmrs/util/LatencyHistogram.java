@@ -0,0 +1,146 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations meant to be updated by many threads at once. Durations are
+ * counted in buckets whose bounds are powers of two microseconds, from under a microsecond up to
+ * about 33 seconds, longer durations are counted in the last bucket. Percentiles are estimated as
+ * the upper bound of the bucket they fall in, so they are at most twice the actual value.
+ * <p>
+ * Recording a duration only increments striped counters, reading the histogram while it is being
+ * updated gives values which may be slightly inconsistent with each other.
+ *
+ * @since 2.6.0
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The number of buckets, bucket <code>i</code> counts the durations from
+	 * <code>2^(i-1)</code> included to <code>2^i</code> excluded microseconds
+	 */
+	public static final int BUCKET_COUNT = 27;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder totalNanos = new LongAdder();
+
+	private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+	public LatencyHistogram() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @param nanos the duration to record in nanoseconds, negative durations are counted as 0
+	 */
+	public void record(long nanos) {
+		long duration = Math.max(0, nanos);
+		buckets[getBucket(duration)].increment();
+		count.increment();
+		totalNanos.add(duration);
+		maxNanos.accumulate(duration);
+	}
+
+	static int getBucket(long nanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+	}
+
+	/**
+	 * @param bucket the bucket index
+	 * @return the duration in nanoseconds below which the durations of the bucket are
+	 */
+	public static long getBucketUpperBoundNanos(int bucket) {
+		return TimeUnit.MICROSECONDS.toNanos(1L << bucket);
+	}
+
+	/**
+	 * @return the number of recorded durations
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return the sum of the recorded durations in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	/**
+	 * @return the longest recorded duration in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * @return the number of durations counted in each bucket
+	 */
+	public long[] getBucketCounts() {
+		long[] ret = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			ret[i] = buckets[i].sum();
+		}
+		return ret;
+	}
+
+	/**
+	 * Estimates a percentile of the recorded durations
+	 *
+	 * @param percentile the percentile between 0 and 100
+	 * @return the upper bound in nanoseconds of the bucket holding the percentile, never more than
+	 *         the longest recorded duration, 0 if nothing was recorded
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100");
+		}
+		long[] counts = getBucketCounts();
+		long total = 0;
+		for (long c : counts) {
+			total += c;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(getBucketUpperBoundNanos(i), getMaxNanos());
+			}
+		}
+		return getMaxNanos();
+	}
+
+	/**
+	 * Forgets all the recorded durations, durations recorded while resetting may be partly kept
+	 */
+	public void reset() {
+		for (LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+		count.reset();
+		totalNanos.reset();
+		maxNanos.reset();
+	}
+}
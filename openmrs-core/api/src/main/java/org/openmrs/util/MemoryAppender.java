@@ -67,6 +67,15 @@ public class MemoryAppender extends org.openmrs.logging.MemoryAppender {
 		}
 	}
 	
+	@Override
+	public void setBufferSize(int bufferSize) {
+		if (implementation != null) {
+			implementation.setBufferSize(bufferSize);
+		} else {
+			super.setBufferSize(bufferSize);
+		}
+	}
+	
 	@Override
 	public List<String> getLogLines() {
 		if (implementation != null) {
@@ -176,6 +176,14 @@ public final class OpenmrsConstants {
 	 */
 	public static final String AUTO_UPDATE_DATABASE_RUNTIME_PROPERTY = "auto_update_database";
 	
+	/**
+	 * The name of the runtime property that a user can set to check all the database changes on
+	 * startup, even if they did not change since they were last found to be run
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String FORCE_DATABASE_UPDATE_CHECK_RUNTIME_PROPERTY = "force_database_update_check";
+	
 	/**
 	 * These words are ignored in concept and patient searches
 	 * 
@@ -252,6 +260,20 @@ public final class OpenmrsConstants {
 	
 	public static final String GLOBAL_PROPERTY_HL7_ARCHIVE_DIRECTORY = "hl7_archive.dir";
 	
+	/**
+	 * Number of threads migrating hl7 in archives to the file system in parallel
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_HL7_ARCHIVE_MIGRATION_THREADS = "hl7_archive.migrationThreads";
+	
+	/**
+	 * Number of hl7 in archives migrated to the file system in each transaction
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_HL7_ARCHIVE_MIGRATION_BATCH_SIZE = "hl7_archive.migrationBatchSize";
+	
 	public static final String GLOBAL_PROPERTY_DEFAULT_THEME = "default_theme";
 	
 	public static final String GLOBAL_PROPERTY_APPLICATION_NAME = "application.name";
@@ -316,6 +338,38 @@ public final class OpenmrsConstants {
 	
 	public static final String GLOBAL_PROPERTY_COMPLEX_OBS_DIR = "obs.complex_obs_dir";
 	
+	/**
+	 * Number of levels of hashed sub-directories new complex obs files are spread over, 0 stores
+	 * them directly in the complex obs directory
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GLOBAL_PROPERTY_COMPLEX_OBS_DIR_SHARD_DEPTH = "obs.complex_obs_dir.shardDepth";
+	
+	/**
+	 * Number of obs saved by {@link org.openmrs.api.ObsService#importObs(java.util.List)} between
+	 * two flushes of the session
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_OBS_IMPORT_BATCH_SIZE = "obs.importBatchSize";
+	
+	/**
+	 * Number of patients saved by {@link org.openmrs.api.PatientService#importPatients(java.util.List)}
+	 * between two flushes of the session
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_PATIENT_IMPORT_BATCH_SIZE = "patient.importBatchSize";
+	
+	/**
+	 * Number of patients whose programs are loaded by one query, and saved between two flushes of the
+	 * session, by the cohort methods of the {@link org.openmrs.api.ProgramWorkflowService}
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_PROGRAM_COHORT_BATCH_SIZE = "programWorkflow.cohortBatchSize";
+	
 	public static final String GLOBAL_PROPERTY_MIN_SEARCH_CHARACTERS = "minSearchCharacters";
 	
 	public static final int GLOBAL_PROPERTY_DEFAULT_MIN_SEARCH_CHARACTERS = 2;
@@ -346,6 +400,14 @@ public final class OpenmrsConstants {
 	
 	public static final String GLOBAL_PROPERTY_DEFAULT_SERIALIZER = "serialization.defaultSerializer";
 	
+	/**
+	 * Serializers used to save objects of given types, like
+	 * "org.openmrs.Cohort=org.openmrs.serialization.BinaryXStreamSerializer|..."
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_SERIALIZER_BY_TYPE = "serialization.serializerByType";
+	
 	public static final String GLOBAL_PROPERTY_IGNORE_MISSING_NONLOCAL_PATIENTS = "hl7_processor.ignore_missing_patient_non_local";
 	
 	public static final String GLOBAL_PROPERTY_TRUE_CONCEPT = "concept.true";
@@ -568,6 +630,34 @@ public final class OpenmrsConstants {
 	
 	public static final String GP_ALLOWED_FAILED_LOGINS_BEFORE_LOCKOUT = "security.allowedFailedLoginsBeforeLockout";
 	
+	/**
+	 * Number of seconds a successfully verified username and password are remembered, so that
+	 * authenticating again with them does not need the password to be hashed, 0 to disable. A
+	 * password changed directly in the database or by another server sharing it keeps working until
+	 * it is forgotten, so it is disabled by default.
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_VERIFIED_CREDENTIALS_CACHE_SECONDS = "security.verifiedCredentialsCacheSeconds";
+	
+	/**
+	 * Number of seconds the ids of the patients found by a patient search are remembered, so that
+	 * paging, counting and typing more characters do not search again, 0 to disable
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.api.db.hibernate.PatientSearchCache
+	 */
+	public static final String GP_PATIENT_SEARCH_CACHE_SECONDS = "patientSearch.resultCacheSeconds";
+	
+	/**
+	 * Maximum number of results of a remembered patient search which are filtered for a longer query
+	 * starting with the same characters instead of searching again, 0 to always search again
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.api.db.hibernate.PatientSearchCache
+	 */
+	public static final String GP_PATIENT_SEARCH_CACHE_PREFIX_MAX_RESULTS = "patientSearch.resultCachePrefixMaxResults";
+	
 	/**
 	 * @since 1.9.9, 1.10.2, 1.11
 	 */
@@ -577,6 +667,43 @@ public final class OpenmrsConstants {
 	
 	public static final String GP_MAIL_SMTP_STARTTLS_ENABLE = "mail.smtp.starttls.enable";
 	
+	/**
+	 * Whether {@link org.openmrs.notification.MessageService#sendMessage(org.openmrs.notification.Message)}
+	 * queues messages and returns right away instead of waiting for the mail server
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_MAIL_SEND_ASYNCHRONOUSLY = "mail.sendAsynchronously";
+	
+	/**
+	 * Number of queued messages loaded and sent at once
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_MAIL_QUEUE_BATCH_SIZE = "mail.queue.batchSize";
+	
+	/**
+	 * Number of threads sending queued messages in parallel, read when the first message is sent
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_MAIL_QUEUE_SENDER_THREADS = "mail.queue.senderThreads";
+	
+	/**
+	 * Number of attempts to send a queued message before giving up on it
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_MAIL_QUEUE_MAX_ATTEMPTS = "mail.queue.maxAttempts";
+	
+	/**
+	 * Number of seconds before a queued message which could not be sent is tried again, doubled after
+	 * each failed attempt
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_MAIL_QUEUE_RETRY_DELAY_SECONDS = "mail.queue.retryDelaySeconds";
+	
 	public static final String GP_NEXT_ORDER_NUMBER_SEED = "order.nextOrderNumberSeed";
 	
 	public static final String GP_ORDER_NUMBER_GENERATOR_BEAN_ID = "order.orderNumberGeneratorBeanId";
@@ -607,6 +734,71 @@ public final class OpenmrsConstants {
 	 * @since 1.11
 	 */
 	public static final Integer SEARCH_INDEX_VERSION = 7;
+	
+	/**
+	 * Runtime property selecting the fields of the search index: full, lean (no anywhere n-grams) or
+	 * minimal (no anywhere n-grams nor soundex)
+	 * 
+	 * @see org.openmrs.api.db.hibernate.search.SearchIndexLayout
+	 * @since 2.6.0
+	 */
+	public static final String SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY = "search.index.profile";
+	
+	/**
+	 * Runtime property overriding whether the profile indexes anywhere n-grams, true or false
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String SEARCH_INDEX_ANYWHERE_RUNTIME_PROPERTY = "search.index.anywhere";
+	
+	/**
+	 * Runtime property overriding whether the profile indexes soundex codes, true or false
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String SEARCH_INDEX_SOUNDEX_RUNTIME_PROPERTY = "search.index.soundex";
+	
+	/**
+	 * Runtime property setting the minimum size of the start and anywhere n-grams, 2 by default
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String SEARCH_INDEX_MIN_GRAM_SIZE_RUNTIME_PROPERTY = "search.index.minGramSize";
+	
+	/**
+	 * Runtime property setting the maximum size of the start and anywhere n-grams, 20 by default
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String SEARCH_INDEX_MAX_GRAM_SIZE_RUNTIME_PROPERTY = "search.index.maxGramSize";
+
+	/**
+	 * Time in milliseconds since the epoch up to which the search index is known to be up to date,
+	 * used as the starting point of incremental search index updates
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_SEARCH_INDEX_WATERMARK = "search.indexWatermark";
+	
+	/**
+	 * @since 2.6.0
+	 */
+	public static final String GP_SEARCH_INDEXER_THREADS_TO_LOAD_OBJECTS = "search.indexer.threadsToLoadObjects";
+	
+	/**
+	 * @since 2.6.0
+	 */
+	public static final String GP_SEARCH_INDEXER_BATCH_SIZE_TO_LOAD_OBJECTS = "search.indexer.batchSizeToLoadObjects";
+	
+	/**
+	 * @since 2.6.0
+	 */
+	public static final String GP_SEARCH_INDEXER_ID_FETCH_SIZE = "search.indexer.idFetchSize";
+	
+	/**
+	 * @since 2.6.0
+	 */
+	public static final String GP_SEARCH_INDEXER_TYPES_IN_PARALLEL = "search.indexer.typesToIndexInParallel";
 
 	/**
 	 * @since 1.12
@@ -723,6 +915,22 @@ public final class OpenmrsConstants {
 		props.add(new GlobalProperty("mail.default_content_type", "text/plain",
 		        "Content type to append to the mail messages"));
 		
+		props.add(new GlobalProperty(GP_MAIL_SEND_ASYNCHRONOUSLY, "true",
+		        "true/false whether sent messages are written to a queue and sent in the background, with retries, "
+		                + "instead of making the caller wait for the mail server", BooleanDatatype.class, null));
+		
+		props.add(new GlobalProperty(GP_MAIL_QUEUE_BATCH_SIZE, "50", "Number of queued messages loaded and sent at once"));
+		
+		props.add(new GlobalProperty(GP_MAIL_QUEUE_SENDER_THREADS, "2",
+		        "Number of threads sending queued messages in parallel, changes take effect after a restart"));
+		
+		props.add(new GlobalProperty(GP_MAIL_QUEUE_MAX_ATTEMPTS, "5",
+		        "Number of attempts to send a queued message before giving up on it"));
+		
+		props.add(new GlobalProperty(GP_MAIL_QUEUE_RETRY_DELAY_SECONDS, "60",
+		        "Number of seconds before a queued message which could not be sent is tried again, doubled after each "
+		                + "failed attempt"));
+		
 		props.add(new GlobalProperty(ModuleConstants.REPOSITORY_FOLDER_PROPERTY,
 		        ModuleConstants.REPOSITORY_FOLDER_PROPERTY_DEFAULT, "Name of the folder in which to store the modules"));
 		props.add(new GlobalProperty(GLOBAL_PROPERTY_ADDRESS_TEMPLATE, DEFAULT_ADDRESS_TEMPLATE,
@@ -811,6 +1019,38 @@ public final class OpenmrsConstants {
 		props.add(new GlobalProperty(GP_LOG_LAYOUT, "%p - %C{1}.%M(%L) |%d{ISO8601}| %m%n",
 		        "A log layout pattern which is used by the OpenMRS file appender."));
 		
+		props.add(new GlobalProperty(GP_LOG_MEMORY_BUFFER_SIZE, "",
+		        "The number of log lines kept in memory for the log viewer. Changes apply right away and keep the most "
+		                + "recent lines. Leave blank to use the buffer size set in log4j2.xml."));
+		
+		props.add(new GlobalProperty(GP_SLOW_SERVICE_CALL_THRESHOLD, "",
+		        "Duration in milliseconds above which service method calls are captured with their arguments and the "
+		                + "user who made them. Leave blank to not capture slow calls."));
+		
+		props.add(new GlobalProperty(GP_SLOW_SERVICE_CALL_SAMPLE_SIZE, "100",
+		        "The number of most recent slow service method calls kept in memory."));
+		
+		props.add(new GlobalProperty(GP_SLOW_QUERY_THRESHOLD, "",
+		        "Duration in milliseconds above which database queries are captured with the service method which "
+		                + "ran them. Leave blank to not capture slow queries."));
+		
+		props.add(new GlobalProperty(GP_SLOW_QUERY_SAMPLE_SIZE, "100",
+		        "The number of most recent slow database queries kept in memory."));
+		
+		props.add(new GlobalProperty(GP_SEARCH_INDEXER_ASYNC, "false",
+		        "Set to true to index added and updated patients, concepts and drugs in the background after their "
+		                + "transaction commits, they are then visible to searches after a short lag."));
+		
+		props.add(new GlobalProperty(GP_SEARCH_INDEXER_ASYNC_THREADS, "1",
+		        "The number of threads indexing entities in the background. Requires a restart."));
+		
+		props.add(new GlobalProperty(GP_SEARCH_INDEXER_ASYNC_QUEUE_SIZE, "10000",
+		        "The maximum number of entities waiting to be indexed in the background, committing transactions wait "
+		                + "when it is reached. Requires a restart."));
+		
+		props.add(new GlobalProperty(GP_SEARCH_INDEXER_ASYNC_BATCH_SIZE, "100",
+		        "The maximum number of entities indexed in the background and committed to the search index together."));
+		
 		props
 		        .add(new GlobalProperty(
 		                GLOBAL_PROPERTY_DEFAULT_PATIENT_IDENTIFIER_VALIDATOR,
@@ -826,6 +1066,23 @@ public final class OpenmrsConstants {
 		props.add(new GlobalProperty(GLOBAL_PROPERTY_COMPLEX_OBS_DIR, "complex_obs",
 		        "Default directory for storing complex obs."));
 		
+		props.add(new GlobalProperty(GLOBAL_PROPERTY_COMPLEX_OBS_DIR_SHARD_DEPTH, "2",
+		        "Number of levels of hashed sub-directories new complex obs files are spread over (0 to 4). Use 0 to store them directly in the complex obs directory."));
+		
+		props.add(new GlobalProperty(GP_OBS_IMPORT_BATCH_SIZE, "50",
+		        "Number of obs imported in bulk between two flushes of the session, after which they are evicted from it"));
+		
+		props.add(new GlobalProperty(GP_PATIENT_IMPORT_BATCH_SIZE, "50",
+		        "Number of patients imported in bulk between two flushes of the session, after which they are evicted from it"));
+		
+		props.add(new GlobalProperty(GP_PROGRAM_COHORT_BATCH_SIZE, "500",
+		        "Number of patients whose programs or states are loaded at once when querying or converting the states of a cohort"));
+		
+		props.add(new GlobalProperty(GP_SERIALIZER_BY_TYPE, "",
+		        "Serializers used to save serialized objects of given types instead of the default one, as a list of "
+		                + "type=serializer class names separated by |, e.g. "
+		                + "org.openmrs.Cohort=org.openmrs.serialization.BinaryXStreamSerializer"));
+		
 		props
 		        .add(new GlobalProperty(
 		                GLOBAL_PROPERTY_ENCOUNTER_FORM_OBS_SORT_ORDER,
@@ -894,6 +1151,12 @@ public final class OpenmrsConstants {
 		props.add(new GlobalProperty(GLOBAL_PROPERTY_HL7_ARCHIVE_DIRECTORY, HL7Constants.HL7_ARCHIVE_DIRECTORY_NAME,
 		        "The default name or absolute path for the folder where to write the hl7_in_archives."));
 		
+		props.add(new GlobalProperty(GP_HL7_ARCHIVE_MIGRATION_THREADS, "2",
+		        "Number of threads migrating hl7 in archives to the file system in parallel"));
+		
+		props.add(new GlobalProperty(GP_HL7_ARCHIVE_MIGRATION_BATCH_SIZE, "500",
+		        "Number of hl7 in archives migrated to the file system in each transaction"));
+		
 		props.add(new GlobalProperty(GLOBAL_PROPERTY_REPORT_BUG_URL, "http://errors.openmrs.org/scrap",
 		        "The openmrs url where to submit bug reports"));
 		
@@ -977,6 +1240,19 @@ public final class OpenmrsConstants {
 		props.add(new GlobalProperty(GP_ALLOWED_FAILED_LOGINS_BEFORE_LOCKOUT, "7",
 		        "Maximum number of failed logins allowed after which username is locked out"));
 		
+		props.add(new GlobalProperty(GP_VERIFIED_CREDENTIALS_CACHE_SECONDS, "0",
+		        "Number of seconds a successfully verified username and password are remembered, to authenticate clients "
+		                + "sending them with every request faster, 0 to disable. Passwords changed through another server "
+		                + "sharing the database or directly in the database keep working on this server for that long."));
+		
+		props.add(new GlobalProperty(GP_PATIENT_SEARCH_CACHE_SECONDS, "10",
+		        "Number of seconds the ids of the patients found by a patient search are remembered, so that paging, "
+		                + "counting and typing more characters do not search again, 0 to disable"));
+		
+		props.add(new GlobalProperty(GP_PATIENT_SEARCH_CACHE_PREFIX_MAX_RESULTS, "100",
+		        "Maximum number of results of a remembered patient search which are filtered for a longer query "
+		                + "starting with the same characters instead of searching again, 0 to always search again"));
+		
 		props.add(new GlobalProperty(GP_DEFAULT_CONCEPT_MAP_TYPE, "NARROWER-THAN",
 		        "Default concept map type which is used when no other is set"));
 		
@@ -1011,6 +1287,21 @@ public final class OpenmrsConstants {
 		props.add(new GlobalProperty(GP_SEARCH_INDEX_VERSION, "",
 		        "Indicates the index version. If it is blank, the index needs to be rebuilt."));
 		
+		props.add(new GlobalProperty(GP_SEARCH_INDEX_WATERMARK, "",
+		        "Time in milliseconds since the epoch up to which the search index is up to date. Set by search index updates, incremental updates do a full rebuild if it is blank."));
+		
+		props.add(new GlobalProperty(GP_SEARCH_INDEXER_THREADS_TO_LOAD_OBJECTS, "6",
+		        "Number of threads used to load entities for each type while rebuilding the search index"));
+		
+		props.add(new GlobalProperty(GP_SEARCH_INDEXER_BATCH_SIZE_TO_LOAD_OBJECTS, "10",
+		        "Number of entities loaded per batch while rebuilding the search index"));
+		
+		props.add(new GlobalProperty(GP_SEARCH_INDEXER_ID_FETCH_SIZE, "100",
+		        "JDBC fetch size used when scrolling over the rows to index while rebuilding the search index"));
+		
+		props.add(new GlobalProperty(GP_SEARCH_INDEXER_TYPES_IN_PARALLEL, "1",
+		        "Number of types whose search index is rebuilt at the same time"));
+		
 		props.add(new GlobalProperty(GLOBAL_PROPERTY_ALLOW_OVERLAPPING_VISITS, "true",
 		        "true/false whether or not to allow visits of a given patient to overlap", BooleanDatatype.class, null));
 		
@@ -1229,6 +1520,84 @@ public final class OpenmrsConstants {
 	 */
 	public static final String GP_LOG_LAYOUT = "log.layout";
 	
+	/**
+	 * The number of log lines kept in memory for the log viewer, it overrides the buffer size of the
+	 * memory appender set in log4j2.xml when it is set.
+	 * 
+	 * @since 2.6.0
+	 */
+	public static final String GP_LOG_MEMORY_BUFFER_SIZE = "log.memoryBufferSize";
+	
+	/**
+	 * Global property name for the duration in milliseconds above which service method calls are
+	 * captured as slow calls, slow calls are not captured when it is blank.
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.aop.ServiceMethodMetrics
+	 */
+	public static final String GP_SLOW_SERVICE_CALL_THRESHOLD = "metrics.slowServiceCallThreshold";
+	
+	/**
+	 * Global property name for the number of slow service method calls kept in memory
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.aop.ServiceMethodMetrics
+	 */
+	public static final String GP_SLOW_SERVICE_CALL_SAMPLE_SIZE = "metrics.slowServiceCallSampleSize";
+	
+	/**
+	 * Global property name for the duration in milliseconds above which database queries are
+	 * captured as slow queries, slow queries are not captured when it is blank.
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.api.db.SlowQueryLog
+	 */
+	public static final String GP_SLOW_QUERY_THRESHOLD = "metrics.slowQueryThreshold";
+	
+	/**
+	 * Global property name for the number of slow database queries kept in memory
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.api.db.SlowQueryLog
+	 */
+	public static final String GP_SLOW_QUERY_SAMPLE_SIZE = "metrics.slowQuerySampleSize";
+	
+	/**
+	 * Global property name to index added and updated entities in the background after their
+	 * transaction commits instead of in the committing thread, true or false
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.api.db.hibernate.search.AsyncSearchIndexer
+	 */
+	public static final String GP_SEARCH_INDEXER_ASYNC = "search.indexer.async";
+	
+	/**
+	 * Global property name for the number of threads indexing entities in the background, applied
+	 * after a restart
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.api.db.hibernate.search.AsyncSearchIndexer
+	 */
+	public static final String GP_SEARCH_INDEXER_ASYNC_THREADS = "search.indexer.asyncThreads";
+	
+	/**
+	 * Global property name for the maximum number of entities waiting to be indexed in the
+	 * background, committing transactions wait when it is reached, applied after a restart
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.api.db.hibernate.search.AsyncSearchIndexer
+	 */
+	public static final String GP_SEARCH_INDEXER_ASYNC_QUEUE_SIZE = "search.indexer.asyncQueueSize";
+	
+	/**
+	 * Global property name for the maximum number of entities indexed in the background and
+	 * committed to the search index together
+	 * 
+	 * @since 2.6.0
+	 * @see org.openmrs.api.db.hibernate.search.AsyncSearchIndexer
+	 */
+	public static final String GP_SEARCH_INDEXER_ASYNC_BATCH_SIZE = "search.indexer.asyncBatchSize";
+	
 	/**
 	 * It specifies a default name of the OpenMRS file appender.
 	 * .
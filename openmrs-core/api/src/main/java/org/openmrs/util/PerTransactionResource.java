@@ -0,0 +1,74 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds state of the current transaction, e.g. the changes it made to an in-memory snapshot, which
+ * is applied to the shared state once the transaction is committed. The state is created on first
+ * use, bound to the transaction with the {@link TransactionSynchronizationManager} and registered
+ * as a synchronization of the transaction, so that its callbacks are invoked when the transaction
+ * completes. It is unbound once the transaction is completed.
+ *
+ * @param <T> the type of the state
+ * @since 2.6.0
+ */
+public class PerTransactionResource<T extends TransactionSynchronization> {
+	
+	private final Supplier<T> factory;
+	
+	/**
+	 * @param factory creates the state of a transaction
+	 */
+	public PerTransactionResource(Supplier<T> factory) {
+		this.factory = factory;
+	}
+	
+	/**
+	 * @return the state of the current transaction, or null if there is no transaction or it did not
+	 *         create its state yet
+	 */
+	@SuppressWarnings("unchecked")
+	public T get() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+		return (T) TransactionSynchronizationManager.getResource(this);
+	}
+	
+	/**
+	 * @return the state of the current transaction, created if needed, or null if there is no
+	 *         transaction
+	 */
+	public T getOrCreate() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+		T resource = get();
+		if (resource == null) {
+			resource = factory.get();
+			TransactionSynchronizationManager.bindResource(this, resource);
+			TransactionSynchronizationManager.registerSynchronization(resource);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(PerTransactionResource.this);
+				}
+			});
+		}
+		return resource;
+	}
+}
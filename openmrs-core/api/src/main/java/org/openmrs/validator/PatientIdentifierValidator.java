@@ -9,6 +9,8 @@
  */
 package org.openmrs.validator;
 
+import java.util.function.Predicate;
+
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
@@ -54,10 +56,22 @@ public class PatientIdentifierValidator implements Validator {
 	 */
 	@Override
 	public void validate(Object obj, Errors errors) {
-		PatientIdentifier pi = (PatientIdentifier) obj;
+		validate((PatientIdentifier) obj, errors, PatientIdentifierValidator::isInUseByAnotherPatient);
+	}
+	
+	/**
+	 * Validates a PatientIdentifier like {@link #validate(Object, Errors)}, using the given function
+	 * to find out whether it is in use by another patient
+	 * 
+	 * @param pi the identifier to validate
+	 * @param errors the validation errors found
+	 * @param inUseByAnotherPatient tells whether an identifier is in use by another patient
+	 * @since 2.6.0
+	 */
+	public void validate(PatientIdentifier pi, Errors errors, Predicate<PatientIdentifier> inUseByAnotherPatient) {
 		try {
-			validateIdentifier(pi);
-			ValidateUtil.validateFieldLengths(errors, obj.getClass(), "identifier", "voidReason");
+			validateIdentifier(pi, inUseByAnotherPatient);
+			ValidateUtil.validateFieldLengths(errors, pi.getClass(), "identifier", "voidReason");
 		}
 		catch (Exception e) {
 			errors.reject(e.getMessage());
@@ -76,6 +90,21 @@ public class PatientIdentifierValidator implements Validator {
 	 * @see #validateIdentifier(String, PatientIdentifierType)
 	 */
 	public static void validateIdentifier(PatientIdentifier pi) throws PatientIdentifierException {
+		validateIdentifier(pi, PatientIdentifierValidator::isInUseByAnotherPatient);
+	}
+	
+	/**
+	 * Checks that the given {@link PatientIdentifier} is valid like
+	 * {@link #validateIdentifier(PatientIdentifier)}, using the given function to find out whether it
+	 * is in use by another patient
+	 * 
+	 * @param pi the {@link PatientIdentifier} to validate
+	 * @param inUseByAnotherPatient tells whether an identifier is in use by another patient
+	 * @throws PatientIdentifierException if the {@link PatientIdentifier} is invalid
+	 * @since 2.6.0
+	 */
+	public static void validateIdentifier(PatientIdentifier pi, Predicate<PatientIdentifier> inUseByAnotherPatient)
+	        throws PatientIdentifierException {
 		
 		// Validate that the identifier is non-null
 		if (pi == null) {
@@ -97,7 +126,7 @@ public class PatientIdentifierValidator implements Validator {
 			}
 			
 			if (pi.getIdentifierType().getUniquenessBehavior() != UniquenessBehavior.NON_UNIQUE
-			        && Context.getPatientService().isIdentifierInUseByAnotherPatient(pi)) {
+			        && inUseByAnotherPatient.test(pi)) {
 				// Check is already in use by another patient
 				throw new IdentifierNotUniqueException(Context.getMessageSourceService().getMessage(
 				    "PatientIdentifier.error.notUniqueWithParameter", new Object[] { pi.getIdentifier() },
@@ -106,6 +135,10 @@ public class PatientIdentifierValidator implements Validator {
 		}
 	}
 	
+	private static boolean isInUseByAnotherPatient(PatientIdentifier pi) {
+		return Context.getPatientService().isIdentifierInUseByAnotherPatient(pi);
+	}
+	
 	/**
 	 * Validates that a given identifier string is valid for a given {@link PatientIdentifierType}
 	 * Checks for things like blank identifiers, invalid check digits, and invalid format.
@@ -10,10 +10,12 @@
 package org.openmrs.validator;
 
 import java.util.Collection;
+import java.util.function.Predicate;
 
 import org.openmrs.Patient;
 import org.openmrs.PatientIdentifier;
 import org.openmrs.annotation.Handler;
+import org.openmrs.api.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,15 +66,27 @@ public class PatientValidator extends PersonValidator {
 	 */
 	@Override
 	public void validate(Object obj, Errors errors) {
+		validate((Patient) obj, errors,
+		    identifier -> Context.getPatientService().isIdentifierInUseByAnotherPatient(identifier));
+	}
+	
+	/**
+	 * Validates the given Patient like {@link #validate(Object, Errors)}, using the given function to
+	 * find out whether one of its identifiers is in use by another patient
+	 * 
+	 * @param patient The patient to validate.
+	 * @param errors Errors
+	 * @param identifierInUseByAnotherPatient tells whether an identifier is in use by another patient
+	 * @since 2.6.0
+	 */
+	public void validate(Patient patient, Errors errors, Predicate<PatientIdentifier> identifierInUseByAnotherPatient) {
 		log.debug("{}.validate...", this.getClass().getName());
 		
-		if (obj == null) {
+		if (patient == null) {
 			return;
 		}
 		
-		super.validate(obj, errors);
-		
-		Patient patient = (Patient) obj;
+		super.validate(patient, errors);
 		
 		ValidationUtils.rejectIfEmptyOrWhitespace(errors, "gender", "Person.gender.required");
 		
@@ -95,11 +109,11 @@ public class PatientValidator extends PersonValidator {
 			// Validate PatientIdentifers
 			for (PatientIdentifier identifier : patient.getIdentifiers()) {
 				errors.pushNestedPath("identifiers[" + index + "]");
-				patientIdentifierValidator.validate(identifier, errors);
+				patientIdentifierValidator.validate(identifier, errors, identifierInUseByAnotherPatient);
 				errors.popNestedPath();
 				index++;
 			}
 		}
-		ValidateUtil.validateFieldLengths(errors, obj.getClass(), "voidReason");
+		ValidateUtil.validateFieldLengths(errors, patient.getClass(), "voidReason");
 	}
 }
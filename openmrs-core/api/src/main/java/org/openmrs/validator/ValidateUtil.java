@@ -69,6 +69,18 @@ public class ValidateUtil {
 		
 		Context.getAdministrationService().validate(obj, errors);
 		
+		throwIfErrors(obj, errors);
+	}
+	
+	/**
+	 * Throws a {@link ValidationException} listing the messages of the given errors, if there are any
+	 *
+	 * @param obj the validated object
+	 * @param errors the validation errors found
+	 * @throws ValidationException if there are errors
+	 * @since 2.6.0
+	 */
+	public static void throwIfErrors(Object obj, Errors errors) throws ValidationException {
 		if (errors.hasErrors()) {
 			Set<String> uniqueErrorMessages = new LinkedHashSet<>();
 			for (Object objerr : errors.getAllErrors()) {
@@ -33,10 +33,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.openmrs.Encounter;
 import org.openmrs.GlobalProperty;
 import org.openmrs.ImplementationId;
 import org.openmrs.User;
+import org.openmrs.aop.ServiceMethodStatistics;
+import org.openmrs.aop.SlowServiceCall;
 import org.openmrs.api.context.Context;
+import org.openmrs.api.db.DatabaseStatistics;
 import org.openmrs.customdatatype.datatype.BooleanDatatype;
 import org.openmrs.customdatatype.datatype.DateDatatype;
 import org.openmrs.messagesource.MutableMessageSource;
@@ -45,6 +49,7 @@ import org.openmrs.test.jupiter.BaseContextSensitiveTest;
 import org.openmrs.util.HttpClient;
 import org.openmrs.util.LocaleUtility;
 import org.openmrs.util.OpenmrsConstants;
+import org.openmrs.util.PrivilegeConstants;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.interceptor.SimpleKeyGenerator;
@@ -800,6 +805,107 @@ public class AdministrationServiceTest extends BaseContextSensitiveTest {
 		assertThat(getCacheForCurrentUser(), nullValue());
 	}
 
+	@Test
+	public void getServiceMethodStatistics_shouldReturnTheStatisticsOfTheCalledServiceMethods() {
+		adminService.resetServiceMethodStatistics();
+		Context.getPatientService().getPatient(2);
+		Context.getPatientService().getPatient(7);
+		
+		ServiceMethodStatistics statistics = adminService.getServiceMethodStatistics().stream()
+		        .filter(s -> s.getServiceName().equals(PatientService.class.getName())
+		                && s.getMethodName().equals("getPatient(Integer)"))
+		        .findFirst().orElse(null);
+		assertNotNull(statistics);
+		assertEquals(2, statistics.getCallCount());
+		assertEquals(0, statistics.getErrorCount());
+		assertTrue(statistics.getMaxTime() >= statistics.getMedianTime());
+	}
+	
+	@Test
+	public void getServiceMethodStatistics_shouldCountTheCallsWhichThrowAsErrors() {
+		adminService.resetServiceMethodStatistics();
+		assertThrows(APIException.class, () -> Context.getUserService().changePassword(new User(), "old", "new"));
+		
+		ServiceMethodStatistics statistics = adminService.getServiceMethodStatistics().stream()
+		        .filter(s -> s.getServiceName().equals(UserService.class.getName())
+		                && s.getMethodName().equals("changePassword(User, String, String)"))
+		        .findFirst().orElse(null);
+		assertNotNull(statistics);
+		assertEquals(1, statistics.getCallCount());
+		assertEquals(1, statistics.getErrorCount());
+	}
+	
+	@Test
+	public void getSlowServiceCalls_shouldCaptureTheCallsSlowerThanTheThreshold() {
+		adminService.resetServiceMethodStatistics();
+		adminService.setGlobalProperty(OpenmrsConstants.GP_SLOW_SERVICE_CALL_THRESHOLD, "0");
+		try {
+			Context.getPatientService().getPatient(2);
+			
+			SlowServiceCall slowCall = adminService.getSlowServiceCalls().stream()
+			        .filter(c -> c.getMethodName().equals("getPatient(Integer)")).findFirst().orElse(null);
+			assertNotNull(slowCall);
+			assertEquals(PatientService.class.getName(), slowCall.getServiceName());
+			assertThat(slowCall.getArguments(), containsString("2"));
+			assertEquals(Context.getAuthenticatedUser().getUsername(), slowCall.getUsername());
+		}
+		finally {
+			adminService.setGlobalProperty(OpenmrsConstants.GP_SLOW_SERVICE_CALL_THRESHOLD, "");
+		}
+		
+		adminService.resetServiceMethodStatistics();
+		Context.getPatientService().getPatient(2);
+		assertTrue(adminService.getSlowServiceCalls().isEmpty());
+	}
+	
+	@Test
+	public void getDatabaseStatistics_shouldReturnTheExecutedQueriesAndLoadedEntities() {
+		adminService.resetDatabaseStatistics();
+		Context.clearSession();
+		
+		Context.getEncounterService().getEncountersByPatientId(7);
+		
+		DatabaseStatistics statistics = adminService.getDatabaseStatistics();
+		assertNotNull(statistics.getSnapshotTime());
+		assertTrue(statistics.getQueryExecutionCount() > 0);
+		assertFalse(statistics.getQueries().isEmpty());
+		assertTrue(statistics.getEntities().stream().anyMatch(
+		    e -> e.getName().equals(Encounter.class.getName()) && e.getLoadCount() > 0));
+	}
+	
+	@Test
+	public void getSlowQueries_shouldCaptureTheQueriesSlowerThanTheThreshold() {
+		adminService.resetDatabaseStatistics();
+		adminService.setGlobalProperty(OpenmrsConstants.GP_SLOW_QUERY_THRESHOLD, "0");
+		try {
+			Context.getEncounterService().getEncountersByPatientId(7);
+			
+			assertTrue(adminService.getSlowQueries().stream().anyMatch(
+			    q -> (EncounterService.class.getName() + ".getEncountersByPatientId(Integer)").equals(q
+			            .getServiceMethod()) && q.getQuery().toLowerCase().contains("encounter")));
+		}
+		finally {
+			adminService.setGlobalProperty(OpenmrsConstants.GP_SLOW_QUERY_THRESHOLD, "");
+		}
+		
+		adminService.resetDatabaseStatistics();
+		Context.getEncounterService().getEncountersByPatientId(7);
+		assertTrue(adminService.getSlowQueries().isEmpty());
+	}
+	
+	@Test
+	public void resetDatabaseStatistics_shouldFailForUsersWhoCanOnlyViewTheStatistics() {
+		Context.logout();
+		Context.addProxyPrivilege(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS);
+		try {
+			assertNotNull(adminService.getDatabaseStatistics());
+			assertThrows(APIAuthenticationException.class, () -> adminService.resetDatabaseStatistics());
+		}
+		finally {
+			Context.removeProxyPrivilege(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS);
+		}
+	}
+	
 	private Cache.ValueWrapper getCacheForCurrentUser(){
 		Object[] params = { Context.getLocale(), Context.getAuthenticatedUser() };
 		Object key = (new SimpleKeyGenerator()).generate(null, null, params);
@@ -1534,6 +1534,45 @@ public class ConceptServiceTest extends BaseContextSensitiveTest {
 		assertThat(conceptSet, containsInAnyOrder(hasId(2), hasId(3), hasId(4), hasId(5), hasId(6)));
 	}
 	
+	/**
+	 * @see ConceptService#isConceptInSet(Concept, Concept)
+	 */
+	@Test
+	public void isConceptInSet_shouldReturnTrueForMembersOfNestedSets() {
+		executeDataSet(GET_CONCEPTS_BY_SET_XML);
+		
+		assertTrue(conceptService.isConceptInSet(conceptService.getConcept(6), conceptService.getConcept(1)));
+		assertThat(conceptService.getConceptSetClosure().getAncestorIds(6), containsInAnyOrder(4, 3, 1));
+	}
+	
+	/**
+	 * @see ConceptService#isConceptInSet(Concept, Concept)
+	 */
+	@Test
+	public void isConceptInSet_shouldReturnFalseForConceptsOutsideOfTheSet() {
+		executeDataSet(GET_CONCEPTS_BY_SET_XML);
+		
+		assertFalse(conceptService.isConceptInSet(conceptService.getConcept(2), conceptService.getConcept(3)));
+		assertFalse(conceptService.isConceptInSet(conceptService.getConcept(1), conceptService.getConcept(4)));
+	}
+	
+	/**
+	 * @see ConceptService#getConceptSetClosure()
+	 */
+	@Test
+	public void getConceptSetClosure_shouldReflectSetMembersChangedBySaveConcept() {
+		executeDataSet(GET_CONCEPTS_BY_SET_XML);
+		Concept set = conceptService.getConcept(4);
+		Concept member = conceptService.getConcept(5);
+		assertFalse(conceptService.getConceptSetClosure().isMember(5, 4));
+		
+		set.addSetMember(member);
+		conceptService.saveConcept(set);
+		
+		assertTrue(conceptService.getConceptSetClosure().isMember(5, 4));
+		assertThat(conceptService.getConceptsByConceptSet(set), containsInAnyOrder(hasId(6), hasId(5)));
+	}
+	
 	/**
 	 * @see ConceptService#saveConceptStopWord(org.openmrs.ConceptStopWord)
 	 */
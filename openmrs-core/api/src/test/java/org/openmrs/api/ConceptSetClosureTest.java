@@ -0,0 +1,95 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.openmrs.Concept;
+
+public class ConceptSetClosureTest {
+	
+	private ConceptSetClosure newClosure() {
+		Map<Integer, List<Integer>> members = new HashMap<>();
+		members.put(1, Arrays.asList(2, 3));
+		members.put(3, Arrays.asList(4, 257));
+		return new ConceptSetClosure(members, new HashSet<>(Arrays.asList(1, 3)));
+	}
+	
+	/**
+	 * @see ConceptSetClosure#withConcept(Concept)
+	 */
+	@Test
+	public void withConcept_shouldReplaceTheMembersOfTheConceptAndKeepThePreviousSnapshot() {
+		ConceptSetClosure closure = newClosure();
+		Concept set = new Concept(3);
+		set.setSet(true);
+		set.addSetMember(new Concept(4));
+		set.addSetMember(new Concept(5));
+		
+		ConceptSetClosure changed = closure.withConcept(set);
+		
+		assertThat(changed.getMemberIds(3), contains(4, 5));
+		assertThat(changed.getDescendantIds(1), containsInAnyOrder(2, 3, 4, 5));
+		assertThat(changed.getAncestorIds(5), containsInAnyOrder(3, 1));
+		assertThat(changed.getAncestorIds(257), empty());
+		assertThat(closure.getMemberIds(3), contains(4, 257));
+		assertThat(closure.getAncestorIds(257), containsInAnyOrder(3, 1));
+		assertThat(closure.getAncestorIds(5), empty());
+	}
+	
+	/**
+	 * @see ConceptSetClosure#withoutConcept(Integer)
+	 */
+	@Test
+	public void withoutConcept_shouldRemoveTheConceptAsSetAndAsMemberAndKeepThePreviousSnapshot() {
+		ConceptSetClosure closure = newClosure();
+		
+		ConceptSetClosure changed = closure.withoutConcept(3);
+		
+		assertThat(changed.getMemberIds(1), contains(2));
+		assertThat(changed.getMemberIds(3), empty());
+		assertFalse(changed.isSet(3));
+		assertThat(changed.getAncestorIds(4), empty());
+		assertThat(closure.getMemberIds(1), contains(2, 3));
+		assertTrue(closure.isSet(3));
+		assertTrue(closure.isMember(257, 1));
+	}
+	
+	/**
+	 * @see ConceptSetClosure#edit()
+	 */
+	@Test
+	public void edit_shouldApplyEachChangeOnTheChangesMadeBeforeOnTheSameEditor() {
+		ConceptSetClosure closure = newClosure();
+		Concept set = new Concept(3);
+		set.setSet(true);
+		set.addSetMember(new Concept(4));
+		set.addSetMember(new Concept(5));
+		
+		ConceptSetClosure changed = closure.edit().putConcept(set).removeConcept(5).build();
+		
+		assertThat(changed.getMemberIds(3), contains(4));
+		assertThat(changed.getDescendantIds(1), containsInAnyOrder(2, 3, 4));
+		assertThat(changed.getAncestorIds(5), empty());
+		assertThat(closure.getMemberIds(3), contains(4, 257));
+	}
+}
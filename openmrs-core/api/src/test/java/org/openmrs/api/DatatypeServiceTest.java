@@ -10,6 +10,8 @@
 package org.openmrs.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 import org.openmrs.api.context.Context;
@@ -19,6 +21,7 @@ import org.openmrs.customdatatype.CustomDatatype;
 import org.openmrs.customdatatype.CustomDatatypeUtil;
 import org.openmrs.customdatatype.datatype.DateDatatype;
 import org.openmrs.customdatatype.datatype.LocationDatatype;
+import org.openmrs.customdatatype.datatype.RegexValidatedTextDatatype;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
 
 public class DatatypeServiceTest extends BaseContextSensitiveTest {
@@ -42,4 +45,40 @@ public class DatatypeServiceTest extends BaseContextSensitiveTest {
 		CustomDatatype locationDatatype = CustomDatatypeUtil.getDatatype(LocationDatatype.class.getName(), null);
 		assertEquals(LocationDatatypeHandler.class, service.getHandler(locationDatatype, null).getClass());
 	}
+	
+	/**
+	 * @see DatatypeService#getDatatype(Class,String)
+	 */
+	@Test
+	public void getDatatype_shouldReturnTheSameInstanceForTheSameClassAndConfiguration() {
+		DatatypeService service = Context.getDatatypeService();
+		RegexValidatedTextDatatype datatype = service.getDatatype(RegexValidatedTextDatatype.class, "[a-z]+");
+		assertSame(datatype, service.getDatatype(RegexValidatedTextDatatype.class, "[a-z]+"));
+		assertNotSame(datatype, service.getDatatype(RegexValidatedTextDatatype.class, "[0-9]+"));
+	}
+	
+	/**
+	 * @see DatatypeService#clearCachedDatatypes()
+	 */
+	@Test
+	public void clearCachedDatatypes_shouldReturnNewInstancesAfterwards() {
+		DatatypeService service = Context.getDatatypeService();
+		RegexValidatedTextDatatype datatype = service.getDatatype(RegexValidatedTextDatatype.class, "[a-z]+");
+		DateDatatypeHandler handler = service.getHandler(DateDatatypeHandler.class, null);
+		
+		service.clearCachedDatatypes();
+		
+		assertNotSame(datatype, service.getDatatype(RegexValidatedTextDatatype.class, "[a-z]+"));
+		assertNotSame(handler, service.getHandler(DateDatatypeHandler.class, null));
+	}
+	
+	/**
+	 * @see DatatypeService#getHandler(Class,String)
+	 */
+	@Test
+	public void getHandler_shouldReturnTheSameInstanceForTheSameClassAndConfiguration() {
+		DatatypeService service = Context.getDatatypeService();
+		DateDatatypeHandler handler = service.getHandler(DateDatatypeHandler.class, null);
+		assertSame(handler, service.getHandler(DateDatatypeHandler.class, null));
+	}
 }
@@ -14,6 +14,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -24,6 +25,7 @@ import java.io.InputStreamReader;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
@@ -31,6 +33,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.collections.ListUtils;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openmrs.Concept;
 import org.openmrs.Field;
@@ -45,6 +48,12 @@ import org.openmrs.obs.SerializableComplexObsHandler;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
 import org.openmrs.util.DateUtil;
 import org.openmrs.util.OpenmrsConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * TODO clean up and finish this test for all methods in FormService
@@ -61,6 +70,16 @@ public class FormServiceTest extends BaseContextSensitiveTest {
 
 	protected static final String FORM_SAMPLE_RESOURCE = "org/openmrs/api/include/FormServiceTest-sampleResource.xslt";
 
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	public void clearCompiledForms() {
+		// the data sets of these tests are not saved through the service, so the form fields they
+		// add to a form are not seen if the form was compiled by an earlier test
+		Context.getRegisteredComponent("apiCacheManager", CacheManager.class).getCache("compiledForms").clear();
+	}
+
 	/**
 	 * Creates then updates a form FIXME Break this test case into separate tests
 	 *
@@ -422,6 +441,82 @@ public class FormServiceTest extends BaseContextSensitiveTest {
 		assertNull(Context.getFormService().getFormField(new Form(12343), new Concept(293934), null, false));
 	}
 
+	/**
+	 * @see FormService#getCompiledForm(Form)
+	 */
+	@Test
+	public void getCompiledForm_shouldIndexFormFieldsByConcept() {
+		CompiledForm compiledForm = Context.getFormService().getCompiledForm(new Form(1));
+
+		List<Integer> formFieldIds = compiledForm.getFormFieldIds(3);
+		assertEquals(Arrays.asList(2, 3, 5), formFieldIds);
+		assertEquals(3, compiledForm.getFormFieldId(3, formFieldIds.subList(0, 1), false));
+		assertNull(compiledForm.getFormFieldId(3, formFieldIds, true));
+		assertEquals(3, compiledForm.getChildFormFieldIds(null).size());
+	}
+
+	/**
+	 * @see FormService#getFormField(Form, Concept, Collection, boolean)
+	 */
+	@Test
+	public void getFormField_shouldReturnFormFieldsOfTheCurrentSession() {
+		FormService formService = Context.getFormService();
+		formService.getCompiledForm(new Form(1));
+		Context.clearSession();
+
+		FormField formField = formService.getFormField(new Form(1), new Concept(3), null, false);
+		assertSame(formService.getFormField(2), formField);
+		assertNotNull(formField.getField().getConcept().getName());
+	}
+
+	/**
+	 * @see FormService#getCompiledForm(Form)
+	 */
+	@Test
+	public void getCompiledForm_shouldReturnTheSameCompiledFormUntilAFormFieldIsSaved() {
+		FormService formService = Context.getFormService();
+		CompiledForm compiledForm = formService.getCompiledForm(new Form(1));
+		assertSame(compiledForm, formService.getCompiledForm(new Form(1)));
+
+		FormField formField = formService.getFormField(2);
+		formField.setSortWeight(40.0f);
+		formService.saveFormField(formField);
+
+		assertNotSame(compiledForm, formService.getCompiledForm(new Form(1)));
+	}
+
+	/**
+	 * Saves a form field in its own transaction, which is rolled back, so the test is not
+	 * transactional.
+	 *
+	 * @see FormService#getCompiledForm(Form)
+	 */
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void getCompiledForm_shouldNotKeepTheFormFieldsOfARolledBackTransaction() {
+		FormService formService = Context.getFormService();
+		Integer formFieldId = new TransactionTemplate(transactionManager).execute(status -> {
+			FormField formField = new FormField();
+			formField.setField(formService.getField(1));
+			formService.getForm(1).addFormField(formField);
+			formService.saveFormField(formField);
+			assertTrue(formService.getCompiledForm(new Form(1)).getFormFieldIds(3).contains(formField.getFormFieldId()));
+			status.setRollbackOnly();
+			return formField.getFormFieldId();
+		});
+
+		assertNotNull(formFieldId);
+		assertFalse(formService.getCompiledForm(new Form(1)).getFormFieldIds(3).contains(formFieldId));
+	}
+
+	/**
+	 * @see FormService#getCompiledForm(Form)
+	 */
+	@Test
+	public void getCompiledForm_shouldReturnNullForNonexistentForms() {
+		assertNull(Context.getFormService().getCompiledForm(new Form(12343)));
+	}
+
 	/**
 	 * @see FormService#duplicateForm(Form)
 	 */
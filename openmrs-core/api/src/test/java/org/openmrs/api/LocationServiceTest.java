@@ -18,6 +18,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -1198,4 +1199,47 @@ public class LocationServiceTest extends BaseContextSensitiveTest {
 		assertFalse(tag.getRetired());
 	}
 	
+	/**
+	 * @see LocationService#isInHierarchy(Location, Location)
+	 * @see LocationService#getDescendantLocations(Location, boolean)
+	 */
+	@Test
+	public void isInHierarchy_shouldReturnTrueForTheRootAndItsDescendants() {
+		LocationService ls = Context.getLocationService();
+		Location root = ls.getLocation(1);
+		Location retiredChild = new Location();
+		retiredChild.setName("retired ward");
+		retiredChild.setRetired(true);
+		retiredChild.setRetireReason("test");
+		ls.getLocation(3).addChildLocation(retiredChild);
+		ls.saveLocation(retiredChild);
+		
+		assertTrue(ls.isInHierarchy(ls.getLocation(4), root));
+		assertTrue(ls.isInHierarchy(retiredChild, root));
+		assertTrue(ls.isInHierarchy(root, root));
+		assertFalse(ls.isInHierarchy(root, ls.getLocation(4)));
+		assertFalse(ls.isInHierarchy(ls.getLocation(5), root));
+		assertFalse(ls.isInHierarchy(null, root));
+		assertEquals(root.getDescendantLocations(false), ls.getDescendantLocations(root, false));
+		assertEquals(4, ls.getDescendantLocations(root, false).size());
+		assertEquals(5, ls.getDescendantLocations(root, true).size());
+		assertTrue(ls.getDescendantLocations(root, true).contains(retiredChild));
+	}
+	
+	/**
+	 * @see LocationService#getLocationTree()
+	 */
+	@Test
+	public void getLocationTree_shouldBeReloadedAfterALocationIsSaved() {
+		LocationService ls = Context.getLocationService();
+		Location location = ls.getLocation(5);
+		assertFalse(ls.getLocationTree().isInHierarchy(5, 1));
+		
+		ls.getLocation(4).addChildLocation(location);
+		ls.saveLocation(location);
+		
+		assertTrue(ls.getLocationTree().isInHierarchy(5, 1));
+		assertEquals(Arrays.asList(4, 3, 1), ls.getLocationTree().getAncestorIds(5));
+	}
+	
 }
@@ -41,6 +41,10 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.NameFileFilter;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
@@ -55,6 +59,7 @@ import org.openmrs.api.context.Context;
 import org.openmrs.api.impl.ObsServiceImpl;
 import org.openmrs.obs.ComplexData;
 import org.openmrs.obs.ComplexObsHandler;
+import org.openmrs.obs.handler.AbstractHandler;
 import org.openmrs.obs.handler.BinaryDataHandler;
 import org.openmrs.obs.handler.ImageHandler;
 import org.openmrs.obs.handler.TextHandler;
@@ -80,6 +85,9 @@ public class ObsServiceTest extends BaseContextSensitiveTest {
 	
 	@Autowired
 	private ObsService obsService;
+	
+	@Autowired
+	private SessionFactory sessionFactory;
 
 	
 	/**
@@ -652,21 +660,23 @@ public class ObsServiceTest extends BaseContextSensitiveTest {
 		String filename = "nameOfFile_" + obsToSave.getUuid() + ".txt";
 		File complexObsDir = OpenmrsUtil.getDirectoryInApplicationDataDirectory(as
 	        .getGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR));
-		File createdFile = new File(complexObsDir, filename);
-		if (createdFile.exists()) {
-			createdFile.delete();
-		}
+		assertEquals(0, FileUtils.listFiles(complexObsDir, new NameFileFilter(filename), TrueFileFilter.INSTANCE).size());
 		
+		File createdFile = null;
 		try {
 			os.saveObs(obsToSave, null);
 			
 			// make sure the file appears now after the save
+			createdFile = AbstractHandler.getComplexDataFile(obsToSave);
+			assertEquals(filename, createdFile.getName());
 			assertTrue(createdFile.exists());
 		}
 		finally {
 			// we always have to delete this inside the same unit test because it is outside the
 			// database and hence can't be "rolled back" like everything else
-			createdFile.delete();
+			if (createdFile != null) {
+				createdFile.delete();
+			}
 		}
 	}
 	
@@ -1824,6 +1834,40 @@ public class ObsServiceTest extends BaseContextSensitiveTest {
 		
 	}
 	
+	/**
+	 * @see ObsService#saveObs(Obs,String)
+	 */
+	@Test
+	public void saveObs_shouldDeleteTheThumbnailOfThePreviousImageWhenAComplexObservationIsUpdated() {
+		executeDataSet(COMPLEX_OBS_XML);
+		ObsService os = Context.getObsService();
+		ImageHandler handler = (ImageHandler) os.getHandler("ImageHandler");
+		
+		// this is a concept mapped to the image handler
+		Obs obsToSave = new Obs(new Person(1), Context.getConceptService().getConcept(8473), new Date(), new Location(1));
+		obsToSave.setComplexData(new ComplexData("previousImage.png", new BufferedImage(400, 300,
+		        BufferedImage.TYPE_INT_RGB)));
+		os.saveObs(obsToSave, null);
+		File previousImage = AbstractHandler.getComplexDataFile(obsToSave);
+		File previousThumbnail = handler.getDerivativeFile(previousImage, ComplexObsHandler.THUMBNAIL_VIEW);
+		os.getComplexObs(obsToSave.getObsId(), ComplexObsHandler.THUMBNAIL_VIEW);
+		assertTrue(previousThumbnail.exists());
+		
+		obsToSave.setComplexData(new ComplexData("updatedImage.png", new BufferedImage(400, 300,
+		        BufferedImage.TYPE_INT_RGB)));
+		Obs updatedObs = os.saveObs(obsToSave, "Testing the thumbnail deletion");
+		try {
+			assertFalse(previousImage.exists());
+			assertFalse(previousThumbnail.exists());
+		}
+		finally {
+			// the files are outside the database and hence can't be "rolled back"
+			handler.purgeComplexData(updatedObs);
+			previousThumbnail.delete();
+			previousImage.delete();
+		}
+	}
+	
 	/**
 	 * @see ObsService#saveObs(Obs,String)
 	 */
@@ -1969,4 +2013,104 @@ public class ObsServiceTest extends BaseContextSensitiveTest {
 		assertThat(existing.getVoided(), is(true));
 		assertThat(newObs.getStatus(), is(Obs.Status.FINAL));
 	}
+	
+	/**
+	 * @see ObsService#importObs(List)
+	 */
+	@Test
+	public void importObs_shouldSaveTheNewObs() {
+		List<Obs> obsList = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			obsList.add(newNumericObs(50d + i));
+		}
+		
+		BulkSaveResult<Obs> result = obsService.importObs(obsList);
+		
+		assertFalse(result.hasFailures());
+		assertEquals(3, result.getSaved().size());
+		for (Obs obs : obsList) {
+			assertNotNull(obs.getObsId());
+			assertNotNull(obs.getCreator());
+			assertNotNull(obs.getDateCreated());
+		}
+	}
+	
+	/**
+	 * @see ObsService#importObs(List)
+	 */
+	@Test
+	public void importObs_shouldSaveTheGroupMembersOfObsGroups() {
+		Obs parentObs = newNumericObs(null);
+		Obs groupMember = newNumericObs(1.0);
+		parentObs.addGroupMember(groupMember);
+		
+		BulkSaveResult<Obs> result = obsService.importObs(Collections.singletonList(parentObs));
+		
+		assertFalse(result.hasFailures());
+		assertNotNull(parentObs.getObsId());
+		assertNotNull(groupMember.getObsId());
+	}
+	
+	/**
+	 * @see ObsService#importObs(List)
+	 */
+	@Test
+	public void importObs_shouldReportInvalidObsAndSaveTheOthers() {
+		Obs valid = newNumericObs(50d);
+		Obs invalid = newNumericObs(50d);
+		invalid.setConcept(null);
+		
+		BulkSaveResult<Obs> result = obsService.importObs(Arrays.asList(valid, invalid, null));
+		
+		assertEquals(1, result.getSaved().size());
+		assertNotNull(valid.getObsId());
+		assertNull(invalid.getObsId());
+		assertEquals(2, result.getFailures().size());
+		assertEquals(1, result.getFailures().get(0).getIndex());
+		assertTrue(result.getFailures().get(0).getError() instanceof ValidationException);
+		assertEquals(2, result.getFailures().get(1).getIndex());
+	}
+	
+	/**
+	 * @see ObsService#importObs(List)
+	 */
+	@Test
+	public void importObs_shouldReportObsWhichAreAlreadySaved() {
+		Obs existing = obsService.getObs(7);
+		
+		BulkSaveResult<Obs> result = obsService.importObs(Collections.singletonList(existing));
+		
+		assertTrue(result.getSaved().isEmpty());
+		assertEquals(existing, result.getFailures().get(0).getItem());
+	}
+	
+	/**
+	 * @see ObsService#importObs(List)
+	 */
+	@Test
+	public void importObs_shouldEvictOnlyTheSavedObsFromTheSession() {
+		Context.getAdministrationService().setGlobalProperty(OpenmrsConstants.GP_OBS_IMPORT_BATCH_SIZE, "1");
+		Patient patient = Context.getPatientService().getPatient(2);
+		Obs first = newNumericObs(50d);
+		Obs second = newNumericObs(51d);
+		
+		BulkSaveResult<Obs> result = obsService.importObs(Arrays.asList(first, second));
+		
+		assertEquals(2, result.getSaved().size());
+		Session session = sessionFactory.getCurrentSession();
+		assertTrue(session.contains(patient));
+		assertFalse(session.contains(first));
+		assertFalse(session.contains(second));
+		assertNotNull(obsService.getObs(second.getObsId()));
+	}
+	
+	private Obs newNumericObs(Double value) {
+		Obs obs = new Obs();
+		obs.setConcept(Context.getConceptService().getConcept(3));
+		obs.setPerson(new Patient(2));
+		obs.setObsDatetime(new Date());
+		obs.setLocation(new Location(1));
+		obs.setValueNumeric(value);
+		return obs;
+	}
 }
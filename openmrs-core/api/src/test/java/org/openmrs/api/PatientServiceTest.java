@@ -10,6 +10,7 @@
 package org.openmrs.api;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
@@ -44,6 +45,8 @@ import java.util.stream.Collectors;
 import org.apache.commons.collections.CollectionUtils;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -222,6 +225,137 @@ public class PatientServiceTest extends BaseContextSensitiveTest {
 		return patient;
 	}
 	
+	/**
+	 * @return a new patient with the given name and an identifier of the type without check digit
+	 */
+	private Patient createPatientToImport(String givenName, String identifier) {
+		Patient patient = new Patient();
+		patient.addName(new PersonName(givenName, null, "Bulkload"));
+		patient.setGender("F");
+		patient.setBirthdate(new Date());
+		patient.addIdentifier(new PatientIdentifier(identifier, patientService.getPatientIdentifierType(2),
+		        locationService.getLocation(1)));
+		return patient;
+	}
+	
+	/**
+	 * @see PatientService#importPatients(List)
+	 */
+	@Test
+	public void importPatients_shouldSaveTheNewPatients() {
+		List<Patient> patients = Arrays.asList(createPatientToImport("Ann", "IMP-1"), createPatientToImport("Bob",
+		    "IMP-2"));
+		
+		BulkSaveResult<Patient> result = patientService.importPatients(patients);
+		
+		assertFalse(result.hasFailures());
+		assertEquals(2, result.getSaved().size());
+		for (Patient patient : patients) {
+			assertNotNull(patient.getPatientId());
+			assertNotNull(patient.getCreator());
+			assertTrue(patient.getPatientIdentifier().getPreferred());
+		}
+	}
+	
+	/**
+	 * @see PatientService#importPatients(List)
+	 */
+	@Test
+	public void importPatients_shouldReportPatientsWithAnIdentifierInUseByAnExistingPatient() {
+		Patient valid = createPatientToImport("Ann", "IMP-1");
+		Patient inUse = createPatientToImport("Bob", "101");
+		
+		BulkSaveResult<Patient> result = patientService.importPatients(Arrays.asList(inUse, valid));
+		
+		assertEquals(Collections.singletonList(valid), result.getSaved());
+		assertEquals(1, result.getFailures().size());
+		assertEquals(0, result.getFailures().get(0).getIndex());
+		assertTrue(result.getFailures().get(0).getError() instanceof ValidationException);
+		assertThat(result.getFailures().get(0).getError().getMessage(),
+		    containsString("Identifier 101 already in use by another patient"));
+		assertNull(inUse.getPatientId());
+	}
+	
+	/**
+	 * @see PatientService#importPatients(List)
+	 */
+	@Test
+	public void importPatients_shouldReportPatientsWithAnIdentifierInUseByAPreviousPatientInTheList() {
+		Patient first = createPatientToImport("Ann", "IMP-1");
+		Patient second = createPatientToImport("Bob", "IMP-1");
+		
+		BulkSaveResult<Patient> result = patientService.importPatients(Arrays.asList(first, second));
+		
+		assertEquals(Collections.singletonList(first), result.getSaved());
+		assertEquals(second, result.getFailures().get(0).getItem());
+		assertTrue(result.getFailures().get(0).getError() instanceof ValidationException);
+		assertThat(result.getFailures().get(0).getError().getMessage(),
+		    containsString("Identifier IMP-1 already in use by another patient"));
+	}
+	
+	/**
+	 * @see PatientService#importPatients(List)
+	 */
+	@Test
+	public void importPatients_shouldReportPatientsWithAnInvalidCheckDigit() {
+		Patient patient = createPatientToImport("Ann", "IMP-1");
+		patient.getPatientIdentifier().setIdentifierType(patientService.getPatientIdentifierType(1));
+		patient.getPatientIdentifier().setIdentifier("123-1");
+		
+		BulkSaveResult<Patient> result = patientService.importPatients(Collections.singletonList(patient));
+		
+		assertTrue(result.getSaved().isEmpty());
+		assertTrue(result.getFailures().get(0).getError() instanceof ValidationException);
+		assertThat(result.getFailures().get(0).getError().getMessage(),
+		    containsString("Invalid check digit for identifier: 123-1"));
+	}
+	
+	/**
+	 * @see PatientService#importPatients(List)
+	 */
+	@Test
+	public void importPatients_shouldReportPatientsWhichAreAlreadySaved() {
+		Patient existing = patientService.getPatient(2);
+		
+		BulkSaveResult<Patient> result = patientService.importPatients(Collections.singletonList(existing));
+		
+		assertTrue(result.getSaved().isEmpty());
+		assertEquals(existing, result.getFailures().get(0).getItem());
+	}
+	
+	/**
+	 * @see PatientService#importPatients(List)
+	 */
+	@Test
+	public void importPatients_shouldMakeTheSavedPatientsSearchable() {
+		Patient patient = createPatientToImport("Quintessa", "IMP-1");
+		
+		patientService.importPatients(Collections.singletonList(patient));
+		
+		assertEquals(Collections.singletonList(patient), patientService.getPatients("Quintessa"));
+		assertEquals(Collections.singletonList(patient), patientService.getPatients("IMP-1"));
+	}
+	
+	/**
+	 * @see PatientService#importPatients(List)
+	 */
+	@Test
+	public void importPatients_shouldEvictOnlyTheSavedPatientsFromTheSession() {
+		Context.getAdministrationService().setGlobalProperty(OpenmrsConstants.GP_PATIENT_IMPORT_BATCH_SIZE, "1");
+		Patient existing = patientService.getPatient(2);
+		Patient first = createPatientToImport("Ann", "IMP-1");
+		Patient second = createPatientToImport("Bob", "IMP-2");
+		
+		BulkSaveResult<Patient> result = patientService.importPatients(Arrays.asList(first, second));
+		
+		assertEquals(2, result.getSaved().size());
+		Session session = Context.getRegisteredComponent("sessionFactory", SessionFactory.class).getCurrentSession();
+		assertTrue(session.contains(existing));
+		assertFalse(session.contains(first));
+		assertFalse(session.contains(second));
+		assertEquals("Bob", patientService.getPatient(second.getPatientId()).getGivenName());
+	}
+	
 	@Test
 	public void shouldCreatePatient() throws Exception {
 		executeDataSet(CREATE_PATIENT_XML);
@@ -14,6 +14,7 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -954,6 +955,61 @@ public class PersonServiceTest extends BaseContextSensitiveTest {
 		assertTrue(relationshipMap.isEmpty(), "There should be no element in the map");
 	}
 	
+	/**
+	 * @see PersonService#getRelationshipGraph(RelationshipType, Date)
+	 */
+	@Test
+	public void getRelationshipGraph_shouldMapTheIdsOfThePersonsOfTheRelationshipsOfTheGivenType() {
+		RelationshipGraph graph = personService.getRelationshipGraph(personService.getRelationshipType(1), null);
+		
+		assertEquals(2, graph.getRelationshipCount());
+		assertArrayEquals(new int[] { 2, 7 }, graph.getPersonBIds(502));
+		assertArrayEquals(new int[] { 502 }, graph.getPersonAIds(7));
+		assertEquals(0, graph.getPersonBIds(7).length);
+	}
+	
+	/**
+	 * @see PersonService#getRelationshipGraph(RelationshipType, Date)
+	 */
+	@Test
+	public void getRelationshipGraph_shouldOnlyIncludeTheRelationshipsEffectiveOnTheGivenDate() throws Exception {
+		RelationshipType relationshipType = personService.getRelationshipType(1);
+		Relationship ended = new Relationship(personService.getPerson(7), personService.getPerson(6), relationshipType);
+		DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+		ended.setStartDate(dateFormat.parse("2010-01-01"));
+		ended.setEndDate(dateFormat.parse("2011-01-01"));
+		personService.saveRelationship(ended);
+		
+		assertTrue(personService.getRelationshipGraph(relationshipType, null).contains(6));
+		assertTrue(personService.getRelationshipGraph(relationshipType, dateFormat.parse("2010-06-01")).contains(6));
+		assertFalse(personService.getRelationshipGraph(relationshipType, new Date()).contains(6));
+	}
+	
+	/**
+	 * @see PersonService#getRelationshipGraph(RelationshipType, Date)
+	 */
+	@Test
+	public void getRelationshipGraph_shouldFindThePersonsWithinTheGivenNumberOfHops() {
+		RelationshipGraph graph = personService.getRelationshipGraph(personService.getRelationshipType(1), null);
+		
+		assertArrayEquals(new int[] { 502 }, graph.getNeighborIds(2, 1, RelationshipGraph.Direction.BOTH));
+		assertArrayEquals(new int[] { 7, 502 }, graph.getNeighborIds(2, 2, RelationshipGraph.Direction.BOTH));
+		assertArrayEquals(new int[] { 502 }, graph.getNeighborIds(2, 2, RelationshipGraph.Direction.BACKWARD));
+		assertEquals(0, graph.getNeighborIds(2, 2, RelationshipGraph.Direction.FORWARD).length);
+	}
+	
+	/**
+	 * @see PersonService#streamRelationshipPersonIds(RelationshipType, Date, java.util.function.BiConsumer)
+	 */
+	@Test
+	public void streamRelationshipPersonIds_shouldPassThePersonIdsOfEachRelationshipOfTheGivenType() {
+		List<String> pairs = new ArrayList<>();
+		personService.streamRelationshipPersonIds(personService.getRelationshipType(1), null,
+		    (personAId, personBId) -> pairs.add(personAId + "-" + personBId));
+		
+		assertThat(pairs, containsInAnyOrder("502-2", "502-7"));
+	}
+	
 	/**
 	 * @see PersonService#getRelationships(Person,Person,RelationshipType)
 	 */
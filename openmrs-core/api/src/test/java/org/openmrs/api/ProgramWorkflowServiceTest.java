@@ -25,8 +25,12 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.lang3.time.DateUtils;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openmrs.Cohort;
@@ -1083,6 +1087,114 @@ public class ProgramWorkflowServiceTest extends BaseContextSensitiveTest {
 		assertEquals(patientProgram.getStates().size(), (patientStatesSize + 1));
 	}
 	
+	/**
+	 * @see ProgramWorkflowService#getCurrentStates(Cohort,ProgramWorkflow)
+	 */
+	@Test
+	public void getCurrentStates_shouldReturnTheCurrentStateOfEachPatientInTheCohort() {
+		ProgramWorkflow workflow = pws.getWorkflow(1);
+		
+		Map<Integer, CurrentPatientState> currentStates = pws.getCurrentStates(new Cohort("2,7"), workflow);
+		
+		CurrentPatientState currentState = currentStates.get(2);
+		assertNotNull(currentState);
+		assertEquals(1, currentState.getPatientProgramId().intValue());
+		assertEquals(1, currentState.getPatientStateId().intValue());
+		assertEquals(workflow.getState(2), currentState.getState());
+		assertEquals(pws.getPatientProgram(1).getCurrentState(workflow).getStartDate(), currentState.getStartDate());
+	}
+	
+	/**
+	 * @see ProgramWorkflowService#getCurrentStates(Cohort,ProgramWorkflow)
+	 */
+	@Test
+	public void getCurrentStates_shouldLeaveOutPatientsWithoutACurrentStateInTheWorkflow() {
+		assertEquals(1, pws.getCurrentStates(new Cohort("2,7"), pws.getWorkflow(1)).size());
+		assertTrue(pws.getCurrentStates(new Cohort("2,7"), pws.getWorkflow(2)).isEmpty());
+	}
+	
+	/**
+	 * @see ProgramWorkflowService#getCurrentStates(Cohort,ProgramWorkflow)
+	 */
+	@Test
+	public void getCurrentStates_shouldNotReturnStatesOfVoidedPatientPrograms() {
+		pws.voidPatientProgram(pws.getPatientProgram(1), "testing");
+		
+		assertTrue(pws.getCurrentStates(new Cohort("2"), pws.getWorkflow(1)).isEmpty());
+	}
+	
+	/**
+	 * @see ProgramWorkflowService#getCurrentStates(Cohort,ProgramWorkflow)
+	 */
+	@Test
+	public void getCurrentStates_shouldReturnTheStatesOfAllPatientsIfCohortIsNull() {
+		Map<Integer, CurrentPatientState> currentStates = pws.getCurrentStates(null, pws.getWorkflow(1));
+		
+		assertEquals(1, currentStates.size());
+		assertEquals(1, currentStates.get(2).getPatientStateId().intValue());
+	}
+	
+	/**
+	 * @see ProgramWorkflowService#triggerStateConversion(Cohort,Concept,Date)
+	 */
+	@Test
+	public void triggerStateConversion_shouldTransitionThePatientsOfTheCohortToTheStateOfTheTrigger() {
+		Date dateConverted = DateUtils.addDays(new Date(), -1);
+		
+		assertEquals(1, pws.triggerStateConversion(new Cohort("2,7"), cs.getConcept(14), dateConverted));
+		
+		ProgramWorkflow workflow = pws.getWorkflow(1);
+		CurrentPatientState currentState = pws.getCurrentStates(new Cohort("2"), workflow).get(2);
+		assertEquals(workflow.getState(4), currentState.getState());
+		assertEquals(2, pws.getPatientProgram(1).getStates().size());
+	}
+	
+	/**
+	 * @see ProgramWorkflowService#triggerStateConversion(Cohort,Concept,Date)
+	 */
+	@Test
+	public void triggerStateConversion_shouldKeepThePatientProgramsLoadedBeforeInTheSession() {
+		PatientProgram patientProgram = pws.getPatientProgram(1);
+		
+		assertEquals(1, pws.triggerStateConversion(new Cohort("2,7"), cs.getConcept(14), DateUtils.addDays(new Date(),
+		    -1)));
+		
+		Session session = Context.getRegisteredComponent("sessionFactory", SessionFactory.class).getCurrentSession();
+		assertTrue(session.contains(patientProgram));
+		assertEquals(2, patientProgram.getStates().size());
+	}
+	
+	/**
+	 * @see ProgramWorkflowService#triggerStateConversion(Cohort,Concept,Date)
+	 */
+	@Test
+	public void triggerStateConversion_shouldSkipPatientProgramsForWhichTheTransitionIsNotLegal() {
+		// patient 2 already is in the state of concept 17 and patient 7 has no state to leave the
+		// non initial state of concept 17 from
+		assertEquals(0, pws.triggerStateConversion(new Cohort("2,7"), cs.getConcept(17), new Date()));
+		
+		assertEquals(1, pws.getPatientProgram(1).getStates().size());
+		assertTrue(pws.getPatientProgram(4).getStates().isEmpty());
+	}
+	
+	/**
+	 * @see ProgramWorkflowService#triggerStateConversion(Cohort,Concept,Date)
+	 */
+	@Test
+	public void triggerStateConversion_shouldSkipPatientsWhoAreNotInTheCohort() {
+		assertEquals(0, pws.triggerStateConversion(new Cohort("7"), cs.getConcept(14), new Date()));
+		
+		assertEquals(1, pws.getPatientProgram(1).getStates().size());
+	}
+	
+	/**
+	 * @see ProgramWorkflowService#triggerStateConversion(Cohort,Concept,Date)
+	 */
+	@Test
+	public void triggerStateConversion_shouldReturnZeroIfNoWorkflowHasAStateForTheTrigger() {
+		assertEquals(0, pws.triggerStateConversion(new Cohort("2,7"), cs.getConcept(5089), new Date()));
+	}
+	
 	//	/**
 	//	 * This method should be uncommented when you want to examine the actual hibernate
 	//	 * sql calls being made.  The calls that should be limiting the number of returned
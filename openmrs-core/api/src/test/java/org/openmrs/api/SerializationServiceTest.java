@@ -0,0 +1,66 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.openmrs.BaseOpenmrsMetadata;
+import org.openmrs.Cohort;
+import org.openmrs.GlobalProperty;
+import org.openmrs.Program;
+import org.openmrs.api.context.Context;
+import org.openmrs.serialization.BinaryXStreamSerializer;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.openmrs.util.OpenmrsConstants;
+
+/**
+ * Tests methods in {@link SerializationService}
+ */
+public class SerializationServiceTest extends BaseContextSensitiveTest {
+	
+	private void setSerializerByType(String value) {
+		Context.getAdministrationService().saveGlobalProperty(
+		    new GlobalProperty(OpenmrsConstants.GP_SERIALIZER_BY_TYPE, value));
+	}
+	
+	/**
+	 * @see SerializationService#getSerializerForType(Class)
+	 */
+	@Test
+	public void getSerializerForType_shouldReturnTheSerializerConfiguredForTheGivenType() {
+		setSerializerByType(Cohort.class.getName() + "=" + BinaryXStreamSerializer.class.getName());
+		
+		SerializationService service = Context.getSerializationService();
+		assertEquals(service.getSerializer(BinaryXStreamSerializer.class), service.getSerializerForType(Cohort.class));
+	}
+	
+	/**
+	 * @see SerializationService#getSerializerForType(Class)
+	 */
+	@Test
+	public void getSerializerForType_shouldReturnTheSerializerConfiguredForASupertypeOfTheGivenType() {
+		setSerializerByType(BaseOpenmrsMetadata.class.getName() + "=" + BinaryXStreamSerializer.class.getName());
+		
+		SerializationService service = Context.getSerializationService();
+		assertEquals(service.getSerializer(BinaryXStreamSerializer.class), service.getSerializerForType(Program.class));
+	}
+	
+	/**
+	 * @see SerializationService#getSerializerForType(Class)
+	 */
+	@Test
+	public void getSerializerForType_shouldReturnNullIfNoSerializerIsConfiguredForTheGivenType() {
+		setSerializerByType(Cohort.class.getName() + "=" + BinaryXStreamSerializer.class.getName());
+		
+		assertNull(Context.getSerializationService().getSerializerForType(Program.class));
+	}
+}
@@ -12,6 +12,7 @@ package org.openmrs.api.cache;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
+import java.util.Collections;
 import java.util.List;
 
 import net.sf.ehcache.config.CacheConfiguration;
@@ -25,4 +26,16 @@ public class CachePropertiesUtilTest {
         assertThat(cacheConfigurations.size(), is(2));
         assertThat(cacheConfigurations.get(0).getTimeToIdleSeconds(), is(300L));
     }
+
+    @Test
+    public void shouldApplyPropertiesOnTopOfTheBaseConfigurations(){
+        CacheConfiguration base = new CacheConfiguration("org.openmrs.EncounterType", 100).eternal(true);
+        List<CacheConfiguration> cacheConfigurations = CachePropertiesUtil.getCacheConfigurations(
+                CachePropertiesUtil.HIBERNATE_CACHE_CONFIG, Collections.singletonMap(base.getName(), base));
+        assertThat(cacheConfigurations.size(), is(1));
+        assertThat(cacheConfigurations.get(0).getName(), is("org.openmrs.EncounterType"));
+        assertThat(cacheConfigurations.get(0).getMaxEntriesLocalHeap(), is(250L));
+        assertThat(cacheConfigurations.get(0).isEternal(), is(true));
+        assertThat(base.getMaxEntriesLocalHeap(), is(100L));
+    }
 }
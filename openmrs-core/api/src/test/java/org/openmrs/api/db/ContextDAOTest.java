@@ -14,24 +14,35 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.Date;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openmrs.PersonName;
 import org.openmrs.User;
 import org.openmrs.UserSessionListener;
 import org.openmrs.api.UserService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.context.ContextAuthenticationException;
 import org.openmrs.api.db.hibernate.HibernateContextDAO;
+import org.openmrs.api.db.hibernate.VerifiedCredentialCache;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.openmrs.util.OpenmrsConstants;
+import org.openmrs.util.Security;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -47,6 +58,12 @@ public class ContextDAOTest extends BaseContextSensitiveTest {
 	
 	private ContextDAO dao = null;
 	
+	@Autowired
+	private UserDAO userDAO;
+	
+	@Autowired
+	private VerifiedCredentialCache verifiedCredentialCache;
+	
 	@Resource(name = "testUserSessionListener")
 	TestUserSessionListener testUserSessionListener;
   
@@ -67,6 +84,14 @@ public class ContextDAOTest extends BaseContextSensitiveTest {
 		}
 	}
 	
+	/**
+	 * Forgets the credentials remembered by a test, the other tests do not expect them
+	 */
+	@AfterEach
+	public void clearVerifiedCredentials() {
+		verifiedCredentialCache.clear();
+	}
+	
 	/**
 	 * Methods in this class might authenticate with a different user, so log that user out after
 	 * this whole junit class is done.
@@ -267,6 +292,75 @@ public class ContextDAOTest extends BaseContextSensitiveTest {
 		dao.authenticate("incorrect", "test");
 	}
 	
+	/**
+	 * @see ContextDAO#authenticate(String,String)
+	 */
+	@Test
+	public void authenticate_shouldHashALegacyHashedPasswordWithTheCurrentAlgorithm() {
+		User user = dao.authenticate("correct", "test");
+		
+		LoginCredential credential = userDAO.getLoginCredential(user);
+		assertEquals(Security.encodeString("test" + credential.getSalt()), credential.getHashedPassword());
+		assertEquals(user, credential.getChangedBy());
+		dao.authenticate("correct", "test");
+	}
+	
+	/**
+	 * @see ContextDAO#authenticate(String,String)
+	 */
+	@Test
+	public void authenticate_shouldNotHashTheRememberedPasswordAgain() {
+		rememberVerifiedCredentials();
+		dao.authenticate("admin", "test");
+		Context.getAdministrationService().executeSQL("update users set password = 'changed' where user_id = 1", false);
+		
+		assertEquals(1, dao.authenticate("admin", "test").getUserId().intValue());
+		assertThrows(ContextAuthenticationException.class, () -> dao.authenticate("admin", "wrong"));
+	}
+	
+	/**
+	 * @see ContextDAO#authenticate(String,String)
+	 */
+	@Test
+	public void authenticate_shouldNotAuthenticateWithTheRememberedPasswordAfterThePasswordChanged() {
+		rememberVerifiedCredentials();
+		User user = dao.authenticate("admin", "test");
+		Context.getUserService().changePassword(user, "NewPassword1");
+		
+		assertThrows(ContextAuthenticationException.class, () -> dao.authenticate("admin", "test"));
+		dao.authenticate("admin", "NewPassword1");
+	}
+	
+	/**
+	 * @see ContextDAO#authenticate(String,String)
+	 */
+	@Test
+	public void authenticate_shouldNotAuthenticateWithTheRememberedPasswordAfterTheUserIsRetired() {
+		rememberVerifiedCredentials();
+		User user = dao.authenticate("correct", "test");
+		Context.getUserService().retireUser(user, "left");
+		
+		assertThrows(ContextAuthenticationException.class, () -> dao.authenticate("correct", "test"));
+	}
+	
+	/**
+	 * @see VerifiedCredentialCache#put(String, String, Integer, long, long)
+	 */
+	@Test
+	public void put_shouldNotRememberAPasswordReadBeforeTheUserWasInvalidated() {
+		long invalidationCount = verifiedCredentialCache.getInvalidationCount();
+		verifiedCredentialCache.invalidate(1);
+		verifiedCredentialCache.put("admin", "test", 1, 60000, invalidationCount);
+		assertNull(verifiedCredentialCache.getUserId("admin", "test"));
+		
+		verifiedCredentialCache.put("admin", "test", 1, 60000, verifiedCredentialCache.getInvalidationCount());
+		assertEquals(1, verifiedCredentialCache.getUserId("admin", "test").intValue());
+	}
+	
+	private void rememberVerifiedCredentials() {
+		Context.getAdministrationService().setGlobalProperty(OpenmrsConstants.GP_VERIFIED_CREDENTIALS_CACHE_SECONDS, "60");
+	}
+	
 	/**
 	 * #1580: If you type your password wrong, then log in correctly, the API will not lock you out
 	 * after multiple login attempts in the future
@@ -403,4 +497,51 @@ public class ContextDAOTest extends BaseContextSensitiveTest {
 				contains("admin:LOGOUT:SUCCESS"));
 		assertThat(testUserSessionListener.logins, empty());
 	}
+
+	/**
+	 * @see ContextDAO#updateSearchIndexSince(Date, SearchIndexUpdateOptions)
+	 */
+	@Test
+	public void updateSearchIndexSince_shouldOnlyIndexEntitiesChangedSinceTheGivenDate() {
+		SearchIndexUpdateOptions options = new SearchIndexUpdateOptions();
+		options.setTypes(Collections.singletonList(PersonName.class));
+		
+		assertEquals(0, dao.updateSearchIndexSince(new Date(), options));
+		
+		long count = dao.updateSearchIndexSince(new Date(0), options);
+		assertTrue(count > 0);
+		
+		List<SearchIndexProgress> progress = dao.getSearchIndexProgress();
+		assertEquals(1, progress.size());
+		assertEquals(PersonName.class, progress.get(0).getType());
+		assertEquals(count, progress.get(0).getTotalCount());
+		assertEquals(count, progress.get(0).getDocumentsAdded());
+		assertTrue(progress.get(0).isFinished());
+		assertTrue(progress.get(0).isIncremental());
+	}
+	
+	/**
+	 * @see ContextDAO#getSearchIndexReport(List)
+	 */
+	@Test
+	public void getSearchIndexReport_shouldReportTheSizeOfTheFieldsAndTheTimeOfTheSampleQueries() {
+		SearchIndexUpdateOptions options = new SearchIndexUpdateOptions();
+		options.setTypes(Collections.singletonList(PersonName.class));
+		dao.updateSearchIndexSince(new Date(0), options);
+		
+		SearchIndexReport report = dao.getSearchIndexReport(Collections.singletonList("Hornblower"));
+		
+		SearchIndexReport.IndexedType personNames = null;
+		for (SearchIndexReport.IndexedType indexedType : report.getIndexedTypes()) {
+			if (PersonName.class.equals(indexedType.getType())) {
+				personNames = indexedType;
+			}
+		}
+		assertNotNull(personNames);
+		assertTrue(personNames.getDocumentCount() > 0);
+		assertTrue(personNames.getPostingCounts().get("familyNameExact") > 0);
+		assertTrue(personNames.getPostingCounts().get("familyNameAnywhere") > personNames.getPostingCounts().get(
+		    "familyNameExact"));
+		assertTrue(report.getQueryTimes().containsKey("Hornblower"));
+	}
 }
@@ -13,9 +13,12 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -236,4 +239,21 @@ public class HibernateOrderDAOTest extends BaseContextSensitiveTest {
 		assertNull(dao.getOrderAttributeTypeByUuid(UUID));
 		assertEquals(ORIGINAL_COUNT - 1, dao.getAllOrderAttributeTypes().size());
 	}
+	
+	/**
+	 * @see HibernateOrderDAO#getOrdersActiveFrom(Patient, Date)
+	 */
+	@Test
+	public void getOrdersActiveFrom_shouldGetTheOrdersActiveOnTheDateInAllCareSettings() {
+		Patient patient = Context.getPatientService().getPatient(2);
+		Date now = new Date();
+		
+		List<Order> orders = dao.getOrdersActiveFrom(patient, now);
+		
+		assertTrue(orders.containsAll(dao.getActiveOrders(patient, null, null, now)));
+		for (Order order : orders) {
+			assertFalse(order.getVoided());
+			assertNotEquals(Order.Action.DISCONTINUE, order.getAction());
+		}
+	}
 }
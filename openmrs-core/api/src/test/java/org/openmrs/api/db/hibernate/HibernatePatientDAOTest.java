@@ -15,6 +15,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItems;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.sql.Date;
 import java.util.Arrays;
@@ -29,8 +30,10 @@ import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.Person;
 import org.openmrs.PersonName;
+import org.openmrs.api.AdministrationService;
 import org.openmrs.api.context.Context;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.openmrs.util.OpenmrsConstants;
 
 public class HibernatePatientDAOTest extends BaseContextSensitiveTest {
 
@@ -287,4 +290,59 @@ public class HibernatePatientDAOTest extends BaseContextSensitiveTest {
 		// then
 		assertThat(duplicatePatients.size(), equalTo(2));
 	}
+
+	/**
+	 * @see HibernatePatientDAO#getPatients(String, boolean, Integer, Integer)
+	 */
+	@Test
+	public void getPatients_shouldFindPatientsSavedAfterTheSearchWasCached() {
+		Context.getAdministrationService().setGlobalProperty(OpenmrsConstants.GP_PATIENT_SEARCH_CACHE_SECONDS, "60");
+		assertEquals(1, hibernatePatientDao.getPatients("Hornblower", false, 0, 10).size());
+		assertEquals(1L, hibernatePatientDao.getCountOfPatients("Hornblower").longValue());
+
+		Person person = new Person();
+		person.addName(new PersonName("William", null, "Hornblower"));
+		person.setGender("M");
+		person = hibernatePersonDAO.savePerson(person);
+		hibernatePatientDao.savePatient(new Patient(person));
+		updateSearchIndex();
+
+		assertEquals(2, hibernatePatientDao.getPatients("Hornblower", false, 0, 10).size());
+		assertEquals(2L, hibernatePatientDao.getCountOfPatients("Hornblower").longValue());
+	}
+
+	/**
+	 * @see HibernatePatientDAO#getPatients(String, boolean, Integer, Integer)
+	 */
+	@Test
+	public void getPatients_shouldFilterTheCachedResultsOfAPrefixOfTheQuery() {
+		Context.getAdministrationService().setGlobalProperty(OpenmrsConstants.GP_PATIENT_SEARCH_CACHE_SECONDS, "60");
+		PatientSearchCache patientSearchCache = (PatientSearchCache) applicationContext.getBean("patientSearchCache");
+
+		assertEquals(1, hibernatePatientDao.getPatients("Hornbl", false, 0, 10).size());
+		List<Patient> patients = hibernatePatientDao.getPatients("Hornblower3", false, 0, 10);
+		assertEquals(1, patients.size());
+		assertEquals(2, patients.get(0).getPatientId().intValue());
+
+		// results for the prefix which do not include the patient show that they were filtered
+		patientSearchCache.clear();
+		patientSearchCache.putPatientIds("Hornbl", false, 0, 10, singletonList(7), 60000);
+		assertEquals(0, hibernatePatientDao.getPatients("Hornblow", false, 0, 10).size());
+	}
+
+	/**
+	 * @see HibernatePatientDAO#getPatients(String, boolean, Integer, Integer)
+	 */
+	@Test
+	public void getPatients_shouldNotFilterByAPrefixWhoseLastWordIsShorterThanTheNGrams() {
+		AdministrationService as = Context.getAdministrationService();
+		as.setGlobalProperty(OpenmrsConstants.GP_PATIENT_SEARCH_CACHE_SECONDS, "60");
+		as.setGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_PERSON_ATTRIBUTE_SEARCH_MATCH_MODE,
+		    OpenmrsConstants.GLOBAL_PROPERTY_PERSON_ATTRIBUTE_SEARCH_MATCH_ANYWHERE);
+
+		hibernatePatientDao.getPatients("John H", false, 0, 10);
+		List<Patient> patients = hibernatePatientDao.getPatients("John Ho", false, 0, 10);
+
+		assertTrue(patients.stream().anyMatch(p -> p.getPatientId() == 2));
+	}
 }
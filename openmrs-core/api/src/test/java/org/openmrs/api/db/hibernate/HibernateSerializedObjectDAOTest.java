@@ -0,0 +1,69 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.Program;
+import org.openmrs.api.db.SerializedObject;
+import org.openmrs.serialization.SimpleXStreamSerializer;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+public class HibernateSerializedObjectDAOTest extends BaseContextSensitiveTest {
+
+	@Autowired
+	@Qualifier("serializedObjectDAO")
+	private HibernateSerializedObjectDAO dao;
+
+	@Autowired
+	private SimpleXStreamSerializer simpleXStreamSerializer;
+
+	private SerializedObject serializedObject;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		Program program = new Program();
+		program.setName("TestProgram");
+		program.setDescription("A program to deserialize");
+
+		serializedObject = new SerializedObject();
+		serializedObject.setId(1);
+		serializedObject.setUuid("2b8d5c7a-4ab0-4bb5-ae67-8e0fa3cb4a1f");
+		serializedObject.setType(Program.class.getName());
+		serializedObject.setSubtype(Program.class.getName());
+		serializedObject.setSerializationClass(SimpleXStreamSerializer.class);
+		serializedObject.setSerializedData(simpleXStreamSerializer.serialize(program));
+		serializedObject.setDateChanged(new Date());
+	}
+
+	/**
+	 * @see HibernateSerializedObjectDAO#convertSerializedObject(Class, SerializedObject)
+	 */
+	@Test
+	public void convertSerializedObject_shouldNotShareTheReturnedObjectWithLaterCalls() {
+		Program first = dao.convertSerializedObject(Program.class, serializedObject);
+		first.setName("Changed without saving");
+
+		Program second = dao.convertSerializedObject(Program.class, serializedObject);
+
+		assertNotSame(first, second);
+		assertEquals("TestProgram", second.getName());
+		assertEquals("A program to deserialize", second.getDescription());
+		assertEquals(1, second.getId());
+		assertEquals(serializedObject.getUuid(), second.getUuid());
+	}
+}
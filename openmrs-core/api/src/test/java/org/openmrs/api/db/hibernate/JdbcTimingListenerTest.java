@@ -0,0 +1,60 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class JdbcTimingListenerTest {
+
+	@AfterEach
+	public void tearDown() {
+		JdbcTimingListener.reset();
+	}
+
+	/**
+	 * @see JdbcTimingListener#jdbcConnectionAcquisitionEnd()
+	 */
+	@Test
+	public void jdbcConnectionAcquisitionEnd_shouldAddUpTheTimeSpentAcquiringConnections() throws InterruptedException {
+		JdbcTimingListener.reset();
+		JdbcTimingListener listener = new JdbcTimingListener();
+
+		listener.jdbcConnectionAcquisitionStart();
+		Thread.sleep(5);
+		listener.jdbcConnectionAcquisitionEnd();
+		long firstTime = JdbcTimingListener.getConnectionAcquisitionTime();
+		listener.jdbcConnectionAcquisitionStart();
+		listener.jdbcConnectionAcquisitionEnd();
+
+		assertTrue(firstTime >= 5);
+		assertTrue(JdbcTimingListener.getConnectionAcquisitionTime() >= firstTime);
+		assertTrue(JdbcTimingListener.getConnectionAcquisitionMaxTime() >= 5);
+	}
+
+	/**
+	 * @see JdbcTimingListener#reset()
+	 */
+	@Test
+	public void reset_shouldRestartTheConnectionAcquisitionTimes() throws InterruptedException {
+		JdbcTimingListener listener = new JdbcTimingListener();
+		listener.jdbcConnectionAcquisitionStart();
+		Thread.sleep(2);
+		listener.jdbcConnectionAcquisitionEnd();
+
+		JdbcTimingListener.reset();
+
+		assertEquals(0, JdbcTimingListener.getConnectionAcquisitionTime());
+		assertEquals(0, JdbcTimingListener.getConnectionAcquisitionMaxTime());
+	}
+}
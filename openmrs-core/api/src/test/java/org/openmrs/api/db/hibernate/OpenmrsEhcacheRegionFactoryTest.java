@@ -0,0 +1,70 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.openmrs.EncounterType;
+import org.openmrs.api.EncounterService;
+import org.openmrs.api.context.Context;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import net.sf.ehcache.config.CacheConfiguration;
+
+public class OpenmrsEhcacheRegionFactoryTest extends BaseContextSensitiveTest {
+	
+	@Autowired
+	private SessionFactory sessionFactory;
+	
+	@Test
+	public void resolveCacheManager_shouldApplyTheHibernateCacheConfigOnTopOfEhcacheXml() {
+		RegionFactory regionFactory = sessionFactory.unwrap(SessionFactoryImplementor.class).getCache()
+		        .getRegionFactory();
+		CacheConfiguration configuration = ((OpenmrsEhcacheRegionFactory) regionFactory).getCacheManager()
+		        .getCache(EncounterType.class.getName()).getCacheConfiguration();
+		
+		assertEquals(250, configuration.getMaxEntriesLocalHeap());
+		assertTrue(configuration.isEternal());
+	}
+	
+	@Test
+	public void getEncounterTypeByUuid_shouldUseTheQueryCache() {
+		Statistics statistics = sessionFactory.getStatistics();
+		String uuid = "02c533ab-b74b-4ee4-b6e5-ffb6d09a0ac8";
+		EncounterService encounterService = Context.getEncounterService();
+		assertNotNull(encounterService.getEncounterTypeByUuid(uuid));
+		long hits = statistics.getQueryCacheHitCount();
+		
+		assertNotNull(encounterService.getEncounterTypeByUuid(uuid));
+		
+		assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+	}
+	
+	@Test
+	public void getEncounterType_shouldNotReturnACachedTypeAfterItIsRetired() {
+		EncounterService encounterService = Context.getEncounterService();
+		EncounterType type = encounterService.getEncounterType("Scheduled");
+		assertNotNull(type);
+		
+		encounterService.retireEncounterType(type, "test");
+		Context.flushSession();
+		
+		assertNull(encounterService.getEncounterType("Scheduled"));
+	}
+}
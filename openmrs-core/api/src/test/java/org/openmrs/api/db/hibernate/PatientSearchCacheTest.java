@@ -0,0 +1,93 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+public class PatientSearchCacheTest {
+
+	private static final long TIME_TO_LIVE = 60000;
+
+	/**
+	 * @see PatientSearchCache#getPatientIds(String, boolean, int, int)
+	 */
+	@Test
+	public void getPatientIds_shouldReturnAnyPageOfCompleteResults() {
+		PatientSearchCache cache = new PatientSearchCache();
+		cache.putPatientIds("John  Doe ", false, 0, 10, Arrays.asList(1, 2, 3), TIME_TO_LIVE);
+
+		assertEquals(Arrays.asList(2, 3), cache.getPatientIds("john doe", false, 1, 5));
+		assertEquals(Collections.emptyList(), cache.getPatientIds("JOHN DOE", false, 5, 5));
+		assertEquals(3L, cache.getCount("john doe", false).longValue());
+		assertNull(cache.getPatientIds("john doe", true, 0, 10));
+	}
+
+	/**
+	 * @see PatientSearchCache#getPatientIds(String, boolean, int, int)
+	 */
+	@Test
+	public void getPatientIds_shouldOnlyReturnTheCachedPageOfIncompleteResults() {
+		PatientSearchCache cache = new PatientSearchCache();
+		cache.putPatientIds("john", false, 0, 2, Arrays.asList(1, 2), TIME_TO_LIVE);
+
+		assertEquals(Arrays.asList(1, 2), cache.getPatientIds("john", false, 0, 2));
+		assertNull(cache.getPatientIds("john", false, 0, 3));
+		assertNull(cache.getCount("john", false));
+	}
+
+	/**
+	 * @see PatientSearchCache#getPatientIds(String, boolean, int, int)
+	 */
+	@Test
+	public void getPatientIds_shouldNotReturnExpiredResults() {
+		PatientSearchCache cache = new PatientSearchCache();
+		cache.putPatientIds("john", false, 0, 10, Arrays.asList(1, 2), -1);
+
+		assertNull(cache.getPatientIds("john", false, 0, 10));
+	}
+
+	/**
+	 * @see PatientSearchCache#getPatientIdsOfPrefix(String, boolean, int, int)
+	 */
+	@Test
+	public void getPatientIdsOfPrefix_shouldReturnTheResultsOfTheLongestPrefixWithAsManyWords() {
+		PatientSearchCache cache = new PatientSearchCache();
+		cache.putPatientIds("jo", false, 0, 10, Arrays.asList(1, 2, 3), TIME_TO_LIVE);
+		cache.putPatientIds("joh", false, 0, 10, Arrays.asList(1, 2), TIME_TO_LIVE);
+		cache.putPatientIds("john d", false, 0, 10, Arrays.asList(4, 5), TIME_TO_LIVE);
+
+		assertEquals(Arrays.asList(1, 2), cache.getPatientIdsOfPrefix("John", false, 10, 2));
+		assertNull(cache.getPatientIdsOfPrefix("John", false, 1, 2));
+		assertNull(cache.getPatientIdsOfPrefix("john", true, 10, 2));
+		assertEquals(Arrays.asList(4, 5), cache.getPatientIdsOfPrefix("john doe", false, 10, 1));
+		assertNull(cache.getPatientIdsOfPrefix("jo", false, 10, 2));
+		assertNull(cache.getPatientIdsOfPrefix("john doe", false, 10, 2));
+	}
+
+	/**
+	 * @see PatientSearchCache#clear()
+	 */
+	@Test
+	public void clear_shouldForgetAllResults() {
+		PatientSearchCache cache = new PatientSearchCache();
+		cache.putPatientIds("john", false, 0, 10, Arrays.asList(1, 2), TIME_TO_LIVE);
+		cache.putCount("jane", false, 12, TIME_TO_LIVE);
+		cache.clear();
+
+		assertNull(cache.getPatientIds("john", false, 0, 10));
+		assertNull(cache.getCount("jane", false));
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.Drug;
+import org.openmrs.GlobalProperty;
+import org.openmrs.Patient;
+import org.openmrs.PersonName;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.PatientService;
+import org.openmrs.api.PersonService;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.db.SearchIndexQueueStatistics;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.openmrs.util.OpenmrsConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public class AsyncSearchIndexerTest extends BaseContextSensitiveTest {
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	private AsyncSearchIndexer indexer;
+
+	@BeforeEach
+	public void setUp() {
+		indexer = new AsyncSearchIndexer();
+		indexer.setSessionFactory(sessionFactory);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		indexer.shutdown();
+	}
+
+	/**
+	 * @see AsyncSearchIndexer#defer(Object)
+	 */
+	@Test
+	public void defer_shouldNotDeferWhenDisabled() {
+		assertFalse(indexer.defer(Context.getConceptService().getDrug(2)));
+	}
+
+	/**
+	 * @see AsyncSearchIndexer#defer(Object)
+	 */
+	@Test
+	public void defer_shouldQueueTheEntityOnlyWhenTheTransactionCommits() {
+		indexer.configure("true", "1", "10", "10");
+
+		assertTrue(indexer.defer(Context.getConceptService().getDrug(2)));
+		assertEquals(0, indexer.getQueueDepth());
+	}
+
+	/**
+	 * @see AsyncSearchIndexer#waitForIndexing(long)
+	 */
+	@Test
+	public void waitForIndexing_shouldReturnOnceTheQueuedEntitiesAreIndexed() {
+		indexer.enqueue(Arrays.asList(new AsyncSearchIndexer.IndexedEntity(Drug.class, 999998),
+		    new AsyncSearchIndexer.IndexedEntity(Drug.class, 999999)));
+
+		assertTrue(indexer.waitForIndexing(10000));
+		SearchIndexQueueStatistics statistics = indexer.getStatistics();
+		assertEquals(0, statistics.getQueueDepth());
+		assertEquals(0.0, statistics.getCurrentLag());
+		assertEquals(2, statistics.getIndexedCount());
+		assertEquals(0, statistics.getFailedCount());
+	}
+
+	/**
+	 * @see AsyncSearchIndexer#enqueue(java.util.Collection)
+	 */
+	@Test
+	public void enqueue_shouldRetryTheEntitiesOfABatchWhichFailed() {
+		SessionFactory failingOnce = mock(SessionFactory.class);
+		when(failingOnce.openSession()).thenThrow(new OutOfMemoryError("failing on purpose")).thenAnswer(
+		    invocation -> sessionFactory.openSession());
+		indexer.setSessionFactory(failingOnce);
+
+		indexer.enqueue(Arrays.asList(new AsyncSearchIndexer.IndexedEntity(Drug.class, 999998),
+		    new AsyncSearchIndexer.IndexedEntity(Drug.class, 999999)));
+
+		assertTrue(indexer.waitForIndexing(10000));
+		SearchIndexQueueStatistics statistics = indexer.getStatistics();
+		assertEquals(2, statistics.getIndexedCount());
+		assertEquals(0, statistics.getFailedCount());
+	}
+
+	/**
+	 * @see AsyncSearchIndexer#waitForIndexing(long)
+	 */
+	@Test
+	public void waitForIndexing_shouldReturnImmediatelyWhenNothingIsQueued() {
+		assertTrue(indexer.waitForIndexing(0));
+		assertFalse(indexer.getStatistics().isEnabled());
+	}
+
+	/**
+	 * Saves a name in its own transaction, so that it is queued when the transaction commits, and
+	 * restores it afterwards since the change is committed.
+	 *
+	 * @see AsyncSearchIndexer#waitForIndexing(long)
+	 */
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void waitForIndexing_shouldMakeSavedNamesVisibleToPatientSearches() {
+		AdministrationService as = Context.getAdministrationService();
+		PersonService personService = Context.getPersonService();
+		PatientService patientService = Context.getPatientService();
+		AsyncSearchIndexer asyncSearchIndexer = AsyncSearchIndexer.getInstance();
+		as.setGlobalProperty(OpenmrsConstants.GP_PATIENT_SEARCH_CACHE_SECONDS, "60");
+		asyncSearchIndexer.setEnabled(true);
+		long indexedCount = asyncSearchIndexer.getStatistics().getIndexedCount();
+		try {
+			PersonName name = personService.getPersonName(22);
+			name.setFamilyName2("Quaxley");
+			personService.savePersonName(name);
+			// may be remembered before the name is indexed
+			patientService.getPatients("Quaxley");
+
+			assertTrue(Context.waitForSearchIndex(10000));
+			List<Patient> patients = patientService.getPatients("Quaxley");
+			assertEquals(1, patients.size());
+			assertEquals(2, patients.get(0).getPatientId());
+			assertTrue(asyncSearchIndexer.getStatistics().getIndexedCount() > indexedCount);
+		}
+		finally {
+			PersonName name = personService.getPersonName(22);
+			name.setFamilyName2(null);
+			personService.savePersonName(name);
+			Context.waitForSearchIndex(10000);
+			asyncSearchIndexer.setEnabled(false);
+			as.purgeGlobalProperty(as.getGlobalPropertyObject(OpenmrsConstants.GP_PATIENT_SEARCH_CACHE_SECONDS));
+		}
+		assertTrue(patientService.getPatients("Quaxley").isEmpty());
+	}
+
+	/**
+	 * @see AsyncSearchIndexer#globalPropertyChanged(org.openmrs.GlobalProperty)
+	 */
+	@Test
+	public void globalPropertyChanged_shouldEnableBackgroundIndexing() {
+		assertTrue(indexer.supportsPropertyName(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC));
+		indexer.globalPropertyChanged(new GlobalProperty(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC, "true"));
+		assertTrue(indexer.isEnabled());
+
+		indexer.globalPropertyDeleted(OpenmrsConstants.GP_SEARCH_INDEXER_ASYNC);
+		assertFalse(indexer.isEnabled());
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.openmrs.util.OpenmrsConstants;
+
+public class SearchIndexLayoutTest {
+
+	private static SearchIndexLayout layout(String... nameValues) {
+		Properties properties = new Properties();
+		for (int i = 0; i < nameValues.length; i += 2) {
+			properties.setProperty(nameValues[i], nameValues[i + 1]);
+		}
+		return SearchIndexLayout.fromProperties(properties);
+	}
+
+	/**
+	 * @see SearchIndexLayout#fromProperties(Properties)
+	 */
+	@Test
+	public void fromProperties_shouldIndexEveryFieldByDefault() {
+		SearchIndexLayout layout = layout();
+
+		assertEquals(SearchIndexLayout.Profile.FULL, layout.getProfile());
+		assertTrue(layout.isAnywhereIndexed());
+		assertTrue(layout.isSoundexIndexed());
+		assertEquals(SearchIndexLayout.DEFAULT_MIN_GRAM_SIZE, layout.getMinGramSize());
+		assertEquals(SearchIndexLayout.DEFAULT_MAX_GRAM_SIZE, layout.getMaxGramSize());
+		assertEquals(OpenmrsConstants.SEARCH_INDEX_VERSION.toString(), layout.getIndexVersion());
+	}
+
+	/**
+	 * @see SearchIndexLayout#fromProperties(Properties)
+	 */
+	@Test
+	public void fromProperties_shouldLeaveOutTheFieldsOfTheProfile() {
+		SearchIndexLayout lean = layout(OpenmrsConstants.SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY, "lean");
+		assertFalse(lean.isAnywhereIndexed());
+		assertTrue(lean.isSoundexIndexed());
+
+		SearchIndexLayout minimal = layout(OpenmrsConstants.SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY, "Minimal");
+		assertFalse(minimal.isAnywhereIndexed());
+		assertFalse(minimal.isSoundexIndexed());
+	}
+
+	/**
+	 * @see SearchIndexLayout#fromProperties(Properties)
+	 */
+	@Test
+	public void fromProperties_shouldLetPropertiesOverrideTheProfile() {
+		SearchIndexLayout layout = layout(OpenmrsConstants.SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY, "minimal",
+		    OpenmrsConstants.SEARCH_INDEX_SOUNDEX_RUNTIME_PROPERTY, "true",
+		    OpenmrsConstants.SEARCH_INDEX_MAX_GRAM_SIZE_RUNTIME_PROPERTY, "8");
+
+		assertFalse(layout.isAnywhereIndexed());
+		assertTrue(layout.isSoundexIndexed());
+		assertEquals(8, layout.getMaxGramSize());
+	}
+
+	/**
+	 * @see SearchIndexLayout#fromProperties(Properties)
+	 */
+	@Test
+	public void fromProperties_shouldUseTheDefaultsForInvalidValues() {
+		SearchIndexLayout layout = layout(OpenmrsConstants.SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY, "tiny",
+		    OpenmrsConstants.SEARCH_INDEX_MIN_GRAM_SIZE_RUNTIME_PROPERTY, "5",
+		    OpenmrsConstants.SEARCH_INDEX_MAX_GRAM_SIZE_RUNTIME_PROPERTY, "3");
+
+		assertEquals(SearchIndexLayout.Profile.FULL, layout.getProfile());
+		assertEquals(SearchIndexLayout.DEFAULT_MIN_GRAM_SIZE, layout.getMinGramSize());
+		assertEquals(SearchIndexLayout.DEFAULT_MAX_GRAM_SIZE, layout.getMaxGramSize());
+	}
+
+	/**
+	 * @see SearchIndexLayout#adaptFields(java.util.Collection)
+	 */
+	@Test
+	public void adaptFields_shouldReplaceTheFieldsWhichAreLeftOut() {
+		SearchIndexLayout layout = layout(OpenmrsConstants.SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY, "minimal");
+
+		assertEquals(Arrays.asList("givenNameExact", "givenNameStart"),
+		    layout.adaptFields(Arrays.asList("givenNameExact", "givenNameStart", "givenNameAnywhere", "givenNameSoundex")));
+		assertEquals("identifierStart", layout.adaptField("identifierAnywhere"));
+		assertEquals("identifierPhrase", layout.adaptField("identifierPhrase"));
+		assertEquals("givenNameAnywhere", layout().adaptField("givenNameAnywhere"));
+	}
+
+	/**
+	 * @see SearchIndexLayout#adaptQuery(String)
+	 */
+	@Test
+	public void adaptQuery_shouldReplaceTheFieldsNamedInTheQuery() {
+		SearchIndexLayout layout = layout(OpenmrsConstants.SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY, "minimal");
+
+		assertEquals("(givenNameExact:john^6 OR familyNameExact:Soundex\\:x)",
+		    layout.adaptQuery("(givenNameSoundex:john^6 OR familyNameSoundex:Soundex\\:x)"));
+	}
+
+	/**
+	 * @see SearchIndexLayout#getIndexVersion()
+	 */
+	@Test
+	public void getIndexVersion_shouldChangeWithTheLayout() {
+		String lean = layout(OpenmrsConstants.SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY, "lean").getIndexVersion();
+		String minimal = layout(OpenmrsConstants.SEARCH_INDEX_PROFILE_RUNTIME_PROPERTY, "minimal").getIndexVersion();
+
+		assertNotEquals(OpenmrsConstants.SEARCH_INDEX_VERSION.toString(), lean);
+		assertNotEquals(lean, minimal);
+	}
+}
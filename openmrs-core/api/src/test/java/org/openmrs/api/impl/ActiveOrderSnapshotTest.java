@@ -0,0 +1,99 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.jupiter.api.Test;
+import org.openmrs.CareSetting;
+import org.openmrs.Concept;
+import org.openmrs.Order;
+
+public class ActiveOrderSnapshotTest {
+
+	private final Date now = new Date();
+
+	private final CareSetting outpatient = createCareSetting(1);
+
+	private final CareSetting inpatient = createCareSetting(2);
+
+	/**
+	 * @see ActiveOrderSnapshot#getActiveOrders(Concept, CareSetting, Date)
+	 */
+	@Test
+	public void getActiveOrders_shouldReturnTheActiveOrdersOfTheConceptAndCareSetting() {
+		Order order = createOrder(1, 10, outpatient, DateUtils.addDays(now, -1), null);
+		Order otherConcept = createOrder(2, 11, outpatient, DateUtils.addDays(now, -1), null);
+		Order otherCareSetting = createOrder(3, 10, inpatient, DateUtils.addDays(now, -1), null);
+		Order expired = createOrder(4, 10, outpatient, DateUtils.addDays(now, -2), DateUtils.addDays(now, -1));
+		Order notYetActivated = createOrder(5, 10, outpatient, DateUtils.addDays(now, 1), null);
+
+		ActiveOrderSnapshot snapshot = new ActiveOrderSnapshot(DateUtils.addDays(now, -3), Arrays.asList(order,
+		    otherConcept, otherCareSetting, expired, notYetActivated));
+
+		assertThat(snapshot.getActiveOrders(new Concept(10), outpatient, now), contains(order));
+		assertThat(snapshot.getActiveOrders(new Concept(10), outpatient, DateUtils.addDays(now, -2)), contains(expired));
+		assertThat(snapshot.getActiveOrders(new Concept(12), outpatient, now), empty());
+	}
+
+	/**
+	 * @see ActiveOrderSnapshot#put(Order)
+	 */
+	@Test
+	public void put_shouldReplaceTheOrderWithTheSameIdAndDropVoidedOrders() {
+		ActiveOrderSnapshot snapshot = new ActiveOrderSnapshot(now, Collections.emptyList());
+		Order order = createOrder(1, 10, outpatient, DateUtils.addDays(now, -1), null);
+		snapshot.put(order);
+
+		Order sameOrder = createOrder(1, 10, outpatient, DateUtils.addDays(now, -1), null);
+		snapshot.put(sameOrder);
+		assertThat(snapshot.getActiveOrders(new Concept(10), outpatient, now), contains(sameOrder));
+
+		sameOrder.setVoided(true);
+		snapshot.put(sameOrder);
+		assertThat(snapshot.getActiveOrders(new Concept(10), outpatient, now), empty());
+	}
+
+	/**
+	 * @see ActiveOrderSnapshot#covers(Date)
+	 */
+	@Test
+	public void covers_shouldReturnFalseForDatesBeforeTheSnapshotDate() {
+		ActiveOrderSnapshot snapshot = new ActiveOrderSnapshot(now, Collections.emptyList());
+		assertTrue(snapshot.covers(now));
+		assertTrue(snapshot.covers(DateUtils.addSeconds(now, 1)));
+		assertFalse(snapshot.covers(DateUtils.addSeconds(now, -1)));
+	}
+
+	private Order createOrder(int orderId, int conceptId, CareSetting careSetting, Date dateActivated,
+	        Date autoExpireDate) {
+		Order order = new Order(orderId);
+		order.setConcept(new Concept(conceptId));
+		order.setCareSetting(careSetting);
+		order.setDateActivated(dateActivated);
+		order.setAutoExpireDate(autoExpireDate);
+		return order;
+	}
+
+	private static CareSetting createCareSetting(int careSettingId) {
+		CareSetting careSetting = new CareSetting();
+		careSetting.setCareSettingId(careSettingId);
+		return careSetting;
+	}
+}
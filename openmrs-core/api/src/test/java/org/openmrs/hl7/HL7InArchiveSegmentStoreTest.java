@@ -0,0 +1,104 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.hl7;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class HL7InArchiveSegmentStoreTest {
+
+	private static final String MESSAGE = "MSH|^~\\&|FORMENTRY|AMRS.ELD|HL7LISTENER|AMRS.ELD|20080226102656||ORU^R01|"
+	        + "JqnfhKKtouEz8kzTk6Zo|P|2.5|1||||||||16^AMRS.ELD.FORMID\rPID|||3^^^^||John3^Doe^||\r";
+
+	@TempDir
+	public File directory;
+
+	/**
+	 * @see HL7InArchiveSegmentStore#read(URI)
+	 */
+	@Test
+	public void read_shouldReadBackTheAppendedMessages() throws Exception {
+		HL7InArchiveSegmentStore store = new HL7InArchiveSegmentStore(directory,
+		        HL7InArchiveSegmentStore.DEFAULT_MAX_SEGMENT_SIZE);
+		URI first = store.append("uuid-1", HL7InArchiveSegmentStore.compress(MESSAGE + "1"));
+		URI second = store.append("uuid-2", HL7InArchiveSegmentStore.compress(MESSAGE + "2"));
+		store.close();
+
+		assertTrue(HL7InArchiveSegmentStore.isSegmentLocation(first));
+		assertFalse(HL7InArchiveSegmentStore.isSegmentLocation(new File(directory, "other.txt").toURI()));
+		assertEquals(MESSAGE + "2", HL7InArchiveSegmentStore.read(second));
+		assertEquals(MESSAGE + "1", HL7InArchiveSegmentStore.read(URI.create(first.toString())));
+	}
+
+	/**
+	 * @see HL7InArchiveSegmentStore#append(String, byte[])
+	 */
+	@Test
+	public void append_shouldStartANewSegmentWhenTheCurrentOneIsFull() throws Exception {
+		HL7InArchiveSegmentStore store = new HL7InArchiveSegmentStore(directory, 1);
+		URI first = store.append("uuid-1", HL7InArchiveSegmentStore.compress(MESSAGE + "1"));
+		URI second = store.append("uuid-2", HL7InArchiveSegmentStore.compress(MESSAGE + "2"));
+		store.close();
+
+		assertNotEquals(first.getSchemeSpecificPart(), second.getSchemeSpecificPart());
+		assertEquals(MESSAGE + "1", HL7InArchiveSegmentStore.read(first));
+		assertEquals(MESSAGE + "2", HL7InArchiveSegmentStore.read(second));
+	}
+
+	/**
+	 * @see HL7InArchiveSegmentStore#readIndex(File)
+	 */
+	@Test
+	public void readIndex_shouldReturnTheLocationsOfTheMessagesOfTheSegment() throws Exception {
+		HL7InArchiveSegmentStore store = new HL7InArchiveSegmentStore(directory,
+		        HL7InArchiveSegmentStore.DEFAULT_MAX_SEGMENT_SIZE);
+		URI first = store.append("uuid-1", HL7InArchiveSegmentStore.compress(MESSAGE + "1"));
+		URI second = store.append("uuid-2", HL7InArchiveSegmentStore.compress(MESSAGE + "2"));
+		store.close();
+
+		File segment = new File(new URI(first.getScheme(), first.getSchemeSpecificPart(), null));
+		Map<String, URI> index = HL7InArchiveSegmentStore.readIndex(segment);
+
+		assertEquals(2, index.size());
+		assertEquals(first, index.get("uuid-1"));
+		assertEquals(second, index.get("uuid-2"));
+	}
+
+	/**
+	 * @see HL7InArchiveSegmentStore#append(String, byte[])
+	 */
+	@Test
+	public void append_shouldKeepTheSegmentAValidGzipFile() throws Exception {
+		HL7InArchiveSegmentStore store = new HL7InArchiveSegmentStore(directory,
+		        HL7InArchiveSegmentStore.DEFAULT_MAX_SEGMENT_SIZE);
+		URI first = store.append("uuid-1", HL7InArchiveSegmentStore.compress(MESSAGE + "1"));
+		store.append("uuid-2", HL7InArchiveSegmentStore.compress(MESSAGE + "2"));
+		store.close();
+
+		File segment = new File(new URI(first.getScheme(), first.getSchemeSpecificPart(), null));
+		try (InputStream in = new GZIPInputStream(new FileInputStream(segment))) {
+			assertEquals(MESSAGE + "1" + MESSAGE + "2", IOUtils.toString(in, StandardCharsets.UTF_8));
+		}
+	}
+}
@@ -12,6 +12,7 @@ package org.openmrs.hl7;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -38,6 +39,7 @@ import ca.uhn.hl7v2.model.v25.segment.ORC;
 import ca.uhn.hl7v2.model.v25.segment.PV1;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.openmrs.Concept;
 import org.openmrs.GlobalProperty;
 import org.openmrs.Obs;
@@ -799,4 +801,81 @@ public class HL7ServiceTest extends BaseContextSensitiveTest {
 		Integer userId = hl7service.resolveUserId(xcn);
 		assertThat(userId, is(502));
 	}
+	
+	/**
+	 * @see HL7Service#migrateHl7InArchiveBatch(int, int, Integer, java.util.Map)
+	 */
+	@Test
+	public void migrateHl7InArchiveBatch_shouldMigrateTheArchivesOfThePartitionToSegmentFiles(@TempDir File archiveDir) {
+		HL7Service hl7service = Context.getHL7Service();
+		setHl7ArchivesDirectory(archiveDir);
+		HL7InArchive first = saveProcessedArchive("first message");
+		HL7InArchive second = saveProcessedArchive("second message");
+		HashMap<String, Integer> progress = new HashMap<>();
+		
+		Integer lastId = hl7service.migrateHl7InArchiveBatch(0, 1, null, progress);
+		
+		assertEquals(second.getHL7InArchiveId(), lastId);
+		assertEquals(2, progress.get(HL7Constants.NUMBER_TRANSFERRED_KEY).intValue());
+		for (HL7InArchive archive : new HL7InArchive[] { first, second }) {
+			assertEquals(HL7Constants.HL7_STATUS_MIGRATED, archive.getMessageState());
+			assertTrue(archive.getHL7Data().contains(HL7InArchiveSegmentStore.SEGMENT_DIRECTORY_NAME));
+		}
+		assertTrue(new File(archiveDir, HL7InArchiveSegmentStore.SEGMENT_DIRECTORY_NAME).isDirectory());
+		
+		Context.flushSession();
+		Context.clearSession();
+		HL7InArchive loaded = hl7service.getHL7InArchiveByUuid(first.getUuid());
+		assertFalse(loaded.isLoaded());
+		hl7service.loadHL7InArchiveData(loaded);
+		assertEquals("first message", loaded.getHL7Data());
+		assertTrue(loaded.isLoaded());
+	}
+	
+	/**
+	 * @see HL7Service#migrateHl7InArchiveBatch(int, int, Integer, java.util.Map)
+	 */
+	@Test
+	public void migrateHl7InArchiveBatch_shouldOnlyMigrateTheArchivesOfTheGivenPartition(@TempDir File archiveDir) {
+		HL7Service hl7service = Context.getHL7Service();
+		setHl7ArchivesDirectory(archiveDir);
+		HL7InArchive first = saveProcessedArchive("first message");
+		HL7InArchive second = saveProcessedArchive("second message");
+		HL7InArchive odd = first.getHL7InArchiveId() % 2 == 1 ? first : second;
+		HL7InArchive even = odd == first ? second : first;
+		
+		hl7service.migrateHl7InArchiveBatch(1, 2, null, new HashMap<>());
+		
+		assertEquals(HL7Constants.HL7_STATUS_MIGRATED, odd.getMessageState());
+		assertEquals(HL7Constants.HL7_STATUS_PROCESSED, even.getMessageState());
+	}
+	
+	/**
+	 * @see HL7Service#migrateHl7InArchiveBatch(int, int, Integer, java.util.Map)
+	 */
+	@Test
+	public void migrateHl7InArchiveBatch_shouldReturnNullWhenThereIsNoArchiveLeftToMigrate(@TempDir File archiveDir) {
+		HL7Service hl7service = Context.getHL7Service();
+		setHl7ArchivesDirectory(archiveDir);
+		HL7InArchive archive = saveProcessedArchive("message");
+		
+		assertNull(hl7service.migrateHl7InArchiveBatch(0, 1, archive.getHL7InArchiveId(), new HashMap<>()));
+		assertEquals(HL7Constants.HL7_STATUS_PROCESSED, archive.getMessageState());
+	}
+	
+	private void setHl7ArchivesDirectory(File archiveDir) {
+		Context.getAdministrationService().saveGlobalProperty(
+		    new GlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_HL7_ARCHIVE_DIRECTORY, archiveDir.getAbsolutePath()));
+	}
+	
+	private HL7InArchive saveProcessedArchive(String data) {
+		Calendar cal = Calendar.getInstance();
+		cal.add(Calendar.YEAR, -2);
+		HL7InArchive archive = new HL7InArchive();
+		archive.setHL7Source(Context.getHL7Service().getHL7Source(1));
+		archive.setHL7Data(data);
+		archive.setMessageState(HL7Constants.HL7_STATUS_PROCESSED);
+		archive.setDateCreated(cal.getTime());
+		return Context.getHL7Service().saveHL7InArchive(archive);
+	}
 }
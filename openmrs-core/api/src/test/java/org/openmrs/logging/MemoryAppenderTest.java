@@ -10,6 +10,7 @@
 package org.openmrs.logging;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItem;
@@ -98,6 +99,25 @@ class MemoryAppenderTest {
 		assertThat(logLines.size(), equalTo(4));
 	}
 	
+	@Test
+	void memoryAppender_shouldKeepTheMostRecentItemsWhenResized() {
+		for (int i = 0; i < 12; i++) {
+			logger.warn("Logging message " + i);
+		}
+		
+		memoryAppender.setBufferSize(5);
+		
+		assertThat(memoryAppender.getBufferSize(), equalTo(5));
+		assertThat(memoryAppender.getLogLines(), contains("Logging message 7", "Logging message 8", "Logging message 9",
+			"Logging message 10", "Logging message 11"));
+		
+		memoryAppender.setBufferSize(10);
+		logger.warn("Logging message 12");
+		
+		assertThat(memoryAppender.getLogLines(), hasSize(6));
+		assertThat(memoryAppender.getLogLines().get(5), equalTo("Logging message 12"));
+	}
+	
 	private void setupLogger() {
 		logger = (Logger) LogManager.getLogger("MemoryAppenderTest");
 		// NB This needs to come before the setLevel() call
@@ -10,12 +10,25 @@
 package org.openmrs.notification;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openmrs.GlobalProperty;
 import org.openmrs.api.context.Context;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.openmrs.util.OpenmrsConstants;
 
 /**
  * Unit tests for the MessageService.
@@ -26,6 +39,10 @@ public class MessageServiceTest extends BaseContextSensitiveTest {
 	
 	MessageService ms = null;
 	
+	private MessageSender originalSender;
+	
+	private StubMessageSender stubSender;
+	
 	/**
 	 * Run this before each unit test in this class. The "@Before" method in
 	 * {@link BaseContextSensitiveTest} is run right before this method.
@@ -37,6 +54,14 @@ public class MessageServiceTest extends BaseContextSensitiveTest {
 		executeDataSet("org/openmrs/notification/include/MessageServiceTest-initial.xml");
 		
 		ms = Context.getMessageService();
+		originalSender = ms.getMessageSender();
+		stubSender = new StubMessageSender();
+		ms.setMessageSender(stubSender);
+	}
+	
+	@AfterEach
+	public void restoreMessageSender() {
+		ms.setMessageSender(originalSender);
 	}
 	
 	/**
@@ -87,6 +112,9 @@ public class MessageServiceTest extends BaseContextSensitiveTest {
 	 */
 	@Test
 	public void sendMessage_shouldSendMessage() throws MessageException {
+		Context.getAdministrationService().saveGlobalProperty(
+		    new GlobalProperty(OpenmrsConstants.GP_MAIL_SEND_ASYNCHRONOUSLY, "false"));
+		ms.setMessageSender(originalSender);
 		Message tryToSend1 = ms.createMessage("recipient@example.com", "sender@example.com", "subject", "content");
 		try {
 			ms.sendMessage(tryToSend1);
@@ -113,4 +141,196 @@ public class MessageServiceTest extends BaseContextSensitiveTest {
 		}
 	}
 	
+	/**
+	 * @see MessageService#sendMessage(Message)
+	 */
+	@Test
+	public void sendMessage_shouldSendTheMessageRightAwayWhenNotSendingAsynchronously() throws MessageException {
+		Context.getAdministrationService().saveGlobalProperty(
+		    new GlobalProperty(OpenmrsConstants.GP_MAIL_SEND_ASYNCHRONOUSLY, "false"));
+		long pending = ms.getMessageQueueStatistics().getPendingCount();
+		
+		ms.sendMessage(ms.createMessage("recipient@example.com", "sender@example.com", "subject", "content"));
+		
+		assertEquals(1, stubSender.sent.size());
+		assertEquals("subject", stubSender.sent.get(0).getSubject());
+		assertEquals(pending, ms.getMessageQueueStatistics().getPendingCount());
+	}
+	
+	/**
+	 * @see MessageService#sendMessage(Message)
+	 */
+	@Test
+	public void sendMessage_shouldQueueTheMessageInsteadOfSendingItWhenSendingAsynchronously() throws MessageException {
+		long pending = ms.getMessageQueueStatistics().getPendingCount();
+		
+		ms.sendMessage(ms.createMessage("recipient@example.com", "sender@example.com", "subject", "content"));
+		
+		assertTrue(stubSender.sent.isEmpty());
+		assertEquals(pending + 1, ms.getMessageQueueStatistics().getPendingCount());
+	}
+	
+	/**
+	 * @see MessageService#queueMessage(Message)
+	 */
+	@Test
+	public void queueMessage_shouldSaveAPendingMessageDueRightAway() throws MessageException {
+		Message message = ms.createMessage("recipient@example.com", "sender@example.com", "subject", "content", "moo",
+		    "text/plain", "moo.txt");
+		
+		QueuedMessage queuedMessage = ms.queueMessage(message);
+		
+		assertNotNull(queuedMessage.getQueuedMessageId());
+		assertEquals(QueuedMessage.Status.PENDING, queuedMessage.getStatus());
+		assertEquals(0, queuedMessage.getAttempts().intValue());
+		assertFalse(queuedMessage.getNextAttemptDate().after(new Date()));
+		Message copy = ms.getQueuedMessage(queuedMessage.getQueuedMessageId()).toMessage();
+		assertEquals("recipient@example.com", copy.getRecipients());
+		assertEquals("subject", copy.getSubject());
+		assertEquals("moo.txt", copy.getAttachmentFileName());
+	}
+	
+	/**
+	 * @see MessageService#queueMessage(Message)
+	 */
+	@Test
+	public void queueMessage_shouldFailIfTheMessageHasNoRecipient() {
+		assertThrows(MessageException.class, () -> ms.queueMessage(ms.createMessage("subject", "content")));
+	}
+	
+	/**
+	 * @see MessageService#sendQueuedMessages()
+	 */
+	@Test
+	public void sendQueuedMessages_shouldSendTheDueMessagesAndMarkThemAsSent() throws MessageException {
+		QueuedMessage first = ms.queueMessage(ms.createMessage("one@example.com", null, "first", "content"));
+		QueuedMessage second = ms.queueMessage(ms.createMessage("two@example.com", null, "second", "content"));
+		
+		assertEquals(2, ms.sendQueuedMessages());
+		
+		assertEquals(2, stubSender.sent.size());
+		for (QueuedMessage queuedMessage : new QueuedMessage[] { first, second }) {
+			assertEquals(QueuedMessage.Status.SENT, queuedMessage.getStatus());
+			assertEquals(1, queuedMessage.getAttempts().intValue());
+			assertNotNull(queuedMessage.getDateSent());
+		}
+		assertEquals(0, ms.sendQueuedMessages());
+	}
+	
+	/**
+	 * @see MessageService#sendQueuedMessages()
+	 */
+	@Test
+	public void sendQueuedMessages_shouldNotSendMessagesWhichAreNotDue() throws MessageException {
+		QueuedMessage queuedMessage = ms.queueMessage(ms.createMessage("one@example.com", null, "later", "content"));
+		queuedMessage.setNextAttemptDate(new Date(System.currentTimeMillis() + 60000));
+		
+		assertEquals(0, ms.sendQueuedMessages());
+		assertTrue(stubSender.sent.isEmpty());
+		assertEquals(QueuedMessage.Status.PENDING, queuedMessage.getStatus());
+	}
+	
+	/**
+	 * @see MessageService#sendQueuedMessages()
+	 */
+	@Test
+	public void sendQueuedMessages_shouldRetryFailedMessagesLater() throws MessageException {
+		stubSender.failures.set(1);
+		QueuedMessage queuedMessage = ms.queueMessage(ms.createMessage("one@example.com", null, "subject", "content"));
+		
+		assertEquals(1, ms.sendQueuedMessages());
+		
+		assertEquals(QueuedMessage.Status.PENDING, queuedMessage.getStatus());
+		assertEquals(1, queuedMessage.getAttempts().intValue());
+		assertTrue(queuedMessage.getLastError().contains("connection refused"));
+		assertTrue(queuedMessage.getNextAttemptDate().after(new Date()));
+		assertEquals(0, ms.sendQueuedMessages());
+		
+		queuedMessage.setNextAttemptDate(new Date());
+		assertEquals(1, ms.sendQueuedMessages());
+		assertEquals(QueuedMessage.Status.SENT, queuedMessage.getStatus());
+		assertEquals(2, queuedMessage.getAttempts().intValue());
+		assertNull(queuedMessage.getLastError());
+		assertEquals(1, stubSender.sent.size());
+	}
+	
+	/**
+	 * @see MessageService#sendQueuedMessages()
+	 */
+	@Test
+	public void sendQueuedMessages_shouldMarkTheMessageAsFailedAfterTheMaximumNumberOfAttempts() throws MessageException {
+		Context.getAdministrationService().saveGlobalProperty(
+		    new GlobalProperty(OpenmrsConstants.GP_MAIL_QUEUE_MAX_ATTEMPTS, "2"));
+		stubSender.failures.set(2);
+		QueuedMessage queuedMessage = ms.queueMessage(ms.createMessage("one@example.com", null, "subject", "content"));
+		
+		ms.sendQueuedMessages();
+		assertEquals(QueuedMessage.Status.PENDING, queuedMessage.getStatus());
+		queuedMessage.setNextAttemptDate(new Date());
+		ms.sendQueuedMessages();
+		
+		assertEquals(QueuedMessage.Status.FAILED, queuedMessage.getStatus());
+		assertEquals(2, queuedMessage.getAttempts().intValue());
+		assertEquals(0, ms.sendQueuedMessages());
+		assertTrue(stubSender.sent.isEmpty());
+	}
+	
+	/**
+	 * @see MessageService#purgeSentQueuedMessages(Date)
+	 */
+	@Test
+	public void purgeSentQueuedMessages_shouldDeleteOnlyTheMessagesSentBeforeTheGivenDate() throws MessageException {
+		QueuedMessage old = ms.queueMessage(ms.createMessage("one@example.com", null, "old", "content"));
+		QueuedMessage recent = ms.queueMessage(ms.createMessage("two@example.com", null, "recent", "content"));
+		QueuedMessage pending = ms.queueMessage(ms.createMessage("three@example.com", null, "pending", "content"));
+		pending.setNextAttemptDate(new Date(System.currentTimeMillis() + 60000));
+		ms.sendQueuedMessages();
+		old.setDateSent(new Date(System.currentTimeMillis() - 60000));
+		Context.flushSession();
+		
+		assertEquals(1, ms.purgeSentQueuedMessages(new Date(System.currentTimeMillis() - 1000)));
+		
+		Context.clearSession();
+		assertNull(ms.getQueuedMessage(old.getQueuedMessageId()));
+		assertNotNull(ms.getQueuedMessage(recent.getQueuedMessageId()));
+		assertNotNull(ms.getQueuedMessage(pending.getQueuedMessageId()));
+	}
+	
+	/**
+	 * @see MessageService#getMessageQueueStatistics()
+	 */
+	@Test
+	public void getMessageQueueStatistics_shouldCountPendingMessagesAndRecordSendTimes() throws MessageException {
+		MessageQueueStatistics before = ms.getMessageQueueStatistics();
+		ms.queueMessage(ms.createMessage("one@example.com", null, "first", "content"));
+		ms.queueMessage(ms.createMessage("two@example.com", null, "second", "content"));
+		assertEquals(before.getPendingCount() + 2, ms.getMessageQueueStatistics().getPendingCount());
+		
+		ms.sendQueuedMessages();
+		
+		MessageQueueStatistics after = ms.getMessageQueueStatistics();
+		assertEquals(before.getPendingCount(), after.getPendingCount());
+		assertEquals(before.getSentCount() + 2, after.getSentCount());
+		assertTrue(after.getMaxSendTime() > 0);
+		assertTrue(after.getMaxDeliveryTime() >= 0);
+	}
+	
+	/**
+	 * Stands in for the SMTP server, it records the messages it is given and fails as many times as
+	 * asked first
+	 */
+	private static class StubMessageSender implements MessageSender {
+		
+		private final List<Message> sent = new CopyOnWriteArrayList<>();
+		
+		private final AtomicInteger failures = new AtomicInteger();
+		
+		@Override
+		public void send(Message message) throws MessageException {
+			if (failures.getAndDecrement() > 0) {
+				throw new MessageException("connection refused");
+			}
+			sent.add(message);
+		}
+	}
 }
@@ -14,9 +14,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 
+import org.apache.commons.io.IOUtils;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -46,7 +50,7 @@ public class BinaryDataHandlerTest extends BaseContextSensitiveTest {
 	@Test
     public void shouldReturnSupportedViews() {
         String[] actualViews = handler.getSupportedViews();
-        String[] expectedViews = { ComplexObsHandler.RAW_VIEW };
+        String[] expectedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW };
 
         assertArrayEquals(actualViews, expectedViews);
     }
@@ -101,4 +105,29 @@ public class BinaryDataHandlerTest extends BaseContextSensitiveTest {
 		assertEquals(complexObs2.getComplexData().getMimeType(), mimetype);
 	}
 	
+	@Test
+	public void saveObs_shouldStoreFilesInHashedSubDirectoriesAndSupportRangeReads() throws IOException {
+		adminService.saveGlobalProperty(new GlobalProperty(
+			OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR,
+			complexObsTestFolder.toAbsolutePath().toString()
+		));
+		adminService.saveGlobalProperty(new GlobalProperty(
+			OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR_SHARD_DEPTH, "2"));
+		
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData("range.bin", "0123456789".getBytes()));
+		handler.saveObs(obs);
+		
+		File file = BinaryDataHandler.getComplexDataFile(obs);
+		assertTrue(file.exists());
+		assertEquals(complexObsTestFolder.toFile(), file.getParentFile().getParentFile().getParentFile());
+		
+		Obs complexObs = handler.getObs(obs, ComplexObsHandler.STREAM_VIEW);
+		StreamingComplexData complexData = (StreamingComplexData) complexObs.getComplexData();
+		assertEquals(10L, complexData.getLength().longValue());
+		try (InputStream in = complexData.openStream(3, 4)) {
+			assertEquals("3456", new String(IOUtils.toByteArray(in)));
+		}
+	}
+	
 }
@@ -49,7 +49,7 @@ public class BinaryStreamHandlerTest  extends BaseContextSensitiveTest {
     @Test
     public void shouldReturnSupportedViews() {
         String[] actualViews = handler.getSupportedViews();
-        String[] expectedViews = { ComplexObsHandler.RAW_VIEW };
+        String[] expectedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW };
 
         assertArrayEquals(actualViews, expectedViews);
     }
@@ -17,6 +17,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -29,6 +30,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.openmrs.GlobalProperty;
 import org.openmrs.Obs;
 import org.openmrs.api.AdministrationService;
+import org.openmrs.obs.handler.AbstractHandler;
 import org.openmrs.obs.handler.ImageHandler;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
 import org.openmrs.util.OpenmrsConstants;
@@ -49,7 +51,8 @@ public class ImageHandlerTest extends BaseContextSensitiveTest {
 	@Test
 	public void shouldReturnSupportedViews() {
 		String[] actualViews = handler.getSupportedViews();
-		String[] expectedViews = { ComplexObsHandler.RAW_VIEW };
+		String[] expectedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW,
+		        ComplexObsHandler.THUMBNAIL_VIEW, ComplexObsHandler.PREVIEW_VIEW };
 		
 		assertArrayEquals(actualViews, expectedViews);
 	}
@@ -64,7 +67,6 @@ public class ImageHandlerTest extends BaseContextSensitiveTest {
 	public void shouldNotSupportOtherViews() {
 		
 		assertFalse(handler.supportsView(ComplexObsHandler.HTML_VIEW));
-		assertFalse(handler.supportsView(ComplexObsHandler.PREVIEW_VIEW));
 		assertFalse(handler.supportsView(ComplexObsHandler.TEXT_VIEW));
 		assertFalse(handler.supportsView(ComplexObsHandler.TITLE_VIEW));
 		assertFalse(handler.supportsView(ComplexObsHandler.URI_VIEW));
@@ -115,4 +117,32 @@ public class ImageHandlerTest extends BaseContextSensitiveTest {
 		        complexObsTestFolder.toAbsolutePath().toString()));
 		handler.saveObs(obs);
 	}
+	
+	@Test
+	public void getObs_shouldCreateScaledDownThumbnailAndPurgeItWithTheImage() throws IOException {
+		adminService.saveGlobalProperty(new GlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR,
+		        complexObsTestFolder.toAbsolutePath().toString()));
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData("TestingThumbnail.png", new BufferedImage(400, 300,
+		        BufferedImage.TYPE_INT_RGB)));
+		handler.saveObs(obs);
+		File image = AbstractHandler.getComplexDataFile(obs);
+		File thumbnail = handler.getDerivativeFile(image, ComplexObsHandler.THUMBNAIL_VIEW);
+		assertFalse(thumbnail.exists());
+		
+		Obs complexObs = handler.getObs(obs, ComplexObsHandler.THUMBNAIL_VIEW);
+		
+		assertTrue(thumbnail.exists());
+		assertEquals("image/png", complexObs.getComplexData().getMimeType());
+		BufferedImage scaled;
+		try (InputStream in = (InputStream) complexObs.getComplexData().getData()) {
+			scaled = ImageIO.read(in);
+		}
+		assertEquals(ImageHandler.DEFAULT_THUMBNAIL_SIZE, scaled.getWidth());
+		assertEquals(113, scaled.getHeight());
+		
+		assertTrue(handler.purgeComplexData(obs));
+		assertFalse(thumbnail.exists());
+		assertFalse(image.exists());
+	}
 }
@@ -46,7 +46,8 @@ public class TextHandlerTest extends BaseContextSensitiveTest {
     public void shouldReturnSupportedViews() {
 		
         String[] actualViews = handler.getSupportedViews();
-        String[] expectedViews = { ComplexObsHandler.TEXT_VIEW, ComplexObsHandler.RAW_VIEW, ComplexObsHandler.URI_VIEW };
+        String[] expectedViews = { ComplexObsHandler.TEXT_VIEW, ComplexObsHandler.RAW_VIEW, ComplexObsHandler.URI_VIEW,
+                ComplexObsHandler.STREAM_VIEW };
 
         assertArrayEquals(actualViews, expectedViews);
     }
@@ -0,0 +1,66 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.beans.EventHandler;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.thoughtworks.xstream.XStreamException;
+import org.junit.jupiter.api.Test;
+import org.openmrs.OpenmrsObject;
+
+public class BinaryXStreamSerializerTest {
+	
+	/**
+	 * @see BinaryXStreamSerializer#serialize(Object)
+	 */
+	@Test
+	public void serialize_shouldSerializeAnObjectThatCanBeDeserializedAgain() throws SerializationException {
+		OpenmrsSerializer serializer = new BinaryXStreamSerializer();
+		Foo foo = new Foo("test", 1);
+		foo.setAttributeList(Arrays.asList("foo", "bar"));
+		Map<Integer, String> map = new HashMap<>();
+		map.put(1, "foo");
+		map.put(2, "fooBar");
+		foo.setAttributeMap(map);
+		
+		Foo deserialized = serializer.deserialize(serializer.serialize(foo), Foo.class);
+		
+		assertEquals("test", deserialized.getAttributeString());
+		assertEquals(1, deserialized.getAttributeInt());
+		assertEquals(Arrays.asList("foo", "bar"), deserialized.getAttributeList());
+		assertEquals(map, deserialized.getAttributeMap());
+	}
+	
+	/**
+	 * @see BinaryXStreamSerializer#serialize(Object)
+	 */
+	@Test
+	public void serialize_shouldNotSerializeProxies() {
+		EventHandler h = new EventHandler(new ProcessBuilder("someApp"), "start", null, null);
+		Object proxy = Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[] { OpenmrsObject.class }, h);
+		assertThrows(XStreamException.class, () -> new BinaryXStreamSerializer().serialize(proxy));
+	}
+	
+	/**
+	 * @see BinaryXStreamSerializer#deserialize(String,Class)
+	 */
+	@Test
+	public void deserialize_shouldFailIfTheStringWasNotSerializedByThisSerializer() throws SerializationException {
+		String xml = new SimpleXStreamSerializer().serialize(new Foo("test", 1));
+		assertThrows(SerializationException.class, () -> new BinaryXStreamSerializer().deserialize(xml, Foo.class));
+	}
+}
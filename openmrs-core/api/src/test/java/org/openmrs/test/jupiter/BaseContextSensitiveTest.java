@@ -879,6 +879,7 @@ public abstract class BaseContextSensitiveTest {
 		SessionFactory sf = (SessionFactory) applicationContext.getBean("sessionFactory");
 		sf.getCache().evictCollectionRegions();
 		sf.getCache().evictEntityRegions();
+		sf.getCache().evictQueryRegions();
 	}
 	
 	/**
@@ -0,0 +1,118 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ConcurrentRingBuffer}
+ */
+public class ConcurrentRingBufferTest {
+	
+	@Test
+	public void add_shouldKeepOnlyTheMostRecentElements() {
+		ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(3);
+		for (int i = 0; i < 5; i++) {
+			buffer.add(i);
+		}
+		
+		assertThat(buffer.snapshot(), contains(2, 3, 4));
+		assertThat(buffer.getAddedCount(), equalTo(5L));
+	}
+	
+	@Test
+	public void add_shouldRejectNullElements() {
+		assertThrows(NullPointerException.class, () -> new ConcurrentRingBuffer<>(3).add(null));
+	}
+	
+	@Test
+	public void add_shouldKeepNothingIfCapacityIsZero() {
+		ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(0);
+		buffer.add(1);
+		
+		assertThat(buffer.snapshot(), empty());
+	}
+	
+	@Test
+	public void resize_shouldKeepTheMostRecentElementsThatFit() {
+		ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(4);
+		for (int i = 0; i < 6; i++) {
+			buffer.add(i);
+		}
+		
+		buffer.resize(2);
+		assertThat(buffer.snapshot(), contains(4, 5));
+		
+		buffer.resize(5);
+		buffer.add(6);
+		assertThat(buffer.snapshot(), contains(4, 5, 6));
+		assertThat(buffer.getCapacity(), equalTo(5));
+	}
+	
+	@Test
+	public void clear_shouldRemoveAllElements() {
+		ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(4);
+		buffer.add(1);
+		buffer.clear();
+		
+		assertThat(buffer.snapshot(), empty());
+	}
+	
+	@Test
+	public void add_shouldNotLoseElementsAddedConcurrently() throws InterruptedException {
+		final int threads = 4;
+		final int perThread = 1000;
+		ConcurrentRingBuffer<Integer> buffer = new ConcurrentRingBuffer<>(threads * perThread);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> producers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			final int offset = t * perThread;
+			Thread producer = new Thread(() -> {
+				try {
+					start.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				for (int i = 0; i < perThread; i++) {
+					buffer.add(offset + i);
+				}
+			});
+			producer.start();
+			producers.add(producer);
+		}
+		
+		start.countDown();
+		// resize while the producers are adding elements, the new capacity still fits all of them
+		buffer.resize(threads * perThread + 1);
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		
+		Set<Integer> elements = new HashSet<>(buffer.snapshot());
+		assertThat(elements.size(), equalTo(threads * perThread));
+		for (int i = 0; i < threads * perThread; i++) {
+			assertTrue(elements.contains(i));
+		}
+	}
+}
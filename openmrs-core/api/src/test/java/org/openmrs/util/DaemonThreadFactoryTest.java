@@ -0,0 +1,35 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class DaemonThreadFactoryTest {
+	
+	/**
+	 * @see DaemonThreadFactory#newThread(Runnable)
+	 */
+	@Test
+	public void newThread_shouldCreateNumberedDaemonThreads() {
+		DaemonThreadFactory factory = new DaemonThreadFactory("Worker");
+		
+		Thread first = factory.newThread(() -> {
+		});
+		Thread second = factory.newThread(() -> {
+		});
+		
+		assertTrue(first.isDaemon());
+		assertEquals("Worker-1", first.getName());
+		assertEquals("Worker-2", second.getName());
+	}
+}
@@ -9,15 +9,30 @@
  */
 package org.openmrs.util;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openmrs.api.context.Context;
 import org.openmrs.liquibase.ChangeLogVersionFinder;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DatabaseUpdaterDatabaseIT extends H2DatabaseIT {
 	
@@ -33,15 +48,32 @@ public class DatabaseUpdaterDatabaseIT extends H2DatabaseIT {
 	private static final int CHANGE_SET_COUNT_FOR_GREATER_THAN_2_1_X = 890;
 
 	private static final int CHANGE_SET_COUNT_FOR_2_1_X = 870;
+	
+	@TempDir
+	public File applicationDataDirectory;
+	
+	private Properties runtimeProperties;
 
 	@BeforeEach
 	public void setup() {
 		DatabaseUpdater.setLiquibaseProvider(this);
+		
+		runtimeProperties = Context.getRuntimeProperties();
+		Properties properties = new Properties();
+		properties.setProperty("connection.driver_class", "org.h2.Driver");
+		properties.setProperty("connection.url", CONNECTION_URL);
+		properties.setProperty("connection.username", USER_NAME);
+		properties.setProperty("connection.password", PASSWORD);
+		Context.setRuntimeProperties(properties);
+		OpenmrsUtil.setApplicationDataDirectory(applicationDataDirectory.getAbsolutePath());
 	}
 	
 	@AfterEach
-	public void tearDown() {
+	public void tearDown() throws Exception {
 		DatabaseUpdater.unsetLiquibaseProvider();
+		Context.setRuntimeProperties(runtimeProperties);
+		OpenmrsUtil.setApplicationDataDirectory(null);
+		dropAllDatabaseObjects();
 	}
 	
 	@Test
@@ -55,4 +87,86 @@ public class DatabaseUpdaterDatabaseIT extends H2DatabaseIT {
 		assertEquals(CHANGE_SET_COUNT_FOR_GREATER_THAN_2_1_X, actual.size());
 		
 	}
+	
+	@Test
+	public void updatesRequired_shouldSkipTheCheckWhileTheFingerprintIsUnchanged() throws Exception {
+		updateDatabase(new ChangeLogVersionFinder().getSnapshotCombinations().get(VERSION_2_1_X));
+		assertTrue(DatabaseUpdater.updatesRequired());
+		
+		writeFingerprint(DatabaseUpdater.getChangeLogFingerprint());
+		
+		// the updates after 2.1.x are still not run, only the fingerprint says otherwise
+		assertFalse(DatabaseUpdater.updatesRequired());
+	}
+	
+	@Test
+	public void updatesRequired_shouldCheckWhenTheRunChangesChanged() throws Exception {
+		updateDatabase(new ChangeLogVersionFinder().getSnapshotCombinations().get(VERSION_2_1_X));
+		writeFingerprint(DatabaseUpdater.getChangeLogFingerprint());
+		
+		try (Connection connection = getConnection(); Statement statement = connection.createStatement()) {
+			statement.executeUpdate("delete from liquibasechangelog where orderexecuted = "
+			        + "(select max(orderexecuted) from liquibasechangelog)");
+			connection.commit();
+		}
+		
+		assertTrue(DatabaseUpdater.updatesRequired());
+	}
+	
+	@Test
+	public void updatesRequired_shouldCheckWhenAChangeLogChanged() throws Exception {
+		List<String> snapshotFilenames = new ChangeLogVersionFinder().getSnapshotCombinations().get(VERSION_2_1_X);
+		updateDatabase(snapshotFilenames);
+		String changedFilename = snapshotFilenames.get(0).replace(File.separatorChar, '/');
+		ClassLoader changedChangeLogs = new ClassLoader(getClass().getClassLoader()) {
+			
+			@Override
+			public InputStream getResourceAsStream(String name) {
+				InputStream in = super.getResourceAsStream(name);
+				if (in != null && name.equals(changedFilename)) {
+					return new SequenceInputStream(in, new ByteArrayInputStream("<!-- changed -->"
+					        .getBytes(StandardCharsets.UTF_8)));
+				}
+				return in;
+			}
+		};
+		
+		String fingerprint = DatabaseUpdater.getChangeLogFingerprint(getClass().getClassLoader());
+		String changedFingerprint = DatabaseUpdater.getChangeLogFingerprint(changedChangeLogs);
+		assertNotNull(fingerprint);
+		assertNotEquals(fingerprint, changedFingerprint);
+		
+		writeFingerprint(changedFingerprint);
+		assertTrue(DatabaseUpdater.updatesRequired());
+	}
+	
+	@Test
+	public void updatesRequired_shouldCheckWhenForcedDespiteAnUnchangedFingerprint() throws Exception {
+		updateDatabase(new ChangeLogVersionFinder().getSnapshotCombinations().get(VERSION_2_1_X));
+		writeFingerprint(DatabaseUpdater.getChangeLogFingerprint());
+		
+		Properties properties = Context.getRuntimeProperties();
+		properties.setProperty(OpenmrsConstants.FORCE_DATABASE_UPDATE_CHECK_RUNTIME_PROPERTY, "true");
+		Context.setRuntimeProperties(properties);
+		
+		assertTrue(DatabaseUpdater.updatesRequired());
+	}
+	
+	@Test
+	public void updatesRequired_shouldNotWriteTheFingerprintWhileUpdatesArePending() throws Exception {
+		updateDatabase(new ChangeLogVersionFinder().getSnapshotCombinations().get(VERSION_2_1_X));
+		
+		assertTrue(DatabaseUpdater.updatesRequired());
+		
+		assertFalse(getFingerprintFile().exists());
+	}
+	
+	private File getFingerprintFile() {
+		return new File(applicationDataDirectory, DatabaseUpdater.CHANGE_LOG_FINGERPRINT_FILE);
+	}
+	
+	private void writeFingerprint(String fingerprint) throws Exception {
+		assertNotNull(fingerprint);
+		FileUtils.writeStringToFile(getFingerprintFile(), fingerprint, StandardCharsets.UTF_8);
+	}
 }
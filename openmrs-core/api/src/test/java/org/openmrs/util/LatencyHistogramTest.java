@@ -0,0 +1,84 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}
+ */
+public class LatencyHistogramTest {
+	
+	private static final long MICROSECOND = TimeUnit.MICROSECONDS.toNanos(1);
+	
+	private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+	
+	@Test
+	public void getBucket_shouldPutDurationsInPowerOfTwoMicrosecondBuckets() {
+		assertEquals(0, LatencyHistogram.getBucket(0));
+		assertEquals(0, LatencyHistogram.getBucket(MICROSECOND - 1));
+		assertEquals(1, LatencyHistogram.getBucket(MICROSECOND));
+		assertEquals(2, LatencyHistogram.getBucket(3 * MICROSECOND));
+		assertEquals(3, LatencyHistogram.getBucket(4 * MICROSECOND));
+		assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.getBucket(Long.MAX_VALUE));
+	}
+	
+	@Test
+	public void record_shouldKeepCountTotalAndMax() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(MILLISECOND);
+		histogram.record(3 * MILLISECOND);
+		histogram.record(-5);
+		
+		assertEquals(3, histogram.getCount());
+		assertEquals(4 * MILLISECOND, histogram.getTotalNanos());
+		assertEquals(3 * MILLISECOND, histogram.getMaxNanos());
+		assertEquals(1, histogram.getBucketCounts()[0]);
+	}
+	
+	@Test
+	public void getPercentileNanos_shouldReturnTheUpperBoundOfTheBucketHoldingThePercentile() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 99; i++) {
+			histogram.record(3 * MICROSECOND);
+		}
+		histogram.record(10 * MILLISECOND);
+		
+		assertEquals(4 * MICROSECOND, histogram.getPercentileNanos(50));
+		assertEquals(4 * MICROSECOND, histogram.getPercentileNanos(99));
+		assertEquals(10 * MILLISECOND, histogram.getPercentileNanos(100));
+	}
+	
+	@Test
+	public void getPercentileNanos_shouldReturnZeroIfNothingWasRecorded() {
+		assertEquals(0, new LatencyHistogram().getPercentileNanos(90));
+	}
+	
+	@Test
+	public void getPercentileNanos_shouldFailForAnInvalidPercentile() {
+		assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().getPercentileNanos(101));
+	}
+	
+	@Test
+	public void reset_shouldForgetRecordedDurations() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(MILLISECOND);
+		histogram.reset();
+		
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getTotalNanos());
+		assertEquals(0, histogram.getPercentileNanos(50));
+	}
+}
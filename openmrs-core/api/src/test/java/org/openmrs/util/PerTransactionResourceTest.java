@@ -0,0 +1,75 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class PerTransactionResourceTest {
+	
+	private final PerTransactionResource<CompletionCounter> resource =
+	        new PerTransactionResource<>(CompletionCounter::new);
+	
+	@AfterEach
+	public void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.unbindResourceIfPossible(resource);
+	}
+	
+	/**
+	 * @see PerTransactionResource#getOrCreate()
+	 */
+	@Test
+	public void getOrCreate_shouldReturnNullWithoutTransaction() {
+		assertNull(resource.getOrCreate());
+		assertNull(resource.get());
+	}
+	
+	/**
+	 * @see PerTransactionResource#getOrCreate()
+	 */
+	@Test
+	public void getOrCreate_shouldCreateTheResourceOncePerTransactionAndUnbindItOnCompletion() {
+		TransactionSynchronizationManager.initSynchronization();
+		assertNull(resource.get());
+		
+		CompletionCounter counter = resource.getOrCreate();
+		
+		assertNotNull(counter);
+		assertSame(counter, resource.getOrCreate());
+		assertSame(counter, resource.get());
+		
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+		}
+		assertEquals(1, counter.completions);
+		assertNull(resource.get());
+	}
+	
+	private static class CompletionCounter extends TransactionSynchronizationAdapter {
+		
+		private int completions;
+		
+		@Override
+		public void afterCompletion(int status) {
+			completions++;
+		}
+	}
+}
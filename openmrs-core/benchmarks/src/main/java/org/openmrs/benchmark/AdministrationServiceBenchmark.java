@@ -0,0 +1,44 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.context.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link AdministrationService#getGlobalProperty(String)} through the service proxy, for
+ * an existing and for a missing global property.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdministrationServiceBenchmark {
+
+	@Benchmark
+	public String getGlobalProperty(BenchmarkState state) {
+		return Context.getAdministrationService().getGlobalProperty(SyntheticData.GLOBAL_PROPERTY);
+	}
+
+	@Benchmark
+	public String getGlobalProperty_missing(BenchmarkState state) {
+		return Context.getAdministrationService().getGlobalProperty("benchmark.missingGlobalProperty");
+	}
+}
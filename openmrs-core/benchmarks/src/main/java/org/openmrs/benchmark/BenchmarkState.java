@@ -0,0 +1,128 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import java.util.List;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.openmrs.util.OpenmrsClassLoader;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.context.TestContextManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * Starts OpenMRS against the in-memory H2 database the api tests use, loads the standard test
+ * dataset plus the synthetic data of {@link SyntheticData} and authenticates the benchmark thread
+ * as admin.<br>
+ * <br>
+ * The Spring context is set up the same way as for {@link BaseContextSensitiveTest} subclasses, it
+ * is started once per JVM and shared by all the benchmark threads, each thread gets its own
+ * OpenMRS session. Benchmarks changing data should wrap each invocation in
+ * {@link #beginTransaction()} and {@link #rollbackTransaction(TransactionStatus)} so that every invocation sees the
+ * same database.
+ */
+@State(Scope.Thread)
+public class BenchmarkState extends BaseContextSensitiveTest {
+
+	private static final String HL7_DATASET = "org/openmrs/hl7/include/ORUTest-initialData.xml";
+
+	private static SyntheticData data;
+
+	private static PlatformTransactionManager transactionManager;
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		Thread.currentThread().setContextClassLoader(OpenmrsClassLoader.getInstance());
+		synchronized (BenchmarkState.class) {
+			new TestContextManager(getClass()).prepareTestInstance(this);
+			transactionManager = applicationContext.getBean("transactionManager", PlatformTransactionManager.class);
+
+			// the session of the thread has to be open before the first transaction so that it is kept
+			// open by the transactions, like it is by the filter of the web application
+			Context.openSession();
+			TransactionStatus transaction = beginTransaction();
+			baseSetupWithStandardDataAndAuthentication();
+			if (data == null) {
+				executeDataSet(HL7_DATASET);
+				getConnection().commit();
+			}
+			commitTransaction(transaction);
+
+			if (data == null) {
+				data = SyntheticData.generate(this);
+				updateSearchIndex();
+			}
+			Context.clearSession();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (Context.isSessionOpen()) {
+			Context.closeSession();
+		}
+	}
+
+	/**
+	 * @return the synthetic data loaded in the database
+	 */
+	public SyntheticData getData() {
+		return data;
+	}
+
+	/**
+	 * Cycles through the given values so that consecutive invocations do not always work on the
+	 * same object
+	 *
+	 * @param values the values to pick from
+	 * @return the value following the one returned by the previous call
+	 */
+	public <T> T next(List<T> values) {
+		next = (next + 1) % values.size();
+		return values.get(next);
+	}
+
+	/**
+	 * Starts a transaction, the service calls made by the current thread until it is committed or
+	 * rolled back take part in it
+	 *
+	 * @return the status of the new transaction
+	 */
+	public TransactionStatus beginTransaction() {
+		return transactionManager.getTransaction(new DefaultTransactionDefinition());
+	}
+
+	/**
+	 * @param transaction the transaction started by {@link #beginTransaction()}
+	 */
+	public void commitTransaction(TransactionStatus transaction) {
+		transactionManager.commit(transaction);
+	}
+
+	/**
+	 * Rolls back a transaction and clears the session so that the next invocation does not see the
+	 * rolled back objects
+	 *
+	 * @param transaction the transaction started by {@link #beginTransaction()}
+	 */
+	public void rollbackTransaction(TransactionStatus transaction) {
+		transactionManager.rollback(transaction);
+		Context.clearSession();
+	}
+}
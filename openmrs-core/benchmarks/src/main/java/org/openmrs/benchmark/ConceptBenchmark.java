@@ -0,0 +1,67 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.Concept;
+import org.openmrs.ConceptName;
+import org.openmrs.api.context.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link Concept#getName()} and {@link Concept#getName(Locale)} on loaded concepts, the
+ * name lookup walks the names of the concept and the allowed locales.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConceptBenchmark {
+
+	@State(Scope.Thread)
+	public static class ConceptState {
+
+		private final List<Concept> concepts = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void loadConcepts(BenchmarkState state) {
+			for (Integer conceptId : state.getData().getConceptIds()) {
+				Concept concept = Context.getConceptService().getConcept(conceptId);
+				concept.getNames().size();
+				concepts.add(concept);
+			}
+		}
+	}
+
+	@Benchmark
+	public ConceptName getName(BenchmarkState state, ConceptState conceptState) {
+		return state.next(conceptState.concepts).getName();
+	}
+
+	@Benchmark
+	public ConceptName getName_otherLocale(BenchmarkState state, ConceptState conceptState) {
+		return state.next(conceptState.concepts).getName(Locale.FRENCH);
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.util.PrivilegeConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * Benchmarks {@link Context#hasPrivilege(String)} for a super user, who has every privilege, and for
+ * a user who gets privileges from a role.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContextBenchmark {
+
+	/**
+	 * Switches the benchmark thread to the user who is not a super user
+	 */
+	@State(Scope.Thread)
+	public static class ClinicianState {
+
+		@Setup(Level.Trial)
+		public void becomeClinician(BenchmarkState state) {
+			TransactionStatus transaction = state.beginTransaction();
+			Context.becomeUser(SyntheticData.CLINICIAN_USERNAME);
+			state.commitTransaction(transaction);
+		}
+
+		@TearDown(Level.Trial)
+		public void becomeAdmin(BenchmarkState state) {
+			if (Context.isSessionOpen()) {
+				state.authenticate();
+			}
+		}
+	}
+
+	@Benchmark
+	public boolean hasPrivilege_superUser(BenchmarkState state) {
+		return Context.hasPrivilege(PrivilegeConstants.GET_PATIENTS);
+	}
+
+	@Benchmark
+	public boolean hasPrivilege_granted(BenchmarkState state, ClinicianState clinician) {
+		return Context.hasPrivilege(PrivilegeConstants.GET_PATIENTS);
+	}
+
+	@Benchmark
+	public boolean hasPrivilege_denied(BenchmarkState state, ClinicianState clinician) {
+		return Context.hasPrivilege(PrivilegeConstants.EDIT_PATIENTS);
+	}
+}
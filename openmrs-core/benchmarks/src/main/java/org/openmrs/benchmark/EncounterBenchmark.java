@@ -0,0 +1,95 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.Location;
+import org.openmrs.Obs;
+import org.openmrs.Patient;
+import org.openmrs.api.context.Context;
+import org.openmrs.validator.ValidateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * Benchmarks saving a new encounter with obs, which goes through the
+ * {@link org.openmrs.aop.RequiredDataAdvice} handlers and the validators of the whole object graph,
+ * and {@link ValidateUtil#validate(Object)} on its own. Each save is rolled back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncounterBenchmark {
+
+	@State(Scope.Thread)
+	public static class EncounterState {
+
+		@Param({ "1", "20" })
+		public int obsCount;
+
+		private TransactionStatus transaction;
+
+		private Encounter encounter;
+
+		@Setup(Level.Invocation)
+		public void createEncounter(BenchmarkState state) {
+			transaction = state.beginTransaction();
+			SyntheticData data = state.getData();
+			Patient patient = Context.getPatientService().getPatient(state.next(data.getPatientIds()));
+			Location location = Context.getLocationService().getLocation(data.getLocationId());
+			Concept concept = Context.getConceptService().getConcept(data.getNumericConceptId());
+
+			encounter = new Encounter();
+			encounter.setPatient(patient);
+			encounter.setEncounterType(Context.getEncounterService().getEncounterType(data.getEncounterTypeId()));
+			encounter.setLocation(location);
+			encounter.setEncounterDatetime(new Date());
+			for (int i = 0; i < obsCount; i++) {
+				Obs obs = new Obs(patient, concept, encounter.getEncounterDatetime(), location);
+				obs.setValueNumeric(50.0 + i);
+				encounter.addObs(obs);
+			}
+		}
+
+		@TearDown(Level.Invocation)
+		public void rollback(BenchmarkState state) {
+			state.rollbackTransaction(transaction);
+		}
+	}
+
+	@Benchmark
+	public Encounter saveEncounter(EncounterState encounterState) {
+		return Context.getEncounterService().saveEncounter(encounterState.encounter);
+	}
+
+	@Benchmark
+	public Encounter validate(EncounterState encounterState) {
+		ValidateUtil.validate(encounterState.encounter);
+		return encounterState.encounter;
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import ca.uhn.hl7v2.HL7Exception;
+import ca.uhn.hl7v2.model.Message;
+import org.openmrs.api.context.Context;
+import org.openmrs.hl7.HL7InQueue;
+import org.openmrs.hl7.HL7Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * Benchmarks {@link HL7Service#parseHL7String(String)} and
+ * {@link HL7Service#processHL7InQueue(HL7InQueue)} with the ORU^R01 message of the HL7 test
+ * dataset, each processed message is rolled back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HL7Benchmark {
+
+	private static final int ORU_QUEUE_ID = 1;
+
+	@State(Scope.Thread)
+	public static class MessageState {
+
+		private String hl7Data;
+
+		@Setup(Level.Trial)
+		public void loadMessage(BenchmarkState state) {
+			hl7Data = Context.getHL7Service().getHL7InQueue(ORU_QUEUE_ID).getHL7Data();
+			Context.clearSession();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class QueueState {
+
+		private TransactionStatus transaction;
+
+		private HL7InQueue queueItem;
+
+		@Setup(Level.Invocation)
+		public void queueMessage(BenchmarkState state, MessageState message) {
+			transaction = state.beginTransaction();
+			HL7Service hl7Service = Context.getHL7Service();
+			HL7InQueue template = hl7Service.getHL7InQueue(ORU_QUEUE_ID);
+			queueItem = new HL7InQueue();
+			queueItem.setHL7Source(template.getHL7Source());
+			queueItem.setHL7SourceKey(template.getHL7SourceKey());
+			queueItem.setHL7Data(message.hl7Data);
+			hl7Service.saveHL7InQueue(queueItem);
+		}
+
+		@TearDown(Level.Invocation)
+		public void rollback(BenchmarkState state) {
+			state.rollbackTransaction(transaction);
+		}
+	}
+
+	@Benchmark
+	public Message parseHL7String(MessageState message) throws HL7Exception {
+		return Context.getHL7Service().parseHL7String(message.hl7Data);
+	}
+
+	@Benchmark
+	public HL7InQueue processHL7InQueue(QueueState queue) throws HL7Exception {
+		return Context.getHL7Service().processHL7InQueue(queue.queueItem);
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.Concept;
+import org.openmrs.Obs;
+import org.openmrs.Person;
+import org.openmrs.api.ObsService;
+import org.openmrs.api.context.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link ObsService#getObservations} for the obs of a patient, optionally restricted to
+ * a question, and for the most recent obs of a question across patients.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObsServiceBenchmark {
+
+	@Benchmark
+	public List<Obs> getObservations_byPerson(BenchmarkState state) {
+		List<Obs> obs = getObservations(state, false);
+		Context.clearSession();
+		return obs;
+	}
+
+	@Benchmark
+	public List<Obs> getObservations_byPersonAndConcept(BenchmarkState state) {
+		List<Obs> obs = getObservations(state, true);
+		Context.clearSession();
+		return obs;
+	}
+
+	@Benchmark
+	public List<Obs> getObservations_mostRecentByConcept(BenchmarkState state) {
+		Concept concept = Context.getConceptService().getConcept(state.getData().getNumericConceptId());
+		List<Obs> obs = Context.getObsService().getObservations(null, null, Collections.singletonList(concept), null,
+		    null, null, null, 100, null, null, null, false);
+		Context.clearSession();
+		return obs;
+	}
+
+	private List<Obs> getObservations(BenchmarkState state, boolean byConcept) {
+		Person person = Context.getPersonService().getPerson(state.next(state.getData().getPatientIds()));
+		List<Concept> questions = null;
+		if (byConcept) {
+			questions = Collections.singletonList(Context.getConceptService().getConcept(
+			    state.getData().getNumericConceptId()));
+		}
+		return Context.getObsService().getObservations(Collections.singletonList(person), null, questions, null, null,
+		    null, null, null, null, null, null, false);
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.ConceptSearchResult;
+import org.openmrs.Patient;
+import org.openmrs.api.context.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the Lucene backed patient and concept searches with the names and identifiers of the
+ * synthetic data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+	@Benchmark
+	public List<Patient> getPatients_byName(BenchmarkState state) {
+		return Context.getPatientService().getPatients(state.next(state.getData().getFamilyNames()), 0, 50);
+	}
+
+	@Benchmark
+	public List<Patient> getPatients_byNamePrefix(BenchmarkState state) {
+		return Context.getPatientService().getPatients(state.next(state.getData().getFamilyNames()).substring(0, 3), 0,
+		    50);
+	}
+
+	@Benchmark
+	public List<Patient> getPatients_byIdentifier(BenchmarkState state) {
+		return Context.getPatientService().getPatients("SYN-" + state.next(state.getData().getPatientIds()) % 100, 0, 50);
+	}
+
+	@Benchmark
+	public Integer getCountOfPatients(BenchmarkState state) {
+		return Context.getPatientService().getCountOfPatients(state.next(state.getData().getFamilyNames()));
+	}
+
+	@Benchmark
+	public List<ConceptSearchResult> getConcepts(BenchmarkState state) {
+		return Context.getConceptService().getConcepts(state.next(state.getData().getConceptWords()),
+		    Context.getLocale(), false);
+	}
+
+	@Benchmark
+	public List<ConceptSearchResult> getConcepts_twoWords(BenchmarkState state) {
+		return Context.getConceptService().getConcepts(
+		    SyntheticData.CONCEPT_NAME_PREFIX + " " + state.next(state.getData().getConceptWords()), Context.getLocale(),
+		    false);
+	}
+}
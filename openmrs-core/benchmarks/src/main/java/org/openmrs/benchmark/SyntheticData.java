@@ -0,0 +1,248 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.Concept;
+import org.openmrs.ConceptName;
+import org.openmrs.Encounter;
+import org.openmrs.GlobalProperty;
+import org.openmrs.Location;
+import org.openmrs.Obs;
+import org.openmrs.Patient;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.PatientIdentifierType;
+import org.openmrs.Person;
+import org.openmrs.PersonName;
+import org.openmrs.Privilege;
+import org.openmrs.Role;
+import org.openmrs.User;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
+import org.openmrs.util.PrivilegeConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * Generates reproducible synthetic data on top of the standard test dataset: patients with an
+ * encounter of numeric obs each, concepts with searchable names, a global property and a user who
+ * is not a super user. The amount of data is set with the <code>benchmark.patients</code>,
+ * <code>benchmark.obsPerPatient</code> and <code>benchmark.concepts</code> system properties.
+ */
+public class SyntheticData {
+
+	private static final Logger log = LoggerFactory.getLogger(SyntheticData.class);
+
+	public static final String GLOBAL_PROPERTY = "benchmark.globalProperty";
+
+	public static final String CLINICIAN_USERNAME = "benchmark-clinician";
+
+	public static final String CONCEPT_NAME_PREFIX = "SYNTHETIC";
+
+	private static final String[] GIVEN_NAMES = { "Alice", "Amina", "Brian", "Chidi", "Daniel", "Esther", "Fatuma",
+	        "Grace", "Hassan", "Irene", "James", "Joseph", "Kwame", "Lydia", "Mary", "Moses", "Naledi", "Peter", "Ruth",
+	        "Samuel", "Tendai", "Wanjiru", "Yusuf", "Zawadi" };
+
+	private static final String[] FAMILY_NAMES = { "Achieng", "Banda", "Chege", "Dlamini", "Edwards", "Gomez", "Hakizimana",
+	        "Kamau", "Mensah", "Mwangi", "Ndlovu", "Nguyen", "Odhiambo", "Okafor", "Otieno", "Phiri", "Santos", "Smith",
+	        "Tembo", "Uwimana", "Wanjala" };
+
+	private static final String[] CONCEPT_WORDS = { "ACUTE", "BLOOD", "CHRONIC", "COUNT", "FEVER", "GLUCOSE", "HEART",
+	        "INFECTION", "LEVEL", "LUNG", "PRESSURE", "RATE", "RENAL", "SCREENING", "SERUM", "TEST" };
+
+	private static final String[] CLINICIAN_PRIVILEGES = { PrivilegeConstants.GET_CONCEPTS,
+	        PrivilegeConstants.GET_ENCOUNTERS, PrivilegeConstants.GET_LOCATIONS, PrivilegeConstants.GET_OBS,
+	        PrivilegeConstants.GET_PATIENTS, PrivilegeConstants.GET_PERSONS, PrivilegeConstants.GET_USERS };
+
+	private static final int BATCH_SIZE = 100;
+
+	private static final int NUMERIC_CONCEPT_ID = 5089;
+
+	private final List<Integer> patientIds = new ArrayList<>();
+
+	private final List<Integer> conceptIds = new ArrayList<>();
+
+	private Integer encounterTypeId;
+
+	private Integer locationId;
+
+	private Integer numericConceptId;
+
+	private SyntheticData() {
+	}
+
+	/**
+	 * Saves the synthetic data through the services, committing every few patients
+	 *
+	 * @param state the state managing the transactions
+	 * @return the generated data
+	 */
+	static SyntheticData generate(BenchmarkState state) {
+		int patientCount = Integer.getInteger("benchmark.patients", 1000);
+		int obsPerPatient = Integer.getInteger("benchmark.obsPerPatient", 10);
+		int conceptCount = Integer.getInteger("benchmark.concepts", 500);
+		log.info("Generating {} patients with {} obs each and {} concepts", patientCount, obsPerPatient, conceptCount);
+
+		Random random = new Random(42);
+		SyntheticData data = new SyntheticData();
+
+		TransactionStatus transaction = state.beginTransaction();
+		data.locationId = Context.getLocationService().getLocation(1).getLocationId();
+		data.numericConceptId = Context.getConceptService().getConcept(NUMERIC_CONCEPT_ID).getConceptId();
+		data.encounterTypeId = Context.getEncounterService().getEncounterType(1).getEncounterTypeId();
+		Context.getAdministrationService().saveGlobalProperty(new GlobalProperty(GLOBAL_PROPERTY, "benchmark"));
+		createClinician();
+		state.commitTransaction(transaction);
+
+		for (int start = 0; start < patientCount; start += BATCH_SIZE) {
+			transaction = state.beginTransaction();
+			// the session is cleared after each batch, the referenced objects are loaded again
+			Location location = Context.getLocationService().getLocation(data.locationId);
+			PatientIdentifierType identifierType = Context.getPatientService().getPatientIdentifierType(2);
+			Concept numericConcept = Context.getConceptService().getConcept(data.numericConceptId);
+			for (int i = start; i < Math.min(start + BATCH_SIZE, patientCount); i++) {
+				Patient patient = createPatient(i, random, identifierType, location);
+				data.patientIds.add(patient.getPatientId());
+				createEncounter(patient, obsPerPatient, random, location, numericConcept, data.encounterTypeId);
+			}
+			state.commitTransaction(transaction);
+			Context.clearSession();
+		}
+
+		ConceptService conceptService = Context.getConceptService();
+		for (int start = 0; start < conceptCount; start += BATCH_SIZE) {
+			transaction = state.beginTransaction();
+			for (int i = start; i < Math.min(start + BATCH_SIZE, conceptCount); i++) {
+				Concept concept = new Concept();
+				concept.setDatatype(conceptService.getConceptDatatype(4));
+				concept.setConceptClass(conceptService.getConceptClass(1));
+				concept.setFullySpecifiedName(new ConceptName(CONCEPT_NAME_PREFIX + " " + randomWord(random) + " "
+				        + randomWord(random) + " " + i, Context.getLocale()));
+				concept.setShortName(new ConceptName("SYN" + i, Context.getLocale()));
+				data.conceptIds.add(conceptService.saveConcept(concept).getConceptId());
+			}
+			state.commitTransaction(transaction);
+			Context.clearSession();
+		}
+
+		return data;
+	}
+
+	private static void createClinician() {
+		Role role = new Role("Benchmark Clinician", "Role of the user who is not a super user");
+		role.setPrivileges(new HashSet<>());
+		for (String name : CLINICIAN_PRIVILEGES) {
+			Privilege privilege = Context.getUserService().getPrivilege(name);
+			if (privilege == null) {
+				privilege = Context.getUserService().savePrivilege(new Privilege(name, name));
+			}
+			role.addPrivilege(privilege);
+		}
+		Context.getUserService().saveRole(role);
+
+		Person person = new Person();
+		person.setGender("F");
+		person.addName(new PersonName("Benchmark", null, "Clinician"));
+		User user = new User(person);
+		user.setUsername(CLINICIAN_USERNAME);
+		user.addRole(role);
+		Context.getUserService().createUser(user, "Benchmark123");
+	}
+
+	private static Patient createPatient(int index, Random random, PatientIdentifierType identifierType,
+	        Location location) {
+		Patient patient = new Patient();
+		patient.setGender(random.nextBoolean() ? "M" : "F");
+		patient.setBirthdate(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(365L * (1 + random.nextInt(80)))));
+		patient.addName(new PersonName(GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)], null,
+		        FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)]));
+		PatientIdentifier identifier = new PatientIdentifier("SYN-" + index, identifierType, location);
+		identifier.setPreferred(true);
+		patient.addIdentifier(identifier);
+		return Context.getPatientService().savePatient(patient);
+	}
+
+	private static void createEncounter(Patient patient, int obsCount, Random random, Location location,
+	        Concept concept, Integer encounterTypeId) {
+		Encounter encounter = new Encounter();
+		encounter.setPatient(patient);
+		encounter.setEncounterType(Context.getEncounterService().getEncounterType(encounterTypeId));
+		encounter.setLocation(location);
+		encounter.setEncounterDatetime(new Date());
+		for (int i = 0; i < obsCount; i++) {
+			Obs obs = new Obs(patient, concept, encounter.getEncounterDatetime(), location);
+			obs.setValueNumeric(20.0 + random.nextInt(800) / 10.0);
+			encounter.addObs(obs);
+		}
+		Context.getEncounterService().saveEncounter(encounter);
+	}
+
+	private static String randomWord(Random random) {
+		return CONCEPT_WORDS[random.nextInt(CONCEPT_WORDS.length)];
+	}
+
+	/**
+	 * @return the ids of the synthetic patients
+	 */
+	public List<Integer> getPatientIds() {
+		return Collections.unmodifiableList(patientIds);
+	}
+
+	/**
+	 * @return the ids of the synthetic concepts
+	 */
+	public List<Integer> getConceptIds() {
+		return Collections.unmodifiableList(conceptIds);
+	}
+
+	/**
+	 * @return the family names given to the synthetic patients
+	 */
+	public List<String> getFamilyNames() {
+		return Collections.unmodifiableList(Arrays.asList(FAMILY_NAMES));
+	}
+
+	/**
+	 * @return the words used in the names of the synthetic concepts
+	 */
+	public List<String> getConceptWords() {
+		return Collections.unmodifiableList(Arrays.asList(CONCEPT_WORDS));
+	}
+
+	/**
+	 * @return the id of the encounter type of the synthetic encounters
+	 */
+	public Integer getEncounterTypeId() {
+		return encounterTypeId;
+	}
+
+	/**
+	 * @return the id of the location of the synthetic data
+	 */
+	public Integer getLocationId() {
+		return locationId;
+	}
+
+	/**
+	 * @return the id of the numeric concept of the synthetic obs
+	 */
+	public Integer getNumericConceptId() {
+		return numericConceptId;
+	}
+}